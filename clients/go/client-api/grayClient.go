@@ -12,6 +12,9 @@ type Client interface {
 	// GetSecret retrieves a secret by its reference.
 	GetSecret(ctx context.Context, secretRef string) (*models.SecretValue, error)
 
+	// GetSecrets retrieves several secrets at once, keyed by reference.
+	GetSecrets(ctx context.Context, secretRefs []string) (map[string]*models.SecretValue, error)
+
 	// RegisterRefreshHook registers hook to be invoked whenever the server reports
 	// a newer version of secretRef.
 	RegisterRefreshHook(ctx context.Context, secretRef string, hook hooks.SecretRefreshHook) (hooks.RefreshHandlerRef, error)
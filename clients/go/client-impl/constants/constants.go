@@ -12,4 +12,15 @@ const (
 
 	// DefaultPollingIntervalSeconds is the default batch refresh poll interval.
 	DefaultPollingIntervalSeconds = 60
+
+	// DefaultPollingConcurrency is the default number of batch requests a
+	// poll cycle sends at once.
+	DefaultPollingConcurrency = 8
+
+	// DefaultCacheTTLSeconds is how long a cached secret is served after the
+	// server last confirmed it.
+	DefaultCacheTTLSeconds = 300
+
+	// DefaultCacheMaxEntries is the default capacity of the secret cache.
+	DefaultCacheMaxEntries = 1000
 )
@@ -2,6 +2,7 @@ package client_impl
 
 import (
 	"context"
+	"encoding/json"
 	"fmt"
 	"log/slog"
 	"net/http"
@@ -20,7 +21,9 @@ import (
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/constants"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal"
 	internalHooks "github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/hooks"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/batch"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/response"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/singleflight"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/metrics"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/models"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/models/errors"
@@ -40,6 +43,11 @@ type GrayskullClientImpl struct {
 	poller           *internal.Poller
 	lastSeenVersions sync.Map
 	closed           atomic.Bool
+
+	// cache is nil unless CacheEnabled is set.
+	cache *internal.SecretCache
+	// fetches coalesces concurrent GetSecret misses for the same secretRef.
+	fetches singleflight.Group[Client_API.SecretValue]
 }
 
 var validate = validator.New()
@@ -106,18 +114,24 @@ func NewGrayskullClient(authProvider auth.GrayskullAuthHeaderProvider, config *m
 		metricsRecorder:    metricsRecorder,
 		registry:           internalHooks.NewRegistry(),
 	}
+	if config.CacheEnabled {
+		client.cache = internal.NewSecretCache(
+			time.Duration(config.CacheTTLSeconds)*time.Second, config.CacheMaxEntries)
+	}
 
 	interval := time.Duration(config.PollingIntervalSeconds) * time.Second
 	if interval <= 0 {
 		interval = time.Duration(constants.DefaultPollingIntervalSeconds) * time.Second
 	}
 	client.poller = internal.NewPoller(internal.PollerConfig{
-		BaseURL:         config.Host,
-		HTTPClient:      httpClient,
-		Registry:        client.registry,
-		Interval:        interval,
-		MetricsRecorder: metricsRecorder,
-		Logger:          logger.With("subcomponent", "poller"),
+		BaseURL:             config.Host,
+		HTTPClient:          httpClient,
+		Registry:            client.registry,
+		Interval:            interval,
+		MetricsRecorder:     metricsRecorder,
+		Logger:              logger.With("subcomponent", "poller"),
+		Cache:               client.cache,
+		MaxConcurrentChunks: config.PollingConcurrency,
 	})
 	client.poller.Start()
 
@@ -132,6 +146,12 @@ func (c *GrayskullClientImpl) splitSecretRef(secretRef string) []string {
 }
 
 // GetSecret fetches a secret from the Grayskull server.
+//
+// With the cache enabled, a cached value is returned without a request and
+// recorded as get_secret.cache_hit. Concurrent calls for the same secretRef
+// that miss share one request; the callers that did not send it are recorded
+// as get_secret.coalesced. A caller whose ctx ends stops waiting, but the
+// shared request completes for the others.
 func (g *GrayskullClientImpl) GetSecret(ctx context.Context, secretRef string) (*Client_API.SecretValue, error) {
 	if ctx == nil {
 		ctx = context.Background()
@@ -142,7 +162,6 @@ func (g *GrayskullClientImpl) GetSecret(ctx context.Context, secretRef string) (
 	}
 
 	startTime := time.Now()
-	var statusCode int
 
 	if secretRef == "" {
 		g.metricsRecorder.RecordRequest("get_secret", http.StatusBadRequest, time.Since(startTime))
@@ -161,6 +180,33 @@ func (g *GrayskullClientImpl) GetSecret(ctx context.Context, secretRef string) (
 		return nil, errors.NewGrayskullError(http.StatusBadRequest, fmt.Sprintf("projectId and secretName cannot be empty in secretRef: %s", secretRef))
 	}
 
+	if g.cache != nil {
+		if value, ok := g.cache.Get(secretRef); ok {
+			g.metricsRecorder.RecordRequest("get_secret.cache_hit", http.StatusOK, time.Since(startTime))
+			return &value, nil
+		}
+	}
+
+	value, shared, err := g.fetches.Do(ctx, secretRef, func(ctx context.Context) (Client_API.SecretValue, error) {
+		return g.fetchSecret(ctx, secretRef, projectID, secretName)
+	})
+	if shared {
+		g.metricsRecorder.RecordRequest("get_secret.coalesced", http.StatusOK, time.Since(startTime))
+	}
+	if err != nil {
+		if _, ok := err.(*errors.GrayskullError); !ok {
+			err = errors.NewGrayskullErrorWithCause(0, "failed to fetch secret", err)
+		}
+		return nil, err
+	}
+	return &value, nil
+}
+
+// fetchSecret sends the GET for one secret, records it as get_secret and
+// remembers the value.
+func (g *GrayskullClientImpl) fetchSecret(ctx context.Context, secretRef, projectID, secretName string) (Client_API.SecretValue, error) {
+	startTime := time.Now()
+
 	encodedProjectID := url.PathEscape(projectID)
 	encodedSecretName := url.PathEscape(secretName)
 	getSecretUrl := fmt.Sprintf("%s/v1/projects/%s/secrets/%s/data", g.baseURL, encodedProjectID, encodedSecretName)
@@ -168,24 +214,151 @@ func (g *GrayskullClientImpl) GetSecret(ctx context.Context, secretRef string) (
 	var secretResp response.Response[Client_API.SecretValue]
 	statusCode, err := g.httpClient.DoGetWithRetry(ctx, getSecretUrl, &secretResp)
 	if err != nil {
-		duration := time.Since(startTime)
-		g.metricsRecorder.RecordRequest("get_secret", statusCode, duration)
-		return nil, errors.NewGrayskullErrorWithCause(statusCode, "failed to fetch secret", err)
+		g.metricsRecorder.RecordRequest("get_secret", statusCode, time.Since(startTime))
+		return Client_API.SecretValue{}, errors.NewGrayskullErrorWithCause(statusCode, "failed to fetch secret", err)
 	}
 
 	data := secretResp.Data
 	if data == (Client_API.SecretValue{}) {
 		g.metricsRecorder.RecordRequest("get_secret", statusCode, time.Since(startTime))
-		return nil, errors.NewGrayskullError(http.StatusInternalServerError, "no data in response")
+		return Client_API.SecretValue{}, errors.NewGrayskullError(http.StatusInternalServerError, "no data in response")
 	}
 
 	g.metricsRecorder.RecordRequest("get_secret", statusCode, time.Since(startTime))
+	g.remember(secretRef, projectID, secretName, data)
+	return data, nil
+}
+
+// GetSecrets fetches several secrets with as few round trips as possible.
+// Cached values are served from memory, and the rest are requested through
+// POST /v1/secrets/batch in chunks of at most internal.MaxBatchSize secrets
+// that are all sent concurrently, so the call takes roughly one round trip.
+// The first chunk to fail cancels the others and its error is returned.
+//
+// The result is keyed by secretRef; duplicate references are fetched once.
+func (g *GrayskullClientImpl) GetSecrets(ctx context.Context, secretRefs []string) (map[string]*Client_API.SecretValue, error) {
+	if ctx == nil {
+		ctx = context.Background()
+	}
+	if ctx.Value(constants.GrayskullRequestID) == nil {
+		ctx = context.WithValue(ctx, constants.GrayskullRequestID, uuid.New().String())
+	}
+
+	result := make(map[string]*Client_API.SecretValue, len(secretRefs))
+	requested := make(map[string]bool, len(secretRefs))
+	var toFetch []batch.Entry
+	for _, secretRef := range secretRefs {
+		if requested[secretRef] {
+			continue
+		}
+		requested[secretRef] = true
+		parts := g.splitSecretRef(secretRef)
+		if len(parts) != 2 || parts[0] == "" || parts[1] == "" {
+			return nil, errors.NewGrayskullError(http.StatusBadRequest,
+				fmt.Sprintf("invalid secretRef format. Expected 'projectId:secretName', got: %s", secretRef))
+		}
+		if g.cache != nil {
+			if value, ok := g.cache.Get(secretRef); ok {
+				g.metricsRecorder.RecordRequest("get_secret.cache_hit", http.StatusOK, 0)
+				result[secretRef] = &value
+				continue
+			}
+		}
+		toFetch = append(toFetch, batch.Entry{ProjectID: parts[0], SecretName: parts[1]})
+	}
+	if len(toFetch) == 0 {
+		return result, nil
+	}
+
+	fetched, err := g.fetchBatches(ctx, toFetch)
+	if err != nil {
+		return nil, err
+	}
+	for _, entry := range toFetch {
+		secretRef := entry.ProjectID + ":" + entry.SecretName
+		value, ok := fetched[secretRef]
+		if !ok {
+			return nil, errors.NewGrayskullError(http.StatusInternalServerError, "no data in response for "+secretRef)
+		}
+		result[secretRef] = value
+	}
+	return result, nil
+}
+
+// fetchBatches sends one batch request per chunk of entries, concurrently,
+// and remembers every returned value.
+func (g *GrayskullClientImpl) fetchBatches(ctx context.Context, entries []batch.Entry) (map[string]*Client_API.SecretValue, error) {
+	ctx, cancel := context.WithCancel(ctx)
+	defer cancel()
+
+	chunks := (len(entries) + internal.MaxBatchSize - 1) / internal.MaxBatchSize
+	results := make([][]batch.UpdatedSecret, chunks)
+	var wg sync.WaitGroup
+	var failOnce sync.Once
+	var firstErr error
+	for i := 0; i < chunks; i++ {
+		from := i * internal.MaxBatchSize
+		to := min(from+internal.MaxBatchSize, len(entries))
+		wg.Add(1)
+		go func(i int, chunk []batch.Entry) {
+			defer wg.Done()
+			items, err := g.fetchBatch(ctx, chunk)
+			if err != nil {
+				failOnce.Do(func() {
+					firstErr = err
+					cancel()
+				})
+				return
+			}
+			results[i] = items
+		}(i, entries[from:to])
+	}
+	wg.Wait()
+	if firstErr != nil {
+		return nil, firstErr
+	}
+
+	values := make(map[string]*Client_API.SecretValue, len(entries))
+	for _, items := range results {
+		for _, item := range items {
+			value := Client_API.SecretValue{
+				DataVersion: item.DataVersion,
+				PublicPart:  item.PublicPart,
+				PrivatePart: item.PrivatePart,
+			}
+			secretRef := item.ProjectID + ":" + item.SecretName
+			g.remember(secretRef, item.ProjectID, item.SecretName, value)
+			values[secretRef] = &value
+		}
+	}
+	return values, nil
+}
+
+// fetchBatch sends one batch request and records it as get_secrets.
+func (g *GrayskullClientImpl) fetchBatch(ctx context.Context, chunk []batch.Entry) ([]batch.UpdatedSecret, error) {
+	startTime := time.Now()
+	body, err := json.Marshal(batch.BatchGetSecretsRequest{Secrets: chunk})
+	if err != nil {
+		return nil, errors.NewGrayskullErrorWithCause(http.StatusInternalServerError, "failed to marshal batch request", err)
+	}
 
-	// Track latest observed version so a later RegisterRefreshHook can seed
-	// the poller and skip versions the app has already seen.
-	g.lastSeenVersions.Store(secretRef, data.DataVersion)
+	var parsed response.Response[batch.BatchGetSecretsResponse]
+	statusCode, err := g.httpClient.DoPostWithRetry(ctx, g.baseURL+"/v1/secrets/batch", body, &parsed)
+	g.metricsRecorder.RecordRequest("get_secrets", statusCode, time.Since(startTime))
+	if err != nil {
+		return nil, errors.NewGrayskullErrorWithCause(statusCode, "failed to fetch secrets", err)
+	}
+	return parsed.Data.UpdatedSecrets, nil
+}
 
-	return &data, nil
+// remember tracks the latest observed version, so a later RegisterRefreshHook
+// can seed the poller and skip versions the app has already seen, and caches
+// the value when the cache is enabled.
+func (g *GrayskullClientImpl) remember(secretRef, projectID, secretName string, value Client_API.SecretValue) {
+	g.lastSeenVersions.Store(secretRef, value.DataVersion)
+	if g.cache != nil {
+		g.cache.Put(projectID, secretName, value)
+	}
 }
 
 // RegisterRefreshHook registers a refresh hook for a secret.
@@ -4,6 +4,7 @@ import (
 	"context"
 	"encoding/json"
 	"errors"
+	"fmt"
 	"net/http"
 	"sync"
 	"testing"
@@ -15,8 +16,10 @@ import (
 
 	Client_API "github.com/flipkart-incubator/grayskull/clients/go/client-api/models"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/auth"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/constants"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal"
 	internalHooks "github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/hooks"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/batch"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/response"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/metrics"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/models"
@@ -1482,3 +1485,217 @@ func TestClose_PropagatesHttpClientErrorWhenPollerSucceeds(t *testing.T) {
 		t.Errorf("client.Close() = %v, want %v", err, httpErr)
 	}
 }
+
+// newCachingClientForTesting returns a test client with the cache enabled.
+func newCachingClientForTesting(httpClient internal.GrayskullHTTPClientInterface) *GrayskullClientImpl {
+	client := NewGrayskullClientForTesting(
+		"http://localhost:8080",
+		&MockAuthProvider{},
+		&models.GrayskullClientConfiguration{Host: "http://localhost:8080"},
+		httpClient,
+		metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+	)
+	client.cache = internal.NewSecretCache(time.Minute, 100)
+	return client
+}
+
+// stubSecretGet makes every GET return value, after waiting for release when
+// it is non-nil.
+func stubSecretGet(m *MockGrayskullHTTPClient, value Client_API.SecretValue, release <-chan struct{}) *mock.Call {
+	jsonData, _ := json.Marshal(response.NewResponse(value, "Success"))
+	return m.On("DoGetWithRetry", mock.Anything, mock.Anything, mock.Anything).
+		Run(func(args mock.Arguments) {
+			if release != nil {
+				<-release
+			}
+			result := args.Get(2).(*response.Response[Client_API.SecretValue])
+			json.Unmarshal(jsonData, result)
+		}).
+		Return(http.StatusOK, nil)
+}
+
+// stubBatchGet makes every batch POST return version 1 of each requested
+// secret, with the secret name as the private part.
+func stubBatchGet(m *MockGrayskullHTTPClient) *mock.Call {
+	return m.On("DoPostWithRetry", mock.Anything, "http://localhost:8080/v1/secrets/batch", mock.Anything, mock.Anything).
+		Run(func(args mock.Arguments) {
+			var req batch.BatchGetSecretsRequest
+			json.Unmarshal(args.Get(2).([]byte), &req)
+			result := args.Get(3).(*response.Response[batch.BatchGetSecretsResponse])
+			for _, e := range req.Secrets {
+				result.Data.UpdatedSecrets = append(result.Data.UpdatedSecrets, batch.UpdatedSecret{
+					ProjectID:   e.ProjectID,
+					SecretName:  e.SecretName,
+					DataVersion: 1,
+					PrivatePart: e.SecretName,
+				})
+			}
+		}).
+		Return(http.StatusOK, nil)
+}
+
+// With the cache enabled, a second GetSecret is served without a request.
+func TestGetSecret_WithCache_ServesRepeatedCallsFromCache(t *testing.T) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	stubSecretGet(mockHTTPClient, Client_API.SecretValue{DataVersion: 4, PrivatePart: "pwd"}, nil).Once()
+	client := newCachingClientForTesting(mockHTTPClient)
+
+	first, err := client.GetSecret(context.Background(), "acme:db")
+	assert.NoError(t, err)
+	second, err := client.GetSecret(context.Background(), "acme:db")
+	assert.NoError(t, err)
+
+	assert.Equal(t, first, second)
+	assert.NotSame(t, first, second, "each caller gets its own copy")
+	mockHTTPClient.AssertNumberOfCalls(t, "DoGetWithRetry", 1)
+}
+
+// Concurrent misses for the same secret share one request.
+func TestGetSecret_ConcurrentMisses_ShareOneRequest(t *testing.T) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	release := make(chan struct{})
+	stubSecretGet(mockHTTPClient, Client_API.SecretValue{DataVersion: 2, PrivatePart: "pwd"}, release)
+	client := NewGrayskullClientForTesting(
+		"http://localhost:8080",
+		&MockAuthProvider{},
+		&models.GrayskullClientConfiguration{Host: "http://localhost:8080"},
+		mockHTTPClient,
+		metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+	)
+
+	const callers = 10
+	var wg sync.WaitGroup
+	wg.Add(callers)
+	for i := 0; i < callers; i++ {
+		go func() {
+			defer wg.Done()
+			value, err := client.GetSecret(context.Background(), "acme:db")
+			assert.NoError(t, err)
+			assert.Equal(t, "pwd", value.PrivatePart)
+		}()
+	}
+	time.Sleep(50 * time.Millisecond)
+	close(release)
+	wg.Wait()
+
+	mockHTTPClient.AssertNumberOfCalls(t, "DoGetWithRetry", 1)
+}
+
+// A caller whose context ends stops waiting for a shared request.
+func TestGetSecret_CallerCancellation_ReturnsContextError(t *testing.T) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	release := make(chan struct{})
+	defer close(release)
+	stubSecretGet(mockHTTPClient, Client_API.SecretValue{DataVersion: 2}, release)
+	client := newCachingClientForTesting(mockHTTPClient)
+
+	ctx, cancel := context.WithTimeout(context.Background(), 20*time.Millisecond)
+	defer cancel()
+	_, err := client.GetSecret(ctx, "acme:db")
+
+	var gsErr *grayskullErrors.GrayskullError
+	assert.ErrorAs(t, err, &gsErr)
+	assert.ErrorIs(t, err, context.DeadlineExceeded)
+}
+
+// GetSecrets serves cached secrets from memory, fetches the rest in chunks of
+// MaxBatchSize and fetches duplicates once.
+func TestGetSecrets_FetchesMissesInChunksAndServesCache(t *testing.T) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	stubBatchGet(mockHTTPClient)
+	client := newCachingClientForTesting(mockHTTPClient)
+	client.cache.Put("acme", "cached", Client_API.SecretValue{DataVersion: 9, PrivatePart: "from-cache"})
+
+	refs := []string{"acme:cached", "acme:s0"}
+	for i := 0; i < internal.MaxBatchSize+5; i++ {
+		refs = append(refs, fmt.Sprintf("acme:s%d", i))
+	}
+
+	values, err := client.GetSecrets(context.Background(), refs)
+
+	assert.NoError(t, err)
+	assert.Len(t, values, internal.MaxBatchSize+6)
+	assert.Equal(t, "from-cache", values["acme:cached"].PrivatePart)
+	assert.Equal(t, "s7", values["acme:s7"].PrivatePart)
+	mockHTTPClient.AssertNumberOfCalls(t, "DoPostWithRetry", 2)
+
+	// Fetched values are cached too.
+	_, err = client.GetSecrets(context.Background(), refs)
+	assert.NoError(t, err)
+	mockHTTPClient.AssertNumberOfCalls(t, "DoPostWithRetry", 2)
+}
+
+// GetSecrets fails when a chunk fails or the server omits a secret.
+func TestGetSecrets_Errors(t *testing.T) {
+	t.Run("invalid secretRef", func(t *testing.T) {
+		client := newCachingClientForTesting(&MockGrayskullHTTPClient{})
+		_, err := client.GetSecrets(context.Background(), []string{"acme:db", "invalid"})
+		assert.ErrorContains(t, err, "invalid secretRef format")
+	})
+
+	t.Run("chunk fails", func(t *testing.T) {
+		mockHTTPClient := &MockGrayskullHTTPClient{}
+		mockHTTPClient.On("DoPostWithRetry", mock.Anything, mock.Anything, mock.Anything, mock.Anything).
+			Return(http.StatusServiceUnavailable, errors.New("unavailable"))
+		client := newCachingClientForTesting(mockHTTPClient)
+
+		_, err := client.GetSecrets(context.Background(), []string{"acme:db"})
+
+		var gsErr *grayskullErrors.GrayskullError
+		assert.ErrorAs(t, err, &gsErr)
+		assert.Equal(t, http.StatusServiceUnavailable, gsErr.StatusCode())
+	})
+
+	t.Run("secret missing from response", func(t *testing.T) {
+		mockHTTPClient := &MockGrayskullHTTPClient{}
+		mockHTTPClient.On("DoPostWithRetry", mock.Anything, mock.Anything, mock.Anything, mock.Anything).
+			Return(http.StatusOK, nil)
+		client := newCachingClientForTesting(mockHTTPClient)
+
+		_, err := client.GetSecrets(context.Background(), []string{"acme:db"})
+		assert.ErrorContains(t, err, "no data in response for acme:db")
+	})
+}
+
+func BenchmarkGetSecret_CacheHit(b *testing.B) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	stubSecretGet(mockHTTPClient, Client_API.SecretValue{DataVersion: 1, PrivatePart: "pwd"}, nil)
+	client := newCachingClientForTesting(mockHTTPClient)
+	ctx := context.WithValue(context.Background(), constants.GrayskullRequestID, "bench")
+	if _, err := client.GetSecret(ctx, "acme:db"); err != nil {
+		b.Fatal(err)
+	}
+
+	b.ReportAllocs()
+	b.ResetTimer()
+	b.RunParallel(func(pb *testing.PB) {
+		for pb.Next() {
+			if _, err := client.GetSecret(ctx, "acme:db"); err != nil {
+				b.Fatal(err)
+			}
+		}
+	})
+}
+
+func BenchmarkGetSecret_Uncached(b *testing.B) {
+	mockHTTPClient := &MockGrayskullHTTPClient{}
+	stubSecretGet(mockHTTPClient, Client_API.SecretValue{DataVersion: 1, PrivatePart: "pwd"}, nil)
+	client := NewGrayskullClientForTesting(
+		"http://localhost:8080",
+		&MockAuthProvider{},
+		&models.GrayskullClientConfiguration{Host: "http://localhost:8080"},
+		mockHTTPClient,
+		metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+	)
+	ctx := context.WithValue(context.Background(), constants.GrayskullRequestID, "bench")
+
+	b.ReportAllocs()
+	b.ResetTimer()
+	b.RunParallel(func(pb *testing.PB) {
+		for pb.Next() {
+			if _, err := client.GetSecret(ctx, "acme:db"); err != nil {
+				b.Fatal(err)
+			}
+		}
+	})
+}
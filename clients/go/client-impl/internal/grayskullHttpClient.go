@@ -10,6 +10,7 @@ import (
 	"log/slog"
 	"net"
 	"net/http"
+	"strconv"
 	"time"
 
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/auth"
@@ -114,13 +115,13 @@ func (c *GrayskullHTTPClient) doWithRetry(ctx context.Context, method, url strin
 	if err != nil {
 		var retryableErr *grayskullErrors.RetryableError
 		if errors.As(err, &retryableErr) && attemptCount > 1 {
-			c.metricsRecorder.RecordRetry(url, attemptCount, false)
+			c.metricsRecorder.RecordRetry(operationName(method), attemptCount, false)
 		}
 		return httpResp.StatusCode, fmt.Errorf("failed after %d attempts: %w", attemptCount, err)
 	}
 
 	if attemptCount > 1 {
-		c.metricsRecorder.RecordRetry(url, attemptCount, true)
+		c.metricsRecorder.RecordRetry(operationName(method), attemptCount, true)
 	}
 
 	shouldUnmarshal := result != nil
@@ -207,23 +208,53 @@ func (c *GrayskullHTTPClient) doRequest(ctx context.Context, method, url string,
 	if resp.StatusCode >= http.StatusBadRequest {
 		errMsg := fmt.Sprintf("request failed with status %d: %s", resp.StatusCode, string(respBody))
 		if c.metricsRecorder != nil {
-			c.metricsRecorder.RecordRequest(url, resp.StatusCode, time.Since(startTime))
+			c.metricsRecorder.RecordRequest(operationName(method), resp.StatusCode, time.Since(startTime))
 		}
 		if isRetryableStatusCode(resp.StatusCode) {
+			if retryAfter := parseRetryAfter(resp.Header.Get("Retry-After"), time.Now()); retryAfter > 0 {
+				return "", resp.StatusCode, grayskullErrors.NewRetryableErrorWithRetryAfter(resp.StatusCode, errMsg, retryAfter)
+			}
 			return "", resp.StatusCode, grayskullErrors.NewRetryableErrorWithStatus(resp.StatusCode, errMsg)
 		}
 		return "", resp.StatusCode, grayskullErrors.NewGrayskullError(resp.StatusCode, errMsg)
 	}
 
-	c.metricsRecorder.RecordRequest(url, resp.StatusCode, time.Since(startTime))
+	c.metricsRecorder.RecordRequest(operationName(method), resp.StatusCode, time.Since(startTime))
 	return string(respBody), resp.StatusCode, nil
 }
 
+// operationName is the metric name of an HTTP attempt. The URL is not used:
+// it embeds project and secret names, which would make a series per secret.
+func operationName(method string) string {
+	if method == http.MethodPost {
+		return "http_post"
+	}
+	return "http_get"
+}
+
 // isRetryableStatusCode returns true for 429 and 5xx.
 func isRetryableStatusCode(statusCode int) bool {
 	return statusCode == http.StatusTooManyRequests || (statusCode >= http.StatusInternalServerError && statusCode < 600)
 }
 
+// parseRetryAfter reads a Retry-After header, given either as delay seconds
+// or as an HTTP date. Returns zero when absent, malformed or in the past.
+func parseRetryAfter(header string, now time.Time) time.Duration {
+	if header == "" {
+		return 0
+	}
+	if seconds, err := strconv.Atoi(header); err == nil {
+		if seconds <= 0 {
+			return 0
+		}
+		return time.Duration(seconds) * time.Second
+	}
+	if at, err := http.ParseTime(header); err == nil && at.After(now) {
+		return at.Sub(now)
+	}
+	return 0
+}
+
 // Close closes idle HTTP connections.
 func (c *GrayskullHTTPClient) Close() error {
 	if transport, ok := c.httpClient.Transport.(*http.Transport); ok {
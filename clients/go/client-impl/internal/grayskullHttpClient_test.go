@@ -12,6 +12,7 @@ import (
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/metrics"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/models"
+	grayskullErrors "github.com/flipkart-incubator/grayskull/clients/go/client-impl/models/errors"
 	"github.com/stretchr/testify/assert"
 	"github.com/stretchr/testify/mock"
 )
@@ -216,6 +217,26 @@ func TestGrayskullHTTPClient_E2E_429TooManyRequestsRetry(t *testing.T) {
 	assert.Equal(t, 2, attempts)
 }
 
+func TestGrayskullHTTPClient_E2E_429RetryAfterIsReturned(t *testing.T) {
+	attempts := 0
+	testServer := setupTestServer(t, http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+		attempts++
+		w.Header().Set("Retry-After", "120")
+		w.WriteHeader(http.StatusTooManyRequests)
+	}))
+
+	client := setupClient(t, nil)
+
+	var result testResponse
+	_, err := client.DoGetWithRetry(context.Background(), testServer.URL, &result)
+
+	assert.Equal(t, 1, attempts, "a Retry-After beyond the max retry delay is left to the caller")
+	var retryableErr *grayskullErrors.RetryableError
+	if assert.ErrorAs(t, err, &retryableErr) {
+		assert.Equal(t, 120*time.Second, retryableErr.RetryAfter())
+	}
+}
+
 func TestGrayskullHTTPClient_E2E_MultipleRetriesBeforeSuccess(t *testing.T) {
 	attempts := 0
 	testServer := setupTestServer(t, http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
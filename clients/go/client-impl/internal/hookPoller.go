@@ -6,6 +6,7 @@ import (
 	"errors"
 	"fmt"
 	"log/slog"
+	"math/rand"
 	"net/http"
 	"runtime/debug"
 	"sync"
@@ -18,12 +19,15 @@ import (
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/batch"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/response"
 	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/metrics"
+	grayskullErrors "github.com/flipkart-incubator/grayskull/clients/go/client-impl/models/errors"
 	"github.com/google/uuid"
 )
 
 // Poller is the background batch-refresh loop (one per client). Mirrors
 // HookRefreshPoller in the Java SDK: a single fetcher (pollLoop) and a
 // fixed dispatcher pool so a slow hook on one secret can't stall others.
+// Within a cycle the fetcher sends its batch chunks concurrently, so a
+// cycle over thousands of secrets takes about one round trip.
 type Poller struct {
 	registry        *hooks.Registry
 	httpClient      GrayskullHTTPClientInterface
@@ -33,6 +37,12 @@ type Poller struct {
 	metricsRecorder metrics.MetricsRecorder
 	logger          *slog.Logger
 	marshalRequest  func(v any) ([]byte, error)
+	cache           *SecretCache
+	maxConcurrency  int
+
+	// failedCycles counts consecutive cycles in which every chunk failed.
+	// Owned by pollLoop.
+	failedCycles int
 
 	dispatchCh chan dispatchJob
 
@@ -59,7 +69,18 @@ type dispatchJob struct {
 
 const (
 	dispatcherWorkers = 5
-	maxBatchSize      = 50
+
+	// pollJitter is the fraction by which each wait between cycles is
+	// randomly lengthened or shortened.
+	pollJitter = 0.1
+
+	// maxPollBackoffShift caps the backoff after failed cycles at
+	// 2^maxPollBackoffShift times the interval.
+	maxPollBackoffShift = 3
+
+	// MaxBatchSize is the most secrets the server accepts in one
+	// /v1/secrets/batch request.
+	MaxBatchSize = 50
 )
 
 // ErrShutdownTimeout is returned by Close when workers don't drain in time.
@@ -80,8 +101,16 @@ type PollerConfig struct {
 	// RequestTimeout bounds a single poll cycle. Defaults to Interval.
 	RequestTimeout time.Duration
 
+	// MaxConcurrentChunks bounds how many batch chunks a cycle sends at
+	// once. Defaults to constants.DefaultPollingConcurrency.
+	MaxConcurrentChunks int
+
 	// MarshalRequest defaults to json.Marshal. Test seam.
 	MarshalRequest func(v any) ([]byte, error)
+
+	// Cache, when set, has its secrets polled along with the registered
+	// ones and receives every update. Optional.
+	Cache *SecretCache
 }
 
 // NewPoller constructs a Poller. Call Start to begin polling, Close to stop.
@@ -102,6 +131,10 @@ func NewPoller(cfg PollerConfig) *Poller {
 	if marshal == nil {
 		marshal = json.Marshal
 	}
+	maxConcurrency := cfg.MaxConcurrentChunks
+	if maxConcurrency <= 0 {
+		maxConcurrency = constants.DefaultPollingConcurrency
+	}
 	hookCtx, cancelHookCtx := context.WithCancel(context.Background())
 	pollCtx, cancelPollCtx := context.WithCancel(context.Background())
 	return &Poller{
@@ -113,6 +146,8 @@ func NewPoller(cfg PollerConfig) *Poller {
 		metricsRecorder: cfg.MetricsRecorder,
 		logger:          logger,
 		marshalRequest:  marshal,
+		cache:           cfg.Cache,
+		maxConcurrency:  maxConcurrency,
 		dispatchCh:      make(chan dispatchJob, dispatcherWorkers*4),
 		hookCtx:         hookCtx,
 		cancelHookCtx:   cancelHookCtx,
@@ -158,24 +193,59 @@ func (p *Poller) Close() error {
 	}
 }
 
+// pollLoop runs poll cycles until Close. Each wait is computed from the
+// previous cycle's outcome by nextDelay, so processes started together drift
+// apart instead of polling in lockstep.
 func (p *Poller) pollLoop() {
 	defer p.wg.Done()
 
-	ticker := time.NewTicker(p.interval)
-	defer ticker.Stop()
+	timer := time.NewTimer(p.nextDelay(pollOutcome{}))
+	defer timer.Stop()
 
 	for {
 		select {
 		case <-p.stopCh:
 			return
-		case <-ticker.C:
-			p.safePollOnce()
+		case <-timer.C:
+			timer.Reset(p.nextDelay(p.safePollOnce()))
+		}
+	}
+}
+
+// pollOutcome summarises one poll cycle for scheduling the next.
+type pollOutcome struct {
+	chunks int
+	failed int
+	// retryAfter is the longest Retry-After the server sent in the cycle.
+	retryAfter time.Duration
+}
+
+// nextDelay returns the wait before the next cycle: the interval, doubled
+// for every consecutive cycle in which all chunks failed (up to
+// maxPollBackoffShift doublings), with +/- pollJitter applied. A Retry-After
+// from the server is honored up to the same ceiling, plus jitter so clients
+// throttled together do not return together. Only called from pollLoop.
+func (p *Poller) nextDelay(out pollOutcome) time.Duration {
+	if out.chunks > 0 && out.failed == out.chunks {
+		p.failedCycles = min(p.failedCycles+1, maxPollBackoffShift)
+	} else {
+		p.failedCycles = 0
+	}
+	ceiling := p.interval << maxPollBackoffShift
+
+	delay := time.Duration(float64(p.interval<<p.failedCycles) * (1 - pollJitter + 2*pollJitter*rand.Float64()))
+	if out.retryAfter > 0 {
+		retryAfter := min(out.retryAfter, ceiling)
+		if delay < retryAfter {
+			delay = retryAfter + time.Duration(float64(retryAfter)*pollJitter*rand.Float64())
 		}
 	}
+	return delay
 }
 
-// safePollOnce wraps PollOnce in recover() to keep the ticker alive.
-func (p *Poller) safePollOnce() {
+// safePollOnce wraps a poll cycle in recover() to keep the loop alive. The
+// cycle shares one deadline, requestTimeout, across all of its chunks.
+func (p *Poller) safePollOnce() (out pollOutcome) {
 	defer func() {
 		if r := recover(); r != nil {
 			p.logger.Error("panic in poll cycle; suppressing to keep poller alive",
@@ -188,37 +258,167 @@ func (p *Poller) safePollOnce() {
 	ctx, cancel := context.WithTimeout(ctx, p.requestTimeout)
 	defer cancel()
 
-	p.PollOnce(ctx)
+	return p.pollOnce(ctx)
 }
 
-// PollOnce runs one poll cycle.
+// PollOnce runs one poll cycle over the registered secrets and, when the
+// cache is enabled, the cached ones.
 func (p *Poller) PollOnce(ctx context.Context) {
+	p.pollOnce(ctx)
+}
+
+// pollOnce sends the cycle's chunks concurrently, at most maxConcurrency at
+// a time. A failed chunk does not stop the others unless the server asked
+// for a pause with Retry-After; then the chunks not yet finished are
+// cancelled, as in an errgroup.
+func (p *Poller) pollOnce(ctx context.Context) pollOutcome {
 	states := p.registry.Snapshot()
-	if len(states) == 0 {
-		return
+	var cached []batch.Entry
+	if p.cache != nil {
+		cached = p.cache.Entries()
+	}
+	if len(states) == 0 && len(cached) == 0 {
+		return pollOutcome{}
 	}
 
-	entries := make([]batch.Entry, len(states))
-	for i, s := range states {
-		entries[i] = batch.Entry{
+	entries := make([]batch.Entry, 0, len(states))
+	var registered map[string]bool
+	if len(cached) > 0 {
+		registered = make(map[string]bool, len(states))
+	}
+	for _, s := range states {
+		entries = append(entries, batch.Entry{
 			ProjectID:        s.ProjectID,
 			SecretName:       s.SecretName,
 			LastKnownVersion: int(s.LastKnownVersion.Load()),
+		})
+		if registered != nil {
+			registered[s.ProjectID+":"+s.SecretName] = true
+		}
+	}
+	// Cached secrets without hooks get chunks of their own: the server
+	// rejects a whole batch when one of its secrets is gone, and such a
+	// secret must not stop the hooks of the ones it would share a chunk with.
+	cacheOnly := make([]batch.Entry, 0, len(cached))
+	for _, e := range cached {
+		if !registered[e.ProjectID+":"+e.SecretName] {
+			cacheOnly = append(cacheOnly, e)
+		}
+	}
+	var chunks []pollChunkJob
+	for from := 0; from < len(entries); from += MaxBatchSize {
+		chunks = append(chunks, pollChunkJob{entries: entries[from:min(from+MaxBatchSize, len(entries))]})
+	}
+	for from := 0; from < len(cacheOnly); from += MaxBatchSize {
+		chunks = append(chunks, pollChunkJob{
+			entries:   cacheOnly[from:min(from+MaxBatchSize, len(cacheOnly))],
+			cacheOnly: true,
+		})
+	}
+
+	ctx, cancel := context.WithCancel(ctx)
+	defer cancel()
+
+	out := pollOutcome{chunks: len(chunks)}
+	var mu sync.Mutex
+	var wg sync.WaitGroup
+	succeeded := 0
+	sem := make(chan struct{}, p.maxConcurrency)
+	for _, job := range chunks {
+		select {
+		case sem <- struct{}{}:
+		case <-ctx.Done():
 		}
+		// Checked after taking a slot too: a chunk that asked for a pause
+		// cancels ctx before it frees its slot.
+		if ctx.Err() != nil {
+			break
+		}
+		wg.Add(1)
+		go func(job pollChunkJob) {
+			defer wg.Done()
+			defer func() { <-sem }()
+			var err error
+			if job.cacheOnly {
+				err = p.pollCachedChunk(ctx, job.entries)
+			} else {
+				err = p.safePollChunk(ctx, job.entries)
+			}
+			retryAfter := retryAfterOf(err)
+
+			mu.Lock()
+			defer mu.Unlock()
+			if err == nil {
+				succeeded++
+			}
+			if retryAfter > out.retryAfter {
+				out.retryAfter = retryAfter
+			}
+			if retryAfter > 0 {
+				cancel()
+			}
+		}(job)
+	}
+	wg.Wait()
+
+	out.failed = out.chunks - succeeded
+	return out
+}
+
+// pollChunkJob is one chunk of a cycle. cacheOnly chunks hold cached secrets
+// that have no hooks.
+type pollChunkJob struct {
+	entries   []batch.Entry
+	cacheOnly bool
+}
+
+// pollCachedChunk polls a chunk of cached secrets without hooks. When the
+// server rejects it because one of its secrets is missing (404) or no longer
+// readable (403), the halves are polled on their own until the offending
+// secrets are isolated, and those are dropped from the cache.
+func (p *Poller) pollCachedChunk(ctx context.Context, chunk []batch.Entry) error {
+	err := p.safePollChunk(ctx, chunk)
+	var gsErr *grayskullErrors.GrayskullError
+	if !errors.As(err, &gsErr) ||
+		(gsErr.StatusCode() != http.StatusNotFound && gsErr.StatusCode() != http.StatusForbidden) {
+		return err
 	}
+	if len(chunk) == 1 {
+		secretRef := chunk[0].ProjectID + ":" + chunk[0].SecretName
+		p.logger.Warn("dropping secret from the cache; the server no longer returns it",
+			"secretRef", secretRef, "statusCode", gsErr.StatusCode())
+		p.cache.Remove(secretRef, chunk[0].LastKnownVersion)
+		return nil
+	}
+	half := len(chunk) / 2
+	return errors.Join(p.pollCachedChunk(ctx, chunk[:half]), p.pollCachedChunk(ctx, chunk[half:]))
+}
 
-	for from := 0; from < len(entries); from += maxBatchSize {
-		to := from + maxBatchSize
-		if to > len(entries) {
-			to = len(entries)
+// safePollChunk runs pollChunk under recover(), since chunks run on their
+// own goroutines.
+func (p *Poller) safePollChunk(ctx context.Context, chunk []batch.Entry) (err error) {
+	defer func() {
+		if r := recover(); r != nil {
+			p.logger.Error("panic in batch refresh chunk",
+				"panic", r, "stack", string(debug.Stack()))
+			err = fmt.Errorf("batch refresh chunk panicked: %v", r)
 		}
-		p.pollChunk(ctx, entries[from:to])
+	}()
+	return p.pollChunk(ctx, chunk)
+}
+
+// retryAfterOf returns the Retry-After carried by err, if any.
+func retryAfterOf(err error) time.Duration {
+	var retryable *grayskullErrors.RetryableError
+	if errors.As(err, &retryable) {
+		return retryable.RetryAfter()
 	}
+	return 0
 }
 
 // pollChunk POSTs one batch chunk and stages any returned updates. One
 // HTTP call = one metric observation (avoids collapsing per-cycle).
-func (p *Poller) pollChunk(ctx context.Context, chunk []batch.Entry) {
+func (p *Poller) pollChunk(ctx context.Context, chunk []batch.Entry) error {
 	startTime := time.Now()
 	statusCode := 0
 	defer func() {
@@ -231,7 +431,7 @@ func (p *Poller) pollChunk(ctx context.Context, chunk []batch.Entry) {
 	if err != nil {
 		statusCode = http.StatusInternalServerError
 		p.logger.Error("failed to marshal batch refresh body", "err", err)
-		return
+		return err
 	}
 
 	var parsed response.Response[batch.BatchGetSecretsResponse]
@@ -242,13 +442,28 @@ func (p *Poller) pollChunk(ctx context.Context, chunk []batch.Entry) {
 			statusCode = http.StatusInternalServerError
 		}
 		p.logger.Error("batch refresh failed", "err", err)
-		return
+		return err
 	}
 
 	requestID, _ := ctx.Value(constants.GrayskullRequestID).(string)
 	for _, item := range parsed.Data.UpdatedSecrets {
+		if p.cache != nil {
+			p.cache.Put(item.ProjectID, item.SecretName, apiModels.SecretValue{
+				DataVersion: item.DataVersion,
+				PublicPart:  item.PublicPart,
+				PrivatePart: item.PrivatePart,
+			})
+		}
 		p.handleUpdatedSecret(item, requestID)
 	}
+	if p.cache != nil {
+		// The server answered for the whole chunk: what it did not return
+		// is still current.
+		for _, entry := range chunk {
+			p.cache.Confirm(entry.ProjectID+":"+entry.SecretName, entry.LastKnownVersion)
+		}
+	}
+	return nil
 }
 
 // handleUpdatedSecret stages the update (coalescing on pending: newest
@@ -345,9 +560,9 @@ func (p *Poller) invokeHookSafe(ctx context.Context, secretRef string, hook apiH
 			if !success {
 				code = http.StatusInternalServerError
 			}
-			// TODO(metrics-cardinality): embeds secretRef for Java SDK
-			// parity; fix in both SDKs together.
-			p.metricsRecorder.RecordRequest("hook.execute."+secretRef, code, time.Since(startTime))
+			// secretRef stays out of the name so hook metrics keep one
+			// series per outcome rather than one per secret.
+			p.metricsRecorder.RecordRequest("hook.execute", code, time.Since(startTime))
 		}
 	}()
 	if err := hook(ctx, value); err != nil {
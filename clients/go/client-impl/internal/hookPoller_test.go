@@ -5,6 +5,8 @@ import (
 	"encoding/json"
 	"errors"
 	"fmt"
+	"net/http"
+	"strings"
 	"sync"
 	"sync/atomic"
 	"testing"
@@ -179,8 +181,8 @@ func TestPollOnce_SingleChunk_EmptyUpdatedSecrets_OnePost(t *testing.T) {
 	}
 }
 
-// 51 registered secrets (> maxBatchSize=50): two sequential POSTs (50+1).
-func TestPollOnce_FiftyOneSecrets_TwoSequentialPosts(t *testing.T) {
+// 51 registered secrets (> MaxBatchSize=50): two POSTs (50+1).
+func TestPollOnce_FiftyOneSecrets_TwoPosts(t *testing.T) {
 	mockClient := &mockHTTPClient{}
 	registry := hooks.NewRegistry()
 	mockMetrics := metrics.NewPrometheusRecorder(prometheus.NewRegistry())
@@ -1000,7 +1002,7 @@ func TestPollOnce_HookReceivesContextWithRequestID(t *testing.T) {
 
 	mockClient.addPostResponse(200, response.Response[batch.BatchGetSecretsResponse]{
 		Data: batch.BatchGetSecretsResponse{
-			UpdatedCount: 1,
+			UpdatedCount:   1,
 			UpdatedSecrets: []batch.UpdatedSecret{
 				{ProjectID: "acme", SecretName: "ctx-hook", DataVersion: 1, PublicPart: "p", PrivatePart: "q"},
 			},
@@ -1059,7 +1061,7 @@ func TestPoller_Close_CancelsHookContext(t *testing.T) {
 
 	mockClient.addPostResponse(200, response.Response[batch.BatchGetSecretsResponse]{
 		Data: batch.BatchGetSecretsResponse{
-			UpdatedCount: 1,
+			UpdatedCount:   1,
 			UpdatedSecrets: []batch.UpdatedSecret{
 				{ProjectID: "acme", SecretName: "long-hook", DataVersion: 1, PublicPart: "p", PrivatePart: "q"},
 			},
@@ -1242,3 +1244,260 @@ func TestNewPoller_RequestTimeoutHonored(t *testing.T) {
 	}
 }
 
+// Cached secrets without hooks are polled too, and updates replace the cached
+// value.
+func TestPollOnce_WithCache_PollsAndUpdatesCachedSecrets(t *testing.T) {
+	mockClient := &mockHTTPClient{}
+	registry := hooks.NewRegistry()
+	cache := NewSecretCache(time.Minute, 10)
+	cache.Put("acme", "db", models.SecretValue{DataVersion: 1, PrivatePart: "old"})
+
+	mockClient.addPostResponse(200, response.Response[batch.BatchGetSecretsResponse]{
+		Data: batch.BatchGetSecretsResponse{
+			UpdatedCount:   1,
+			UpdatedSecrets: []batch.UpdatedSecret{
+				{ProjectID: "acme", SecretName: "db", DataVersion: 2, PrivatePart: "new"},
+			},
+		},
+	}, nil)
+
+	poller := NewPoller(PollerConfig{
+		BaseURL:         "https://test.example.com",
+		HTTPClient:      mockClient,
+		Registry:        registry,
+		Interval:        60 * time.Second,
+		MetricsRecorder: metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+		Cache:           cache,
+	})
+	defer poller.Close()
+
+	poller.PollOnce(context.Background())
+
+	if got := mockClient.getPostCallCount(); got != 1 {
+		t.Errorf("DoPostWithRetry called %d times, want 1 for a cached secret", got)
+	}
+	value, ok := cache.Get("acme:db")
+	if !ok || value.DataVersion != 2 || value.PrivatePart != "new" {
+		t.Errorf("cached value = %+v (present %v), want version 2 with the new private part", value, ok)
+	}
+}
+
+// funcHTTPClient answers batch POSTs with post and, unlike mockHTTPClient,
+// lets them run concurrently.
+type funcHTTPClient struct {
+	post func(ctx context.Context, jsonBody []byte) (int, error)
+}
+
+func (f *funcHTTPClient) DoPostWithRetry(ctx context.Context, url string, jsonBody []byte, result any) (int, error) {
+	return f.post(ctx, jsonBody)
+}
+
+func (f *funcHTTPClient) DoGetWithRetry(ctx context.Context, url string, result any) (int, error) {
+	return 200, nil
+}
+
+func (f *funcHTTPClient) Close() error { return nil }
+
+func registerSecrets(registry *hooks.Registry, n int) {
+	hook := func(_ context.Context, _ models.SecretValue) error { return nil }
+	for i := 0; i < n; i++ {
+		registry.Register("corp", fmt.Sprintf("svc-%d", i), hook, 0)
+	}
+}
+
+// Chunks are sent concurrently, never more than MaxConcurrentChunks at once.
+func TestPollOnce_SendsChunksConcurrentlyUpToTheLimit(t *testing.T) {
+	var inFlight, maxInFlight, calls atomic.Int32
+	client := &funcHTTPClient{post: func(ctx context.Context, _ []byte) (int, error) {
+		calls.Add(1)
+		n := inFlight.Add(1)
+		defer inFlight.Add(-1)
+		for {
+			m := maxInFlight.Load()
+			if n <= m || maxInFlight.CompareAndSwap(m, n) {
+				break
+			}
+		}
+		time.Sleep(30 * time.Millisecond)
+		return 200, nil
+	}}
+	registry := hooks.NewRegistry()
+	registerSecrets(registry, 4*MaxBatchSize)
+
+	poller := NewPoller(PollerConfig{
+		BaseURL:             "https://test.example.com",
+		HTTPClient:          client,
+		Registry:            registry,
+		Interval:            60 * time.Second,
+		MetricsRecorder:     metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+		MaxConcurrentChunks: 2,
+	})
+	defer poller.Close()
+
+	out := poller.pollOnce(context.Background())
+
+	if got := calls.Load(); got != 4 {
+		t.Errorf("DoPostWithRetry called %d times, want 4", got)
+	}
+	if got := maxInFlight.Load(); got != 2 {
+		t.Errorf("max concurrent chunks = %d, want 2", got)
+	}
+	if out.chunks != 4 || out.failed != 0 {
+		t.Errorf("outcome = %+v, want 4 chunks and no failures", out)
+	}
+}
+
+// A Retry-After from the server cancels the chunks not yet sent and is
+// reported for scheduling.
+func TestPollOnce_RetryAfterCancelsRemainingChunks(t *testing.T) {
+	var calls atomic.Int32
+	client := &funcHTTPClient{post: func(ctx context.Context, _ []byte) (int, error) {
+		calls.Add(1)
+		return 429, fmt.Errorf("failed after 1 attempts: %w",
+			grayskullErrors.NewRetryableErrorWithRetryAfter(429, "too many requests", 5*time.Second))
+	}}
+	registry := hooks.NewRegistry()
+	registerSecrets(registry, 3*MaxBatchSize)
+
+	poller := NewPoller(PollerConfig{
+		BaseURL:             "https://test.example.com",
+		HTTPClient:          client,
+		Registry:            registry,
+		Interval:            60 * time.Second,
+		MetricsRecorder:     metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+		MaxConcurrentChunks: 1,
+	})
+	defer poller.Close()
+
+	out := poller.pollOnce(context.Background())
+
+	if got := calls.Load(); got != 1 {
+		t.Errorf("DoPostWithRetry called %d times, want 1 after a Retry-After", got)
+	}
+	if out.chunks != 3 || out.failed != 3 || out.retryAfter != 5*time.Second {
+		t.Errorf("outcome = %+v, want 3 failed chunks with a 5s Retry-After", out)
+	}
+}
+
+// A panicking chunk is counted as failed without taking down the cycle.
+func TestPollOnce_ChunkPanicIsRecovered(t *testing.T) {
+	client := &funcHTTPClient{post: func(ctx context.Context, _ []byte) (int, error) { panic("boom") }}
+	registry := hooks.NewRegistry()
+	registerSecrets(registry, 1)
+
+	poller := NewPoller(PollerConfig{
+		BaseURL:         "https://test.example.com",
+		HTTPClient:      client,
+		Registry:        registry,
+		Interval:        60 * time.Second,
+		MetricsRecorder: metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+	})
+	defer poller.Close()
+
+	if out := poller.pollOnce(context.Background()); out.failed != 1 {
+		t.Errorf("outcome = %+v, want the panicking chunk counted as failed", out)
+	}
+}
+
+// Waits are jittered around the interval, back off while whole cycles fail,
+// and honor Retry-After up to the backoff ceiling.
+func TestNextDelay_JitterBackoffAndRetryAfter(t *testing.T) {
+	interval := 10 * time.Second
+	poller := NewPoller(PollerConfig{
+		BaseURL:         "https://test.example.com",
+		HTTPClient:      &mockHTTPClient{},
+		Registry:        hooks.NewRegistry(),
+		Interval:        interval,
+		MetricsRecorder: metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+	})
+	defer poller.Close()
+
+	within := func(d, base time.Duration) bool {
+		return d >= time.Duration(float64(base)*(1-pollJitter)) && d <= time.Duration(float64(base)*(1+pollJitter))
+	}
+
+	distinct := map[time.Duration]bool{}
+	for i := 0; i < 20; i++ {
+		d := poller.nextDelay(pollOutcome{chunks: 2, failed: 1})
+		if !within(d, interval) {
+			t.Fatalf("delay %v outside jitter bounds of %v", d, interval)
+		}
+		distinct[d] = true
+	}
+	if len(distinct) < 2 {
+		t.Error("delays should be randomized")
+	}
+
+	allFailed := pollOutcome{chunks: 2, failed: 2}
+	for _, want := range []time.Duration{2 * interval, 4 * interval, 8 * interval, 8 * interval} {
+		if d := poller.nextDelay(allFailed); !within(d, want) {
+			t.Errorf("backoff delay %v, want about %v", d, want)
+		}
+	}
+	if d := poller.nextDelay(pollOutcome{chunks: 2}); !within(d, interval) {
+		t.Errorf("delay after a successful cycle %v, want about %v", d, interval)
+	}
+
+	d := poller.nextDelay(pollOutcome{chunks: 2, failed: 1, retryAfter: 30 * time.Second})
+	if d < 30*time.Second || d > time.Duration(float64(30*time.Second)*(1+pollJitter)) {
+		t.Errorf("delay %v does not honor a 30s Retry-After", d)
+	}
+	d = poller.nextDelay(pollOutcome{chunks: 2, failed: 1, retryAfter: time.Hour})
+	if d > time.Duration(float64(8*interval)*(1+pollJitter)) {
+		t.Errorf("delay %v exceeds the backoff ceiling", d)
+	}
+}
+
+// A cached secret that was deleted on the server fails its batch with 404.
+// It never shares a chunk with a registered secret, and it is dropped from
+// the cache while the other cached secrets stay.
+func TestPollOnce_DeletedCachedSecret_IsDroppedWithoutBlockingHooks(t *testing.T) {
+	var mu sync.Mutex
+	var bodies []string
+	client := &funcHTTPClient{post: func(ctx context.Context, jsonBody []byte) (int, error) {
+		body := string(jsonBody)
+		mu.Lock()
+		bodies = append(bodies, body)
+		mu.Unlock()
+		if strings.Contains(body, `"gone"`) {
+			return http.StatusNotFound, fmt.Errorf("failed after 1 attempts: %w",
+				grayskullErrors.NewGrayskullError(http.StatusNotFound, "secret not found"))
+		}
+		return http.StatusOK, nil
+	}}
+	registry := hooks.NewRegistry()
+	registerSecrets(registry, 1)
+	cache := NewSecretCache(time.Minute, 10)
+	cache.Put("corp", "gone", models.SecretValue{DataVersion: 1})
+	cache.Put("corp", "kept", models.SecretValue{DataVersion: 1})
+
+	poller := NewPoller(PollerConfig{
+		BaseURL:         "https://test.example.com",
+		HTTPClient:      client,
+		Registry:        registry,
+		Interval:        60 * time.Second,
+		MetricsRecorder: metrics.NewPrometheusRecorder(prometheus.NewRegistry()),
+		Cache:           cache,
+	})
+	defer poller.Close()
+
+	if out := poller.pollOnce(context.Background()); out.failed != 0 {
+		t.Errorf("failed chunks = %d, want 0: dropping a deleted cached secret must not fail the cycle", out.failed)
+	}
+	for _, body := range bodies {
+		if strings.Contains(body, `"svc-0"`) && strings.Contains(body, `"gone"`) {
+			t.Errorf("a registered secret shared a batch with a cache-only one: %s", body)
+		}
+	}
+	if _, ok := cache.Get("corp:kept"); !ok || cache.Len() != 1 {
+		t.Errorf("cache holds %d secret(s) (kept present %v), want only corp:kept", cache.Len(), ok)
+	}
+
+	bodies = nil
+	poller.pollOnce(context.Background())
+	for _, body := range bodies {
+		if strings.Contains(body, `"gone"`) {
+			t.Errorf("a dropped secret was polled again: %s", body)
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package internal
+
+import (
+	"sync"
+	"sync/atomic"
+	"time"
+
+	apiModels "github.com/flipkart-incubator/grayskull/clients/go/client-api/models"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/constants"
+	"github.com/flipkart-incubator/grayskull/clients/go/client-impl/internal/models/batch"
+)
+
+// SecretCache holds secret values by secretRef for GetSecret and GetSecrets.
+// Values are written by the client's fetches and kept current by the Poller:
+// a poll that returns a newer version replaces the value, and a poll that
+// reports no change confirms it. A value is served until ttl has passed since
+// it was last confirmed, so it only expires while the server is unreachable.
+//
+// Reads take the read lock for the map lookup only; entries are immutable
+// apart from their confirmation time, which is atomic.
+type SecretCache struct {
+	ttl        time.Duration
+	maxEntries int
+	now        func() time.Time
+
+	mu      sync.RWMutex
+	entries map[string]*cacheEntry
+}
+
+type cacheEntry struct {
+	projectID  string
+	secretName string
+	value      apiModels.SecretValue
+	// confirmed is when the server last returned or confirmed value, in
+	// Unix nanoseconds.
+	confirmed atomic.Int64
+}
+
+// NewSecretCache returns an empty cache. Non-positive arguments fall back to
+// the defaults.
+func NewSecretCache(ttl time.Duration, maxEntries int) *SecretCache {
+	return newSecretCache(ttl, maxEntries, time.Now)
+}
+
+func newSecretCache(ttl time.Duration, maxEntries int, now func() time.Time) *SecretCache {
+	if ttl <= 0 {
+		ttl = time.Duration(constants.DefaultCacheTTLSeconds) * time.Second
+	}
+	if maxEntries <= 0 {
+		maxEntries = constants.DefaultCacheMaxEntries
+	}
+	return &SecretCache{
+		ttl:        ttl,
+		maxEntries: maxEntries,
+		now:        now,
+		entries:    make(map[string]*cacheEntry),
+	}
+}
+
+// Get returns the cached value of secretRef, unless it is missing or has not
+// been confirmed within the TTL.
+func (c *SecretCache) Get(secretRef string) (apiModels.SecretValue, bool) {
+	c.mu.RLock()
+	e, ok := c.entries[secretRef]
+	c.mu.RUnlock()
+	if !ok || c.now().UnixNano()-e.confirmed.Load() > int64(c.ttl) {
+		return apiModels.SecretValue{}, false
+	}
+	return e.value, true
+}
+
+// Put stores value as just confirmed. An older version than the one cached
+// is ignored, so a slow fetch cannot overwrite what a poll already stored.
+func (c *SecretCache) Put(projectID, secretName string, value apiModels.SecretValue) {
+	secretRef := projectID + ":" + secretName
+	e := &cacheEntry{projectID: projectID, secretName: secretName, value: value}
+	e.confirmed.Store(c.now().UnixNano())
+
+	c.mu.Lock()
+	defer c.mu.Unlock()
+	old, ok := c.entries[secretRef]
+	if ok && old.value.DataVersion > value.DataVersion {
+		return
+	}
+	if !ok && len(c.entries) >= c.maxEntries {
+		c.evictOldestLocked()
+	}
+	c.entries[secretRef] = e
+}
+
+// Confirm records that the server reported no version of secretRef newer than
+// version, which keeps the cached value valid if it is at least that recent.
+func (c *SecretCache) Confirm(secretRef string, version int) {
+	c.mu.RLock()
+	e, ok := c.entries[secretRef]
+	c.mu.RUnlock()
+	if ok && e.value.DataVersion >= version {
+		e.confirmed.Store(c.now().UnixNano())
+	}
+}
+
+// Remove drops secretRef if its cached version is still version. The Poller
+// calls it for secrets the server no longer returns, either deleted or no
+// longer readable by this client.
+func (c *SecretCache) Remove(secretRef string, version int) {
+	c.mu.Lock()
+	defer c.mu.Unlock()
+	if e, ok := c.entries[secretRef]; ok && e.value.DataVersion == version {
+		delete(c.entries, secretRef)
+	}
+}
+
+// Entries returns a poll entry for every cached secret, with the cached
+// version as the last known one.
+func (c *SecretCache) Entries() []batch.Entry {
+	c.mu.RLock()
+	defer c.mu.RUnlock()
+	if len(c.entries) == 0 {
+		return nil
+	}
+	out := make([]batch.Entry, 0, len(c.entries))
+	for _, e := range c.entries {
+		out = append(out, batch.Entry{
+			ProjectID:        e.projectID,
+			SecretName:       e.secretName,
+			LastKnownVersion: e.value.DataVersion,
+		})
+	}
+	return out
+}
+
+// Len returns the number of cached secrets, including expired ones.
+func (c *SecretCache) Len() int {
+	c.mu.RLock()
+	defer c.mu.RUnlock()
+	return len(c.entries)
+}
+
+// evictOldestLocked drops the entry confirmed least recently. The scan is
+// linear, but it only runs when a new secret is added to a full cache.
+func (c *SecretCache) evictOldestLocked() {
+	var oldestRef string
+	var oldest int64
+	for secretRef, e := range c.entries {
+		if confirmed := e.confirmed.Load(); oldestRef == "" || confirmed < oldest {
+			oldestRef, oldest = secretRef, confirmed
+		}
+	}
+	delete(c.entries, oldestRef)
+}
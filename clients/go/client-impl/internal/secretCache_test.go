@@ -0,0 +1,148 @@
+package internal
+
+import (
+	"fmt"
+	"sync"
+	"testing"
+	"time"
+
+	"github.com/flipkart-incubator/grayskull/clients/go/client-api/models"
+	"github.com/stretchr/testify/assert"
+)
+
+// fakeClock is a manually advanced clock for cache expiry tests.
+type fakeClock struct {
+	mu  sync.Mutex
+	now time.Time
+}
+
+func (c *fakeClock) Now() time.Time {
+	c.mu.Lock()
+	defer c.mu.Unlock()
+	return c.now
+}
+
+func (c *fakeClock) Advance(d time.Duration) {
+	c.mu.Lock()
+	defer c.mu.Unlock()
+	c.now = c.now.Add(d)
+}
+
+func newTestCache(ttl time.Duration, maxEntries int) (*SecretCache, *fakeClock) {
+	clock := &fakeClock{now: time.Unix(1_700_000_000, 0)}
+	return newSecretCache(ttl, maxEntries, clock.Now), clock
+}
+
+// A value is served until ttl passes without a confirmation.
+func TestSecretCache_ExpiresWithoutConfirmation(t *testing.T) {
+	cache, clock := newTestCache(time.Minute, 10)
+	cache.Put("acme", "db", models.SecretValue{DataVersion: 1, PrivatePart: "p1"})
+
+	clock.Advance(59 * time.Second)
+	value, ok := cache.Get("acme:db")
+	assert.True(t, ok)
+	assert.Equal(t, "p1", value.PrivatePart)
+
+	clock.Advance(2 * time.Second)
+	_, ok = cache.Get("acme:db")
+	assert.False(t, ok)
+}
+
+// Confirm restarts the TTL, but only for a version at least as new as the
+// cached one.
+func TestSecretCache_ConfirmExtendsLifetime(t *testing.T) {
+	cache, clock := newTestCache(time.Minute, 10)
+	cache.Put("acme", "db", models.SecretValue{DataVersion: 3})
+
+	clock.Advance(50 * time.Second)
+	cache.Confirm("acme:db", 3)
+	clock.Advance(50 * time.Second)
+	_, ok := cache.Get("acme:db")
+	assert.True(t, ok, "confirmed value should still be served")
+
+	cache.Confirm("acme:db", 4)
+	clock.Advance(20 * time.Second)
+	_, ok = cache.Get("acme:db")
+	assert.False(t, ok, "confirming a newer version must not extend an older value")
+}
+
+// An older version never replaces a newer cached one.
+func TestSecretCache_PutIgnoresOlderVersion(t *testing.T) {
+	cache, _ := newTestCache(time.Minute, 10)
+	cache.Put("acme", "db", models.SecretValue{DataVersion: 5, PrivatePart: "new"})
+	cache.Put("acme", "db", models.SecretValue{DataVersion: 4, PrivatePart: "old"})
+
+	value, ok := cache.Get("acme:db")
+	assert.True(t, ok)
+	assert.Equal(t, 5, value.DataVersion)
+	assert.Equal(t, "new", value.PrivatePart)
+}
+
+// A full cache evicts the entry confirmed least recently.
+func TestSecretCache_EvictsLeastRecentlyConfirmed(t *testing.T) {
+	cache, clock := newTestCache(time.Hour, 2)
+	cache.Put("acme", "a", models.SecretValue{DataVersion: 1})
+	clock.Advance(time.Second)
+	cache.Put("acme", "b", models.SecretValue{DataVersion: 1})
+	clock.Advance(time.Second)
+	cache.Confirm("acme:a", 1)
+	clock.Advance(time.Second)
+	cache.Put("acme", "c", models.SecretValue{DataVersion: 1})
+
+	assert.Equal(t, 2, cache.Len())
+	_, ok := cache.Get("acme:b")
+	assert.False(t, ok)
+	_, ok = cache.Get("acme:a")
+	assert.True(t, ok)
+	_, ok = cache.Get("acme:c")
+	assert.True(t, ok)
+}
+
+// Entries reports every cached secret with its cached version.
+func TestSecretCache_EntriesCarryCachedVersions(t *testing.T) {
+	cache, _ := newTestCache(time.Minute, 10)
+	assert.Nil(t, cache.Entries())
+
+	for i := 1; i <= 3; i++ {
+		cache.Put("acme", fmt.Sprintf("s%d", i), models.SecretValue{DataVersion: i})
+	}
+
+	versions := map[string]int{}
+	for _, e := range cache.Entries() {
+		versions[e.ProjectID+":"+e.SecretName] = e.LastKnownVersion
+	}
+	assert.Equal(t, map[string]int{"acme:s1": 1, "acme:s2": 2, "acme:s3": 3}, versions)
+}
+
+// Remove drops a secret only while it is still cached at the rejected version.
+func TestSecretCache_RemoveDropsOnlyTheRejectedVersion(t *testing.T) {
+	cache, _ := newTestCache(time.Minute, 10)
+	cache.Put("acme", "gone", models.SecretValue{DataVersion: 1})
+	cache.Put("acme", "rotated", models.SecretValue{DataVersion: 2})
+
+	cache.Remove("acme:gone", 1)
+	cache.Remove("acme:rotated", 1)
+	cache.Remove("acme:missing", 1)
+
+	_, ok := cache.Get("acme:gone")
+	assert.False(t, ok)
+	_, ok = cache.Get("acme:rotated")
+	assert.True(t, ok)
+	assert.Equal(t, 1, cache.Len())
+}
+
+func BenchmarkSecretCache_Get(b *testing.B) {
+	cache := NewSecretCache(time.Hour, 1000)
+	for i := 0; i < 1000; i++ {
+		cache.Put("acme", fmt.Sprintf("s%d", i), models.SecretValue{DataVersion: 1, PrivatePart: "secret"})
+	}
+	b.ReportAllocs()
+	b.ResetTimer()
+	b.RunParallel(func(pb *testing.PB) {
+		for pb.Next() {
+			if _, ok := cache.Get("acme:s500"); !ok {
+				b.Fatal("expected a cache hit")
+			}
+		}
+	})
+}
@@ -0,0 +1,69 @@
+// Package singleflight suppresses duplicate concurrent calls for the same
+// key, in the manner of golang.org/x/sync/singleflight, with per-caller
+// context cancellation.
+package singleflight
+
+import (
+	"context"
+	"fmt"
+	"sync"
+)
+
+// Group runs at most one call per key at a time. Callers that arrive while a
+// call for their key is in flight wait for its result instead of starting
+// their own. The zero value is ready to use.
+type Group[T any] struct {
+	mu    sync.Mutex
+	calls map[string]*call[T]
+}
+
+type call[T any] struct {
+	done chan struct{}
+	val  T
+	err  error
+}
+
+// Do runs fn for key unless a call for key is already in flight, and returns
+// the result of that call. shared reports whether another caller started it.
+//
+// fn runs on its own goroutine with a context that keeps ctx's values but not
+// its cancellation, so one caller giving up does not fail the others. A
+// caller whose ctx is done returns ctx.Err() right away; the call itself runs
+// to completion and its result goes to the callers still waiting. A panic in
+// fn is returned as an error to every caller.
+func (g *Group[T]) Do(ctx context.Context, key string, fn func(ctx context.Context) (T, error)) (v T, shared bool, err error) {
+	g.mu.Lock()
+	if g.calls == nil {
+		g.calls = make(map[string]*call[T])
+	}
+	c, ok := g.calls[key]
+	if !ok {
+		c = &call[T]{done: make(chan struct{})}
+		g.calls[key] = c
+		go g.run(context.WithoutCancel(ctx), key, c, fn)
+	}
+	g.mu.Unlock()
+
+	select {
+	case <-c.done:
+		return c.val, ok, c.err
+	case <-ctx.Done():
+		var zero T
+		return zero, ok, ctx.Err()
+	}
+}
+
+// run executes fn and publishes its result. The call is forgotten before
+// done is closed, so callers arriving afterwards start a new call.
+func (g *Group[T]) run(ctx context.Context, key string, c *call[T], fn func(ctx context.Context) (T, error)) {
+	defer func() {
+		if r := recover(); r != nil {
+			c.err = fmt.Errorf("singleflight: call for %q panicked: %v", key, r)
+		}
+		g.mu.Lock()
+		delete(g.calls, key)
+		g.mu.Unlock()
+		close(c.done)
+	}()
+	c.val, c.err = fn(ctx)
+}
@@ -0,0 +1,104 @@
+package singleflight
+
+import (
+	"context"
+	"errors"
+	"sync"
+	"sync/atomic"
+	"testing"
+	"time"
+
+	"github.com/stretchr/testify/assert"
+)
+
+// Concurrent callers for one key share a single call and its result.
+func TestDo_ConcurrentCallersShareOneCall(t *testing.T) {
+	var g Group[int]
+	var calls atomic.Int32
+	release := make(chan struct{})
+
+	const callers = 20
+	var started, wg sync.WaitGroup
+	var sharedCount atomic.Int32
+	started.Add(callers)
+	wg.Add(callers)
+	for i := 0; i < callers; i++ {
+		go func() {
+			defer wg.Done()
+			started.Done()
+			v, shared, err := g.Do(context.Background(), "key", func(context.Context) (int, error) {
+				calls.Add(1)
+				<-release
+				return 42, nil
+			})
+			assert.NoError(t, err)
+			assert.Equal(t, 42, v)
+			if shared {
+				sharedCount.Add(1)
+			}
+		}()
+	}
+	started.Wait()
+	time.Sleep(20 * time.Millisecond)
+	close(release)
+	wg.Wait()
+
+	assert.Equal(t, int32(1), calls.Load())
+	assert.Equal(t, int32(callers-1), sharedCount.Load())
+}
+
+// Once a call completes, the next caller starts a new one.
+func TestDo_CompletedCallIsForgotten(t *testing.T) {
+	var g Group[int]
+	var calls atomic.Int32
+	fn := func(context.Context) (int, error) { return int(calls.Add(1)), nil }
+
+	first, _, _ := g.Do(context.Background(), "key", fn)
+	second, shared, _ := g.Do(context.Background(), "key", fn)
+
+	assert.Equal(t, 1, first)
+	assert.Equal(t, 2, second)
+	assert.False(t, shared)
+}
+
+// A caller that gives up does not cancel the call for the others.
+func TestDo_CallerCancellationDoesNotCancelTheCall(t *testing.T) {
+	var g Group[string]
+	release := make(chan struct{})
+	fn := func(ctx context.Context) (string, error) {
+		<-release
+		return "value", ctx.Err()
+	}
+
+	ctx, cancel := context.WithCancel(context.Background())
+	leaderDone := make(chan error, 1)
+	go func() {
+		_, _, err := g.Do(ctx, "key", fn)
+		leaderDone <- err
+	}()
+	time.Sleep(20 * time.Millisecond)
+
+	followerDone := make(chan string, 1)
+	go func() {
+		v, _, _ := g.Do(context.Background(), "key", fn)
+		followerDone <- v
+	}()
+	time.Sleep(20 * time.Millisecond)
+
+	cancel()
+	assert.ErrorIs(t, <-leaderDone, context.Canceled)
+	close(release)
+	assert.Equal(t, "value", <-followerDone)
+}
+
+// Errors and panics reach every caller.
+func TestDo_ErrorsAndPanicsAreReturned(t *testing.T) {
+	var g Group[int]
+	boom := errors.New("boom")
+
+	_, _, err := g.Do(context.Background(), "key", func(context.Context) (int, error) { return 0, boom })
+	assert.ErrorIs(t, err, boom)
+
+	_, _, err = g.Do(context.Background(), "key", func(context.Context) (int, error) { panic("bad") })
+	assert.ErrorContains(t, err, "panicked: bad")
+}
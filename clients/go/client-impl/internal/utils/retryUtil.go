@@ -68,6 +68,19 @@ func Retry[T any](ctx context.Context, config RetryConfig, task func() (T, error
 		jitter := time.Duration(rand.Float64() * 0.25 * float64(delay))
 		delay += jitter
 
+		// Wait at least as long as the server asked. If that is longer than
+		// the backoff allows or outlasts ctx, give up now and leave the wait
+		// to the caller, which can read it from the returned error.
+		if retryAfter := retryableErr.RetryAfter(); retryAfter > 0 {
+			if retryAfter > config.MaxRetryDelay {
+				break
+			}
+			if deadline, ok := ctx.Deadline(); ok && time.Until(deadline) < retryAfter {
+				break
+			}
+			delay = max(delay, retryAfter)
+		}
+
 		// Wait before next retry
 		select {
 		case <-time.After(delay):
@@ -311,6 +311,73 @@ func TestRetry_ExponentialBackoff(t *testing.T) {
 	})
 }
 
+func TestRetry_RetryAfter(t *testing.T) {
+	t.Run("waits at least as long as the server asked", func(t *testing.T) {
+		config := RetryConfig{
+			MaxAttempts:   2,
+			InitialDelay:  time.Millisecond,
+			MaxRetryDelay: time.Second,
+		}
+		attempts := 0
+		task := func() (string, error) {
+			attempts++
+			if attempts == 1 {
+				return "", grayskullErrors.NewRetryableErrorWithRetryAfter(429, "slow down", 150*time.Millisecond)
+			}
+			return "success", nil
+		}
+
+		startTime := time.Now()
+		result, err := Retry(context.Background(), config, task)
+
+		assert.NoError(t, err)
+		assert.Equal(t, "success", result)
+		assert.GreaterOrEqual(t, time.Since(startTime), 150*time.Millisecond)
+	})
+
+	t.Run("gives up when the server asks for more than the max delay", func(t *testing.T) {
+		config := RetryConfig{
+			MaxAttempts:   3,
+			InitialDelay:  time.Millisecond,
+			MaxRetryDelay: time.Second,
+		}
+		attempts := 0
+		task := func() (string, error) {
+			attempts++
+			return "", grayskullErrors.NewRetryableErrorWithRetryAfter(429, "slow down", time.Minute)
+		}
+
+		_, err := Retry(context.Background(), config, task)
+
+		assert.Equal(t, 1, attempts)
+		var retryableErr *grayskullErrors.RetryableError
+		assert.ErrorAs(t, err, &retryableErr)
+		assert.Equal(t, time.Minute, retryableErr.RetryAfter())
+	})
+
+	t.Run("gives up when the wait would outlast the context", func(t *testing.T) {
+		config := RetryConfig{
+			MaxAttempts:   3,
+			InitialDelay:  time.Millisecond,
+			MaxRetryDelay: time.Minute,
+		}
+		ctx, cancel := context.WithTimeout(context.Background(), 100*time.Millisecond)
+		defer cancel()
+		attempts := 0
+		task := func() (string, error) {
+			attempts++
+			return "", grayskullErrors.NewRetryableErrorWithRetryAfter(503, "unavailable", 10*time.Second)
+		}
+
+		startTime := time.Now()
+		_, err := Retry(ctx, config, task)
+
+		assert.Equal(t, 1, attempts)
+		assert.Error(t, err)
+		assert.Less(t, time.Since(startTime), 100*time.Millisecond)
+	})
+}
+
 func TestRetry_EdgeCases(t *testing.T) {
 	t.Run("handles task returning nil result with no error", func(t *testing.T) {
 		config := RetryConfig{
@@ -2,6 +2,8 @@ package metrics
 
 import (
 	"strconv"
+	"sync"
+	"sync/atomic"
 	"time"
 
 	"github.com/prometheus/client_golang/prometheus"
@@ -11,13 +13,62 @@ import (
 const (
 	namespace = "grayskull"
 	subsystem = "http_client"
+
+	// maxOperations caps the distinct operation names a recorder exports,
+	// including otherOperation. Further names are recorded as otherOperation,
+	// so a caller passing unbounded values (URLs, secret references) cannot
+	// grow the number of series without limit.
+	maxOperations = 64
+
+	// otherOperation is the name label for operations beyond maxOperations.
+	otherOperation = "other"
+
+	// maxStatusCode is the highest status code exported as itself; codes
+	// outside [0, maxStatusCode] are exported as "other".
+	maxStatusCode = 599
+	otherStatus   = maxStatusCode + 1
 )
 
+// statusLabels holds the status_code label value of every status index, so
+// recording a status code does not format a string.
+var statusLabels = func() (labels [otherStatus + 1]string) {
+	for code := 0; code <= maxStatusCode; code++ {
+		labels[code] = strconv.Itoa(code)
+	}
+	labels[otherStatus] = "other"
+	return labels
+}()
+
+// PrometheusRecorder exports request durations and retries as Prometheus
+// metrics.
+//
+// Labels are bounded: status codes map to at most 601 values and operation
+// names to maxOperations. Once a (name, status code) pair has been seen,
+// recording it takes no locks and does not allocate: operations are found
+// in a copy-on-write map, their series are cached in atomic slots, and the
+// Prometheus histogram updates its buckets with atomic adds.
 type PrometheusRecorder struct {
 	requestDuration *prometheus.HistogramVec
 	retryCounter    *prometheus.CounterVec
+
+	// operations is replaced, never modified, while holding mu.
+	operations atomic.Pointer[map[string]*operation]
+	other      *operation
+	full       atomic.Bool
+	mu         sync.Mutex
 }
 
+// operation caches the series of one operation name.
+type operation struct {
+	name      string
+	durations [otherStatus + 1]atomic.Pointer[observer]
+	retries   [2]atomic.Pointer[counter]
+}
+
+type observer struct{ prometheus.Observer }
+
+type counter struct{ prometheus.Counter }
+
 // NewPrometheusRecorder creates a new Prometheus-based metrics recorder with the given registry.
 // If registry is nil, prometheus.DefaultRegisterer will be used.
 func NewPrometheusRecorder(registry prometheus.Registerer) *PrometheusRecorder {
@@ -43,25 +94,77 @@ func NewPrometheusRecorder(registry prometheus.Registerer) *PrometheusRecorder {
 			Name:      "retry_attempts_total",
 			Help:      "Total number of retry attempts",
 		},
-		[]string{"url", "success"},
+		[]string{"name", "success"},
 	)
 
-	return &PrometheusRecorder{
+	other := &operation{name: otherOperation}
+	operations := map[string]*operation{otherOperation: other}
+	recorder := &PrometheusRecorder{
 		requestDuration: requestDuration,
 		retryCounter:    retryCounter,
+		other:           other,
 	}
+	recorder.operations.Store(&operations)
+	return recorder
 }
 
 // RecordRequest records an HTTP request with its duration
 func (p *PrometheusRecorder) RecordRequest(name string, statusCode int, duration time.Duration) {
-	p.requestDuration.WithLabelValues(name, strconv.Itoa(statusCode)).Observe(duration.Seconds())
+	op := p.operation(name)
+	status := otherStatus
+	if statusCode >= 0 && statusCode <= maxStatusCode {
+		status = statusCode
+	}
+	o := op.durations[status].Load()
+	if o == nil {
+		// WithLabelValues returns the same series to racing callers.
+		o = &observer{p.requestDuration.WithLabelValues(op.name, statusLabels[status])}
+		op.durations[status].Store(o)
+	}
+	o.Observe(duration.Seconds())
 }
 
 // RecordRetry records a retry attempt for a request
-func (p *PrometheusRecorder) RecordRetry(url string, attemptNumber int, success bool) {
-	successStr := "false"
+func (p *PrometheusRecorder) RecordRetry(name string, attemptNumber int, success bool) {
+	op := p.operation(name)
+	outcome := 0
 	if success {
-		successStr = "true"
+		outcome = 1
+	}
+	c := op.retries[outcome].Load()
+	if c == nil {
+		c = &counter{p.retryCounter.WithLabelValues(op.name, strconv.FormatBool(success))}
+		op.retries[outcome].Store(c)
+	}
+	c.Inc()
+}
+
+// operation returns the cached series of name, adding it if there is room
+// and falling back to otherOperation if not.
+func (p *PrometheusRecorder) operation(name string) *operation {
+	if op, ok := (*p.operations.Load())[name]; ok {
+		return op
+	}
+	if p.full.Load() {
+		return p.other
+	}
+
+	p.mu.Lock()
+	defer p.mu.Unlock()
+	current := *p.operations.Load()
+	if op, ok := current[name]; ok {
+		return op
+	}
+	if len(current) >= maxOperations {
+		p.full.Store(true)
+		return p.other
+	}
+	next := make(map[string]*operation, len(current)+1)
+	for k, v := range current {
+		next[k] = v
 	}
-	p.retryCounter.WithLabelValues(url, successStr).Inc()
+	op := &operation{name: name}
+	next[name] = op
+	p.operations.Store(&next)
+	return op
 }
@@ -2,10 +2,14 @@ package metrics
 
 import "time"
 
+// MetricsRecorder receives the client's request and retry measurements.
+// Names are fixed operation names such as "get_secret" or "http_post"; they
+// never contain secret references or URLs, so implementations can use them
+// as metric labels directly.
 type MetricsRecorder interface {
 	// RecordRequest records an HTTP request with its duration
 	RecordRequest(name string, statusCode int, duration time.Duration)
 
 	// RecordRetry records a retry attempt for a request
-	RecordRetry(url string, attemptNumber int, success bool)
+	RecordRetry(name string, attemptNumber int, success bool)
 }
@@ -266,8 +266,78 @@ func TestMetricsRecorder_E2E_MultipleRecorders(t *testing.T) {
 	wg.Wait()
 }
 
+// samples returns the sample count of every request_duration series and the
+// value of every retry_attempts series, keyed by their label values.
+func samples(t *testing.T, registry *prometheus.Registry) map[string]float64 {
+	t.Helper()
+	families, err := registry.Gather()
+	require.NoError(t, err)
+	out := map[string]float64{}
+	for _, family := range families {
+		for _, metric := range family.GetMetric() {
+			key := family.GetName()
+			for _, label := range metric.GetLabel() {
+				key += " " + label.GetName() + "=" + label.GetValue()
+			}
+			if h := metric.GetHistogram(); h != nil {
+				out[key] = float64(h.GetSampleCount())
+			} else {
+				out[key] = metric.GetCounter().GetValue()
+			}
+		}
+	}
+	return out
+}
+
+func TestPrometheusRecorder_RecordsUnderNameAndStatus(t *testing.T) {
+	registry := prometheus.NewRegistry()
+	recorder := NewPrometheusRecorder(registry)
+
+	recorder.RecordRequest("get_secret", 200, time.Millisecond)
+	recorder.RecordRequest("get_secret", 200, time.Millisecond)
+	recorder.RecordRequest("get_secret", 404, time.Millisecond)
+	recorder.RecordRequest("get_secret", 1000, time.Millisecond)
+	recorder.RecordRetry("http_get", 2, true)
+	recorder.RecordRetry("http_get", 3, false)
+
+	require.Equal(t, map[string]float64{
+		"grayskull_http_client_request_duration_seconds name=get_secret status_code=200":   2,
+		"grayskull_http_client_request_duration_seconds name=get_secret status_code=404":   1,
+		"grayskull_http_client_request_duration_seconds name=get_secret status_code=other": 1,
+		"grayskull_http_client_retry_attempts_total name=http_get success=true":            1,
+		"grayskull_http_client_retry_attempts_total name=http_get success=false":           1,
+	}, samples(t, registry))
+}
+
+func TestPrometheusRecorder_BoundsOperationNames(t *testing.T) {
+	registry := prometheus.NewRegistry()
+	recorder := NewPrometheusRecorder(registry)
+
+	for i := 0; i < 3*maxOperations; i++ {
+		recorder.RecordRequest(fmt.Sprintf("hook.execute.project:secret-%d", i), 200, time.Millisecond)
+	}
+
+	series := samples(t, registry)
+	require.Len(t, series, maxOperations, "admitted names plus other")
+	require.Equal(t, float64(2*maxOperations+1),
+		series["grayskull_http_client_request_duration_seconds name=other status_code=200"])
+}
+
+func TestPrometheusRecorder_RecordPathDoesNotAllocate(t *testing.T) {
+	recorder := NewPrometheusRecorder(prometheus.NewRegistry())
+	recorder.RecordRequest("get_secret", 200, time.Millisecond)
+	recorder.RecordRetry("http_get", 2, true)
+
+	allocs := testing.AllocsPerRun(1000, func() {
+		recorder.RecordRequest("get_secret", 200, time.Millisecond)
+		recorder.RecordRetry("http_get", 2, true)
+	})
+	require.Zero(t, allocs)
+}
+
 func BenchmarkMetricsRecorder_RecordRequest(b *testing.B) {
 	recorder := NewPrometheusRecorder(prometheus.NewRegistry())
+	b.ReportAllocs()
 	b.ResetTimer()
 
 	for i := 0; i < b.N; i++ {
@@ -277,6 +347,7 @@ func BenchmarkMetricsRecorder_RecordRequest(b *testing.B) {
 
 func BenchmarkMetricsRecorder_RecordRetry(b *testing.B) {
 	recorder := NewPrometheusRecorder(prometheus.NewRegistry())
+	b.ReportAllocs()
 	b.ResetTimer()
 
 	for i := 0; i < b.N; i++ {
@@ -286,6 +357,7 @@ func BenchmarkMetricsRecorder_RecordRetry(b *testing.B) {
 
 func BenchmarkMetricsRecorder_Concurrent(b *testing.B) {
 	recorder := NewPrometheusRecorder(prometheus.NewRegistry())
+	b.ReportAllocs()
 	b.ResetTimer()
 
 	b.RunParallel(func(pb *testing.PB) {
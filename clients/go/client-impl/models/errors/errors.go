@@ -1,6 +1,8 @@
 // Package errors provides custom error types for the Grayskull client
 package errors
 
+import "time"
+
 // BaseError provides common error functionality
 type BaseError struct {
 	statusCode int
@@ -68,6 +70,7 @@ func NewGrayskullErrorWithMessage(message string) *GrayskullError {
 // connection failures, or temporary server unavailability (5xx errors).
 type RetryableError struct {
 	BaseError
+	retryAfter time.Duration
 }
 
 // NewRetryableErrorWithCause creates a new RetryableError with message and cause
@@ -90,3 +93,21 @@ func NewRetryableErrorWithStatus(statusCode int, message string) *RetryableError
 		},
 	}
 }
+
+// NewRetryableErrorWithRetryAfter creates a new RetryableError for a response
+// whose Retry-After header asked the client to wait retryAfter before trying again
+func NewRetryableErrorWithRetryAfter(statusCode int, message string, retryAfter time.Duration) *RetryableError {
+	return &RetryableError{
+		BaseError: BaseError{
+			statusCode: statusCode,
+			message:    message,
+		},
+		retryAfter: retryAfter,
+	}
+}
+
+// RetryAfter returns how long the server asked the client to wait before
+// retrying, or zero if it did not say
+func (e *RetryableError) RetryAfter() time.Duration {
+	return e.retryAfter
+}
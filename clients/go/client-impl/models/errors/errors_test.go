@@ -3,6 +3,7 @@ package errors_test
 import (
 	"errors"
 	"testing"
+	"time"
 
 	grayskullErrors "github.com/flipkart-incubator/grayskull/clients/go/client-impl/models/errors"
 	"github.com/stretchr/testify/assert"
@@ -60,6 +61,14 @@ func TestRetryableError(t *testing.T) {
 		err := grayskullErrors.NewRetryableErrorWithStatus(503, "service unavailable")
 		assert.Equal(t, "service unavailable", err.Error())
 		assert.Equal(t, 503, err.StatusCode())
+		assert.Zero(t, err.RetryAfter())
+	})
+
+	t.Run("NewRetryableErrorWithRetryAfter", func(t *testing.T) {
+		err := grayskullErrors.NewRetryableErrorWithRetryAfter(429, "too many requests", 3*time.Second)
+		assert.Equal(t, "too many requests", err.Error())
+		assert.Equal(t, 429, err.StatusCode())
+		assert.Equal(t, 3*time.Second, err.RetryAfter())
 	})
 
 }
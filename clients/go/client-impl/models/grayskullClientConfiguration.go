@@ -66,10 +66,37 @@ type GrayskullClientConfiguration struct {
 	// Default: true
 	MetricsEnabled bool `json:"metricsEnabled" yaml:"metricsEnabled"`
 
-	// PollingIntervalSeconds is the fixed delay in seconds between consecutive
-	// batch-refresh poll cycles.  Default: 60 (one minute)
+	// PollingIntervalSeconds is the delay in seconds between consecutive
+	// batch-refresh poll cycles. Each wait is randomized by up to 10% so
+	// clients do not poll in lockstep, grows while every request of a cycle
+	// fails, and is extended to honor a server's Retry-After.
+	// Default: 60 (one minute)
 	PollingIntervalSeconds int `json:"pollingIntervalSeconds" yaml:"pollingIntervalSeconds" validate:"gte=0"`
 
+	// PollingConcurrency is how many batch requests of 50 secrets a poll
+	// cycle sends at once. Zero means the default.
+	// Default: 8
+	PollingConcurrency int `json:"pollingConcurrency" yaml:"pollingConcurrency" validate:"gte=0"`
+
+	// CacheEnabled makes GetSecret and GetSecrets answer from an in-memory
+	// cache. Cached secrets are polled together with the ones that have
+	// refresh hooks, so a cached value is replaced as soon as a poll returns
+	// a newer version and stays valid while polls keep confirming it.
+	// Default: false
+	CacheEnabled bool `json:"cacheEnabled" yaml:"cacheEnabled"`
+
+	// CacheTTLSeconds is how long a cached value is served after the server
+	// last confirmed it, which bounds staleness while polls fail. Zero means
+	// the default.
+	// Default: 300 (five minutes)
+	CacheTTLSeconds int `json:"cacheTtlSeconds" yaml:"cacheTtlSeconds" validate:"gte=0"`
+
+	// CacheMaxEntries caps the number of cached secrets. When a new secret
+	// is added to a full cache, the value confirmed least recently is
+	// evicted. Zero means the default.
+	// Default: 1000
+	CacheMaxEntries int `json:"cacheMaxEntries" yaml:"cacheMaxEntries" validate:"gte=0"`
+
 	// WorkloadIdentityResolver resolves the workload identity for the Grayskull-Workload header.
 	// Defaults to DefaultWorkloadIdentityResolver (hostname). Can be customized for
 	// richer identity (e.g., Kubernetes pod name, ECS task ID, etc.).
@@ -135,6 +162,9 @@ func NewDefaultConfig() *GrayskullClientConfiguration {
 		MinRetryDelay:            100, // 100ms
 		MetricsEnabled:           true,
 		PollingIntervalSeconds:   constants.DefaultPollingIntervalSeconds,
+		PollingConcurrency:       constants.DefaultPollingConcurrency,
+		CacheTTLSeconds:          constants.DefaultCacheTTLSeconds,
+		CacheMaxEntries:          constants.DefaultCacheMaxEntries,
 		WorkloadIdentityResolver: workload.NewDefaultWorkloadIdentityResolver(),
 	}
 }
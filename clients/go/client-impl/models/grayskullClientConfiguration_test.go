@@ -24,6 +24,10 @@ func TestNewDefaultConfig_ReturnsValidConfig(t *testing.T) {
 	assert.Equal(t, 100, config.MinRetryDelay)
 	assert.True(t, config.MetricsEnabled)
 	assert.Equal(t, constants.DefaultPollingIntervalSeconds, config.PollingIntervalSeconds)
+	assert.False(t, config.CacheEnabled)
+	assert.Equal(t, constants.DefaultCacheTTLSeconds, config.CacheTTLSeconds)
+	assert.Equal(t, constants.DefaultCacheMaxEntries, config.CacheMaxEntries)
+	assert.Equal(t, constants.DefaultPollingConcurrency, config.PollingConcurrency)
 }
 
 // TestAddDefaultHeader_AddsHeader verifies that AddDefaultHeader adds a header
@@ -2,8 +2,14 @@ package com.flipkart.grayskull;
 
 import com.flipkart.grayskull.hooks.RefreshHandlerRef;
 import com.flipkart.grayskull.hooks.SecretRefreshHook;
+import com.flipkart.grayskull.models.SecretBytes;
 import com.flipkart.grayskull.models.SecretValue;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Main client interface for interacting with the Grayskull secret management service.
  * <p>
@@ -21,6 +27,65 @@ public interface GrayskullClient extends AutoCloseable {
 
     SecretValue getSecret(String secretRef);
 
+    /**
+     * Retrieves a secret with its private part in a buffer that the caller wipes by closing the result,
+     * instead of in a {@code String} that stays on the heap until it is garbage collected.
+     * <p>
+     * The default implementation throws, since copying the result of {@link #getSecret(String)} would leave
+     * the {@code String} behind anyway; implementations that can read the value into a buffer override it.
+     *
+     * @param secretRef the secret reference, in format {@code "projectId:secretName"}
+     * @return the secret value; the caller must close it
+     * @throws IllegalArgumentException if {@code secretRef} is invalid
+     * @throws UnsupportedOperationException if the implementation does not support it
+     */
+    default SecretBytes getSecretBytes(String secretRef) {
+        throw new UnsupportedOperationException(
+                getClass().getName() + " does not support getSecretBytes; use getSecret instead");
+    }
+
+    /**
+     * Retrieves several secrets at once using batch requests instead of one request per secret.
+     * <p>
+     * The default implementation calls {@link #getSecret(String)} for each reference in turn.
+     *
+     * @param secretRefs the secret references, each in format {@code "projectId:secretName"}
+     * @return the values keyed by secret reference, in iteration order of {@code secretRefs}
+     * @throws IllegalArgumentException if any secret reference is invalid
+     */
+    default Map<String, SecretValue> getSecrets(Collection<String> secretRefs) {
+        Map<String, SecretValue> values = new LinkedHashMap<>();
+        for (String secretRef : secretRefs) {
+            values.put(secretRef, getSecret(secretRef));
+        }
+        return values;
+    }
+
+    /**
+     * Retrieves a secret without blocking the calling thread, including while retries back off.
+     * <p>
+     * The default implementation runs {@link #getSecret(String)} on the common fork-join pool.
+     *
+     * @param secretRef the secret reference, in format {@code "projectId:secretName"}
+     * @return a future completed with the secret value, or failed if it cannot be retrieved
+     */
+    default CompletableFuture<SecretValue> getSecretAsync(String secretRef) {
+        return CompletableFuture.supplyAsync(() -> getSecret(secretRef));
+    }
+
+    /**
+     * Retrieves several secrets without blocking the calling thread, using batch requests.
+     * <p>
+     * The default implementation runs {@link #getSecrets(Collection)} on the common fork-join pool.
+     *
+     * @param secretRefs the secret references, each in format {@code "projectId:secretName"}
+     * @return a future completed with the values keyed by secret reference, or failed if any of them
+     *         cannot be retrieved
+     */
+    default CompletableFuture<Map<String, SecretValue>> batchGetSecretsAsync(Collection<String> secretRefs) {
+        return CompletableFuture.supplyAsync(() -> getSecrets(secretRefs));
+    }
+
     /**
      * Registers a callback hook to be invoked when a secret is updated. 
      * The hook will be called asynchronously whenever the server pushes an update for the monitored secret.
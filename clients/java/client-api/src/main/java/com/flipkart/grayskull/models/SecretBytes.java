@@ -0,0 +1,134 @@
+package com.flipkart.grayskull.models;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A secret value whose private part is held as UTF-8 bytes in a buffer that can be wiped.
+ * <p>
+ * Unlike {@link SecretValue}, whose private part is an immutable {@code String} that stays on the heap until
+ * it is garbage collected, the private part here lives in a single buffer that {@link #close()} overwrites
+ * with zeros. The buffer may be a direct (off-heap) buffer, in which case the private part never appears in
+ * a heap dump. Close the value as soon as the private part has been used, preferably with try-with-resources.
+ * </p>
+ * <p>
+ * The public part and the version are not sensitive and are kept as plain fields.
+ * </p>
+ */
+public final class SecretBytes implements AutoCloseable {
+
+    private final int dataVersion;
+    private final String publicPart;
+    private final ByteBuffer privatePart;
+    private volatile boolean closed;
+
+    /**
+     * Creates a value that takes ownership of {@code privatePart}: the bytes between its position and limit
+     * are the private part, and they are overwritten when this value is closed.
+     *
+     * @param dataVersion data version number
+     * @param publicPart public part of the secret, may be {@code null}
+     * @param privatePart UTF-8 encoded private part
+     * @throws IllegalArgumentException if {@code privatePart} is null or read-only
+     */
+    public SecretBytes(int dataVersion, String publicPart, ByteBuffer privatePart) {
+        if (privatePart == null || privatePart.isReadOnly()) {
+            throw new IllegalArgumentException("privatePart must be a writable buffer");
+        }
+        this.dataVersion = dataVersion;
+        this.publicPart = publicPart;
+        this.privatePart = privatePart.slice();
+    }
+
+    /**
+     * Data version number.
+     */
+    public int getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Public part of the secret.
+     */
+    public String getPublicPart() {
+        return publicPart;
+    }
+
+    /**
+     * Length of the private part in bytes.
+     */
+    public int length() {
+        return privatePart.capacity();
+    }
+
+    /**
+     * Returns a read-only view of the UTF-8 encoded private part. The view shares the underlying buffer, so
+     * it reads zeros once this value is closed.
+     *
+     * @throws IllegalStateException if this value is closed
+     */
+    public ByteBuffer getPrivatePart() {
+        ensureOpen();
+        return privatePart.asReadOnlyBuffer();
+    }
+
+    /**
+     * Decodes the private part into a new array. The caller owns the array and should overwrite it, for
+     * example with {@link Arrays#fill(char[], char)}, once it is no longer needed.
+     *
+     * @throws IllegalStateException if this value is closed or the private part is not valid UTF-8
+     */
+    public char[] getPrivatePartChars() {
+        ensureOpen();
+        CharBuffer decoded;
+        try {
+            decoded = StandardCharsets.UTF_8.newDecoder().decode(privatePart.duplicate());
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException("Private part is not valid UTF-8", e);
+        }
+        char[] chars = Arrays.copyOf(decoded.array(), decoded.remaining());
+        Arrays.fill(decoded.array(), '\0');
+        return chars;
+    }
+
+    /**
+     * Whether {@link #close()} has been called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Overwrites the private part with zeros. Closing more than once has no further effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (privatePart.hasArray()) {
+            int start = privatePart.arrayOffset();
+            Arrays.fill(privatePart.array(), start, start + privatePart.capacity(), (byte) 0);
+        } else {
+            for (int i = 0; i < privatePart.capacity(); i++) {
+                privatePart.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Secret value is closed");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SecretBytes(dataVersion=" + dataVersion + ", publicPart=" + publicPart
+                + ", privatePart=<" + length() + " bytes>)";
+    }
+}
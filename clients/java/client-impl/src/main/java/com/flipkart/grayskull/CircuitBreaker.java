@@ -0,0 +1,183 @@
+package com.flipkart.grayskull;
+
+import com.flipkart.grayskull.metrics.MetricsPublisher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-host circuit breaker used by {@link GrayskullHttpClient}.
+ * <p>
+ * The breaker is <strong>closed</strong> while the host answers. After {@code failureThreshold}
+ * consecutive transient failures (connection errors, timeouts, 429 and 5xx responses) it
+ * <strong>opens</strong>, and requests fail fast without touching the network. Once the open period
+ * has passed it is <strong>half-open</strong>: a single probe request is let through, and its outcome
+ * closes the breaker again or reopens it for another period. Other responses, including 4xx, count as
+ * the host being healthy.
+ * </p>
+ * <p>
+ * Every request holds a permit from {@link #tryAcquire()}: the generation of the breaker, which moves on
+ * with every state change. An outcome reported with a permit of an earlier generation is ignored, so a
+ * request that was in flight when the breaker opened cannot close it again, and only the half-open probe
+ * decides whether the breaker closes or reopens.
+ * </p>
+ * <p>
+ * While closed, requests only read volatile fields and successes only reset the failure count when it
+ * is not already zero, so a healthy host costs no locking. Every state change is published through
+ * {@link MetricsPublisher#recordCircuitBreakerState}.
+ * </p>
+ */
+final class CircuitBreaker {
+
+    /**
+     * Returned by {@link #tryAcquire()} when the request must not be sent.
+     */
+    static final long NO_PERMIT = -1L;
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile State state = State.CLOSED;
+    /** Moves on with every state change; only written under the lock. */
+    private volatile long generation;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    CircuitBreaker(String host, int failureThreshold, long openSeconds) {
+        this(host, failureThreshold, openSeconds, System::nanoTime);
+    }
+
+    CircuitBreaker(String host, int failureThreshold, long openSeconds, LongSupplier nanoClock) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns a permit to send a request now, or {@link #NO_PERMIT}. The caller reports the outcome with the
+     * permit through {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #onAbandoned(long)}. In the
+     * half-open state only one caller gets a permit and sends the probe.
+     */
+    long tryAcquire() {
+        // read before the state: a transition moves the generation first, so a permit is never newer than the
+        // state it was issued in
+        long permit = generation;
+        if (state == State.CLOSED) {
+            return permit;
+        }
+        synchronized (this) {
+            return tryAcquireLocked();
+        }
+    }
+
+    /**
+     * Whether {@link #tryAcquire()} would let a request through now, without taking the half-open probe slot.
+     */
+    boolean admits() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    return nanoClock.getAsLong() - openedAtNanos >= openNanos;
+                default:
+                    return !probeInFlight;
+            }
+        }
+    }
+
+    private long tryAcquireLocked() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                    return NO_PERMIT;
+                }
+                transition(State.HALF_OPEN);
+                probeInFlight = true;
+                return generation;
+            default:
+                if (probeInFlight) {
+                    return NO_PERMIT;
+                }
+                probeInFlight = true;
+                return generation;
+        }
+    }
+
+    void onSuccess(long permit) {
+        if (state == State.CLOSED) {
+            if (permit == generation && consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN && permit == generation) {
+                probeInFlight = false;
+                consecutiveFailures.set(0);
+                transition(State.CLOSED);
+            }
+        }
+    }
+
+    void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        if (state == State.CLOSED && failures < failureThreshold) {
+            return;
+        }
+        synchronized (this) {
+            if (permit != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures.get() >= failureThreshold)) {
+                probeInFlight = false;
+                openedAtNanos = nanoClock.getAsLong();
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Reports a request that ended without an answer from the host, such as a cancelled hedge. It does not
+     * count either way, but frees the probe slot so another request can probe a half-open host.
+     */
+    void onAbandoned(long permit) {
+        if (state == State.CLOSED) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN && permit == generation) {
+                probeInFlight = false;
+            }
+        }
+    }
+
+    State state() {
+        return state;
+    }
+
+    private void transition(State next) {
+        generation++;
+        state = next;
+        MetricsPublisher.getInstance().recordCircuitBreakerState(host, next.ordinal());
+    }
+}
@@ -0,0 +1,230 @@
+package com.flipkart.grayskull;
+
+import com.flipkart.grayskull.metrics.MetricsPublisher;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Chooses the server endpoint each request attempt of {@link GrayskullHttpClient} is sent to.
+ * <p>
+ * Selection is power-of-two-choices: two distinct endpoints are drawn at random and the one with the lower
+ * score wins, where the score is the endpoint's latency average multiplied by its requests in flight plus
+ * one. The latency average is an exponentially weighted moving average that decays towards zero while the
+ * endpoint is not answering requests, so a slow endpoint is tried again once it has been left alone for a
+ * while.
+ * </p>
+ * <p>
+ * Endpoints are ejected passively: after {@code ejectionFailures} consecutive transient failures an endpoint
+ * is skipped for the ejection period, counted as {@code endpoint.ejected}. When every endpoint is ejected,
+ * the one whose ejection ends first is chosen, so requests still reach the network and the per-host
+ * {@link CircuitBreaker} decides whether they fail fast.
+ * </p>
+ * <p>
+ * An endpoint whose breaker would reject the request is skipped the same way as an ejected one. Its breaker
+ * may open after ejection has ended, and an endpoint that is failing fast has nothing in flight and a decayed
+ * latency average, so it would otherwise win nearly every comparison while a healthy endpoint is available.
+ * </p>
+ */
+final class EndpointSelector {
+
+    private static final double LATENCY_WEIGHT = 0.3;
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final List<Endpoint> endpoints;
+    private final int ejectionFailures;
+    private final long ejectionNanos;
+    private final LongSupplier nanoClock;
+    private final Predicate<HttpUrl> admits;
+
+    EndpointSelector(List<String> endpoints, int ejectionFailures, long ejectionSeconds, Predicate<HttpUrl> admits) {
+        this(endpoints, ejectionFailures, ejectionSeconds, System::nanoTime, admits);
+    }
+
+    EndpointSelector(List<String> endpoints, int ejectionFailures, long ejectionSeconds, LongSupplier nanoClock) {
+        this(endpoints, ejectionFailures, ejectionSeconds, nanoClock, url -> true);
+    }
+
+    /**
+     * @param admits whether the circuit breaker of an endpoint would let a request through now
+     */
+    EndpointSelector(List<String> endpoints, int ejectionFailures, long ejectionSeconds, LongSupplier nanoClock,
+                     Predicate<HttpUrl> admits) {
+        List<Endpoint> parsed = new ArrayList<>(endpoints.size());
+        for (String endpoint : endpoints) {
+            HttpUrl url = HttpUrl.parse(endpoint);
+            if (url == null) {
+                throw new IllegalArgumentException("Invalid endpoint: " + endpoint);
+            }
+            parsed.add(new Endpoint(url));
+        }
+        this.endpoints = Collections.unmodifiableList(parsed);
+        this.ejectionFailures = ejectionFailures;
+        this.ejectionNanos = TimeUnit.SECONDS.toNanos(ejectionSeconds);
+        this.nanoClock = nanoClock;
+        this.admits = admits;
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Picks the endpoint for the next attempt and counts it as in flight. The caller must report the outcome
+     * through {@link #onSuccess}, {@link #onFailure} or {@link #onAbandoned}.
+     */
+    Endpoint select() {
+        Endpoint chosen = choose(nanoClock.getAsLong());
+        chosen.inFlight.incrementAndGet();
+        return chosen;
+    }
+
+    private Endpoint choose(long now) {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = endpoints.get(first);
+        Endpoint b = endpoints.get(second);
+        boolean aAvailable = isAvailable(a, now);
+        boolean bAvailable = isAvailable(b, now);
+        if (aAvailable && bAvailable) {
+            return a.score(now) <= b.score(now) ? a : b;
+        }
+        if (aAvailable) {
+            return a;
+        }
+        if (bAvailable) {
+            return b;
+        }
+        return firstAvailable(now);
+    }
+
+    private boolean isAvailable(Endpoint endpoint, long now) {
+        return endpoint.isAvailable(now) && admits.test(endpoint.url);
+    }
+
+    /**
+     * Both random picks were ejected or failing fast: falls back to any available endpoint, or to the one
+     * whose ejection ends first.
+     */
+    private Endpoint firstAvailable(long now) {
+        Endpoint soonest = endpoints.get(0);
+        for (Endpoint endpoint : endpoints) {
+            if (isAvailable(endpoint, now)) {
+                return endpoint;
+            }
+            if (endpoint.ejectedUntilNanos - soonest.ejectedUntilNanos < 0) {
+                soonest = endpoint;
+            }
+        }
+        return soonest;
+    }
+
+    void onSuccess(Endpoint endpoint, long latencyNanos) {
+        endpoint.inFlight.decrementAndGet();
+        if (endpoint.consecutiveFailures.get() != 0) {
+            endpoint.consecutiveFailures.set(0);
+        }
+        endpoint.recordLatency(latencyNanos, nanoClock.getAsLong());
+    }
+
+    void onFailure(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+        if (endpoint.consecutiveFailures.incrementAndGet() < ejectionFailures || endpoints.size() == 1) {
+            return;
+        }
+        endpoint.consecutiveFailures.set(0);
+        endpoint.ejectedUntilNanos = nanoClock.getAsLong() + ejectionNanos;
+        endpoint.ejected = true;
+        MetricsPublisher.getInstance().recordEvent("endpoint.ejected");
+    }
+
+    void onAbandoned(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+    }
+
+    /**
+     * A server endpoint and the load and health observed for it.
+     */
+    static final class Endpoint {
+        private final HttpUrl url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyNanos;
+        private volatile long latencyUpdatedNanos;
+        private volatile long ejectedUntilNanos;
+        private volatile boolean ejected;
+
+        private Endpoint(HttpUrl url) {
+            this.url = url;
+        }
+
+        HttpUrl url() {
+            return url;
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Returns {@code request} sent to this endpoint: its scheme, host and port are replaced, and the
+         * request is returned as is when they already match.
+         */
+        Request route(Request request) {
+            HttpUrl target = request.url();
+            if (target.port() == url.port() && target.scheme().equals(url.scheme())
+                    && target.host().equals(url.host())) {
+                return request;
+            }
+            return request.newBuilder()
+                    .url(target.newBuilder().scheme(url.scheme()).host(url.host()).port(url.port()).build())
+                    .build();
+        }
+
+        boolean isAvailable(long now) {
+            if (!ejected) {
+                return true;
+            }
+            if (now - ejectedUntilNanos >= 0) {
+                ejected = false;
+                return true;
+            }
+            return false;
+        }
+
+        double score(long now) {
+            double decay = Math.exp(-(double) (now - latencyUpdatedNanos) / DECAY_NANOS);
+            return (latencyNanos * decay + 1) * (inFlight.get() + 1);
+        }
+
+        /**
+         * Racy read-modify-write: a lost update only drops one sample from the average.
+         */
+        private void recordLatency(long sampleNanos, long now) {
+            double current = latencyNanos;
+            latencyNanos = current == 0 ? sampleNanos : current + LATENCY_WEIGHT * (sampleNanos - current);
+            latencyUpdatedNanos = now;
+        }
+
+        @Override
+        public String toString() {
+            return url.host() + ":" + url.port();
+        }
+    }
+}
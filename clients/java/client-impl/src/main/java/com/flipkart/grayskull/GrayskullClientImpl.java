@@ -11,8 +11,11 @@ import com.flipkart.grayskull.hooks.RefreshHandlerRef;
 import com.flipkart.grayskull.hooks.SecretRefreshHook;
 import com.flipkart.grayskull.metrics.MetricsPublisher;
 import com.flipkart.grayskull.models.GrayskullClientConfiguration;
+import com.flipkart.grayskull.models.SecretBytes;
 import com.flipkart.grayskull.models.SecretValue;
 import com.flipkart.grayskull.models.exceptions.GrayskullException;
+import com.flipkart.grayskull.models.request.BatchGetSecretsRequest;
+import com.flipkart.grayskull.models.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.response.HttpResponse;
 import com.flipkart.grayskull.models.response.Response;
 import okhttp3.HttpUrl;
@@ -22,11 +25,27 @@ import org.slf4j.MDC;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the Grayskull client.
@@ -39,12 +58,19 @@ public final class GrayskullClientImpl implements GrayskullClient {
     private static final Logger log = LoggerFactory.getLogger(GrayskullClientImpl.class);
     private static final TypeReference<Response<SecretValue>> SECRET_VALUE_TYPE_REFERENCE =
             new TypeReference<Response<SecretValue>>() {};
+    private static final TypeReference<Response<BatchGetSecretsResponse>> BATCH_RESPONSE_TYPE_REFERENCE =
+            new TypeReference<Response<BatchGetSecretsResponse>>() {};
 
     private final String baseUrl;
     private final GrayskullHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final HookRefreshPoller refreshPoller;
-
+    private final SecretCache cache;
+    private final SecretSnapshot snapshot;
+    private final ExecutorService revalidator;
+    private final boolean secretBytesOffHeap;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, CompletableFuture<SecretValue>> inFlightFetches = new ConcurrentHashMap<>();
 
     private final ConcurrentHashMap<String, Integer> lastSeenVersions = new ConcurrentHashMap<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
@@ -54,7 +80,8 @@ public final class GrayskullClientImpl implements GrayskullClient {
      *
      * @param authHeaderProvider provider for authentication headers (must not be null)
      * @param grayskullClientConfiguration configuration properties (must not be null)
-     * @throws IllegalArgumentException if authHeaderProvider or grayskullClientConfiguration is null
+     * @throws IllegalArgumentException if authHeaderProvider or grayskullClientConfiguration is null, or if a
+     *         snapshot directory is configured without the cache or a snapshot key
      */
     public GrayskullClientImpl(GrayskullAuthHeaderProvider authHeaderProvider,
                                GrayskullClientConfiguration grayskullClientConfiguration) {
@@ -65,6 +92,15 @@ public final class GrayskullClientImpl implements GrayskullClient {
             throw new IllegalArgumentException("grayskullClientConfiguration cannot be null");
         }
 
+        String snapshotDirectory = grayskullClientConfiguration.getSnapshotDirectory();
+        if (snapshotDirectory != null && !grayskullClientConfiguration.isCacheEnabled()) {
+            throw new IllegalArgumentException("The secret snapshot requires the cache to be enabled");
+        }
+        byte[] snapshotKey = grayskullClientConfiguration.getSnapshotKey();
+        if (snapshotDirectory != null && snapshotKey == null) {
+            throw new IllegalArgumentException("The secret snapshot requires a snapshot key");
+        }
+
         // Grayskull-Workload: identity from resolver (once).
         String identity = grayskullClientConfiguration.getWorkloadIdentityResolver().resolve();
         grayskullClientConfiguration.addDefaultHeader(GrayskullHeaders.WORKLOAD, identity);
@@ -75,17 +111,46 @@ public final class GrayskullClientImpl implements GrayskullClient {
         grayskullClientConfiguration.addDefaultHeader(GrayskullHeaders.USER_AGENT, userAgent);
 
         this.baseUrl = grayskullClientConfiguration.getHost();
+        this.secretBytesOffHeap = grayskullClientConfiguration.isSecretBytesOffHeap();
         this.httpClient = new GrayskullHttpClient(authHeaderProvider, grayskullClientConfiguration);
+        this.httpClient.warmUp(grayskullClientConfiguration.getWarmUpConnections());
 
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new ParameterNamesModule());
 
         // Configure metrics based on client configuration
-        MetricsPublisher.configure(grayskullClientConfiguration.isMetricsEnabled());
+        MetricsPublisher.configure(grayskullClientConfiguration.isMetricsEnabled(),
+                grayskullClientConfiguration.getMetricsPerSecretSampleRatio());
+
+        if (grayskullClientConfiguration.isCacheEnabled()) {
+            this.cache = new SecretCache(
+                    grayskullClientConfiguration.getCacheMaxEntries(),
+                    grayskullClientConfiguration.getCacheTtlSeconds(),
+                    grayskullClientConfiguration.getCacheStaleWhileRevalidateSeconds(),
+                    this::onCacheChange);
+            this.revalidator = Executors.newSingleThreadExecutor(
+                    HookRefreshPoller.daemonFactory("grayskull-cache-revalidator-"));
+        } else {
+            this.cache = null;
+            this.revalidator = null;
+        }
+
+        this.snapshot = snapshotDirectory == null ? null
+                : new SecretSnapshot(snapshotDirectory, snapshotKey, identity, objectMapper, cache);
+        int restored = snapshot == null ? 0 : snapshot.restore();
 
         this.refreshPoller = new HookRefreshPoller(
-                httpClient, objectMapper, baseUrl,
-                grayskullClientConfiguration.getPollingIntervalSeconds());
+                httpClient, objectMapper, grayskullClientConfiguration, cache);
+        if (restored > 0) {
+            // serve the restored values right away, but validate their versions without waiting for the first tick
+            refreshPoller.pollSoon();
+        }
+    }
+
+    private void onCacheChange() {
+        if (snapshot != null) {
+            snapshot.scheduleWrite();
+        }
     }
 
     /**
@@ -94,6 +159,19 @@ public final class GrayskullClientImpl implements GrayskullClient {
      * The secretRef should be in the format: "projectId:secretName"
      * For example: "my-project:database-password"
      * </p>
+     * <p>
+     * When the cache is enabled, a cached value is returned without contacting the server. A value
+     * past its TTL but within the stale-while-revalidate window is still returned while it is
+     * refreshed in the background.
+     * </p>
+     * <p>
+     * Concurrent calls for the same secretRef share one request: while a fetch is in flight, later
+     * callers wait for it and receive its value or its exception.
+     * </p>
+     * <p>
+     * If the server is unavailable (status 429 or 5xx, including an open circuit breaker) and the cache
+     * still holds a value for the secret, that value is returned even if it is past its TTL.
+     * </p>
      *
      * @param secretRef the secret reference in format "projectId:secretName"
      * @return the secret value
@@ -102,18 +180,332 @@ public final class GrayskullClientImpl implements GrayskullClient {
      */
     @Override
     public SecretValue getSecret(String secretRef) {
+        SecretValue cached = fromCache(secretRef);
+        if (cached != null) {
+            return cached;
+        }
+        validateSecretRef(secretRef);
+        return await(withLastKnownFallback(secretRef,
+                        singleFlight(secretRef, () -> CompletableFuture.completedFuture(fetchSecret(secretRef)))),
+                "Interrupted while fetching secret");
+    }
+
+    /**
+     * Retrieves a secret with its private part in a wipeable buffer.
+     * <p>
+     * On a cache miss the response is parsed as it streams in and the private part is encoded from the
+     * parser's buffer straight into the returned buffer, so no {@code String} holds it. The buffer is a direct
+     * buffer when {@code secretBytesOffHeap} is set. Each call gets a buffer of its own, so concurrent calls
+     * are not coalesced, and a fetched value is not added to the cache, which holds {@code String}s. A cached
+     * value, and the last known value while the server is unavailable, are copied into the buffer.
+     * </p>
+     *
+     * @param secretRef the secret reference in format "projectId:secretName"
+     * @return the secret value, which the caller must close
+     * @throws IllegalArgumentException if secretRef format is invalid
+     * @throws RuntimeException if the secret cannot be retrieved
+     */
+    @Override
+    public SecretBytes getSecretBytes(String secretRef) {
+        SecretValue cached = fromCache(secretRef);
+        if (cached != null) {
+            return SecretBytesReader.copyOf(cached, secretBytesOffHeap);
+        }
+        validateSecretRef(secretRef);
+        try {
+            return fetchSecretBytes(secretRef);
+        } catch (GrayskullException e) {
+            SecretCache.Entry lastKnown = cache != null && isServerUnavailable(e) ? cache.lastKnown(secretRef) : null;
+            if (lastKnown == null) {
+                throw e;
+            }
+            log.warn("Serving last known value of {} because the server is unavailable: {}", secretRef, e.getMessage());
+            MetricsPublisher.getInstance().recordEvent("getSecret.lastKnown");
+            return SecretBytesReader.copyOf(lastKnown.value, secretBytesOffHeap);
+        }
+    }
+
+    /**
+     * Retrieves several secrets with as few round trips as possible.
+     * <p>
+     * Intended for application startup: instead of one {@link #getSecret(String)} call per secret,
+     * the secrets are fetched through {@code POST /v1/secrets/batch} in chunks of at most
+     * {@value HookRefreshPoller#MAX_BATCH_SECRETS} that are all sent concurrently, so the call takes
+     * roughly one round trip. See {@link #batchGetSecretsAsync(Collection)} for details.
+     * </p>
+     *
+     * @param secretRefs the secret references in format "projectId:secretName"
+     * @return the values keyed by secretRef, in iteration order of {@code secretRefs}
+     * @throws IllegalArgumentException if any secretRef is invalid
+     * @throws GrayskullException if any secret cannot be retrieved
+     */
+    @Override
+    public Map<String, SecretValue> getSecrets(Collection<String> secretRefs) {
+        return await(batchGetSecretsAsync(secretRefs), "Interrupted while fetching secrets");
+    }
+
+    /**
+     * Retrieves a secret without blocking the calling thread.
+     * <p>
+     * The request is enqueued on the HTTP client's dispatcher and retries are scheduled with the
+     * same exponential backoff as {@link #getSecret(String)}, so no caller thread is pinned while
+     * waiting. Cached values complete the future immediately, and a fetch of the same secretRef that is
+     * already in flight is shared as in {@link #getSecret(String)}. The last known value is used while the
+     * server is unavailable, as in {@link #getSecret(String)}.
+     * </p>
+     *
+     * @param secretRef the secret reference in format "projectId:secretName"
+     * @return a future completed with the secret value, or failed with {@link IllegalArgumentException}
+     *         for an invalid secretRef and {@link GrayskullException} if the secret cannot be retrieved
+     */
+    @Override
+    public CompletableFuture<SecretValue> getSecretAsync(String secretRef) {
+        SecretValue cached = fromCache(secretRef);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        String[] parts;
+        try {
+            parts = validateSecretRef(secretRef);
+        } catch (IllegalArgumentException e) {
+            return failedFuture(e);
+        }
+        return withLastKnownFallback(secretRef,
+                singleFlight(secretRef, () -> fetchSecretAsync(secretRef, parts[0], parts[1])));
+    }
+
+    private CompletableFuture<SecretValue> fetchSecretAsync(String secretRef, String projectId, String secretName) {
         String requestId = generateRequestId();
         MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+        long startTime = System.nanoTime();
+        try {
+            log.debug("[RequestId:{}] Fetching secret asynchronously for secretRef: {}", requestId, secretRef);
+            String url = buildUrl("v1", "projects", projectId, "secrets", secretName, "data");
+            return httpClient.doGetAsyncWithRetry(url).handle((httpResponse, error) -> {
+                int statusCode = 0;
+                try {
+                    if (error != null) {
+                        throw asRuntimeException(error);
+                    }
+                    statusCode = httpResponse.getStatusCode();
+                    return readSecretValue(secretRef, projectId, secretName, httpResponse);
+                } catch (JsonProcessingException e) {
+                    throw new GrayskullException("Failed to parse response: ", e);
+                } catch (GrayskullException e) {
+                    statusCode = e.getStatusCode();
+                    throw e;
+                } finally {
+                    long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    MetricsPublisher.getInstance().recordSecretRequest("getSecret", secretRef, statusCode, durationMs);
+                }
+            });
+        } finally {
+            MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
+        }
+    }
+
+    /**
+     * Retrieves several secrets without blocking the calling thread.
+     * <p>
+     * Duplicate references are fetched once. Cached values are used where available; the remaining
+     * secrets are fetched through {@code POST /v1/secrets/batch} in chunks of at most
+     * {@value HookRefreshPoller#MAX_BATCH_SECRETS} secrets, with all chunks in flight concurrently.
+     * </p>
+     *
+     * @param secretRefs the secret references in format "projectId:secretName"
+     * @return a future completed with the values keyed by secretRef, in iteration order of {@code secretRefs};
+     *         it fails if any reference is invalid or any chunk cannot be retrieved
+     */
+    @Override
+    public CompletableFuture<Map<String, SecretValue>> batchGetSecretsAsync(Collection<String> secretRefs) {
+        if (secretRefs == null) {
+            return failedFuture(new IllegalArgumentException("secretRefs cannot be null"));
+        }
+        Set<String> uniqueRefs = new LinkedHashSet<>(secretRefs);
+        Map<String, SecretValue> cachedValues = new HashMap<>();
+        List<BatchGetSecretsRequest.Entry> toFetch = new ArrayList<>();
+        for (String secretRef : uniqueRefs) {
+            String[] parts;
+            try {
+                parts = validateSecretRef(secretRef);
+            } catch (IllegalArgumentException e) {
+                return failedFuture(e);
+            }
+            SecretValue cached = fromCache(secretRef);
+            if (cached != null) {
+                cachedValues.put(secretRef, cached);
+            } else {
+                toFetch.add(new BatchGetSecretsRequest.Entry(parts[0], parts[1], 0));
+            }
+        }
+
+        List<CompletableFuture<Map<String, SecretValue>>> chunks = new ArrayList<>();
+        for (int from = 0; from < toFetch.size(); from += HookRefreshPoller.MAX_BATCH_SECRETS) {
+            int to = Math.min(from + HookRefreshPoller.MAX_BATCH_SECRETS, toFetch.size());
+            chunks.add(fetchBatchAsync(toFetch.subList(from, to)));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, SecretValue> fetched = new HashMap<>(cachedValues);
+            for (CompletableFuture<Map<String, SecretValue>> chunk : chunks) {
+                fetched.putAll(chunk.join());
+            }
+            Map<String, SecretValue> result = new LinkedHashMap<>();
+            for (String secretRef : uniqueRefs) {
+                SecretValue value = fetched.get(secretRef);
+                if (value == null) {
+                    throw new GrayskullException(500, "No data in response for " + secretRef);
+                }
+                result.put(secretRef, value);
+            }
+            return result;
+        });
+    }
 
+    /**
+     * Fetches the current value of every secret in {@code chunk} with a single batch call.
+     */
+    private CompletableFuture<Map<String, SecretValue>> fetchBatchAsync(List<BatchGetSecretsRequest.Entry> chunk) {
+        String requestId = generateRequestId();
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
         long startTime = System.nanoTime();
-        int statusCode = 0;
+        try {
+            log.debug("[RequestId:{}] Fetching {} secret(s) asynchronously in one batch", requestId, chunk.size());
+            String body = objectMapper.writeValueAsString(new BatchGetSecretsRequest(chunk));
+            return httpClient.doPostAsyncWithRetry(buildUrl("v1", "secrets", "batch"), body).handle((httpResponse, error) -> {
+                int statusCode = 0;
+                try {
+                    if (error != null) {
+                        throw asRuntimeException(error);
+                    }
+                    statusCode = httpResponse.getStatusCode();
+                    BatchGetSecretsResponse payload =
+                            objectMapper.readValue(httpResponse.getBody(), BATCH_RESPONSE_TYPE_REFERENCE).getData();
+                    Map<String, SecretValue> values = new HashMap<>();
+                    if (payload != null && payload.getUpdatedSecrets() != null) {
+                        for (BatchGetSecretsResponse.UpdatedSecret item : payload.getUpdatedSecrets()) {
+                            String secretRef = item.getProjectId() + ":" + item.getSecretName();
+                            SecretValue value = new SecretValue(
+                                    item.getDataVersion(), item.getPublicPart(), item.getPrivatePart());
+                            remember(secretRef, item.getProjectId(), item.getSecretName(), value);
+                            values.put(secretRef, value);
+                        }
+                    }
+                    return values;
+                } catch (JsonProcessingException e) {
+                    throw new GrayskullException("Failed to parse response: ", e);
+                } catch (GrayskullException e) {
+                    statusCode = e.getStatusCode();
+                    throw e;
+                } finally {
+                    long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    MetricsPublisher.getInstance().recordRequest("getSecrets", statusCode, durationMs);
+                }
+            });
+        } catch (JsonProcessingException e) {
+            return failedFuture(new GrayskullException("Failed to serialize batch request: ", e));
+        } finally {
+            MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
+        }
+    }
+
+    /**
+     * Returns the cached value of {@code secretRef}, or {@code null} when the cache is disabled or has no
+     * usable entry. A stale hit schedules a background refresh.
+     */
+    private SecretValue fromCache(String secretRef) {
+        if (cache == null || secretRef == null) {
+            return null;
+        }
+        SecretCache.Entry cached = cache.get(secretRef);
+        if (cached == null) {
+            return null;
+        }
+        if (cache.freshness(cached) == SecretCache.Freshness.STALE) {
+            revalidateInBackground(secretRef);
+        }
+        MetricsPublisher.getInstance().recordEvent("getSecret.cacheHit");
+        return cached.value;
+    }
 
+    /**
+     * Starts {@code fetch} unless a fetch of {@code secretRef} is already in flight, in which case the caller
+     * gets that fetch's outcome instead and the call is counted as {@code getSecret.coalesced}. The fetch is
+     * forgotten once it completes, so later misses go to the server again.
+     */
+    private CompletableFuture<SecretValue> singleFlight(String secretRef, Supplier<CompletableFuture<SecretValue>> fetch) {
+        CompletableFuture<SecretValue> shared = new CompletableFuture<>();
+        CompletableFuture<SecretValue> inFlight = inFlightFetches.putIfAbsent(secretRef, shared);
+        if (inFlight != null) {
+            MetricsPublisher.getInstance().recordEvent("getSecret.coalesced");
+            return inFlight.thenApply(Function.identity());
+        }
+        CompletableFuture<SecretValue> result;
         try {
-            if (secretRef == null || secretRef.isEmpty()) {
-                throw new IllegalArgumentException("secretRef cannot be null or empty");
+            result = fetch.get();
+        } catch (RuntimeException e) {
+            result = failedFuture(e);
+        } catch (Error e) {
+            inFlightFetches.remove(secretRef, shared);
+            shared.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((value, error) -> {
+            inFlightFetches.remove(secretRef, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
             }
+        });
+        return result;
+    }
 
-            String[] parts = parseSecretRef(secretRef);
+    /**
+     * Completes with the cached value of {@code secretRef}, whatever its age, when {@code fetch} fails because
+     * the server is unavailable; the fallback is counted as {@code getSecret.lastKnown}. Other failures, and
+     * misses, are passed on unchanged.
+     */
+    private CompletableFuture<SecretValue> withLastKnownFallback(String secretRef, CompletableFuture<SecretValue> fetch) {
+        if (cache == null) {
+            return fetch;
+        }
+        CompletableFuture<SecretValue> result = new CompletableFuture<>();
+        fetch.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            SecretCache.Entry lastKnown = isServerUnavailable(cause) ? cache.lastKnown(secretRef) : null;
+            if (lastKnown == null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            log.warn("Serving last known value of {} because the server is unavailable: {}", secretRef, cause.getMessage());
+            MetricsPublisher.getInstance().recordEvent("getSecret.lastKnown");
+            result.complete(lastKnown.value);
+        });
+        return result;
+    }
+
+    private static boolean isServerUnavailable(Throwable error) {
+        if (!(error instanceof GrayskullException)) {
+            return false;
+        }
+        int statusCode = ((GrayskullException) error).getStatusCode();
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    private SecretValue fetchSecret(String secretRef) {
+        String requestId = generateRequestId();
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+
+        long startTime = System.nanoTime();
+        int statusCode = 0;
+
+        try {
+            String[] parts = validateSecretRef(secretRef);
             String projectId = parts[0];
             String secretName = parts[1];
 
@@ -125,28 +517,102 @@ public final class GrayskullClientImpl implements GrayskullClient {
             String url = buildUrl("v1", "projects", projectId, "secrets", secretName, "data");
             HttpResponse httpResponse = httpClient.doGetWithRetry(url);
             statusCode = httpResponse.getStatusCode();
+            return readSecretValue(secretRef, projectId, secretName, httpResponse);
+        } catch (JsonProcessingException e) {
+            throw new GrayskullException("Failed to parse response: ", e);
+        } catch (GrayskullException e) {
+            statusCode = e.getStatusCode();
+            throw e;
+        } finally {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            MetricsPublisher.getInstance().recordSecretRequest("getSecret", secretRef, statusCode, durationMs);
+            MDC.remove(MDCKeys.PROJECT_ID);
+            MDC.remove(MDCKeys.SECRET_NAME);
+            MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
+        }
+    }
 
-            Response<SecretValue> response = objectMapper.readValue(httpResponse.getBody(), SECRET_VALUE_TYPE_REFERENCE);
-            SecretValue secretValue = response.getData();
-            if (secretValue == null) {
+    private SecretBytes fetchSecretBytes(String secretRef) {
+        String requestId = generateRequestId();
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+
+        long startTime = System.nanoTime();
+        int statusCode = 0;
+
+        try {
+            String[] parts = validateSecretRef(secretRef);
+            MDC.put(MDCKeys.PROJECT_ID, parts[0]);
+            MDC.put(MDCKeys.SECRET_NAME, parts[1]);
+
+            log.debug("[RequestId:{}] Fetching secret bytes for secretRef: {}", requestId, secretRef);
+
+            String url = buildUrl("v1", "projects", parts[0], "secrets", parts[1], "data");
+            SecretBytes[] value = new SecretBytes[1];
+            HttpResponse httpResponse = httpClient.doGetWithRetry(url,
+                    in -> value[0] = SecretBytesReader.read(objectMapper.getFactory(), in, secretBytesOffHeap));
+            statusCode = httpResponse.getStatusCode();
+            if (value[0] == null) {
                 throw new GrayskullException(500, "No data in response");
             }
-            lastSeenVersions.put(secretRef, secretValue.getDataVersion());
-            return secretValue;
-        } catch (JsonProcessingException e) {
-            throw new GrayskullException("Failed to parse response: ", e);
+            lastSeenVersions.put(secretRef, value[0].getDataVersion());
+            return value[0];
         } catch (GrayskullException e) {
             statusCode = e.getStatusCode();
             throw e;
         } finally {
             long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
-            MetricsPublisher.getInstance().recordRequest("getSecret." + secretRef, statusCode, durationMs);
+            MetricsPublisher.getInstance().recordSecretRequest("getSecretBytes", secretRef, statusCode, durationMs);
             MDC.remove(MDCKeys.PROJECT_ID);
             MDC.remove(MDCKeys.SECRET_NAME);
             MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
         }
     }
 
+    private SecretValue readSecretValue(String secretRef, String projectId, String secretName,
+                                        HttpResponse httpResponse) throws JsonProcessingException {
+        Response<SecretValue> response = objectMapper.readValue(httpResponse.getBody(), SECRET_VALUE_TYPE_REFERENCE);
+        SecretValue secretValue = response.getData();
+        if (secretValue == null) {
+            throw new GrayskullException(500, "No data in response");
+        }
+        remember(secretRef, projectId, secretName, secretValue);
+        return secretValue;
+    }
+
+    /**
+     * Records the version observed for {@code secretRef} and caches the value when the cache is enabled.
+     */
+    private void remember(String secretRef, String projectId, String secretName, SecretValue secretValue) {
+        lastSeenVersions.put(secretRef, secretValue.getDataVersion());
+        if (cache != null) {
+            cache.put(projectId, secretName, secretValue);
+        }
+    }
+
+    /**
+     * Refreshes a stale cache entry on the revalidator thread. At most one refresh per secret is queued at a
+     * time; a failed refresh leaves the stale value in place until it expires.
+     */
+    private void revalidateInBackground(String secretRef) {
+        if (!revalidating.add(secretRef)) {
+            return;
+        }
+        try {
+            revalidator.execute(() -> {
+                try {
+                    await(singleFlight(secretRef, () -> CompletableFuture.completedFuture(fetchSecret(secretRef))),
+                            "Interrupted while refreshing secret");
+                } catch (Exception e) {
+                    log.warn("Background refresh of cached secret {} failed: {}", secretRef, e.getMessage());
+                } finally {
+                    revalidating.remove(secretRef);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            revalidating.remove(secretRef);
+        }
+    }
+
     /**
      * Registers a refresh hook for a secret.
      * <p>
@@ -195,6 +661,12 @@ public final class GrayskullClientImpl implements GrayskullClient {
         }
         log.info("Closing Grayskull client");
         refreshPoller.close();
+        if (revalidator != null) {
+            revalidator.shutdownNow();
+        }
+        if (snapshot != null) {
+            snapshot.close();
+        }
         if (httpClient != null) {
             httpClient.close();
         }
@@ -216,6 +688,38 @@ public final class GrayskullClientImpl implements GrayskullClient {
         return UUID.randomUUID().toString();
     }
 
+    private static String[] validateSecretRef(String secretRef) {
+        if (secretRef == null || secretRef.isEmpty()) {
+            throw new IllegalArgumentException("secretRef cannot be null or empty");
+        }
+        return parseSecretRef(secretRef);
+    }
+
+    /**
+     * Waits for {@code future} and rethrows its failure unwrapped.
+     */
+    private static <T> T await(CompletableFuture<T> future, String interruptedMessage) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw asRuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrayskullException(interruptedMessage, e);
+        }
+    }
+
+    private static RuntimeException asRuntimeException(Throwable error) {
+        return error instanceof RuntimeException ? (RuntimeException) error
+                : new GrayskullException("Unexpected error during HTTP request", error);
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
     private static String[] parseSecretRef(String secretRef) {
         String[] parts = secretRef.split(":", 2);
         if (parts.length < 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
@@ -1,5 +1,6 @@
 package com.flipkart.grayskull;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.flipkart.grayskull.auth.GrayskullAuthHeaderProvider;
 import com.flipkart.grayskull.constants.MDCKeys;
 import com.flipkart.grayskull.models.GrayskullClientConfiguration;
@@ -14,42 +15,442 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.SocketTimeoutException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * HTTP transport of the client: authentication headers, retries, and the resilience policies below.
+ * <p>
+ * Every request passes through the {@link CircuitBreaker} of its host, which fails requests fast with status
+ * 503 while the host keeps failing. When hedging is enabled, GET requests that have not been answered within
+ * the recent 95th percentile latency (see {@link HedgeDelay}) are sent a second time, and the first success
+ * wins; the other attempt is cancelled. Hedges fired and won are counted as {@code hedge.fired} and
+ * {@code hedge.won}, requests rejected by an open breaker as {@code circuitBreaker.rejected}.
+ * </p>
+ * <p>
+ * When several endpoints are configured, request URLs are built against the configured host and every attempt,
+ * including retries and hedges, is routed to an endpoint picked by the {@link EndpointSelector}. The circuit
+ * breaker applies to the endpoint actually used, and the selector passes over endpoints whose breaker would
+ * reject the attempt while another endpoint is available.
+ * </p>
+ */
 class GrayskullHttpClient {
     private static final Logger log = LoggerFactory.getLogger(GrayskullHttpClient.class);
 
+    /**
+     * Error bodies are only used for exception messages, so at most this many bytes of them are read.
+     */
+    static final long MAX_ERROR_BODY_BYTES = 4_096;
+
+    /**
+     * Deadline of requests that are only bounded by the configured timeouts.
+     */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Reads the body of a successful response as a stream, while the response is still open.
+     */
+    @FunctionalInterface
+    interface BodyConsumer {
+        void accept(InputStream body) throws IOException;
+    }
+
     private final OkHttpClient httpClient;
     private final GrayskullAuthHeaderProvider authHeaderProvider;
     private final GrayskullClientConfiguration clientConfiguration;
     private final RetryUtil retryUtil;
-
+    private final ScheduledExecutorService retryScheduler;
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final HedgeDelay hedgeDelay;
+    private final EndpointSelector endpointSelector;
 
     GrayskullHttpClient(GrayskullAuthHeaderProvider authHeaderProvider, GrayskullClientConfiguration clientConfiguration) {
         this.authHeaderProvider = authHeaderProvider;
         this.clientConfiguration = clientConfiguration;
 
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(clientConfiguration.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(clientConfiguration.getMaxRequestsPerHost());
+
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(clientConfiguration.getConnectionTimeout(), TimeUnit.MILLISECONDS)
                 .readTimeout(clientConfiguration.getReadTimeout(), TimeUnit.MILLISECONDS)
                 .connectionPool(new ConnectionPool(
                         clientConfiguration.getMaxConnections(),
-                        5,
-                        TimeUnit.MINUTES))
+                        clientConfiguration.getConnectionKeepAliveSeconds(),
+                        TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .protocols(protocols(clientConfiguration))
                 .build();
-        
+
         // Initialize retry utility
         this.retryUtil = new RetryUtil(clientConfiguration.getMaxRetries(), clientConfiguration.getMinRetryDelay());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                HookRefreshPoller.daemonFactory("grayskull-retry-scheduler-"));
+        this.hedgeDelay = clientConfiguration.isHedgingEnabled()
+                ? new HedgeDelay(clientConfiguration.getHedgeMinDelayMs()) : null;
+        this.endpointSelector = clientConfiguration.getEndpoints().isEmpty() ? null
+                : new EndpointSelector(clientConfiguration.getEndpoints(),
+                        clientConfiguration.getEndpointEjectionFailures(),
+                        clientConfiguration.getEndpointEjectionSeconds(),
+                        url -> {
+                            CircuitBreaker breaker = circuitBreaker(url);
+                            return breaker == null || breaker.admits();
+                        });
+    }
+
+    /**
+     * Selects the protocols offered to the server. Prior-knowledge h2c must be the only protocol and only
+     * works over cleartext, so it is rejected for an {@code https} host or endpoint.
+     */
+    static List<Protocol> protocols(GrayskullClientConfiguration clientConfiguration) {
+        if (clientConfiguration.isHttp2PriorKnowledge()) {
+            for (String server : servers(clientConfiguration)) {
+                HttpUrl url = HttpUrl.parse(server);
+                if (url != null && url.isHttps()) {
+                    throw new IllegalArgumentException(
+                            "HTTP/2 prior knowledge requires a cleartext http:// host, got: " + server);
+                }
+            }
+            return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+        }
+        if (clientConfiguration.isHttp2Enabled()) {
+            return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        }
+        return Collections.singletonList(Protocol.HTTP_1_1);
+    }
+
+    /**
+     * The configured endpoints, or the host when there are none.
+     */
+    private static List<String> servers(GrayskullClientConfiguration clientConfiguration) {
+        if (!clientConfiguration.getEndpoints().isEmpty()) {
+            return clientConfiguration.getEndpoints();
+        }
+        return clientConfiguration.getHost() == null
+                ? Collections.emptyList() : Collections.singletonList(clientConfiguration.getHost());
+    }
+
+    /**
+     * Opens {@code connections} connections to each server endpoint in the background by sending
+     * unauthenticated {@code HEAD} requests to its health endpoint. The responses are discarded and failures
+     * are only logged: warm-up is an optimisation, and the first real request reports any connectivity problem.
+     */
+    void warmUp(int connections) {
+        if (connections <= 0) {
+            return;
+        }
+        for (String server : servers(clientConfiguration)) {
+            HttpUrl base = HttpUrl.parse(server);
+            if (base != null) {
+                warmUp(base.newBuilder().addPathSegment("actuator").addPathSegment("health").build(), connections);
+            }
+        }
+    }
+
+    private void warmUp(HttpUrl url, int connections) {
+        for (int i = 0; i < connections; i++) {
+            httpClient.newCall(new Request.Builder().url(url).head().build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    log.debug("Connection warm-up to {} failed: {}", url, e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, okhttp3.Response response) {
+                    response.close();
+                }
+            });
+        }
     }
 
     HttpResponse doGetWithRetry(String url) {
         return executeWithRetry(url, () -> doGet(url));
     }
 
+    /**
+     * Variant of {@link #doGetWithRetry(String)} that hands the body of the successful response to
+     * {@code consumer} as a stream, with the same semantics as
+     * {@link #doPostWithRetry(String, String, BodyConsumer)}. The request is not hedged.
+     */
+    HttpResponse doGetWithRetry(String url, BodyConsumer consumer) {
+        return executeWithRetry(url, () -> doGet(url, consumer));
+    }
+
     HttpResponse doPostWithRetry(String url, String jsonBody) {
-        return executeWithRetry(url, () -> doPost(url, jsonBody));
+        return executeWithRetry(url, () -> doPost(url, jsonBody, null, NO_DEADLINE));
+    }
+
+    /**
+     * Variant of {@link #doPostWithRetry(String, String)} that hands the body of the successful response to
+     * {@code consumer} as a stream instead of reading it into a String, so a large response is never held in
+     * memory in full. The returned response has no body.
+     * <p>
+     * An I/O error while the body is read fails the attempt, which is retried like any other, so the consumer
+     * may see the start of a body more than once. A {@link JsonProcessingException} thrown by the consumer
+     * is not retried and fails the call with status 500.
+     * </p>
+     */
+    HttpResponse doPostWithRetry(String url, String jsonBody, BodyConsumer consumer) {
+        return executeWithRetry(url, () -> doPost(url, jsonBody, consumer, NO_DEADLINE));
+    }
+
+    /**
+     * Variant of {@link #doPostWithRetry(String, String, BodyConsumer)} that ends by {@code deadlineNanos}, a
+     * {@link System#nanoTime()} value. Each attempt is given the time left as its OkHttp call timeout, which
+     * cancels the call where interrupting the calling thread could not, and no attempt starts after the deadline:
+     * the call then fails with status 504. A call cut off by the deadline does not count against the endpoint.
+     */
+    HttpResponse doPostWithRetry(String url, String jsonBody, BodyConsumer consumer, long deadlineNanos) {
+        return executeWithRetry(url, () -> doPost(url, jsonBody, consumer, deadlineNanos));
+    }
+
+    /**
+     * Non-blocking variant of {@link #doGetWithRetry(String)}: the request is enqueued on OkHttp's
+     * dispatcher and retries are scheduled instead of sleeping on the caller thread.
+     */
+    CompletableFuture<HttpResponse> doGetAsyncWithRetry(String url) {
+        return executeAsyncWithRetry(url, requestId -> buildRequest(url, requestId).get().build());
+    }
+
+    /**
+     * Non-blocking variant of {@link #doPostWithRetry(String, String)}.
+     */
+    CompletableFuture<HttpResponse> doPostAsyncWithRetry(String url, String jsonBody) {
+        RequestBody body = RequestBody.create(
+                jsonBody == null ? "" : jsonBody,
+                MediaType.parse("application/json; charset=utf-8"));
+        return executeAsyncWithRetry(url, requestId -> buildRequest(url, requestId).post(body).build());
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #executeWithRetry}. The request id is captured from the
+     * caller's MDC up front because retries run on the scheduler thread.
+     */
+    private CompletableFuture<HttpResponse> executeAsyncWithRetry(String url, Function<String, Request> requestFactory) {
+        String requestId = MDC.get(MDCKeys.GRAYSKULL_REQUEST_ID);
+        AtomicInteger attemptCount = new AtomicInteger();
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+
+        retryUtil.<HttpResponse>retryAsync(() -> {
+            attemptCount.incrementAndGet();
+            Request request = requestFactory.apply(requestId);
+            log.debug("[RequestId:{}] Enqueuing {} request to: {}", requestId, request.method(), url);
+            return enqueue(request);
+        }, retryScheduler).whenComplete((response, error) -> {
+            if (attemptCount.get() > 1) {
+                MetricsPublisher.getInstance().recordRetry(url, attemptCount.get(), error == null);
+            }
+            if (error == null) {
+                result.complete(response);
+            } else if (error instanceof IllegalStateException || error instanceof IllegalArgumentException
+                    || error instanceof GrayskullException) {
+                result.completeExceptionally(error);
+            } else {
+                result.completeExceptionally(new GrayskullException("Unexpected error during HTTP request", error));
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<HttpResponse> enqueue(Request request) {
+        return isHedged(request) ? sendHedged(request) : send(request);
+    }
+
+    /**
+     * Enqueues one attempt of {@code request} to the selected endpoint, through the circuit breaker of its
+     * host. Cancelling the returned future cancels the call.
+     */
+    private CompletableFuture<HttpResponse> send(Request request) {
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        EndpointSelector.Endpoint endpoint = endpointSelector == null ? null : endpointSelector.select();
+        Request routed = endpoint == null ? request : endpoint.route(request);
+        CircuitBreaker breaker = circuitBreaker(routed.url());
+        long permit = breaker == null ? CircuitBreaker.NO_PERMIT : breaker.tryAcquire();
+        if (breaker != null && permit == CircuitBreaker.NO_PERMIT) {
+            abandoned(null, permit, endpoint);
+            future.completeExceptionally(circuitOpen(routed.url()));
+            return future;
+        }
+        long startTime = System.nanoTime();
+        Call call = httpClient.newCall(routed);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) {
+                    abandoned(breaker, permit, endpoint);
+                } else {
+                    failed(breaker, permit, endpoint);
+                }
+                future.completeExceptionally(toRetryableException(e));
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                try (okhttp3.Response r = response) {
+                    HttpResponse httpResponse = toHttpResponse(r, null);
+                    succeeded(breaker, permit, endpoint, routed, startTime);
+                    future.complete(httpResponse);
+                } catch (IOException e) {
+                    failed(breaker, permit, endpoint);
+                    future.completeExceptionally(toRetryableException(e));
+                } catch (RetryableException e) {
+                    failed(breaker, permit, endpoint);
+                    future.completeExceptionally(e);
+                } catch (GrayskullException e) {
+                    succeeded(breaker, permit, endpoint, routed, startTime);
+                    future.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    abandoned(breaker, permit, endpoint);
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends {@code request} and, if it has not completed after the current hedge delay, sends it again.
+     * The first success completes the result and cancels the other attempt; a failure only completes it
+     * when no other attempt is pending or the failure is not retryable.
+     */
+    private CompletableFuture<HttpResponse> sendHedged(Request request) {
+        long delayMillis = hedgeDelay.delayMillis();
+        if (delayMillis < 0) {
+            return send(request);
+        }
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse>> attempts = new CopyOnWriteArrayList<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        startAttempt(request, result, attempts, pending, false);
+        ScheduledFuture<?> hedge;
+        try {
+            hedge = retryScheduler.schedule(() -> {
+                // With several endpoints the hedge goes to whichever endpoint the selector picks, so only a
+                // single host's breaker can veto it
+                CircuitBreaker breaker = endpointSelector == null ? circuitBreaker(request.url()) : null;
+                if (result.isDone() || (breaker != null && breaker.state() != CircuitBreaker.State.CLOSED)) {
+                    return;
+                }
+                // a hedge that would wait for a dispatcher slot cannot overtake the attempts queued before it,
+                // and only adds to the queue that made the request slow
+                if (httpClient.dispatcher().queuedCallsCount() > 0) {
+                    return;
+                }
+                pending.incrementAndGet();
+                MetricsPublisher.getInstance().recordEvent("hedge.fired");
+                log.debug("No response from {} after {}ms, sending hedged request", request.url(), delayMillis);
+                startAttempt(request, result, attempts, pending, true);
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return result;
+        }
+        result.whenComplete((response, error) -> {
+            hedge.cancel(false);
+            attempts.forEach(attempt -> attempt.cancel(false));
+        });
+        return result;
+    }
+
+    private void startAttempt(Request request, CompletableFuture<HttpResponse> result,
+                              List<CompletableFuture<HttpResponse>> attempts, AtomicInteger pending, boolean isHedge) {
+        CompletableFuture<HttpResponse> attempt = send(request);
+        attempts.add(attempt);
+        if (result.isDone()) {
+            attempt.cancel(false);
+        }
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                if (result.complete(response) && isHedge) {
+                    MetricsPublisher.getInstance().recordEvent("hedge.won");
+                }
+            } else if (pending.decrementAndGet() == 0 || !(error instanceof RetryableException)) {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private boolean isHedged(Request request) {
+        return hedgeDelay != null && "GET".equals(request.method());
+    }
+
+    private CircuitBreaker circuitBreaker(HttpUrl url) {
+        int failureThreshold = clientConfiguration.getCircuitBreakerFailureThreshold();
+        if (failureThreshold == 0) {
+            return null;
+        }
+        String host = url.host() + ":" + url.port();
+        CircuitBreaker breaker = circuitBreakers.get(host);
+        if (breaker == null) {
+            breaker = circuitBreakers.computeIfAbsent(host, h ->
+                    new CircuitBreaker(h, failureThreshold, clientConfiguration.getCircuitBreakerOpenSeconds()));
+        }
+        return breaker;
+    }
+
+    private static GrayskullException circuitOpen(HttpUrl url) {
+        MetricsPublisher.getInstance().recordEvent("circuitBreaker.rejected");
+        return new GrayskullException(503, "Circuit breaker open for " + url.host() + ":" + url.port());
+    }
+
+    /**
+     * Records that the host answered, which closes its circuit breaker, and feeds the latency to the endpoint
+     * selector and, for GET requests, to the hedge delay.
+     */
+    private void succeeded(CircuitBreaker breaker, long permit, EndpointSelector.Endpoint endpoint, Request request,
+                           long startTime) {
+        long latencyNanos = System.nanoTime() - startTime;
+        if (breaker != null) {
+            breaker.onSuccess(permit);
+        }
+        if (endpoint != null) {
+            endpointSelector.onSuccess(endpoint, latencyNanos);
+        }
+        if (isHedged(request)) {
+            hedgeDelay.record(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+
+    private void failed(CircuitBreaker breaker, long permit, EndpointSelector.Endpoint endpoint) {
+        if (breaker != null) {
+            breaker.onFailure(permit);
+        }
+        if (endpoint != null) {
+            endpointSelector.onFailure(endpoint);
+        }
+    }
+
+    private void abandoned(CircuitBreaker breaker, long permit, EndpointSelector.Endpoint endpoint) {
+        if (breaker != null) {
+            breaker.onAbandoned(permit);
+        }
+        if (endpoint != null) {
+            endpointSelector.onAbandoned(endpoint);
+        }
     }
 
     /**
@@ -88,13 +489,17 @@ class GrayskullHttpClient {
     }
 
     HttpResponse doGet(String url) throws RetryableException {
+        return doGet(url, null);
+    }
+
+    private HttpResponse doGet(String url, BodyConsumer consumer) throws RetryableException {
         Request request = buildRequest(url)
                 .get()
                 .build();
 
         String requestId = MDC.get(MDCKeys.GRAYSKULL_REQUEST_ID);
         log.debug("[RequestId:{}] Executing GET request to: {}", requestId, url);
-        HttpResponse httpResponse = executeRequest(request);
+        HttpResponse httpResponse = executeRequest(request, consumer, NO_DEADLINE);
 
         String body = httpResponse.getBody();
         int bodyLength = body != null ? body.length() : 0;
@@ -105,6 +510,11 @@ class GrayskullHttpClient {
     }
 
     HttpResponse doPost(String url, String jsonBody) throws RetryableException {
+        return doPost(url, jsonBody, null, NO_DEADLINE);
+    }
+
+    private HttpResponse doPost(String url, String jsonBody, BodyConsumer consumer, long deadlineNanos)
+            throws RetryableException {
         RequestBody body = RequestBody.create(
                 jsonBody == null ? "" : jsonBody,
                 MediaType.parse("application/json; charset=utf-8"));
@@ -117,7 +527,7 @@ class GrayskullHttpClient {
         int requestBodyLength = jsonBody != null ? jsonBody.length() : 0;
         log.debug("[RequestId:{}] Executing POST request to: {}, bodyLength: {} bytes",
                 requestId, url, requestBodyLength);
-        HttpResponse httpResponse = executeRequest(request);
+        HttpResponse httpResponse = executeRequest(request, consumer, deadlineNanos);
 
         String responseBody = httpResponse.getBody();
         int bodyLength = responseBody != null ? responseBody.length() : 0;
@@ -128,6 +538,10 @@ class GrayskullHttpClient {
     }
 
     private Request.Builder buildRequest(String url) {
+        return buildRequest(url, MDC.get(MDCKeys.GRAYSKULL_REQUEST_ID));
+    }
+
+    private Request.Builder buildRequest(String url, String requestId) {
         Request.Builder requestBuilder = new Request.Builder().url(url);
 
         clientConfiguration.getDefaultHeaders().forEach(requestBuilder::header);
@@ -138,7 +552,6 @@ class GrayskullHttpClient {
         }
         requestBuilder.header("Authorization", authHeader);
 
-        String requestId = MDC.get(MDCKeys.GRAYSKULL_REQUEST_ID);
         if (requestId != null && !requestId.isEmpty()) {
             requestBuilder.header("X-Request-Id", requestId);
         }
@@ -146,34 +559,149 @@ class GrayskullHttpClient {
         return requestBuilder;
     }
 
-    private HttpResponse executeRequest(Request request) throws RetryableException {
-        try (okhttp3.Response response = httpClient.newCall(request).execute()) {
-            int statusCode = response.code();
-            
-            if (!response.isSuccessful()) {
-                String errorBody = response.body() != null ? response.body().string() : "";
-                
-                // Determine if the error is retryable
-                if (isRetryableStatusCode(statusCode)) {
-                    throw new RetryableException(statusCode, "Request failed: " + errorBody);
-                } else {
-                    throw new GrayskullException(statusCode, "Request failed: " + errorBody);
+    private HttpResponse executeRequest(Request request, BodyConsumer consumer, long deadlineNanos)
+            throws RetryableException {
+        if (consumer == null && isHedged(request)) {
+            return awaitHedged(request);
+        }
+        long remainingNanos = deadlineNanos == NO_DEADLINE ? 0 : deadlineNanos - System.nanoTime();
+        if (deadlineNanos != NO_DEADLINE && remainingNanos <= 0) {
+            throw new GrayskullException(504, "Deadline passed before the request to " + request.url() + " was sent");
+        }
+        EndpointSelector.Endpoint endpoint = endpointSelector == null ? null : endpointSelector.select();
+        Request routed = endpoint == null ? request : endpoint.route(request);
+        CircuitBreaker breaker = circuitBreaker(routed.url());
+        long permit = breaker == null ? CircuitBreaker.NO_PERMIT : breaker.tryAcquire();
+        if (breaker != null && permit == CircuitBreaker.NO_PERMIT) {
+            abandoned(null, permit, endpoint);
+            throw circuitOpen(routed.url());
+        }
+        long startTime = System.nanoTime();
+        Call call = httpClient.newCall(routed);
+        if (remainingNanos > 0) {
+            call.timeout().timeout(remainingNanos, TimeUnit.NANOSECONDS);
+        }
+        try (okhttp3.Response response = call.execute()) {
+            HttpResponse httpResponse = toHttpResponse(response, consumer);
+            succeeded(breaker, permit, endpoint, routed, startTime);
+            return httpResponse;
+        } catch (IOException e) {
+            // the call timeout cancels the call when it fires
+            if (call.isCanceled()) {
+                abandoned(breaker, permit, endpoint);
+            } else {
+                failed(breaker, permit, endpoint);
+            }
+            throw toRetryableException(e);
+        } catch (RetryableException e) {
+            failed(breaker, permit, endpoint);
+            throw e;
+        } catch (GrayskullException e) {
+            succeeded(breaker, permit, endpoint, routed, startTime);
+            throw e;
+        } catch (RuntimeException e) {
+            abandoned(breaker, permit, endpoint);
+            throw e;
+        }
+    }
+
+    /**
+     * Blocking wrapper around {@link #sendHedged(Request)}; the attempts run on OkHttp's dispatcher. The wait is
+     * bounded by the connect and read timeouts together, as an unhedged attempt would be, so that time spent
+     * queued behind {@link GrayskullClientConfiguration#getMaxRequestsPerHost()} cannot stretch it; a wait that
+     * runs out cancels the attempts and is retried like a read timeout.
+     */
+    private HttpResponse awaitHedged(Request request) throws RetryableException {
+        CompletableFuture<HttpResponse> future = sendHedged(request);
+        long timeoutMillis = (long) clientConfiguration.getConnectionTimeout() + clientConfiguration.getReadTimeout();
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new RetryableException(500, "Timeout while communicating with Grayskull server", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RetryableException) {
+                throw (RetryableException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new GrayskullException("Unexpected error during HTTP request", cause);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new GrayskullException("Interrupted while waiting for response", e);
+        }
+    }
+
+    /**
+     * Converts {@code response}, reading its body into a String or, when {@code consumer} is given, handing it
+     * over as a stream. Only the first {@value #MAX_ERROR_BODY_BYTES} bytes of an error body are read.
+     */
+    private HttpResponse toHttpResponse(okhttp3.Response response, BodyConsumer consumer)
+            throws IOException, RetryableException {
+        int statusCode = response.code();
+
+        if (!response.isSuccessful()) {
+            String errorBody = response.body() != null ? response.peekBody(MAX_ERROR_BODY_BYTES).string() : "";
+
+            // Determine if the error is retryable
+            if (isRetryableStatusCode(statusCode)) {
+                throw new RetryableException(statusCode, "Request failed: " + errorBody,
+                        retryAfterMillis(response.header("Retry-After"), System.currentTimeMillis()));
+            } else {
+                throw new GrayskullException(statusCode, "Request failed: " + errorBody);
+            }
+        }
+
+        String contentType = response.header("Content-Type", "unknown");
+        String protocol = response.protocol().toString();
+        if (consumer != null) {
+            if (response.body() != null) {
+                try (InputStream body = response.body().byteStream()) {
+                    consumer.accept(body);
+                } catch (JsonProcessingException e) {
+                    throw new GrayskullException(500, "Failed to parse response: " + e.getOriginalMessage(), e);
                 }
             }
+            return new HttpResponse(statusCode, null, contentType, protocol);
+        }
+        String responseBody = response.body() != null ? response.body().string() : null;
+        return new HttpResponse(statusCode, responseBody, contentType, protocol);
+    }
 
-            String responseBody = response.body() != null ? response.body().string() : null;
-            String contentType = response.header("Content-Type", "unknown");
-            String protocol = response.protocol().toString();
-            return new HttpResponse(statusCode, responseBody, contentType, protocol);
+    /**
+     * Parses a {@code Retry-After} header, given either as delta-seconds or as an HTTP date.
+     *
+     * @return the requested delay in milliseconds, or 0 when the header is absent, malformed or in the past
+     */
+    static long retryAfterMillis(String retryAfter, long nowMillis) {
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return 0;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            // not delta-seconds; try the HTTP-date form below
+        }
+        try {
+            long at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - nowMillis);
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring malformed Retry-After header: {}", value);
+            return 0;
+        }
+    }
 
-        } catch (SocketTimeoutException e) {
+    private static RetryableException toRetryableException(IOException e) {
+        if (e instanceof SocketTimeoutException) {
             // Timeout errors (connection or read timeout)
-            throw new RetryableException(500, "Timeout while communicating with Grayskull server", e);
-            
-        } catch (IOException e) {
-            // Network/IO errors are generally transient and worth retrying
-            throw new RetryableException(500, "Error communicating with Grayskull server", e);
+            return new RetryableException(500, "Timeout while communicating with Grayskull server", e);
         }
+        // Network/IO errors are generally transient and worth retrying
+        return new RetryableException(500, "Error communicating with Grayskull server", e);
     }
     
     private boolean isRetryableStatusCode(int statusCode) {
@@ -181,6 +709,7 @@ class GrayskullHttpClient {
     }
 
     void close() {
+        retryScheduler.shutdownNow();
         httpClient.dispatcher().executorService().shutdown();
         httpClient.connectionPool().evictAll();
     }
@@ -0,0 +1,56 @@
+package com.flipkart.grayskull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks recent request latencies and derives how long {@link GrayskullHttpClient} waits before hedging a
+ * request: the 95th percentile of the last {@value #WINDOW} successful requests, but at least
+ * {@code minDelayMillis}.
+ * <p>
+ * Recording is one array write; the percentile is recomputed from a copy of the window every
+ * {@value #RECOMPUTE_EVERY} samples, so reading the delay is a volatile read. Until {@value #MIN_SAMPLES}
+ * samples have been seen there is no estimate and requests are not hedged.
+ * </p>
+ */
+final class HedgeDelay {
+
+    static final int WINDOW = 128;
+    static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+    private static final double PERCENTILE = 0.95;
+
+    private final long minDelayMillis;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long delayMillis = -1;
+
+    HedgeDelay(long minDelayMillis) {
+        this.minDelayMillis = minDelayMillis;
+    }
+
+    void record(long latencyMillis) {
+        long seen = recorded.incrementAndGet();
+        samples.set((int) ((seen - 1) & (WINDOW - 1)), latencyMillis);
+        if (seen >= MIN_SAMPLES && (seen == MIN_SAMPLES || seen % RECOMPUTE_EVERY == 0)) {
+            delayMillis = Math.max(minDelayMillis, percentile((int) Math.min(seen, WINDOW)));
+        }
+    }
+
+    /**
+     * Returns the current hedge delay in milliseconds, or -1 while there are too few samples to hedge.
+     */
+    long delayMillis() {
+        return delayMillis;
+    }
+
+    private long percentile(int count) {
+        long[] window = new long[count];
+        for (int i = 0; i < count; i++) {
+            window[i] = samples.get(i);
+        }
+        Arrays.sort(window);
+        return window[(int) Math.ceil(PERCENTILE * count) - 1];
+    }
+}
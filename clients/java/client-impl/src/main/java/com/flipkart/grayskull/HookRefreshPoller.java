@@ -1,5 +1,8 @@
 package com.flipkart.grayskull;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.grayskull.constants.MDCKeys;
@@ -8,27 +11,46 @@ import com.flipkart.grayskull.hooks.RefreshHandlerRef;
 import com.flipkart.grayskull.hooks.SecretRefreshHook;
 import com.flipkart.grayskull.hooks.SecretState;
 import com.flipkart.grayskull.metrics.MetricsPublisher;
+import com.flipkart.grayskull.models.GrayskullClientConfiguration;
 import com.flipkart.grayskull.models.SecretValue;
 import com.flipkart.grayskull.models.exceptions.GrayskullException;
+import com.flipkart.grayskull.models.exceptions.RetryableException;
 import com.flipkart.grayskull.models.request.BatchGetSecretsRequest;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.response.HttpResponse;
 import com.flipkart.grayskull.models.response.Response;
+import com.flipkart.grayskull.models.response.SecretVersionsResponse;
 import okhttp3.HttpUrl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Owns the refresh-hook registry and the background poller/dispatcher pair that
@@ -45,30 +67,73 @@ import java.util.concurrent.atomic.AtomicInteger;
  *       exists the seed is 0, and the first poll delivers whatever the server holds.
  *       After seeding, {@code lastKnownVersion} is advanced exclusively by the bulk poll
  *       path — nothing else writes to it.</li>
- *   <li>A single-threaded {@link #scheduler} runs {@link #pollOnce()} every
- *       {@code intervalSeconds} (fixed-delay: the next tick starts only after the
- *       previous tick finishes). The first tick is delayed by {@code intervalSeconds}
- *       so the cadence is uniform from construction time. {@link #pollOnce()} returns
- *       immediately when the registry is empty, so a client that never registers a
- *       hook only pays a periodic no-op wakeup; callers that need an immediate
- *       materialized value should call {@code getSecret()} explicitly.</li>
+ *   <li>A single-threaded {@link #scheduler} runs {@link #pollOnce()} roughly every
+ *       {@code intervalSeconds}, counted from the end of the previous cycle. The exact
+ *       delay comes from {@link PollingSchedule}: it is jittered so that clients started
+ *       together do not poll in lock-step, grows while the server answers 429/5xx
+ *       (honouring {@code Retry-After}), and shrinks for a few cycles after a change.
+ *       The first tick is delayed by a jittered {@code intervalSeconds} as well.
+ *       {@link #pollOnce()} returns immediately when the registry is empty, so a client
+ *       that never registers a hook only pays a periodic no-op wakeup; callers that need
+ *       an immediate materialized value should call {@code getSecret()} explicitly.</li>
  *   <li>{@link #pollOnce()} snapshots the current registry, builds a
  *       {@link BatchGetSecretsRequest} (chunked into requests of at most
- *       {@link #MAX_BATCH_SECRETS} secrets), and POSTs each chunk via
- *       {@link GrayskullHttpClient}. Each entry tells the server the
+ *       {@link #MAX_BATCH_SECRETS} secrets), and POSTs the chunks concurrently on
+ *       {@link #chunkExecutor} via {@link GrayskullHttpClient}. The pool size bounds
+ *       how many chunks are in flight, and chunks still running when the per-cycle
+ *       deadline passes are cancelled, so a cycle takes roughly one round trip
+ *       regardless of registry size. Each entry tells the server the
  *       caller's last-known version; the server replies with rows whose version is
  *       strictly greater.</li>
  *   <li>Each updated row is handed to {@link #handleUpdatedSecret} which stages the new
  *       value in {@link SecretState#pendingUpdate} and submits {@link #runHooksFor} to
- *       the {@link #dispatcher} thread pool.</li>
+ *       the {@link #dispatcher}. By default the dispatcher is unbounded (virtual threads
+ *       where available), so a slow hook of one secret never delays delivery of another;
+ *       {@link GrayskullClientConfiguration#getHookDispatcherThreads()} caps it.</li>
  *   <li>{@link #runHooksFor} is non-reentrant per-secret (guarded by
  *       {@link SecretState#isExecuting}). It drains the pending update, advances
  *       {@link SecretState#lastKnownVersion} <em>first</em> (at-most-once delivery —
  *       see method Javadoc for rationale), then invokes every registered hook sequentially via
  *       {@link #deliverToHooks}. Hook exceptions are caught per-hook so one broken
- *       consumer cannot block delivery to the others.</li>
+ *       consumer cannot block delivery to the others, and with a hook timeout configured
+ *       a hung hook is interrupted and skipped (see {@link #invokeHook}).</li>
  * </ol>
  *
+ * <h2>Version check</h2>
+ * With {@link GrayskullClientConfiguration#isVersionCheckEnabled()} each chunk is polled in
+ * two phases: the versions endpoint reports the current version of every secret in the chunk,
+ * and only the secrets that advanced are then fetched through the batch endpoint. A cycle in
+ * which nothing changed therefore ships no secret values.
+ *
+ * <h2>Watch mode</h2>
+ * With {@link GrayskullClientConfiguration#isWatchEnabled()} the chunks are sent to the
+ * server's long-poll watch endpoint instead, which answers as soon as one of the listed
+ * secrets advances, or with no updates once the watch timeout passes. There are no poll
+ * cycles then: the {@link #scheduler} assigns the secrets to {@link WatchChunk}s of at most
+ * {@link #MAX_BATCH_SECRETS}, and each chunk runs its own loop on {@link #chunkExecutor}
+ * that sends the next watch as soon as the previous one returns, so a chunk that changes
+ * never waits for the watch of another chunk. After a failed watch, a chunk waits as its
+ * own {@link PollingSchedule} decides so an unavailable server is not hammered. The
+ * assignment is redone when a hook is registered and every {@code intervalSeconds}, which
+ * also picks up newly cached secrets and retires chunks whose secrets are all gone.
+ *
+ * <h2>Secret cache</h2>
+ * When the client cache is enabled, every cached secret that has no hook is polled
+ * alongside the registry, using the cached version as its last-known version. Updated
+ * values replace the cached ones and unchanged secrets are marked as confirmed, so the
+ * cache stays fresh for as long as polls succeed.
+ * <p>
+ * The server rejects a whole batch when any secret in it was deleted or is no longer
+ * readable by this client, so cached secrets are polled in chunks of their own and never
+ * share one with a registered secret. When such a chunk is rejected with 404 or 403 it is
+ * split in halves until the offending secrets are found, and those are dropped from the
+ * cache instead of failing every later cycle.
+ *
+ * <h2>Streaming</h2>
+ * Batch and watch responses are parsed straight from the response stream, and each updated
+ * secret is handed on as soon as it has been read, so a large rotation wave never holds the
+ * response body, or the whole list of parsed secrets, in memory at once.
+ *
  * <h2>Thread-safety contract</h2>
  * The registry is a {@link ConcurrentHashMap} and per-secret hook lists are
  * {@link java.util.concurrent.CopyOnWriteArrayList}, so registration / unregistration
@@ -81,38 +146,98 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 final class HookRefreshPoller {
     private static final Logger log = LoggerFactory.getLogger(HookRefreshPoller.class);
-    private static final TypeReference<Response<BatchGetSecretsResponse>> RESPONSE_TYPE =
-            new TypeReference<Response<BatchGetSecretsResponse>>() {};
+    private static final TypeReference<Response<SecretVersionsResponse>> VERSIONS_RESPONSE_TYPE =
+            new TypeReference<Response<SecretVersionsResponse>>() {};
 
-    private static final int DISPATCHER_THREADS = 5;
     private static final long SHUTDOWN_AWAIT_SECONDS = 10L;
-    private static final int MAX_BATCH_SECRETS = 50;
+    static final int MAX_BATCH_SECRETS = 50;
 
     private final ConcurrentHashMap<String, SecretState> registry = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler;
     private final ExecutorService dispatcher;
+    private final ExecutorService hookWorkers;
+    private final long hookTimeoutMillis;
     private final GrayskullHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String batchUrl;
+    private final String watchUrl;
+    private final String versionsUrl;
+    private final PollingSchedule schedule;
+    private final SecretCache cache;
+    private final ExecutorService chunkExecutor;
+    private final int cycleTimeoutSeconds;
+    private final long intervalMillis;
+    private final double jitterRatio;
+    /** Watch chunks by the time their loop was started; only touched on the {@link #scheduler}. */
+    private final List<WatchChunk> watchChunks = new ArrayList<>();
+    private volatile boolean closed;
 
+    /**
+     * Creates a poller with default polling parallelism and cycle deadline.
+     */
     HookRefreshPoller(GrayskullHttpClient httpClient,
                       ObjectMapper objectMapper,
                       String baseUrl,
                       int intervalSeconds) {
+        this(httpClient, objectMapper, pollerConfiguration(baseUrl, intervalSeconds), null);
+    }
+
+    HookRefreshPoller(GrayskullHttpClient httpClient,
+                      ObjectMapper objectMapper,
+                      GrayskullClientConfiguration configuration,
+                      SecretCache cache) {
         this.httpClient = httpClient;
+        this.cache = cache;
         this.objectMapper = objectMapper;
-        this.batchUrl = buildBatchUrl(baseUrl);
+        this.batchUrl = buildUrl(configuration.getHost(), "batch").build().toString();
+        int intervalSeconds = configuration.getPollingIntervalSeconds();
+        if (configuration.isWatchEnabled()) {
+            if (TimeUnit.SECONDS.toMillis(configuration.getWatchTimeoutSeconds()) >= configuration.getReadTimeout()) {
+                throw new IllegalArgumentException("Watch timeout (" + configuration.getWatchTimeoutSeconds()
+                        + "s) must be shorter than the read timeout (" + configuration.getReadTimeout() + "ms)");
+            }
+            this.watchUrl = buildUrl(configuration.getHost(), "watch")
+                    .addQueryParameter("timeoutSeconds", String.valueOf(configuration.getWatchTimeoutSeconds()))
+                    .build().toString();
+            // a watch is expected to take up to its timeout, so the cycle deadline comes on top of it
+            this.cycleTimeoutSeconds = configuration.getPollingCycleTimeoutSeconds() + configuration.getWatchTimeoutSeconds();
+        } else {
+            this.watchUrl = null;
+            this.cycleTimeoutSeconds = configuration.getPollingCycleTimeoutSeconds();
+        }
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        this.jitterRatio = configuration.getPollingJitterRatio();
+        this.schedule = new PollingSchedule(intervalMillis, jitterRatio, watchUrl != null);
+        this.versionsUrl = watchUrl == null && configuration.isVersionCheckEnabled()
+                ? buildUrl(configuration.getHost(), "versions").build().toString()
+                : null;
 
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(
-                daemonFactory("grayskull-poller-"));
-        this.dispatcher = Executors.newFixedThreadPool(
-                DISPATCHER_THREADS, daemonFactory("grayskull-hook-dispatcher-"));
+        ScheduledThreadPoolExecutor pollScheduler =
+                new ScheduledThreadPoolExecutor(1, daemonFactory("grayskull-poller-"));
+        // the poll loop re-schedules itself with a delay; do not let close() wait for that delay
+        pollScheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = pollScheduler;
+        this.dispatcher = configuration.getHookDispatcherThreads() > 0
+                ? Executors.newFixedThreadPool(configuration.getHookDispatcherThreads(),
+                        daemonFactory("grayskull-hook-dispatcher-"))
+                : newUnboundedExecutor("grayskull-hook-dispatcher-");
+        this.hookTimeoutMillis = TimeUnit.SECONDS.toMillis(configuration.getHookTimeoutSeconds());
+        // a timed hook runs on its own thread so the dispatcher can stop waiting for it; unbounded so that an
+        // abandoned hook never takes a slot another secret needs
+        this.hookWorkers = hookTimeoutMillis > 0 ? newUnboundedExecutor("grayskull-hook-worker-") : null;
+        // every watch is parked on the server for up to its timeout, so watches cannot take turns on a few
+        // threads: every watch chunk has a thread of its own
+        this.chunkExecutor = watchUrl != null
+                ? newUnboundedExecutor("grayskull-poll-chunk-")
+                : Executors.newFixedThreadPool(configuration.getPollingParallelism(),
+                        daemonFactory("grayskull-poll-chunk-"));
 
-        // fixed-delay (not fixed-rate): next tick starts intervalSeconds AFTER the previous finishes.
-        // pollOnce() returns immediately when the registry is empty, so a client that never
-        // registers a hook only pays the cost of a wakeup-and-noop every interval.
-        this.scheduler.scheduleWithFixedDelay(
-                this::pollOnce, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        // the next tick is scheduled only after the previous one finishes. pollCycle() returns immediately when
+        // the registry and cache are empty, so a client that never registers a hook nor caches a secret only pays
+        // the cost of a wakeup-and-noop every interval. In watch mode the scheduler only assigns secrets to the
+        // watch chunks, which poll on their own.
+        this.scheduler.schedule(watchUrl != null ? this::superviseWatches : this::pollLoop,
+                schedule.initialDelayMillis(), TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -141,6 +266,9 @@ final class HookRefreshPoller {
         });
         log.debug("Registered refresh hook for secretRef:{} (totalHooks:{}, initialKnownVersion:{})",
                 secretRef, state.hooks.size(), initialKnownVersion);
+        if (watchUrl != null) {
+            assignWatchChunksSoon();
+        }
         return new DefaultRefreshHandlerRef(secretRef, () -> unregister(secretRef, hook));
     }
 
@@ -155,86 +283,507 @@ final class HookRefreshPoller {
     }
 
     /**
-     * One scheduled poll cycle. Runs on the single-threaded {@link #scheduler}.
+     * Runs one extra cycle on the poll thread as soon as it is free, without moving the regular schedule.
+     * Used to validate cached values restored from a snapshot right after startup. In watch mode the cached
+     * secrets are handed to the watch chunks instead, whose first watch returns at once for a stale value.
      */
-    void pollOnce() {
-        if (registry.isEmpty()) {
+    void pollSoon() {
+        if (watchUrl != null) {
+            assignWatchChunksSoon();
             return;
         }
+        try {
+            scheduler.execute(this::pollCycle);
+        } catch (RejectedExecutionException e) {
+            log.debug("Poller is shut down; skipping the extra poll");
+        }
+    }
 
-        String requestId = UUID.randomUUID().toString();
-        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+    /**
+     * Runs one cycle and schedules the next one after the delay {@link #schedule} picks for its outcome.
+     */
+    private void pollLoop() {
+        long delayMillis = schedule.nextDelayMillis(pollCycle());
+        try {
+            scheduler.schedule(this::pollLoop, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Poller is shut down; stopping the poll loop");
+        }
+    }
 
-        long startTime = System.nanoTime();
-        int statusCode = 0;
+    /**
+     * Watch mode counterpart of {@link #pollLoop}: reassigns the secrets to the watch chunks and schedules the
+     * next assignment an interval later.
+     */
+    private void superviseWatches() {
+        assignWatchChunks();
+        try {
+            scheduler.schedule(this::superviseWatches,
+                    schedule.nextDelayMillis(PollingSchedule.CycleResult.IDLE), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Poller is shut down; stopping the watch supervisor");
+        }
+    }
 
+    private void assignWatchChunksSoon() {
         try {
-            List<BatchGetSecretsRequest.Entry> entries = new ArrayList<>(registry.size());
-            for (SecretState state : registry.values()) {
-                entries.add(new BatchGetSecretsRequest.Entry(
-                        state.projectId, state.secretName, state.lastKnownVersion.get()));
+            scheduler.execute(this::assignWatchChunks);
+        } catch (RejectedExecutionException e) {
+            log.debug("Poller is shut down; not assigning watch chunks");
+        }
+    }
+
+    /**
+     * Brings the watch chunks in line with the registry and the cache: secrets that are gone, or moved
+     * between the registry and the cache, leave their chunk, chunks left empty are retired, and secrets not
+     * watched yet join a chunk with room or start a new one. Registered and cache-only secrets never share a
+     * chunk, for the same reason as in {@link #pollCycle}. Runs on the {@link #scheduler}.
+     */
+    private void assignWatchChunks() {
+        if (closed) {
+            return;
+        }
+        try {
+            Set<String> watched = new HashSet<>();
+            for (Iterator<WatchChunk> it = watchChunks.iterator(); it.hasNext(); ) {
+                WatchChunk chunk = it.next();
+                chunk.secretRefs.removeIf(secretRef -> !chunk.covers(secretRef));
+                if (chunk.secretRefs.isEmpty()) {
+                    chunk.retired = true;
+                    it.remove();
+                } else {
+                    watched.addAll(chunk.secretRefs);
+                }
             }
-            if (entries.isEmpty()) {
+            for (String secretRef : registry.keySet()) {
+                if (!watched.contains(secretRef)) {
+                    addToWatchChunk(secretRef, false);
+                }
+            }
+            if (cache != null) {
+                for (String secretRef : cache.entries().keySet()) {
+                    if (!watched.contains(secretRef) && !registry.containsKey(secretRef)) {
+                        addToWatchChunk(secretRef, true);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Unhandled error assigning watch chunks; suppressing to keep poller alive", t);
+        }
+    }
+
+    private void addToWatchChunk(String secretRef, boolean cacheOnly) {
+        for (WatchChunk chunk : watchChunks) {
+            if (chunk.cacheOnly == cacheOnly && chunk.secretRefs.size() < MAX_BATCH_SECRETS) {
+                chunk.secretRefs.add(secretRef);
                 return;
             }
+        }
+        WatchChunk chunk = new WatchChunk(cacheOnly);
+        chunk.secretRefs.add(secretRef);
+        chunkExecutor.execute(chunk);
+        watchChunks.add(chunk);
+    }
 
-            int totalSecrets = entries.size();
-            boolean pollFailed = false;
-            boolean anySecretUpdated = false;
+    /**
+     * Up to {@link #MAX_BATCH_SECRETS} secrets watched by a loop of their own. The {@link #scheduler} changes
+     * the set of secrets; the loop reads it before every watch.
+     */
+    private final class WatchChunk implements Runnable {
+        final Set<String> secretRefs = ConcurrentHashMap.newKeySet();
+        final boolean cacheOnly;
+        final PollingSchedule chunkSchedule = new PollingSchedule(intervalMillis, jitterRatio, true);
+        volatile boolean retired;
 
-            for (int from = 0; from < entries.size(); from += MAX_BATCH_SECRETS) {
-                int to = Math.min(from + MAX_BATCH_SECRETS, entries.size());
-                List<BatchGetSecretsRequest.Entry> chunk = entries.subList(from, to);
+        WatchChunk(boolean cacheOnly) {
+            this.cacheOnly = cacheOnly;
+        }
 
-                try {
-                    String body = objectMapper.writeValueAsString(new BatchGetSecretsRequest(chunk));
-                    if (totalSecrets > MAX_BATCH_SECRETS) {
-                        log.debug("Polling batch refresh chunk {}-{} of {} secret(s)", from + 1, to, totalSecrets);
-                    } else {
-                        log.debug("Polling batch refresh for {} secret(s)", totalSecrets);
-                    }
+        boolean covers(String secretRef) {
+            boolean registered = registry.containsKey(secretRef);
+            return cacheOnly ? !registered && cache.lastKnown(secretRef) != null : registered;
+        }
 
-                    HttpResponse httpResponse = httpClient.doPostWithRetry(batchUrl, body);
-                    if (!pollFailed) {
-                        statusCode = httpResponse.getStatusCode();
+        @Override
+        public void run() {
+            try {
+                while (!closed && !retired) {
+                    long delayMillis = chunkSchedule.nextDelayMillis(watchOnce());
+                    if (delayMillis > 0) {
+                        Thread.sleep(delayMillis);
                     }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
 
-                    Response<BatchGetSecretsResponse> parsed =
-                            objectMapper.readValue(httpResponse.getBody(), RESPONSE_TYPE);
-                    BatchGetSecretsResponse payload = parsed.getData();
-                    if (payload == null || payload.getUpdatedSecrets() == null
-                            || payload.getUpdatedSecrets().isEmpty()) {
-                        continue;
-                    }
+        /**
+         * Sends one watch for the secrets of this chunk and reports its outcome to {@link #chunkSchedule}.
+         */
+        private PollingSchedule.CycleResult watchOnce() {
+            List<BatchGetSecretsRequest.Entry> entries = new ArrayList<>(secretRefs.size());
+            for (String secretRef : secretRefs) {
+                BatchGetSecretsRequest.Entry entry = cacheOnly ? cachedEntry(secretRef) : registeredEntry(secretRef);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            if (entries.isEmpty()) {
+                return PollingSchedule.CycleResult.IDLE;
+            }
+
+            long startTime = System.nanoTime();
+            long deadlineNanos = startTime + TimeUnit.SECONDS.toNanos(cycleTimeoutSeconds);
+            String requestId = UUID.randomUUID().toString();
+            ChunkOutcome outcome;
+            try {
+                outcome = cacheOnly
+                        ? pollCachedChunk(entries, 0, entries.size(), watchUrl, deadlineNanos, requestId)
+                        : pollChunk(entries, 0, entries.size(), watchUrl, deadlineNanos, requestId);
+            } catch (Throwable t) {
+                log.error("Unhandled error in watch of {} secret(s); suppressing to keep the watch alive",
+                        entries.size(), t);
+                outcome = ChunkOutcome.failed(500);
+            }
+            long durationNanos = System.nanoTime() - startTime;
+            MetricsPublisher.getInstance().recordRequest(
+                    "watchSecrets", outcome.statusCode, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            // a watch cut off at its deadline is a long poll held too long, not a sign of an overloaded server
+            boolean throttled = outcome.failed && PollingSchedule.isBackoffStatus(outcome.statusCode)
+                    && System.nanoTime() - deadlineNanos < 0;
+            return new PollingSchedule.CycleResult(true, outcome.failed, throttled, outcome.updated,
+                    outcome.retryAfterMillis);
+        }
+    }
+
+    /**
+     * The entry to poll a registered secret with, or {@code null} once it is unregistered.
+     */
+    private BatchGetSecretsRequest.Entry registeredEntry(String secretRef) {
+        SecretState state = registry.get(secretRef);
+        return state == null ? null
+                : new BatchGetSecretsRequest.Entry(state.projectId, state.secretName, knownVersion(state));
+    }
+
+    /**
+     * The entry to revalidate a cached secret with, or {@code null} once it left the cache.
+     */
+    private BatchGetSecretsRequest.Entry cachedEntry(String secretRef) {
+        SecretCache.Entry entry = cache.lastKnown(secretRef);
+        return entry == null ? null
+                : new BatchGetSecretsRequest.Entry(entry.projectId, entry.secretName, entry.value.getDataVersion());
+    }
+
+    /**
+     * The newest version of {@code state} the poller has seen, counting an update still waiting for
+     * {@link #runHooksFor}, so a watch re-issued right after an update does not report it once more. The
+     * pending update is read first: {@link #runHooksFor} advances {@link SecretState#lastKnownVersion} before
+     * it clears the pending update.
+     */
+    private static int knownVersion(SecretState state) {
+        SecretValue pending = state.pendingUpdate.get();
+        int known = state.lastKnownVersion.get();
+        return pending == null ? known : Math.max(known, pending.getDataVersion());
+    }
+
+    /**
+     * Runs one poll cycle on the calling thread.
+     *
+     * @return whether any secret was polled and every chunk succeeded
+     */
+    boolean pollOnce() {
+        return pollCycle().succeeded();
+    }
 
-                    for (BatchGetSecretsResponse.UpdatedSecret item : payload.getUpdatedSecrets()) {
-                        handleUpdatedSecret(item);
-                        anySecretUpdated = true;
+    /**
+     * One scheduled poll cycle. Runs on the single-threaded {@link #scheduler}.
+     */
+    private PollingSchedule.CycleResult pollCycle() {
+        if (registry.isEmpty() && (cache == null || cache.size() == 0)) {
+            return PollingSchedule.CycleResult.IDLE;
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+
+        long startTime = System.nanoTime();
+        int statusCode = 0;
+        boolean pollFailed = true;
+        boolean throttled = false;
+        boolean anySecretUpdated = false;
+        long retryAfterMillis = 0;
+
+        try {
+            List<BatchGetSecretsRequest.Entry> registered = new ArrayList<>(registry.size());
+            for (SecretState state : registry.values()) {
+                registered.add(new BatchGetSecretsRequest.Entry(state.projectId, state.secretName, knownVersion(state)));
+            }
+            List<BatchGetSecretsRequest.Entry> cacheOnly = new ArrayList<>();
+            if (cache != null) {
+                for (Map.Entry<String, SecretCache.Entry> cached : cache.entries().entrySet()) {
+                    if (!registry.containsKey(cached.getKey())) {
+                        SecretCache.Entry entry = cached.getValue();
+                        cacheOnly.add(new BatchGetSecretsRequest.Entry(
+                                entry.projectId, entry.secretName, entry.value.getDataVersion()));
                     }
-                } catch (GrayskullException ex) {
-                    pollFailed = true;
-                    statusCode = ex.getStatusCode();
-                    log.error("Batch refresh failed for secrets {}..{}: {}", from + 1, to, ex.getMessage(), ex);
-                } catch (Exception ex) {
+                }
+            }
+            int totalSecrets = registered.size() + cacheOnly.size();
+            if (totalSecrets == 0) {
+                return PollingSchedule.CycleResult.IDLE;
+            }
+
+            long deadlineNanos = startTime + TimeUnit.SECONDS.toNanos(cycleTimeoutSeconds);
+            List<Callable<ChunkOutcome>> chunks = new ArrayList<>();
+            addChunks(chunks, registered, 0, totalSecrets, false, deadlineNanos, requestId);
+            addChunks(chunks, cacheOnly, registered.size(), totalSecrets, true, deadlineNanos, requestId);
+
+            // invokeAll cancels whatever has not finished when the cycle deadline passes, so a slow
+            // chunk can delay the next cycle by at most cycleTimeoutSeconds. Interrupting a chunk cannot
+            // stop a blocking HTTP call, so the calls themselves end at the same deadline.
+            List<Future<ChunkOutcome>> outcomes =
+                    chunkExecutor.invokeAll(chunks, cycleTimeoutSeconds, TimeUnit.SECONDS);
+
+            pollFailed = false;
+            int timedOut = 0;
+            for (Future<ChunkOutcome> future : outcomes) {
+                ChunkOutcome outcome;
+                boolean abandoned = false;
+                try {
+                    outcome = future.get();
+                } catch (CancellationException e) {
+                    timedOut++;
+                    abandoned = true;
+                    outcome = ChunkOutcome.failed(504);
+                } catch (ExecutionException e) {
+                    log.error("Batch refresh chunk failed unexpectedly", e.getCause());
+                    outcome = ChunkOutcome.failed(500);
+                }
+                if (outcome.failed) {
                     pollFailed = true;
-                    statusCode = 500;
-                    log.error("Batch refresh failed for secrets {}..{}: {}", from + 1, to, ex.getMessage(), ex);
+                    statusCode = outcome.statusCode;
+                    // a watch that overran is a long poll held too long, not a sign of an overloaded server
+                    throttled |= PollingSchedule.isBackoffStatus(outcome.statusCode) && !(abandoned && watchUrl != null);
+                    retryAfterMillis = Math.max(retryAfterMillis, outcome.retryAfterMillis);
+                } else if (!pollFailed) {
+                    statusCode = outcome.statusCode;
                 }
+                anySecretUpdated |= outcome.updated;
+            }
+            if (timedOut > 0) {
+                log.warn("Batch refresh cycle exceeded its {}s deadline; abandoned {} of {} chunk(s)",
+                        cycleTimeoutSeconds, timedOut, outcomes.size());
             }
 
             if (!pollFailed && !anySecretUpdated) {
                 log.debug("No secret versions advanced this cycle");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Refresh poll cycle interrupted");
+            statusCode = 500;
+            pollFailed = true;
         } catch (Throwable t) {
             log.error("Unhandled error in refresh poll cycle; suppressing to keep poller alive", t);
             statusCode = 500;
+            pollFailed = true;
         } finally {
             long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
-            MetricsPublisher.getInstance().recordRequest("batchGetSecrets", statusCode, durationMs);
+            MetricsPublisher.getInstance().recordRequest(
+                    watchUrl != null ? "watchSecrets" : "batchGetSecrets", statusCode, durationMs);
+            MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
+        }
+        return new PollingSchedule.CycleResult(true, pollFailed, throttled, anySecretUpdated, retryAfterMillis);
+    }
+
+    /**
+     * Splits {@code entries} into chunks of at most {@link #MAX_BATCH_SECRETS} secrets. {@code from} is the
+     * position of the first entry within the cycle, used for logging only.
+     */
+    private void addChunks(List<Callable<ChunkOutcome>> chunks, List<BatchGetSecretsRequest.Entry> entries,
+                           int from, int totalSecrets, boolean cacheOnly, long deadlineNanos, String requestId) {
+        String url = watchUrl != null ? watchUrl : batchUrl;
+        for (int start = 0; start < entries.size(); start += MAX_BATCH_SECRETS) {
+            List<BatchGetSecretsRequest.Entry> chunk =
+                    entries.subList(start, Math.min(start + MAX_BATCH_SECRETS, entries.size()));
+            int chunkStart = from + start;
+            chunks.add(cacheOnly
+                    ? () -> pollCachedChunk(chunk, chunkStart, totalSecrets, url, deadlineNanos, requestId)
+                    : () -> pollChunk(chunk, chunkStart, totalSecrets, url, deadlineNanos, requestId));
+        }
+    }
+
+    /**
+     * Polls a chunk of cached secrets that have no hook. When the server rejects the chunk because one of its
+     * secrets is missing (404) or no longer readable (403), the halves are polled again on their own until the
+     * offending secrets are isolated, and those are dropped from the cache. The halves go to the batch endpoint
+     * even in watch mode, so the search does not park on one watch after another.
+     */
+    private ChunkOutcome pollCachedChunk(List<BatchGetSecretsRequest.Entry> chunk, int from, int totalSecrets,
+                                         String url, long deadlineNanos, String requestId) {
+        ChunkOutcome outcome = pollChunk(chunk, from, totalSecrets, url, deadlineNanos, requestId);
+        if (!outcome.failed || (outcome.statusCode != 404 && outcome.statusCode != 403)) {
+            return outcome;
+        }
+        if (chunk.size() == 1) {
+            BatchGetSecretsRequest.Entry entry = chunk.get(0);
+            String secretRef = entry.getProjectId() + ":" + entry.getSecretName();
+            log.warn("Dropping secretRef:{} from the cache; the server answered {} for it", secretRef,
+                    outcome.statusCode);
+            cache.remove(secretRef, entry.getLastKnownVersion());
+            return new ChunkOutcome(200, false, false, 0);
+        }
+        int half = chunk.size() / 2;
+        ChunkOutcome first = pollCachedChunk(chunk.subList(0, half), from, totalSecrets, batchUrl, deadlineNanos,
+                requestId);
+        ChunkOutcome second = pollCachedChunk(chunk.subList(half, chunk.size()), from + half, totalSecrets,
+                batchUrl, deadlineNanos, requestId);
+        return ChunkOutcome.merge(first, second);
+    }
+
+    /**
+     * Polls one chunk of at most {@link #MAX_BATCH_SECRETS} secrets. Runs on {@link #chunkExecutor};
+     * failures are logged and reported in the outcome rather than thrown. Every request ends by
+     * {@code deadlineNanos}, the end of the cycle.
+     */
+    private ChunkOutcome pollChunk(List<BatchGetSecretsRequest.Entry> chunk, int from, int totalSecrets,
+                                   String url, long deadlineNanos, String requestId) {
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, requestId);
+        int to = from + chunk.size();
+        try {
+            String body = objectMapper.writeValueAsString(new BatchGetSecretsRequest(chunk));
+            if (totalSecrets > MAX_BATCH_SECRETS) {
+                log.debug("Polling batch refresh chunk {}-{} of {} secret(s)", from + 1, to, totalSecrets);
+            } else {
+                log.debug("Polling batch refresh for {} secret(s)", totalSecrets);
+            }
+
+            int statusCode = 0;
+            boolean updated = false;
+            List<BatchGetSecretsRequest.Entry> toFetch = chunk;
+            if (versionsUrl != null) {
+                AtomicReference<Response<SecretVersionsResponse>> versions = new AtomicReference<>();
+                HttpResponse versionsResponse = httpClient.doPostWithRetry(versionsUrl, body,
+                        in -> versions.set(objectMapper.readValue(in, VERSIONS_RESPONSE_TYPE)), deadlineNanos);
+                statusCode = versionsResponse.getStatusCode();
+                toFetch = changedEntries(chunk, versions.get() == null ? null : versions.get().getData());
+                log.debug("Version check found {} of {} secret(s) changed", toFetch.size(), chunk.size());
+                if (!toFetch.isEmpty()) {
+                    body = objectMapper.writeValueAsString(new BatchGetSecretsRequest(toFetch));
+                }
+            }
+
+            if (!toFetch.isEmpty()) {
+                int[] handled = {0};
+                HttpResponse httpResponse = httpClient.doPostWithRetry(url, body,
+                        in -> handled[0] += readUpdatedSecrets(in, this::handleUpdatedSecret), deadlineNanos);
+                statusCode = httpResponse.getStatusCode();
+                updated = handled[0] > 0;
+            }
+            confirmCached(chunk);
+            return new ChunkOutcome(statusCode, false, updated, 0);
+        } catch (GrayskullException ex) {
+            log.error("Batch refresh failed for secrets {}..{}: {}", from + 1, to, ex.getMessage(), ex);
+            long retryAfterMillis = ex.getCause() instanceof RetryableException
+                    ? ((RetryableException) ex.getCause()).getRetryAfterMillis() : 0;
+            return new ChunkOutcome(ex.getStatusCode(), true, false, retryAfterMillis);
+        } catch (Exception ex) {
+            log.error("Batch refresh failed for secrets {}..{}: {}", from + 1, to, ex.getMessage(), ex);
+            return ChunkOutcome.failed(500);
+        } finally {
             MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
         }
     }
 
+    /**
+     * Streams a {@code Response<BatchGetSecretsResponse>} body and passes every entry of
+     * {@code data.updatedSecrets} to {@code handler} as soon as it is parsed. Other fields are skipped.
+     *
+     * @return the number of updated secrets handled
+     */
+    int readUpdatedSecrets(InputStream body, Consumer<BatchGetSecretsResponse.UpdatedSecret> handler)
+            throws IOException {
+        int handled = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT || !"data".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String dataField = parser.getCurrentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY || !"updatedSecrets".equals(dataField)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        handler.accept(objectMapper.readValue(parser, BatchGetSecretsResponse.UpdatedSecret.class));
+                        handled++;
+                    }
+                }
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * Selects the entries whose server-side version is newer than the version the poller knows. An entry
+     * the server did not report on is kept, so the batch endpoint decides about it.
+     */
+    private static List<BatchGetSecretsRequest.Entry> changedEntries(List<BatchGetSecretsRequest.Entry> chunk,
+                                                                     SecretVersionsResponse versions) {
+        Map<String, Integer> current = new HashMap<>();
+        if (versions != null && versions.getSecrets() != null) {
+            for (SecretVersionsResponse.SecretVersion version : versions.getSecrets()) {
+                current.put(version.getProjectId() + ":" + version.getSecretName(), version.getCurrentDataVersion());
+            }
+        }
+        List<BatchGetSecretsRequest.Entry> changed = new ArrayList<>();
+        for (BatchGetSecretsRequest.Entry entry : chunk) {
+            Integer version = current.get(entry.getProjectId() + ":" + entry.getSecretName());
+            if (version == null || version > entry.getLastKnownVersion()) {
+                changed.add(entry);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Result of {@link #pollChunk}: the HTTP status to report, whether any secret advanced and, for
+     * throttled requests, the {@code Retry-After} delay the server asked for.
+     */
+    private static final class ChunkOutcome {
+        final int statusCode;
+        final boolean failed;
+        final boolean updated;
+        final long retryAfterMillis;
+
+        ChunkOutcome(int statusCode, boolean failed, boolean updated, long retryAfterMillis) {
+            this.statusCode = statusCode;
+            this.failed = failed;
+            this.updated = updated;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        static ChunkOutcome failed(int statusCode) {
+            return new ChunkOutcome(statusCode, true, false, 0);
+        }
+
+        /**
+         * Combines the outcomes of two halves of a chunk, reporting the status of the failed half if any.
+         */
+        static ChunkOutcome merge(ChunkOutcome first, ChunkOutcome second) {
+            ChunkOutcome reported = first.failed ? first : second;
+            return new ChunkOutcome(reported.statusCode, first.failed || second.failed,
+                    first.updated || second.updated, Math.max(first.retryAfterMillis, second.retryAfterMillis));
+        }
+    }
+
     /**
      * Stages a server-reported update for delivery and submits the per-secret runner.
      * <p>
@@ -246,15 +795,32 @@ final class HookRefreshPoller {
      */
     private void handleUpdatedSecret(BatchGetSecretsResponse.UpdatedSecret item) {
         String secretRef = item.getProjectId() + ":" + item.getSecretName();
+        SecretValue value = new SecretValue(item.getDataVersion(), item.getPublicPart(), item.getPrivatePart());
+        if (cache != null) {
+            cache.refresh(item.getProjectId(), item.getSecretName(), value);
+        }
         SecretState state = registry.get(secretRef);
         if (state == null) {
             return;
         }
-        state.pendingUpdate.set(new SecretValue(
-                item.getDataVersion(), item.getPublicPart(), item.getPrivatePart()));
+        state.pendingUpdate.set(value);
         dispatcher.submit(() -> runHooksFor(secretRef, state));
     }
 
+    /**
+     * Marks cached secrets of a successfully polled chunk as confirmed. Secrets the server reported as
+     * updated were already replaced with a newer version, so the version check in
+     * {@link SecretCache#confirm} leaves them alone.
+     */
+    private void confirmCached(List<BatchGetSecretsRequest.Entry> chunk) {
+        if (cache == null) {
+            return;
+        }
+        for (BatchGetSecretsRequest.Entry entry : chunk) {
+            cache.confirm(entry.getProjectId() + ":" + entry.getSecretName(), entry.getLastKnownVersion());
+        }
+    }
+
     /**
      * Drains {@link SecretState#pendingUpdate} and invokes every hook, sequentially.
      * <p>
@@ -275,9 +841,12 @@ final class HookRefreshPoller {
         }
         try {
             SecretValue value;
-            while ((value = state.pendingUpdate.getAndSet(null)) != null) {
+            while ((value = state.pendingUpdate.get()) != null) {
+                // advanced before the pending update is cleared, so knownVersion() never goes back
                 state.lastKnownVersion.set(value.getDataVersion());
-                deliverToHooks(secretRef, state, value);
+                if (state.pendingUpdate.compareAndSet(value, null)) {
+                    deliverToHooks(secretRef, state, value);
+                }
             }
         } finally {
             state.isExecuting.set(false);
@@ -298,26 +867,79 @@ final class HookRefreshPoller {
     private void deliverToHooks(String secretRef, SecretState state, SecretValue value) {
         for (SecretRefreshHook hook : state.hooks) {
             long startTime = System.nanoTime();
-            boolean success = true;
+            int statusCode = 200;
             try {
-                hook.onUpdate(value);
+                invokeHook(hook, value);
+            } catch (TimeoutException e) {
+                statusCode = 504;
+                log.error("Consumer hook for {} did not finish within {}ms; interrupted it and moved on",
+                        secretRef, hookTimeoutMillis);
             } catch (Exception e) {
-                success = false;
+                statusCode = 500;
                 log.error("Consumer hook failed for {}", secretRef, e);
             } finally {
                 long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
-                MetricsPublisher.getInstance().recordRequest(
-                        "hook.execute." + secretRef, success ? 200 : 500, durationMs);
+                MetricsPublisher.getInstance().recordSecretRequest("hook.execute", secretRef, statusCode, durationMs);
             }
         }
     }
 
+    /**
+     * Runs {@code hook} on the calling dispatcher thread, or on {@link #hookWorkers} when a hook timeout is
+     * configured. A hook that overruns the timeout is interrupted and abandoned with a {@link TimeoutException}.
+     */
+    private void invokeHook(SecretRefreshHook hook, SecretValue value) throws Exception {
+        if (hookWorkers == null) {
+            hook.onUpdate(value);
+            return;
+        }
+        Future<?> execution = hookWorkers.submit(() -> {
+            hook.onUpdate(value);
+            return null;
+        });
+        try {
+            execution.get(hookTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            execution.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            execution.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
     void close() {
+        closed = true;
         shutdownExecutor(scheduler, "poller");
+        if (watchUrl != null) {
+            // the watch loops only end between watches, and a parked watch has nothing worth waiting for
+            chunkExecutor.shutdownNow();
+        }
+        shutdownExecutor(chunkExecutor, "poll-chunk");
         shutdownExecutor(dispatcher, "dispatcher");
+        if (hookWorkers != null) {
+            shutdownExecutor(hookWorkers, "hook-worker");
+        }
+    }
+
+    private static GrayskullClientConfiguration pollerConfiguration(String baseUrl, int intervalSeconds) {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost(baseUrl);
+        configuration.setPollingIntervalSeconds(intervalSeconds);
+        return configuration;
     }
 
-    private static String buildBatchUrl(String baseUrl) {
+    private static HttpUrl.Builder buildUrl(String baseUrl, String endpoint) {
         HttpUrl parsed = HttpUrl.parse(baseUrl);
         if (parsed == null) {
             throw new IllegalStateException("Invalid baseUrl: " + baseUrl);
@@ -325,11 +947,10 @@ final class HookRefreshPoller {
         return parsed.newBuilder()
                 .addPathSegment("v1")
                 .addPathSegment("secrets")
-                .addPathSegment("batch")
-                .build().toString();
+                .addPathSegment(endpoint);
     }
 
-    private static ThreadFactory daemonFactory(String prefix) {
+    static ThreadFactory daemonFactory(String prefix) {
         return new ThreadFactory() {
             private final AtomicInteger counter = new AtomicInteger();
 
@@ -342,6 +963,24 @@ final class HookRefreshPoller {
         };
     }
 
+    /**
+     * Returns an executor that starts a new thread for every task that finds no idle one: a
+     * virtual-thread-per-task executor when the runtime has one (Java 21 and later), otherwise a cached pool
+     * of daemon threads. The SDK targets Java 8, so the virtual-thread factory is looked up reflectively.
+     */
+    static ExecutorService newUnboundedExecutor(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Executors.newCachedThreadPool(daemonFactory(prefix));
+        }
+    }
+
     private static void shutdownExecutor(ExecutorService executor, String name) {
         executor.shutdown();
         try {
@@ -0,0 +1,114 @@
+package com.flipkart.grayskull;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides how long {@link HookRefreshPoller} waits before each poll cycle.
+ * <ul>
+ *   <li><strong>Jitter:</strong> every delay, including the one before the first cycle, is spread
+ *       by up to &plusmn;{@code jitterRatio}, so clients started by the same deployment drift apart
+ *       instead of polling the server in synchronized waves.</li>
+ *   <li><strong>Backoff:</strong> after a cycle the server throttled (429) or failed (5xx), the
+ *       delay doubles with each consecutive such cycle, up to {@link #MAX_BACKOFF_MULTIPLIER} times
+ *       the interval, and is never shorter than a {@code Retry-After} the server sent.</li>
+ *   <li><strong>Fast follow-up:</strong> after a cycle that delivered a change, the next
+ *       {@link #FAST_CYCLES_AFTER_CHANGE} cycles run at a quarter of the interval (at least one
+ *       second), since related secrets tend to be rotated together.</li>
+ *   <li><strong>Watch mode:</strong> a successful cycle is followed immediately, because the watch
+ *       request itself waits on the server.</li>
+ * </ul>
+ * Not thread-safe; each instance is used by one thread, the poller's scheduler thread or, in watch mode,
+ * the loop of one watch chunk.
+ */
+final class PollingSchedule {
+
+    static final int FAST_CYCLES_AFTER_CHANGE = 3;
+    static final int MAX_BACKOFF_MULTIPLIER = 8;
+    private static final long MIN_FAST_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Outcome of one poll cycle, as far as scheduling is concerned.
+     */
+    static final class CycleResult {
+        static final CycleResult IDLE = new CycleResult(false, false, false, false, 0);
+
+        final boolean polled;
+        final boolean failed;
+        final boolean throttled;
+        final boolean changed;
+        final long retryAfterMillis;
+
+        CycleResult(boolean polled, boolean failed, boolean throttled, boolean changed, long retryAfterMillis) {
+            this.polled = polled;
+            this.failed = failed;
+            this.throttled = throttled;
+            this.changed = changed;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        boolean succeeded() {
+            return polled && !failed;
+        }
+    }
+
+    private final long intervalMillis;
+    private final double jitterRatio;
+    private final boolean immediateAfterSuccess;
+    private final DoubleSupplier random;
+    private int consecutiveBackoffs;
+    private int fastCyclesRemaining;
+
+    PollingSchedule(long intervalMillis, double jitterRatio, boolean immediateAfterSuccess) {
+        this(intervalMillis, jitterRatio, immediateAfterSuccess, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    PollingSchedule(long intervalMillis, double jitterRatio, boolean immediateAfterSuccess, DoubleSupplier random) {
+        this.intervalMillis = intervalMillis;
+        this.jitterRatio = jitterRatio;
+        this.immediateAfterSuccess = immediateAfterSuccess;
+        this.random = random;
+    }
+
+    /**
+     * Whether a failure with this HTTP status should slow the poller down.
+     */
+    static boolean isBackoffStatus(int statusCode) {
+        return statusCode == 429 || (statusCode >= 500 && statusCode < 600);
+    }
+
+    long initialDelayMillis() {
+        return jitter(intervalMillis);
+    }
+
+    long nextDelayMillis(CycleResult result) {
+        if (result.throttled) {
+            consecutiveBackoffs++;
+            fastCyclesRemaining = 0;
+            long multiplier = Math.min(1L << Math.min(consecutiveBackoffs, 30), MAX_BACKOFF_MULTIPLIER);
+            return Math.max(jitter(intervalMillis * multiplier), result.retryAfterMillis);
+        }
+        consecutiveBackoffs = 0;
+        if (result.succeeded()) {
+            if (immediateAfterSuccess) {
+                return 0;
+            }
+            if (result.changed) {
+                fastCyclesRemaining = FAST_CYCLES_AFTER_CHANGE;
+            }
+            if (fastCyclesRemaining > 0) {
+                fastCyclesRemaining--;
+                return jitter(Math.min(intervalMillis, Math.max(MIN_FAST_INTERVAL_MILLIS, intervalMillis / 4)));
+            }
+        }
+        return jitter(intervalMillis);
+    }
+
+    private long jitter(long delayMillis) {
+        if (jitterRatio == 0) {
+            return delayMillis;
+        }
+        double factor = 1 + jitterRatio * (2 * random.getAsDouble() - 1);
+        return (long) (delayMillis * factor);
+    }
+}
@@ -0,0 +1,175 @@
+package com.flipkart.grayskull;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.flipkart.grayskull.models.SecretBytes;
+import com.flipkart.grayskull.models.SecretValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads the {@code data} of a secret value response into a {@link SecretBytes} without creating a
+ * {@code String} for the private part.
+ * <p>
+ * The private part is taken from the parser's character buffer and encoded straight into a buffer of its
+ * exact UTF-8 length, after which the characters in the parser's buffer are overwritten, so the value does
+ * not linger in the buffer Jackson recycles for later parsers. Bytes already read from the socket are not
+ * reachable from here and are left to the HTTP client's buffers.
+ * </p>
+ */
+final class SecretBytesReader {
+
+    private SecretBytesReader() {
+    }
+
+    /**
+     * Parses a {@code Response<SecretValue>} body.
+     *
+     * @return the value, or {@code null} when the response has no data
+     */
+    static SecretBytes read(JsonFactory factory, InputStream body, boolean offHeap) throws IOException {
+        try (JsonParser parser = factory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            SecretBytes value = null;
+            try {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    if (parser.nextToken() != JsonToken.START_OBJECT || !"data".equals(field)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    if (value != null) {
+                        value.close();
+                    }
+                    value = readData(parser, offHeap);
+                }
+            } catch (IOException | RuntimeException e) {
+                if (value != null) {
+                    value.close();
+                }
+                throw e;
+            }
+            return value;
+        }
+    }
+
+    private static SecretBytes readData(JsonParser parser, boolean offHeap) throws IOException {
+        int dataVersion = 0;
+        String publicPart = null;
+        ByteBuffer privatePart = null;
+        try {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("dataVersion".equals(field)) {
+                    dataVersion = parser.getValueAsInt();
+                } else if ("publicPart".equals(field)) {
+                    publicPart = token == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                } else if ("privatePart".equals(field) && token == JsonToken.VALUE_STRING) {
+                    wipe(privatePart);
+                    privatePart = encode(parser, offHeap);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            wipe(privatePart);
+            throw e;
+        }
+        return new SecretBytes(dataVersion, publicPart, privatePart != null ? privatePart : allocate(0, offHeap));
+    }
+
+    /**
+     * Copies a value that is already held as a {@code String}, such as a cached one.
+     */
+    static SecretBytes copyOf(SecretValue value, boolean offHeap) {
+        String privatePart = value.getPrivatePart();
+        char[] chars = privatePart != null ? privatePart.toCharArray() : new char[0];
+        return new SecretBytes(value.getDataVersion(), value.getPublicPart(), encode(chars, 0, chars.length, offHeap));
+    }
+
+    /**
+     * Encodes the current string token; its characters are overwritten in the parser's own buffer, as the
+     * token is not read again.
+     */
+    private static ByteBuffer encode(JsonParser parser, boolean offHeap) throws IOException {
+        int start = parser.getTextOffset();
+        return encode(parser.getTextCharacters(), start, start + parser.getTextLength(), offHeap);
+    }
+
+    /**
+     * Encodes {@code chars[start..end)} as UTF-8, as {@link String#getBytes} would, into a buffer of the exact
+     * length and overwrites the characters.
+     */
+    private static ByteBuffer encode(char[] chars, int start, int end, boolean offHeap) {
+        ByteBuffer out = allocate(utf8Length(chars, start, end), offHeap);
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                    int codePoint = Character.toCodePoint(c, chars[++i]);
+                    out.put((byte) (0xF0 | (codePoint >> 18)));
+                    out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    out.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    out.put((byte) '?');
+                }
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        Arrays.fill(chars, start, end, '\0');
+        out.flip();
+        return out;
+    }
+
+    private static int utf8Length(char[] chars, int start, int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 1;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean offHeap) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static void wipe(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.flipkart.grayskull;
+
+import com.flipkart.grayskull.models.SecretValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of secret values used by {@link GrayskullClientImpl#getSecret(String)}.
+ *
+ * <h2>Freshness</h2>
+ * Every entry remembers when it was last confirmed against the server, either by a
+ * {@code getSecret} fetch or by a {@link HookRefreshPoller} batch poll. Relative to that
+ * instant an entry is
+ * <ul>
+ *   <li><strong>fresh</strong> for {@code ttl}: served without touching the server;</li>
+ *   <li><strong>stale</strong> for a further {@code staleWhileRevalidate}: still served, but the
+ *       caller is expected to trigger a background refresh;</li>
+ *   <li><strong>expired</strong> afterwards: treated as a miss.</li>
+ * </ul>
+ * While the poller keeps confirming versions, entries never leave the fresh window, so the TTL
+ * only bounds how stale a value can get when polling fails.
+ *
+ * <h2>Bounding</h2>
+ * Reads are plain {@link ConcurrentHashMap} lookups. When an insert pushes the cache over
+ * {@code maxEntries}, the least recently read entry is evicted; the scan is linear but only
+ * happens on inserts of new secrets, which are rare compared to reads.
+ *
+ * <h2>Persistence</h2>
+ * The optional {@code onChange} callback runs after an insert that stores a new secret or a new version,
+ * and after a {@link #remove}, so that {@link SecretSnapshot} can persist the values; confirmations do not
+ * count as changes. Values loaded back from a snapshot are inserted through {@link #restore}, which does
+ * not run it.
+ */
+final class SecretCache {
+
+    /**
+     * Outcome of a cache lookup.
+     */
+    enum Freshness {
+        FRESH,
+        STALE
+    }
+
+    /**
+     * A cached secret value together with its bookkeeping timestamps.
+     */
+    static final class Entry {
+        final String projectId;
+        final String secretName;
+        final SecretValue value;
+        final long confirmedAtNanos;
+        volatile long lastReadNanos;
+
+        Entry(String projectId, String secretName, SecretValue value, long confirmedAtNanos) {
+            this.projectId = projectId;
+            this.secretName = secretName;
+            this.value = value;
+            this.confirmedAtNanos = confirmedAtNanos;
+            this.lastReadNanos = confirmedAtNanos;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final LongSupplier nanoClock;
+    private final Runnable onChange;
+
+    SecretCache(int maxEntries, long ttlSeconds, long staleWhileRevalidateSeconds) {
+        this(maxEntries, ttlSeconds, staleWhileRevalidateSeconds, System::nanoTime, () -> { });
+    }
+
+    SecretCache(int maxEntries, long ttlSeconds, long staleWhileRevalidateSeconds, Runnable onChange) {
+        this(maxEntries, ttlSeconds, staleWhileRevalidateSeconds, System::nanoTime, onChange);
+    }
+
+    SecretCache(int maxEntries, long ttlSeconds, long staleWhileRevalidateSeconds, LongSupplier nanoClock) {
+        this(maxEntries, ttlSeconds, staleWhileRevalidateSeconds, nanoClock, () -> { });
+    }
+
+    SecretCache(int maxEntries, long ttlSeconds, long staleWhileRevalidateSeconds, LongSupplier nanoClock,
+                Runnable onChange) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.staleWhileRevalidateNanos = TimeUnit.SECONDS.toNanos(staleWhileRevalidateSeconds);
+        this.nanoClock = nanoClock;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Returns the cached value for {@code secretRef}, or {@code null} when it is absent or expired.
+     */
+    Entry get(String secretRef) {
+        Entry entry = entries.get(secretRef);
+        if (entry == null) {
+            return null;
+        }
+        long now = nanoClock.getAsLong();
+        if (now - entry.confirmedAtNanos >= ttlNanos + staleWhileRevalidateNanos) {
+            return null;
+        }
+        entry.lastReadNanos = now;
+        return entry;
+    }
+
+    /**
+     * Returns the cached value for {@code secretRef} however old it is, or {@code null} when it is absent.
+     * Used to keep serving a secret while the server is unavailable; does not count as a read.
+     */
+    Entry lastKnown(String secretRef) {
+        return entries.get(secretRef);
+    }
+
+    /**
+     * Classifies an entry returned by {@link #get(String)}.
+     */
+    Freshness freshness(Entry entry) {
+        return nanoClock.getAsLong() - entry.confirmedAtNanos < ttlNanos ? Freshness.FRESH : Freshness.STALE;
+    }
+
+    /**
+     * Stores a value confirmed by the server just now. An older version never replaces a newer one,
+     * which protects against a slow {@code getSecret} racing a poll that already saw a rotation.
+     */
+    void put(String projectId, String secretName, SecretValue value) {
+        String secretRef = projectId + ":" + secretName;
+        long now = nanoClock.getAsLong();
+        boolean[] changed = {false};
+        entries.compute(secretRef, (k, existing) -> {
+            if (existing != null && existing.value.getDataVersion() > value.getDataVersion()) {
+                return existing;
+            }
+            Entry entry = new Entry(projectId, secretName, value, now);
+            if (existing != null) {
+                entry.lastReadNanos = existing.lastReadNanos;
+            }
+            changed[0] = existing == null || existing.value.getDataVersion() != value.getDataVersion();
+            return entry;
+        });
+        if (entries.size() > maxEntries) {
+            evictLeastRecentlyRead();
+        }
+        if (changed[0]) {
+            onChange.run();
+        }
+    }
+
+    /**
+     * Stores a value read back from a snapshot, unless the secret is already cached. The value counts as
+     * confirmed now, so it is served as fresh until the next poll confirms or replaces it.
+     */
+    void restore(String projectId, String secretName, SecretValue value) {
+        if (entries.size() >= maxEntries) {
+            return;
+        }
+        entries.putIfAbsent(projectId + ":" + secretName,
+                new Entry(projectId, secretName, value, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Stores a value reported by the poller, but only for secrets that are already cached, so hook-only
+     * secrets do not push application reads out of the cache.
+     */
+    void refresh(String projectId, String secretName, SecretValue value) {
+        if (entries.containsKey(projectId + ":" + secretName)) {
+            put(projectId, secretName, value);
+        }
+    }
+
+    /**
+     * Marks the entry as confirmed if the server reported no version newer than {@code dataVersion}.
+     */
+    void confirm(String secretRef, int dataVersion) {
+        long now = nanoClock.getAsLong();
+        entries.computeIfPresent(secretRef, (k, existing) -> {
+            if (existing.value.getDataVersion() != dataVersion) {
+                return existing;
+            }
+            Entry entry = new Entry(existing.projectId, existing.secretName, existing.value, now);
+            entry.lastReadNanos = existing.lastReadNanos;
+            return entry;
+        });
+    }
+
+    /**
+     * Drops the entry for a secret the server no longer returns (deleted, or no longer readable by this client),
+     * unless it was replaced with another version in the meantime. Counts as a change, so a snapshot forgets it too.
+     */
+    void remove(String secretRef, int dataVersion) {
+        boolean[] removed = {false};
+        entries.computeIfPresent(secretRef, (k, existing) -> {
+            if (existing.value.getDataVersion() != dataVersion) {
+                return existing;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            onChange.run();
+        }
+    }
+
+    /**
+     * Live view of the cached entries, keyed by {@code secretRef}; used by the poller to revalidate them.
+     */
+    Map<String, Entry> entries() {
+        return entries;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictLeastRecentlyRead() {
+        while (entries.size() > maxEntries) {
+            String victim = null;
+            long oldest = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (victim == null || e.getValue().lastReadNanos - oldest < 0) {
+                    victim = e.getKey();
+                    oldest = e.getValue().lastReadNanos;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            entries.remove(victim);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.flipkart.grayskull;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.grayskull.metrics.MetricsPublisher;
+import com.flipkart.grayskull.models.SecretValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Encrypted on-disk copy of the {@link SecretCache}, so a restarted process can serve its secrets before,
+ * or without, reaching the server.
+ * <p>
+ * The file holds the cached values as JSON, encrypted with AES-GCM under the configured key. The workload
+ * identity names the file and is authenticated alongside the data, so a snapshot is only ever read back by
+ * the workload that wrote it. The file is replaced atomically through a temporary file readable only by its
+ * owner.
+ * </p>
+ * <p>
+ * Writes are debounced: a change schedules one write {@value #WRITE_DELAY_MILLIS}ms later, which captures
+ * every change made in the meantime, and {@link #close()} writes any pending change. Restores and writes are
+ * recorded as {@code snapshot.restore} and {@code snapshot.write}; a snapshot that is missing, unreadable or
+ * encrypted for another key or identity is ignored, and the client starts with an empty cache.
+ * </p>
+ */
+final class SecretSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(SecretSnapshot.class);
+
+    static final long WRITE_DELAY_MILLIS = 1_000;
+    private static final byte[] MAGIC = "GSS1".getBytes(StandardCharsets.US_ASCII);
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final TypeReference<List<Record>> RECORDS_TYPE_REFERENCE = new TypeReference<List<Record>>() {};
+
+    /**
+     * One cached secret as stored in the snapshot.
+     */
+    @Getter
+    @AllArgsConstructor(onConstructor = @__(@JsonCreator))
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static final class Record {
+        private final String projectId;
+        private final String secretName;
+        private final int dataVersion;
+        private final String publicPart;
+        private final String privatePart;
+    }
+
+    private final Path file;
+    private final SecretKeySpec key;
+    private final byte[] identity;
+    private final ObjectMapper objectMapper;
+    private final SecretCache cache;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicBoolean writePending = new AtomicBoolean();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+            HookRefreshPoller.daemonFactory("grayskull-snapshot-writer-"));
+
+    SecretSnapshot(String directory, byte[] key, String identity, ObjectMapper objectMapper, SecretCache cache) {
+        this.file = Paths.get(directory).resolve("grayskull-" + sha256Hex(identity) + ".snapshot");
+        this.key = new SecretKeySpec(key, "AES");
+        this.identity = identity.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+        this.cache = cache;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Loads the snapshot into the cache.
+     *
+     * @return the number of secrets restored
+     */
+    int restore() {
+        long startTime = System.nanoTime();
+        int statusCode = 500;
+        try {
+            byte[] plaintext = decrypt(Files.readAllBytes(file));
+            List<Record> records;
+            try {
+                records = objectMapper.readValue(plaintext, RECORDS_TYPE_REFERENCE);
+            } finally {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+            for (Record record : records) {
+                cache.restore(record.getProjectId(), record.getSecretName(),
+                        new SecretValue(record.getDataVersion(), record.getPublicPart(), record.getPrivatePart()));
+            }
+            statusCode = 200;
+            log.info("Restored {} secret(s) from snapshot {}", records.size(), file);
+            return records.size();
+        } catch (NoSuchFileException e) {
+            statusCode = 404;
+            log.debug("No secret snapshot at {}", file);
+            return 0;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Ignoring secret snapshot {}: it could not be read with the configured key and workload identity: {}",
+                    file, e.toString());
+            return 0;
+        } finally {
+            MetricsPublisher.getInstance().recordRequest("snapshot.restore", statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    /**
+     * Schedules a write of the current cache contents, unless one is already pending.
+     */
+    void scheduleWrite() {
+        if (!writePending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.schedule(this::writePending, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            writePending.set(false);
+        }
+    }
+
+    private void writePending() {
+        if (writePending.compareAndSet(true, false)) {
+            write();
+        }
+    }
+
+    /**
+     * Writes the current cache contents to the snapshot file. Failures are logged and recorded, and the
+     * previous snapshot stays in place.
+     */
+    void write() {
+        long startTime = System.nanoTime();
+        int statusCode = 500;
+        Path temp = null;
+        try {
+            List<Record> records = new ArrayList<>(cache.size());
+            for (SecretCache.Entry entry : cache.entries().values()) {
+                SecretValue value = entry.value;
+                records.add(new Record(entry.projectId, entry.secretName,
+                        value.getDataVersion(), value.getPublicPart(), value.getPrivatePart()));
+            }
+            byte[] plaintext = objectMapper.writeValueAsBytes(records);
+            byte[] encrypted;
+            try {
+                encrypted = encrypt(plaintext);
+            } finally {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // createTempFile restricts the file to its owner on POSIX file systems
+            temp = Files.createTempFile(directory, "grayskull-", ".tmp");
+            Files.write(temp, encrypted);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            statusCode = 200;
+            log.debug("Wrote {} secret(s) to snapshot {}", records.size(), file);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Failed to write secret snapshot {}: {}", file, e.toString());
+        } finally {
+            deleteQuietly(temp);
+            MetricsPublisher.getInstance().recordRequest("snapshot.write", statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    /**
+     * Stops the writer and writes any change that is still pending.
+     */
+    void close() {
+        writer.shutdownNow();
+        writePending();
+    }
+
+    private byte[] encrypt(byte[] plaintext) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(identity);
+        byte[] ciphertext = cipher.doFinal(plaintext);
+
+        byte[] out = new byte[MAGIC.length + IV_LENGTH + ciphertext.length];
+        System.arraycopy(MAGIC, 0, out, 0, MAGIC.length);
+        System.arraycopy(iv, 0, out, MAGIC.length, IV_LENGTH);
+        System.arraycopy(ciphertext, 0, out, MAGIC.length + IV_LENGTH, ciphertext.length);
+        return out;
+    }
+
+    private byte[] decrypt(byte[] data) throws GeneralSecurityException {
+        int header = MAGIC.length + IV_LENGTH;
+        if (data.length < header || !Arrays.equals(Arrays.copyOf(data, MAGIC.length), MAGIC)) {
+            throw new GeneralSecurityException("not a secret snapshot");
+        }
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, MAGIC.length, IV_LENGTH));
+        cipher.updateAAD(identity);
+        return cipher.doFinal(data, header, data.length - header);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete temporary snapshot file {}", path, e);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.flipkart.grayskull.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Name-to-meter map with a fixed capacity, so the number of meters a recorder registers stays bounded no
+ * matter how many distinct names it is asked to record.
+ * <p>
+ * Looking up an existing meter is a {@link ConcurrentHashMap} read plus a timestamp check; the timestamp is
+ * only rewritten when it is more than a touch interval (one second by default) old, so threads recording into the same
+ * meter do not keep invalidating each other's copy of its cache line. When an insert
+ * pushes the map over capacity, the least recently used meter is removed and handed to the eviction callback,
+ * which unregisters it from its backend. The scan is linear but only runs on inserts past capacity, which do
+ * not happen while the set of names is stable. A caller that looked up a meter just before it was evicted may
+ * still record into it; that sample is lost.
+ * </p>
+ */
+final class BoundedMeters<V> {
+
+    /**
+     * Default capacity of each recorder's meter map.
+     */
+    static final int DEFAULT_MAX_METERS = 1000;
+
+    static final long TOUCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final class Slot<V> {
+        final V meter;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Slot(V meter) {
+            this.meter = meter;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Slot<V>> meters = new ConcurrentHashMap<>();
+    private final int maxMeters;
+    private final long touchIntervalNanos;
+    private final BiConsumer<String, V> onEvict;
+
+    BoundedMeters(int maxMeters, BiConsumer<String, V> onEvict) {
+        this(maxMeters, TOUCH_INTERVAL_NANOS, onEvict);
+    }
+
+    BoundedMeters(int maxMeters, long touchIntervalNanos, BiConsumer<String, V> onEvict) {
+        this.maxMeters = maxMeters;
+        this.touchIntervalNanos = touchIntervalNanos;
+        this.onEvict = onEvict;
+    }
+
+    /**
+     * Returns the meter registered under {@code name}, creating it with {@code factory} if needed.
+     */
+    V get(String name, Function<String, V> factory) {
+        Slot<V> slot = meters.get(name);
+        if (slot == null) {
+            slot = meters.computeIfAbsent(name, k -> new Slot<>(factory.apply(k)));
+            if (meters.size() > maxMeters) {
+                evictLeastRecentlyUsed(name);
+            }
+        } else {
+            long now = System.nanoTime();
+            if (now - slot.lastUsedNanos > touchIntervalNanos) {
+                slot.lastUsedNanos = now;
+            }
+        }
+        return slot.meter;
+    }
+
+    int size() {
+        return meters.size();
+    }
+
+    void clear() {
+        meters.clear();
+    }
+
+    private void evictLeastRecentlyUsed(String keep) {
+        while (meters.size() > maxMeters) {
+            Map.Entry<String, Slot<V>> victim = null;
+            for (Map.Entry<String, Slot<V>> e : meters.entrySet()) {
+                if (e.getKey().equals(keep)) {
+                    continue;
+                }
+                if (victim == null || e.getValue().lastUsedNanos - victim.getValue().lastUsedNanos < 0) {
+                    victim = e;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            if (meters.remove(victim.getKey(), victim.getValue())) {
+                onEvict.accept(victim.getKey(), victim.getValue().meter);
+            }
+        }
+    }
+}
@@ -1,104 +1,94 @@
 package com.flipkart.grayskull.metrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * JMX-based metrics recorder using MBeans.
- * Provides basic metrics: counters, min, max, average.
+ * Provides basic metrics: counters, min, max, average and latency percentiles.
+ * <p>
+ * At most {@link BoundedMeters#DEFAULT_MAX_METERS} request names (each with its per-status MBeans), per-secret
+ * names per operation and retry MBeans are kept registered; past that, the least recently used one is
+ * unregistered to make room.
+ * </p>
+ * <p>
+ * Recording into names that are already registered does not allocate: the per-status MBeans of a name are
+ * found by scanning a small array instead of building {@code name.status} keys, per-secret names are built once
+ * when the secret is first seen, and every tracker is made of striped counters that threads can update
+ * without contending on a single atomic.
+ * </p>
  */
 final class JmxMetricsRecorder implements MetricsRecorder {
-    
+    private static final Logger log = LoggerFactory.getLogger(JmxMetricsRecorder.class);
+    private static final String DURATION_TYPE = "HttpClientMetrics";
+    private static final String RETRY_TYPE = "HttpClientRetryMetrics";
+    private static final String CIRCUIT_BREAKER_TYPE = "CircuitBreaker";
+    private static final String EVENT_TYPE = "Events";
+
     // Static maps shared across all instances to match global JMX MBean registration
-    private static final ConcurrentHashMap<String, DurationTracker> durationTrackers = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, RetryTracker> retryTrackers = new ConcurrentHashMap<>();
+    private static final BoundedMeters<RequestTrackers> durationTrackers =
+            new BoundedMeters<>(BoundedMeters.DEFAULT_MAX_METERS, (k, trackers) -> trackers.unregisterAll());
+    private static final ConcurrentHashMap<String, SecretTrackers> secretTrackers = new ConcurrentHashMap<>();
+    private static final BoundedMeters<RetryTracker> retryTrackers =
+            new BoundedMeters<>(BoundedMeters.DEFAULT_MAX_METERS, (k, tracker) -> unregister(RETRY_TYPE, k));
+    // One breaker per configured host, so this map is not bounded
+    private static final ConcurrentHashMap<String, CircuitBreakerState> circuitBreakers = new ConcurrentHashMap<>();
+    // Event names are fixed in the client, so this map is not bounded either
+    private static final ConcurrentHashMap<String, EventCounter> eventCounters = new ConcurrentHashMap<>();
 
     @Override
     public void recordRequest(String name, int statusCode, long durationMs) {
-        // Record to two trackers: one with status (granular), one without (overall)
-
-        // Granular tracker with status code - per-status metrics
-        String statusKey = name + "." + statusCode;
-        durationTrackers.computeIfAbsent(statusKey, k -> {
-            try {
-                ObjectName metricName = new ObjectName("Grayskull:type=HttpClientMetrics,name=" + ObjectName.quote(k));
-                DurationTracker tracker = new DurationTracker();
-                MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
-                
-                // Only register if not already registered
-                if (!mBeanServer.isRegistered(metricName)) {
-                    mBeanServer.registerMBean(tracker, metricName);
-                }
-                
-                return tracker;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to register JMX duration tracker for: " + k, e);
-            }
-        }).record(durationMs);
-        
-        // Overall tracker without status code - combined metrics across all statuses
-        durationTrackers.computeIfAbsent(name, k -> {
-            try {
-                ObjectName metricName = new ObjectName("Grayskull:type=HttpClientMetrics,name=" + ObjectName.quote(k));
-                DurationTracker tracker = new DurationTracker();
-                MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
-                
-                // Only register if not already registered 
-                if (!mBeanServer.isRegistered(metricName)) {
-                    mBeanServer.registerMBean(tracker, metricName);
-                }
+        durationTrackers.get(name, RequestTrackers::new).record(statusCode, durationMs);
+    }
 
-                return tracker;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to register JMX overall duration tracker for: " + k, e);
-            }
-        }).record(durationMs);
+    /**
+     * Per-secret detail is exposed under the {@code {operation}.{secretRef}} names used before operations were
+     * recorded without the secret.
+     */
+    @Override
+    public void recordSecretRequest(String operation, String secretRef, int statusCode, long durationMs) {
+        SecretTrackers trackers = secretTrackers.get(operation);
+        if (trackers == null) {
+            trackers = secretTrackers.computeIfAbsent(operation, SecretTrackers::new);
+        }
+        trackers.get(secretRef).record(statusCode, durationMs);
     }
 
     @Override
     public void recordRetry(String url, int attemptNumber, boolean success) {
         String path = URLNormalizer.normalize(url);
         String status = success ? "success" : "failure";
-        
+
         // Path-level tracker (per path, combining success and failure)
-        retryTrackers.computeIfAbsent("path." + path, k -> {
-            try {
-                ObjectName name = new ObjectName("Grayskull:type=HttpClientRetryMetrics,name=" + ObjectName.quote(k));
-                RetryTracker tracker = new RetryTracker();
-                MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
-                
-                // Only register if not already registered
-                if (!mBeanServer.isRegistered(name)) {
-                    mBeanServer.registerMBean(tracker, name);
-                }
-                
-                return tracker;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to register JMX path-level retry tracker for: " + k, e);
-            }
-        }).record(attemptNumber);
-        
+        retryTrackers.get("path." + path, k -> register(RETRY_TYPE, k, new RetryTracker())).record(attemptNumber);
+
         // Path + status tracker (most granular)
-        String granularKey = "path." + path + ".status." + status;
-        retryTrackers.computeIfAbsent(granularKey, k -> {
-            try {
-                ObjectName name = new ObjectName("Grayskull:type=HttpClientRetryMetrics,name=" + ObjectName.quote(k));
-                RetryTracker tracker = new RetryTracker();
-                MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
-                
-                // Only register if not already registered 
-                if (!mBeanServer.isRegistered(name)) {
-                    mBeanServer.registerMBean(tracker, name);
-                }
-                
-                return tracker;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to register JMX granular retry tracker for: " + k, e);
-            }
-        }).record(attemptNumber);
+        retryTrackers.get("path." + path + ".status." + status, k -> register(RETRY_TYPE, k, new RetryTracker()))
+                .record(attemptNumber);
+    }
+
+    @Override
+    public void recordCircuitBreakerState(String host, int state) {
+        circuitBreakers.computeIfAbsent(host, h -> register(CIRCUIT_BREAKER_TYPE, h, new CircuitBreakerState()))
+                .state = state;
+    }
+
+    @Override
+    public void recordEvent(String name) {
+        EventCounter counter = eventCounters.get(name);
+        if (counter == null) {
+            counter = eventCounters.computeIfAbsent(name, n -> register(EVENT_TYPE, n, new EventCounter()));
+        }
+        counter.count.increment();
     }
 
     @Override
@@ -106,6 +96,125 @@ final class JmxMetricsRecorder implements MetricsRecorder {
         return "JMX";
     }
 
+    private static <T> T register(String type, String name, T tracker) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+            // Only register if not already registered
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(tracker, objectName);
+            }
+
+            return tracker;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to register JMX " + type + " tracker for: " + name, e);
+        }
+    }
+
+    private static void unregister(String type, String name) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(type, name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to unregister evicted JMX {} tracker for: {}", type, name, e);
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) throws Exception {
+        return new ObjectName("Grayskull:type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * The MBeans of one request name: one across all statuses (registered as {@code name}) and one per status
+     * seen so far (registered as {@code name.status}).
+     */
+    static final class RequestTrackers {
+        private static final StatusTracker[] NO_STATUSES = new StatusTracker[0];
+
+        private final String name;
+        private final DurationTracker overall;
+        private volatile StatusTracker[] byStatus = NO_STATUSES;
+        private boolean unregistered;
+
+        RequestTrackers(String name) {
+            this.name = name;
+            this.overall = register(DURATION_TYPE, name, new DurationTracker());
+        }
+
+        void record(int statusCode, long durationMs) {
+            // Granular tracker with status code - per-status metrics
+            forStatus(statusCode).record(durationMs);
+            // Overall tracker without status code - combined metrics across all statuses
+            overall.record(durationMs);
+        }
+
+        private DurationTracker forStatus(int statusCode) {
+            for (StatusTracker statusTracker : byStatus) {
+                if (statusTracker.statusCode == statusCode) {
+                    return statusTracker.tracker;
+                }
+            }
+            return addStatus(statusCode);
+        }
+
+        private synchronized DurationTracker addStatus(int statusCode) {
+            StatusTracker[] current = byStatus;
+            for (StatusTracker statusTracker : current) {
+                if (statusTracker.statusCode == statusCode) {
+                    return statusTracker.tracker;
+                }
+            }
+            DurationTracker tracker = new DurationTracker();
+            if (!unregistered) {
+                register(DURATION_TYPE, name + "." + statusCode, tracker);
+            }
+            StatusTracker[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = new StatusTracker(statusCode, tracker);
+            byStatus = updated;
+            return tracker;
+        }
+
+        synchronized void unregisterAll() {
+            unregistered = true;
+            unregister(DURATION_TYPE, name);
+            for (StatusTracker statusTracker : byStatus) {
+                unregister(DURATION_TYPE, name + "." + statusTracker.statusCode);
+            }
+        }
+    }
+
+    private static final class StatusTracker {
+        final int statusCode;
+        final DurationTracker tracker;
+
+        StatusTracker(int statusCode, DurationTracker tracker) {
+            this.statusCode = statusCode;
+            this.tracker = tracker;
+        }
+    }
+
+    /**
+     * Per-secret request names of one operation, bounded separately so a burst of secrets under one operation
+     * cannot evict the others.
+     */
+    private static final class SecretTrackers {
+        private final BoundedMeters<RequestTrackers> trackers =
+                new BoundedMeters<>(BoundedMeters.DEFAULT_MAX_METERS, (k, t) -> t.unregisterAll());
+        private final Function<String, RequestTrackers> factory;
+
+        SecretTrackers(String operation) {
+            this.factory = secretRef -> new RequestTrackers(operation + "." + secretRef);
+        }
+
+        RequestTrackers get(String secretRef) {
+            return trackers.get(secretRef, factory);
+        }
+    }
+
     /**
      * JMX MBean interface for exposing duration metrics.
      */
@@ -115,49 +224,39 @@ final class JmxMetricsRecorder implements MetricsRecorder {
         long getMaxDurationMs();
         long getMinDurationMs();
         long getCount();
+        long getP50DurationMs();
+        long getP95DurationMs();
+        long getP99DurationMs();
+        long getP999DurationMs();
     }
 
     /**
      * JMX MBean implementation for duration tracking.
      */
     public static final class DurationTracker implements DurationTrackerMBean {
-        private final AtomicLong count = new AtomicLong(0);
-        private final AtomicLong totalDuration = new AtomicLong(0);
-        private final AtomicLong maxDuration = new AtomicLong(0);
-        private final AtomicLong minDuration = new AtomicLong(Long.MAX_VALUE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalDuration = new LongAdder();
+        private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator minDuration = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LatencyHistogram histogram = new LatencyHistogram();
 
         public void record(long durationMs) {
-            count.incrementAndGet();
-            totalDuration.addAndGet(durationMs);
-
-            // Update max duration
-            long currentMax;
-            do {
-                currentMax = maxDuration.get();
-                if (durationMs <= currentMax) {
-                    break;
-                }
-            } while (!maxDuration.compareAndSet(currentMax, durationMs));
-
-            // Update min duration
-            long currentMin;
-            do {
-                currentMin = minDuration.get();
-                if (durationMs >= currentMin) {
-                    break;
-                }
-            } while (!minDuration.compareAndSet(currentMin, durationMs));
+            count.increment();
+            totalDuration.add(durationMs);
+            histogram.record(durationMs);
+            maxDuration.accumulate(durationMs);
+            minDuration.accumulate(durationMs);
         }
 
         @Override
         public long getTotalDurationMs() {
-            return totalDuration.get();
+            return totalDuration.sum();
         }
 
         @Override
         public long getAverageDurationMs() {
-            long c = count.get();
-            return c > 0 ? totalDuration.get() / c : 0;
+            long c = count.sum();
+            return c > 0 ? totalDuration.sum() / c : 0;
         }
 
         @Override
@@ -174,7 +273,27 @@ final class JmxMetricsRecorder implements MetricsRecorder {
 
         @Override
         public long getCount() {
-            return count.get();
+            return count.sum();
+        }
+
+        @Override
+        public long getP50DurationMs() {
+            return histogram.valueAtPercentile(50);
+        }
+
+        @Override
+        public long getP95DurationMs() {
+            return histogram.valueAtPercentile(95);
+        }
+
+        @Override
+        public long getP99DurationMs() {
+            return histogram.valueAtPercentile(99);
+        }
+
+        @Override
+        public long getP999DurationMs() {
+            return histogram.valueAtPercentile(99.9);
         }
     }
     
@@ -191,27 +310,19 @@ final class JmxMetricsRecorder implements MetricsRecorder {
      * JMX MBean implementation for retry tracking.
      */
     public static final class RetryTracker implements RetryTrackerMBean {
-        private final AtomicLong count = new AtomicLong(0);
-        private final AtomicLong totalAttempts = new AtomicLong(0);
-        private final AtomicLong maxAttempts = new AtomicLong(0);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalAttempts = new LongAdder();
+        private final LongAccumulator maxAttempts = new LongAccumulator(Math::max, 0);
         
         public void record(int attemptNumber) {
-            count.incrementAndGet();
-            totalAttempts.addAndGet(attemptNumber);
-            
-            // Update max attempts
-            long currentMax;
-            do {
-                currentMax = maxAttempts.get();
-                if (attemptNumber <= currentMax) {
-                    break;
-                }
-            } while (!maxAttempts.compareAndSet(currentMax, attemptNumber));
+            count.increment();
+            totalAttempts.add(attemptNumber);
+            maxAttempts.accumulate(attemptNumber);
         }
         
         @Override
         public long getTotalRetries() {
-            return count.get();
+            return count.sum();
         }
         
         @Override
@@ -221,9 +332,49 @@ final class JmxMetricsRecorder implements MetricsRecorder {
         
         @Override
         public double getAverageAttempts() {
-            long c = count.get();
-            return c > 0 ? (double) totalAttempts.get() / c : 0;
+            long c = count.sum();
+            return c > 0 ? (double) totalAttempts.sum() / c : 0;
         }
     }
-}
 
+    /**
+     * JMX MBean interface for exposing circuit breaker state.
+     */
+    public interface CircuitBreakerStateMBean {
+        /**
+         * @return 0 when closed, 1 when half-open, 2 when open
+         */
+        int getState();
+    }
+
+    /**
+     * JMX MBean implementation holding the last reported circuit breaker state.
+     */
+    public static final class CircuitBreakerState implements CircuitBreakerStateMBean {
+        private volatile int state;
+
+        @Override
+        public int getState() {
+            return state;
+        }
+    }
+
+    /**
+     * JMX MBean interface for exposing event counts.
+     */
+    public interface EventCounterMBean {
+        long getCount();
+    }
+
+    /**
+     * JMX MBean implementation counting occurrences of an event.
+     */
+    public static final class EventCounter implements EventCounterMBean {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.flipkart.grayskull.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Fixed-size, lock-free latency histogram in the style of HdrHistogram, used by the JMX recorder to report
+ * percentiles without an extra dependency.
+ * <p>
+ * Values are bucketed log-linearly: every power-of-two range is split into {@value #SUB_BUCKETS} equal
+ * sub-buckets, so values below {@value #SUB_BUCKETS} are exact and larger values are resolved to within
+ * 1/{@value #SUB_BUCKETS} (about 6%) of their magnitude. Values above {@link #MAX_VALUE} milliseconds are
+ * clamped. Percentiles are computed from a racy but monotonic snapshot of the buckets, which is good enough
+ * for monitoring.
+ * </p>
+ * <p>
+ * Recording is a single compare-and-set on a shared bucket array and never allocates. Like
+ * {@link java.util.concurrent.atomic.LongAdder}, the first failed compare-and-set switches the histogram to
+ * per-thread-hashed stripes, so only histograms that are actually contended pay for the extra arrays.
+ * </p>
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Larger values (2^24 - 1 ms, about 4.6 hours) are recorded as this value. */
+    static final long MAX_VALUE = (1L << 24) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+    /** Stripes used once contended: the processor count rounded up to a power of two, at most 8. */
+    static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private static final AtomicReferenceFieldUpdater<LatencyHistogram, AtomicLongArray[]> STRIPES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(LatencyHistogram.class, AtomicLongArray[].class, "stripes");
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private volatile AtomicLongArray[] stripes;
+
+    void record(long value) {
+        int bucket = bucketIndex(Math.max(0, Math.min(value, MAX_VALUE)));
+        AtomicLongArray[] current = stripes;
+        if (current == null) {
+            long count = counts.get(bucket);
+            if (counts.compareAndSet(bucket, count, count + 1)) {
+                return;
+            }
+            current = inflate();
+        }
+        current[stripeIndex(current.length)].incrementAndGet(bucket);
+    }
+
+    /**
+     * Returns the value at or below which {@code percentile} percent of the recorded values fall, as the
+     * highest value of the bucket that holds it, or 0 when nothing was recorded.
+     *
+     * @param percentile the percentile, in {@code (0, 100]}
+     */
+    long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        AtomicLongArray[] current = stripes;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = countAt(i, current);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueInBucket(i);
+            }
+        }
+        return highestValueInBucket(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Number of values recorded so far.
+     */
+    long totalCount() {
+        AtomicLongArray[] current = stripes;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += countAt(i, current);
+        }
+        return total;
+    }
+
+    private long countAt(int bucket, AtomicLongArray[] current) {
+        long count = counts.get(bucket);
+        if (current != null) {
+            for (AtomicLongArray stripe : current) {
+                count += stripe.get(bucket);
+            }
+        }
+        return count;
+    }
+
+    private AtomicLongArray[] inflate() {
+        AtomicLongArray[] inflated = new AtomicLongArray[STRIPES];
+        for (int i = 0; i < inflated.length; i++) {
+            inflated[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        return STRIPES_UPDATER.compareAndSet(this, null, inflated) ? inflated : stripes;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int stripeIndex(int stripeCount) {
+        // Fibonacci hashing spreads sequential thread ids over the stripes
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (stripeCount - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
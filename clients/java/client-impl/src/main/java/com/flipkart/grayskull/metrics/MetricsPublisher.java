@@ -13,10 +13,17 @@ import org.slf4j.LoggerFactory;
  * Example usage:
  * <pre>
  *     MetricsPublisher publisher = MetricsPublisher.getInstance();
- *     publisher.recordRequest("getSecret.project1:secret1", 200, 150);
+ *     publisher.recordRequest("getSecrets", 200, 150);
+ *     publisher.recordSecretRequest("getSecret", "project1:secret1", 200, 150);
  * </pre>
  * </p>
  *
+ * <p>
+ * Operations are recorded under low-cardinality names. Per-secret detail is recorded only for a
+ * deterministic sample of secrets, chosen by hashing the secretRef, so the same secrets keep their
+ * series across restarts and the number of per-secret meters stays proportional to the sample ratio.
+ * </p>
+ *
  * Metrics are enabled by default but can be disabled through SDK configuration.
  * This class follows the singleton pattern to ensure a single metrics publisher instance.
  */
@@ -25,6 +32,7 @@ public final class MetricsPublisher {
     private static final Logger log = LoggerFactory.getLogger(MetricsPublisher.class);
     private static final MetricsPublisher INSTANCE = new MetricsPublisher();
     private static volatile boolean metricsEnabled = true;
+    private static volatile double perSecretSampleRatio = 0;
     
     private final MetricsRecorder recorder;
 
@@ -48,6 +56,16 @@ public final class MetricsPublisher {
         metricsEnabled = enabled;
     }
 
+    /**
+     * Configure metrics collection globally, including per-secret detail.
+     * @param enabled {@code true} to enable metrics collection, {@code false} to disable
+     * @param sampleRatio fraction of secrets, in {@code [0, 1]}, that also get per-secret metrics
+     */
+    public static void configure(boolean enabled, double sampleRatio) {
+        metricsEnabled = enabled;
+        perSecretSampleRatio = sampleRatio;
+    }
+
     /**
      * Record a metrics event.
      * If metrics are disabled through configuration, this method will be a no-op.
@@ -63,6 +81,46 @@ public final class MetricsPublisher {
         recorder.recordRequest(name, statusCode, durationMs);
     }
 
+    /**
+     * Record a secret-scoped operation under {@code operation}, and additionally under the secret when it
+     * belongs to the sampled subset.
+     * If metrics are disabled through configuration, this method will be a no-op.
+     *
+     * @param operation The operation name (e.g., "getSecret", "hook.execute")
+     * @param secretRef The secret reference in {@code projectId:secretName} form
+     * @param statusCode The HTTP status code (e.g., 200, 404, 500)
+     * @param durationMs The duration in milliseconds
+     */
+    public void recordSecretRequest(String operation, String secretRef, int statusCode, long durationMs) {
+        if (!metricsEnabled) {
+            return;
+        }
+        recorder.recordRequest(operation, statusCode, durationMs);
+        if (secretRef != null && isSampled(secretRef, perSecretSampleRatio)) {
+            recorder.recordSecretRequest(operation, secretRef, statusCode, durationMs);
+        }
+    }
+
+    /**
+     * Whether {@code secretRef} falls in the sampled fraction {@code ratio} of secrets. The secretRef hash is
+     * mixed first because similar names have similar {@link String#hashCode()} values.
+     */
+    static boolean isSampled(String secretRef, double ratio) {
+        if (ratio <= 0) {
+            return false;
+        }
+        if (ratio >= 1) {
+            return true;
+        }
+        int h = secretRef.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return (h & 0x7fffffff) < ratio * Integer.MAX_VALUE;
+    }
+
     /**
      * Record a retry event.
      * If metrics are disabled through configuration, this method will be a no-op.
@@ -78,6 +136,33 @@ public final class MetricsPublisher {
         recorder.recordRetry(url, attemptNumber, success);
     }
 
+    /**
+     * Record a circuit breaker state change.
+     * If metrics are disabled through configuration, this method will be a no-op.
+     *
+     * @param host The host, as {@code host:port}
+     * @param state 0 when closed, 1 when half-open, 2 when open
+     */
+    public void recordCircuitBreakerState(String host, int state) {
+        if (!metricsEnabled) {
+            return;
+        }
+        recorder.recordCircuitBreakerState(host, state);
+    }
+
+    /**
+     * Record one occurrence of an event.
+     * If metrics are disabled through configuration, this method will be a no-op.
+     *
+     * @param name The event name (e.g., "hedge.fired")
+     */
+    public void recordEvent(String name) {
+        if (!metricsEnabled) {
+            return;
+        }
+        recorder.recordEvent(name);
+    }
+
     /**
      * Detects which metrics recorder to use based on classpath availability.
      * <p>
@@ -15,6 +15,17 @@ interface MetricsRecorder {
      * @param durationMs The duration in milliseconds
      */
     void recordRequest(String name, int statusCode, long durationMs);
+
+    /**
+     * Record per-secret detail for a request that was already recorded under {@code operation}.
+     * Only called for the sampled subset of secrets.
+     *
+     * @param operation The operation name (e.g., "getSecret")
+     * @param secretRef The secret reference in {@code projectId:secretName} form
+     * @param statusCode The HTTP status code
+     * @param durationMs The duration in milliseconds
+     */
+    void recordSecretRequest(String operation, String secretRef, int statusCode, long durationMs);
     
     /**
      * Record a retry attempt for a request.
@@ -24,6 +35,22 @@ interface MetricsRecorder {
      * @param success Whether the retry eventually succeeded
      */
     void recordRetry(String url, int attemptNumber, boolean success);
+
+    /**
+     * Record the current state of the circuit breaker guarding {@code host}.
+     *
+     * @param host The host, as {@code host:port}
+     * @param state 0 when closed, 1 when half-open, 2 when open
+     */
+    void recordCircuitBreakerState(String host, int state);
+
+    /**
+     * Record one occurrence of an event that has no duration or status, such as a hedge being sent.
+     * Events are counted apart from requests so that they do not skew request latency or error rates.
+     *
+     * @param name The event name (e.g., "hedge.fired")
+     */
+    void recordEvent(String name);
     
     /**
      * Get the name of this metrics recorder implementation.
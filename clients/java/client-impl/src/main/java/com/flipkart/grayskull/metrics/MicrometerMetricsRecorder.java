@@ -1,11 +1,13 @@
 package com.flipkart.grayskull.metrics;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Micrometer-based metrics recorder.
@@ -16,11 +18,27 @@ import java.util.concurrent.TimeUnit;
  * If users don't include Micrometer in their classpath, the system automatically 
  * falls back to JMX metrics.
  * </p>
+ * <p>
+ * Operation timers are tagged with the operation and status only. Sampled per-secret detail goes to a
+ * separate {@code grayskull_client_secret_request} timer with an extra {@code secret} tag, so the label set
+ * of each metric stays fixed. At most {@link BoundedMeters#DEFAULT_MAX_METERS} timers are kept; past that,
+ * the least recently used one is removed from the registry.
+ * </p>
+ * <p>
+ * Circuit breaker state is a {@code grayskull_client_circuit_breaker_state} gauge per host. There is one
+ * breaker per configured host, so these gauges are not bounded.
+ * </p>
+ * <p>
+ * Events are {@code grayskull_client_event} counters tagged with the event name. Event names are fixed in the
+ * client, so these counters are not bounded either.
+ * </p>
  */
 final class MicrometerMetricsRecorder implements MetricsRecorder {
     
     // Static map shared across all instances to match global MeterRegistry
-    private static final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private static final BoundedMeters<Timer> timers =
+            new BoundedMeters<>(BoundedMeters.DEFAULT_MAX_METERS, (k, timer) -> Metrics.globalRegistry.remove(timer));
+    private static final ConcurrentHashMap<String, AtomicInteger> breakerStates = new ConcurrentHashMap<>();
     private final MeterRegistry meterRegistry;
 
     MicrometerMetricsRecorder() {
@@ -30,10 +48,9 @@ final class MicrometerMetricsRecorder implements MetricsRecorder {
 
     @Override
     public void recordRequest(String name, int statusCode, long durationMs) {
-        // Extract path from URL (e.g., /v1/project/test-project/secrets/test/data)
         String timerKey = name + "." + statusCode;
 
-        Timer timer = timers.computeIfAbsent(timerKey, k -> 
+        Timer timer = timers.get(timerKey, k ->
             Timer.builder("grayskull_client_request")
                 .tag("operation", name)
                 .tag("status", String.valueOf(statusCode))
@@ -42,6 +59,20 @@ final class MicrometerMetricsRecorder implements MetricsRecorder {
         timer.record(durationMs, TimeUnit.MILLISECONDS);
     }
 
+    @Override
+    public void recordSecretRequest(String operation, String secretRef, int statusCode, long durationMs) {
+        String timerKey = operation + "." + secretRef + "." + statusCode;
+
+        Timer timer = timers.get(timerKey, k ->
+            Timer.builder("grayskull_client_secret_request")
+                .tag("operation", operation)
+                .tag("secret", secretRef)
+                .tag("status", String.valueOf(statusCode))
+                .register(meterRegistry)
+        );
+        timer.record(durationMs, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void recordRetry(String url, int attemptNumber, boolean success) {
         String path = URLNormalizer.normalize(url);
@@ -54,9 +85,24 @@ final class MicrometerMetricsRecorder implements MetricsRecorder {
                 .increment();
     }
 
+    @Override
+    public void recordCircuitBreakerState(String host, int state) {
+        breakerStates.computeIfAbsent(host, h -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder("grayskull_client_circuit_breaker_state", value, AtomicInteger::get)
+                    .tag("host", h)
+                    .register(meterRegistry);
+            return value;
+        }).set(state);
+    }
+
+    @Override
+    public void recordEvent(String name) {
+        meterRegistry.counter("grayskull_client_event", "name", name).increment();
+    }
+
     @Override
     public String getRecorderName() {
         return "Micrometer";
     }
 }
-
@@ -13,10 +13,30 @@ final class URLNormalizer {
         try {
             URI uri = URI.create(url);
             String path = uri.getPath();
-            return (path != null && !path.isEmpty()) ? path : url;
+            return (path != null && !path.isEmpty()) ? templatePath(path) : url;
         } catch (Exception e) {
             return url;
         }
     }
+
+    /**
+     * Replaces the project id and secret name in {@code /projects/{projectId}/secrets/{secretName}} paths
+     * with placeholders, so one metric covers every secret.
+     */
+    private static String templatePath(String path) {
+        String[] segments = path.split("/", -1);
+        String[] templated = segments.clone();
+        for (int i = 1; i < segments.length; i++) {
+            if (segments[i].isEmpty()) {
+                continue;
+            }
+            if ("projects".equals(segments[i - 1])) {
+                templated[i] = "{projectId}";
+            } else if (i >= 3 && "secrets".equals(segments[i - 1]) && "projects".equals(segments[i - 3])) {
+                templated[i] = "{secretName}";
+            }
+        }
+        return String.join("/", templated);
+    }
 }
 
@@ -5,8 +5,10 @@ import com.flipkart.grayskull.workload.WorkloadIdentityResolver;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,6 +29,21 @@ public final class GrayskullClientConfiguration {
      * </p>
      */
     private String host;
+
+    /**
+     * Server endpoints that requests are spread across, each given as a scheme, host and port
+     * (e.g., "https://grayskull-1.example.com:8443").
+     * <p>
+     * Request URLs are still built from {@link #host}; each attempt is then sent to one of these endpoints,
+     * chosen by comparing two random endpoints on their recent latency and requests in flight. An endpoint
+     * that fails {@link #endpointEjectionFailures} times in a row is skipped for
+     * {@link #endpointEjectionSeconds}. When empty, every request goes to {@link #host}.
+     * </p>
+     * <p>
+     * Default: empty
+     * </p>
+     */
+    private List<String> endpoints = Collections.emptyList();
     
     /**
      * The connection timeout in milliseconds.
@@ -65,6 +82,78 @@ public final class GrayskullClientConfiguration {
      * </p>
      */
     private int maxConnections = 10;
+
+    /**
+     * How long an idle pooled connection is kept open, in seconds.
+     * <p>
+     * Default: 300
+     * </p>
+     */
+    private int connectionKeepAliveSeconds = 300;
+
+    /**
+     * The maximum number of asynchronous requests in flight at once, across all hosts.
+     * <p>
+     * Applies to {@code getSecretAsync}, {@code batchGetSecretsAsync} and {@code getSecrets};
+     * further requests queue until one completes.
+     * </p>
+     * <p>
+     * Default: 64
+     * </p>
+     */
+    private int maxRequests = 64;
+
+    /**
+     * The maximum number of asynchronous requests in flight at once to a single host.
+     * <p>
+     * Over HTTP/2 these share one multiplexed connection; over HTTP/1.1 each needs its own.
+     * </p>
+     * <p>
+     * Default: 5
+     * </p>
+     */
+    private int maxRequestsPerHost = 5;
+
+    /**
+     * Whether HTTP/2 is offered when connecting over TLS.
+     * <p>
+     * The protocol is negotiated through ALPN, so servers that only speak HTTP/1.1 keep
+     * working. With HTTP/2 concurrent requests are multiplexed over a single connection
+     * instead of opening one connection each.
+     * </p>
+     * <p>
+     * Default: true
+     * </p>
+     */
+    @Setter
+    private boolean http2Enabled = true;
+
+    /**
+     * Whether to speak cleartext HTTP/2 (h2c) without negotiation.
+     * <p>
+     * Meant for in-cluster servers reached over plain {@code http://} that are known to
+     * accept HTTP/2 prior knowledge. Every request then uses HTTP/2; servers that do not
+     * support it will fail. Cannot be used with an {@code https://} host.
+     * </p>
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean http2PriorKnowledge = false;
+
+    /**
+     * Number of connections opened in the background when the client is created, so the
+     * first {@code getSecret} calls do not pay for TCP and TLS handshakes.
+     * <p>
+     * Each warm-up sends one unauthenticated {@code HEAD} request to the server's health
+     * endpoint; over HTTP/2 they all share one connection. With 0 nothing is opened up front.
+     * </p>
+     * <p>
+     * Default: 0
+     * </p>
+     */
+    private int warmUpConnections = 0;
     
     /**
      * The maximum number of retry attempts for failed requests.
@@ -92,6 +181,74 @@ public final class GrayskullClientConfiguration {
      */
     private int minRetryDelay = 100;
 
+    /**
+     * Whether GET requests are hedged: when the first attempt has not answered within the recent
+     * 95th percentile latency, a second identical request is sent and whichever succeeds first is used.
+     * <p>
+     * This bounds the tail latency a single slow server node can add without waiting for the read
+     * timeout. At most about 5% of requests are hedged, and none while the host's circuit breaker is
+     * not closed. Hedged requests are sent through the HTTP client's dispatcher, so
+     * {@link #maxRequestsPerHost} also applies to blocking {@code getSecret} calls: raise it to the
+     * number of threads that call {@code getSecret} at once, or a burst queues inside the client. A
+     * blocking call waits at most {@link #connectionTimeout} plus {@link #readTimeout} for an answer,
+     * queueing included, and no hedge is sent while requests are queued for a free slot, since it could
+     * not overtake them.
+     * </p>
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean hedgingEnabled = false;
+
+    /**
+     * Lower bound in milliseconds for the delay before a request is hedged, so that hedges are not
+     * fired for requests that are only slow by a few milliseconds.
+     * <p>
+     * Default: 50
+     * </p>
+     */
+    private int hedgeMinDelayMs = 50;
+
+    /**
+     * Number of consecutive transient failures (connection errors, timeouts, 429 and 5xx responses)
+     * after which the circuit breaker for the host opens and requests fail fast with status 503.
+     * <p>
+     * With the cache enabled, {@code getSecret} serves the last known value of a secret, even one past
+     * its TTL, while the server fails this way. With 0 the circuit breaker is disabled.
+     * </p>
+     * <p>
+     * Default: 5
+     * </p>
+     */
+    private int circuitBreakerFailureThreshold = 5;
+
+    /**
+     * Seconds an open circuit breaker waits before letting a single probe request through.
+     * <p>
+     * Default: 30
+     * </p>
+     */
+    private int circuitBreakerOpenSeconds = 30;
+
+    /**
+     * Number of consecutive transient failures after which one of several {@link #endpoints} is ejected,
+     * so that requests go to the other endpoints instead.
+     * <p>
+     * Default: 3
+     * </p>
+     */
+    private int endpointEjectionFailures = 3;
+
+    /**
+     * Seconds an ejected endpoint is skipped before it is chosen again. When every endpoint is ejected,
+     * the one whose ejection ends first is used anyway.
+     * <p>
+     * Default: 30
+     * </p>
+     */
+    private int endpointEjectionSeconds = 30;
+
     /**
      * Whether to enable metrics collection.
      * <p>
@@ -105,6 +262,20 @@ public final class GrayskullClientConfiguration {
     @Setter
     private boolean metricsEnabled = true;
 
+    /**
+     * Fraction of secrets that get per-secret metrics in addition to the per-operation ones.
+     * <p>
+     * Operations such as {@code getSecret} and {@code hook.execute} are always recorded without
+     * the secret, so the number of meters does not grow with the number of secrets. Per-secret
+     * detail is kept for a fixed, hash-selected subset of secrets; 1 tracks every secret, which
+     * is only advisable with a small number of secrets.
+     * </p>
+     * <p>
+     * Default: 0 (no per-secret metrics)
+     * </p>
+     */
+    private double metricsPerSecretSampleRatio = 0;
+
     /**
      * Interval in seconds between background polls for registered refresh hooks.
      * <p>
@@ -113,6 +284,187 @@ public final class GrayskullClientConfiguration {
      */
     private int pollingIntervalSeconds = 60;
 
+    /**
+     * Fraction by which each polling delay is randomly lengthened or shortened, so that clients
+     * started at the same time spread their polls out instead of hitting the server together.
+     * <p>
+     * With the default of 0.2 and a 60 second interval, polls are 48 to 72 seconds apart.
+     * </p>
+     * <p>
+     * Default: 0.2
+     * </p>
+     */
+    private double pollingJitterRatio = 0.2;
+
+    /**
+     * Maximum number of batch requests a single poll cycle keeps in flight.
+     * <p>
+     * Secrets are polled in chunks of 50; with more registered secrets than
+     * {@code 50 * pollingParallelism}, the remaining chunks wait for a free slot.
+     * Not applied with {@link #watchEnabled}: every watch is held open by the server,
+     * so all chunks of a cycle are watched at once.
+     * </p>
+     * <p>
+     * Default: 4
+     * </p>
+     */
+    private int pollingParallelism = 4;
+
+    /**
+     * Upper bound in seconds for one poll cycle. Chunks still in flight when it passes are
+     * abandoned and retried in the next cycle.
+     * <p>
+     * Default: 30
+     * </p>
+     */
+    private int pollingCycleTimeoutSeconds = 30;
+
+    /**
+     * Maximum number of secrets whose refresh hooks may run at the same time.
+     * <p>
+     * Hooks of one secret always run one after another; hooks of different secrets run
+     * concurrently. With 0 there is no limit, so a slow hook never delays other secrets:
+     * every secret being delivered gets its own virtual thread on Java 21 and later, and
+     * its own daemon thread from a cached pool on older runtimes.
+     * </p>
+     * <p>
+     * Default: 0 (unbounded)
+     * </p>
+     */
+    private int hookDispatcherThreads = 0;
+
+    /**
+     * How long a single refresh hook may run, in seconds, before delivery moves on to the
+     * next hook.
+     * <p>
+     * A hook that overruns is interrupted and recorded with status 504. It is not waited
+     * for, so a hook that ignores interruption may still be running when the next one
+     * starts. With 0 hooks run without a time limit.
+     * </p>
+     * <p>
+     * Default: 0 (no limit)
+     * </p>
+     */
+    private int hookTimeoutSeconds = 0;
+
+    /**
+     * Whether each poll first asks the server for the current versions only and then fetches
+     * values just for the secrets that changed.
+     * <p>
+     * The version check is answered from secret metadata, so a poll in which nothing changed
+     * transfers no secret values at all and the server does not decrypt anything. It costs a
+     * second round trip when something did change. Requires a server that serves
+     * {@code POST /v1/secrets/versions} and the {@code secrets.read.metadata} permission on the
+     * polled secrets. Ignored when {@link #watchEnabled} is set, since a watch only returns
+     * changed secrets anyway.
+     * </p>
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean versionCheckEnabled = false;
+
+    /**
+     * Whether the background poller long-polls the server's watch endpoint instead of polling
+     * every {@link #pollingIntervalSeconds}.
+     * <p>
+     * The server holds each watch request open until one of the watched secrets changes or
+     * {@link #watchTimeoutSeconds} passes, and the poller sends the next one right away, so
+     * rotations reach hooks and the cache within a round trip. After a failed watch the poller
+     * waits {@link #pollingIntervalSeconds} before trying again. Requires a server that serves
+     * {@code POST /v1/secrets/watch}.
+     * </p>
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean watchEnabled = false;
+
+    /**
+     * Seconds the server may hold a watch request open before answering that nothing changed.
+     * Must be shorter than {@link #readTimeout}.
+     * <p>
+     * Default: 20
+     * </p>
+     */
+    private int watchTimeoutSeconds = 20;
+
+    /**
+     * Whether {@code getSecret} serves values from an in-memory cache.
+     * <p>
+     * Cached secrets are revalidated by the background batch poll, so steady-state reads do
+     * not reach the server. Rotations become visible after the next poll instead of on the
+     * next {@code getSecret} call.
+     * </p>
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean cacheEnabled = false;
+
+    /**
+     * The maximum number of secrets kept in the cache; the least recently read one is evicted first.
+     * <p>
+     * Default: 1000
+     * </p>
+     */
+    private int cacheMaxEntries = 1000;
+
+    /**
+     * Seconds a cached value is served without revalidation after it was last confirmed by the server.
+     * <p>
+     * Every successful poll confirms the cached versions, so this only bounds staleness while polls fail.
+     * </p>
+     * <p>
+     * Default: 300 (five minutes)
+     * </p>
+     */
+    private int cacheTtlSeconds = 300;
+
+    /**
+     * Seconds after {@link #cacheTtlSeconds} during which a stale value is still returned while it is
+     * refreshed in the background. Once this window passes, {@code getSecret} fetches synchronously again.
+     * <p>
+     * Default: 60
+     * </p>
+     */
+    private int cacheStaleWhileRevalidateSeconds = 60;
+
+    /**
+     * Directory in which the cached secrets are kept as an encrypted snapshot, or {@code null} to keep them
+     * in memory only. Requires {@link #cacheEnabled} and a {@link #snapshotKey}.
+     * <p>
+     * The client writes the snapshot shortly after cached values change and reads it at startup, so
+     * {@code getSecret} answers from the snapshot straight away, even while the server is unreachable, and the
+     * restored versions are validated by a background poll. Each workload identity has its own file in the
+     * directory, and a snapshot written under another identity is not read.
+     * </p>
+     * <p>
+     * Default: null (disabled)
+     * </p>
+     */
+    private String snapshotDirectory;
+
+    /**
+     * AES key (16, 24 or 32 bytes) with which the snapshot is encrypted and authenticated. It should come
+     * from a secure source, such as a key management service or a mounted secret, and not from the
+     * snapshot directory itself.
+     */
+    private byte[] snapshotKey;
+
+    /**
+     * Whether {@code getSecretBytes} returns private parts in direct (off-heap) buffers instead of heap
+     * arrays, so they do not appear in heap dumps and are never copied by the garbage collector.
+     * <p>
+     * Default: false
+     * </p>
+     */
+    @Setter
+    private boolean secretBytesOffHeap = false;
+
     /**
      * Resolver for the workload identity advertised via the {@code Grayskull-Workload} header.
      * <p>
@@ -159,6 +511,31 @@ public final class GrayskullClientConfiguration {
         this.host = host.endsWith("/") ? host.substring(0, host.length() - 1) : host;
     }
 
+    /**
+     * Sets the server endpoints that requests are spread across. If no {@link #host} has been set, the first
+     * endpoint also becomes the host.
+     *
+     * @param endpoints the endpoint URLs, each with an http or https scheme and no path (must not be null)
+     * @throws IllegalArgumentException if {@code endpoints} is null or any endpoint is not a valid URL
+     */
+    public void setEndpoints(List<String> endpoints) {
+        if (endpoints == null) {
+            throw new IllegalArgumentException("Endpoints cannot be null");
+        }
+        List<String> normalized = new ArrayList<>(endpoints.size());
+        for (String endpoint : endpoints) {
+            if (endpoint == null || !endpoint.matches("(?i)https?://[^/?#]+/?")) {
+                throw new IllegalArgumentException(
+                        "Endpoint must be an http or https URL without a path, got: " + endpoint);
+            }
+            normalized.add(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        }
+        this.endpoints = Collections.unmodifiableList(normalized);
+        if (this.host == null && !normalized.isEmpty()) {
+            this.host = normalized.get(0);
+        }
+    }
+
     /**
      * Sets the connection timeout in milliseconds.
      *
@@ -214,6 +591,73 @@ public final class GrayskullClientConfiguration {
         this.maxRetries = maxRetries;
     }
 
+    /**
+     * Sets the fraction of secrets that get per-secret metrics.
+     *
+     * @param metricsPerSecretSampleRatio the sample ratio (must be between 0 and 1)
+     * @throws IllegalArgumentException if {@code metricsPerSecretSampleRatio} is outside {@code [0, 1]}
+     */
+    public void setMetricsPerSecretSampleRatio(double metricsPerSecretSampleRatio) {
+        if (!(metricsPerSecretSampleRatio >= 0 && metricsPerSecretSampleRatio <= 1)) {
+            throw new IllegalArgumentException(
+                    "Per-secret metrics sample ratio must be in [0, 1], got: " + metricsPerSecretSampleRatio);
+        }
+        this.metricsPerSecretSampleRatio = metricsPerSecretSampleRatio;
+    }
+
+    /**
+     * Sets how long an idle pooled connection is kept open.
+     *
+     * @param connectionKeepAliveSeconds the keep-alive in seconds (must be positive)
+     * @throws IllegalArgumentException if connectionKeepAliveSeconds is not positive
+     */
+    public void setConnectionKeepAliveSeconds(int connectionKeepAliveSeconds) {
+        if (connectionKeepAliveSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "Connection keep-alive must be positive, got: " + connectionKeepAliveSeconds);
+        }
+        this.connectionKeepAliveSeconds = connectionKeepAliveSeconds;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous requests in flight across all hosts.
+     *
+     * @param maxRequests the request limit (must be positive)
+     * @throws IllegalArgumentException if maxRequests is not positive
+     */
+    public void setMaxRequests(int maxRequests) {
+        if (maxRequests <= 0) {
+            throw new IllegalArgumentException("Max requests must be positive, got: " + maxRequests);
+        }
+        this.maxRequests = maxRequests;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous requests in flight to a single host.
+     *
+     * @param maxRequestsPerHost the per-host request limit (must be positive)
+     * @throws IllegalArgumentException if maxRequestsPerHost is not positive
+     */
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        if (maxRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("Max requests per host must be positive, got: " + maxRequestsPerHost);
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Sets how many connections are opened when the client is created.
+     *
+     * @param warmUpConnections the number of warm-up connections, or 0 to disable (must not be negative)
+     * @throws IllegalArgumentException if warmUpConnections is negative
+     */
+    public void setWarmUpConnections(int warmUpConnections) {
+        if (warmUpConnections < 0) {
+            throw new IllegalArgumentException("Warm-up connections must not be negative, got: " + warmUpConnections);
+        }
+        this.warmUpConnections = warmUpConnections;
+    }
+
     /**
      * Sets the minimum delay between retry attempts in milliseconds.
      *
@@ -227,6 +671,76 @@ public final class GrayskullClientConfiguration {
         this.minRetryDelay = minRetryDelay;
     }
 
+    /**
+     * Sets the lower bound for the hedge delay in milliseconds.
+     *
+     * @param hedgeMinDelayMs the minimum hedge delay in milliseconds (must be positive)
+     * @throws IllegalArgumentException if {@code hedgeMinDelayMs} is not positive
+     */
+    public void setHedgeMinDelayMs(int hedgeMinDelayMs) {
+        if (hedgeMinDelayMs <= 0) {
+            throw new IllegalArgumentException("Hedge min delay must be positive, got: " + hedgeMinDelayMs);
+        }
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+    }
+
+    /**
+     * Sets how many consecutive transient failures open the circuit breaker.
+     *
+     * @param circuitBreakerFailureThreshold the failure threshold, or 0 to disable the circuit breaker
+     *                                       (must not be negative)
+     * @throws IllegalArgumentException if {@code circuitBreakerFailureThreshold} is negative
+     */
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+        if (circuitBreakerFailureThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "Circuit breaker failure threshold must not be negative, got: " + circuitBreakerFailureThreshold);
+        }
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    /**
+     * Sets how long an open circuit breaker stays open, in seconds.
+     *
+     * @param circuitBreakerOpenSeconds the open period in seconds (must be positive)
+     * @throws IllegalArgumentException if {@code circuitBreakerOpenSeconds} is not positive
+     */
+    public void setCircuitBreakerOpenSeconds(int circuitBreakerOpenSeconds) {
+        if (circuitBreakerOpenSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "Circuit breaker open period must be positive, got: " + circuitBreakerOpenSeconds);
+        }
+        this.circuitBreakerOpenSeconds = circuitBreakerOpenSeconds;
+    }
+
+    /**
+     * Sets the number of consecutive transient failures after which an endpoint is ejected.
+     *
+     * @param endpointEjectionFailures the failure count (must be positive)
+     * @throws IllegalArgumentException if {@code endpointEjectionFailures} is not positive
+     */
+    public void setEndpointEjectionFailures(int endpointEjectionFailures) {
+        if (endpointEjectionFailures <= 0) {
+            throw new IllegalArgumentException(
+                    "Endpoint ejection failures must be positive, got: " + endpointEjectionFailures);
+        }
+        this.endpointEjectionFailures = endpointEjectionFailures;
+    }
+
+    /**
+     * Sets how long an ejected endpoint is skipped.
+     *
+     * @param endpointEjectionSeconds the ejection period in seconds (must be positive)
+     * @throws IllegalArgumentException if {@code endpointEjectionSeconds} is not positive
+     */
+    public void setEndpointEjectionSeconds(int endpointEjectionSeconds) {
+        if (endpointEjectionSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "Endpoint ejection period must be positive, got: " + endpointEjectionSeconds);
+        }
+        this.endpointEjectionSeconds = endpointEjectionSeconds;
+    }
+
     /**
      * Sets the background poller interval in seconds.
      *
@@ -240,4 +754,158 @@ public final class GrayskullClientConfiguration {
         }
         this.pollingIntervalSeconds = pollingIntervalSeconds;
     }
+
+    /**
+     * Sets the polling jitter ratio.
+     *
+     * @param pollingJitterRatio the jitter ratio (must be at least 0 and below 1)
+     * @throws IllegalArgumentException if {@code pollingJitterRatio} is outside {@code [0, 1)}
+     */
+    public void setPollingJitterRatio(double pollingJitterRatio) {
+        if (!(pollingJitterRatio >= 0 && pollingJitterRatio < 1)) {
+            throw new IllegalArgumentException(
+                    "Polling jitter ratio must be in [0, 1), got: " + pollingJitterRatio);
+        }
+        this.pollingJitterRatio = pollingJitterRatio;
+    }
+
+    /**
+     * Sets how many batch requests a poll cycle may have in flight.
+     *
+     * @param pollingParallelism the number of concurrent batch requests (must be positive)
+     * @throws IllegalArgumentException if {@code pollingParallelism} is not positive
+     */
+    public void setPollingParallelism(int pollingParallelism) {
+        if (pollingParallelism <= 0) {
+            throw new IllegalArgumentException("Polling parallelism must be positive, got: " + pollingParallelism);
+        }
+        this.pollingParallelism = pollingParallelism;
+    }
+
+    /**
+     * Sets the deadline for one poll cycle in seconds.
+     *
+     * @param pollingCycleTimeoutSeconds the cycle deadline in seconds (must be positive)
+     * @throws IllegalArgumentException if {@code pollingCycleTimeoutSeconds} is not positive
+     */
+    public void setPollingCycleTimeoutSeconds(int pollingCycleTimeoutSeconds) {
+        if (pollingCycleTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "Polling cycle timeout must be positive, got: " + pollingCycleTimeoutSeconds);
+        }
+        this.pollingCycleTimeoutSeconds = pollingCycleTimeoutSeconds;
+    }
+
+    /**
+     * Sets how many secrets may have their refresh hooks running at the same time.
+     *
+     * @param hookDispatcherThreads the limit, or 0 for no limit (must not be negative)
+     * @throws IllegalArgumentException if {@code hookDispatcherThreads} is negative
+     */
+    public void setHookDispatcherThreads(int hookDispatcherThreads) {
+        if (hookDispatcherThreads < 0) {
+            throw new IllegalArgumentException(
+                    "Hook dispatcher threads must not be negative, got: " + hookDispatcherThreads);
+        }
+        this.hookDispatcherThreads = hookDispatcherThreads;
+    }
+
+    /**
+     * Sets how long a single refresh hook may run, in seconds.
+     *
+     * @param hookTimeoutSeconds the hook timeout in seconds, or 0 for no limit (must not be negative)
+     * @throws IllegalArgumentException if {@code hookTimeoutSeconds} is negative
+     */
+    public void setHookTimeoutSeconds(int hookTimeoutSeconds) {
+        if (hookTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("Hook timeout must not be negative, got: " + hookTimeoutSeconds);
+        }
+        this.hookTimeoutSeconds = hookTimeoutSeconds;
+    }
+
+    /**
+     * Sets how long the server may hold a watch request open, in seconds.
+     *
+     * @param watchTimeoutSeconds the watch timeout in seconds (must be positive)
+     * @throws IllegalArgumentException if {@code watchTimeoutSeconds} is not positive
+     */
+    public void setWatchTimeoutSeconds(int watchTimeoutSeconds) {
+        if (watchTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Watch timeout must be positive, got: " + watchTimeoutSeconds);
+        }
+        this.watchTimeoutSeconds = watchTimeoutSeconds;
+    }
+
+    /**
+     * Sets the maximum number of cached secrets.
+     *
+     * @param cacheMaxEntries the cache capacity (must be positive)
+     * @throws IllegalArgumentException if {@code cacheMaxEntries} is not positive
+     */
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        if (cacheMaxEntries <= 0) {
+            throw new IllegalArgumentException("Cache max entries must be positive, got: " + cacheMaxEntries);
+        }
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    /**
+     * Sets the cache time-to-live in seconds.
+     *
+     * @param cacheTtlSeconds the time-to-live in seconds (must be positive)
+     * @throws IllegalArgumentException if {@code cacheTtlSeconds} is not positive
+     */
+    public void setCacheTtlSeconds(int cacheTtlSeconds) {
+        if (cacheTtlSeconds <= 0) {
+            throw new IllegalArgumentException("Cache TTL must be positive, got: " + cacheTtlSeconds);
+        }
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+
+    /**
+     * Sets the stale-while-revalidate window in seconds.
+     *
+     * @param cacheStaleWhileRevalidateSeconds the window in seconds (must not be negative)
+     * @throws IllegalArgumentException if {@code cacheStaleWhileRevalidateSeconds} is negative
+     */
+    public void setCacheStaleWhileRevalidateSeconds(int cacheStaleWhileRevalidateSeconds) {
+        if (cacheStaleWhileRevalidateSeconds < 0) {
+            throw new IllegalArgumentException(
+                    "Cache stale-while-revalidate must not be negative, got: " + cacheStaleWhileRevalidateSeconds);
+        }
+        this.cacheStaleWhileRevalidateSeconds = cacheStaleWhileRevalidateSeconds;
+    }
+
+    /**
+     * Sets the directory of the encrypted secret snapshot.
+     *
+     * @param snapshotDirectory the directory, or {@code null} to disable the snapshot (must not be empty)
+     * @throws IllegalArgumentException if {@code snapshotDirectory} is empty
+     */
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        if (snapshotDirectory != null && snapshotDirectory.trim().isEmpty()) {
+            throw new IllegalArgumentException("Snapshot directory cannot be empty");
+        }
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * Sets the key of the encrypted secret snapshot. The array is copied.
+     *
+     * @param snapshotKey the AES key (must be 16, 24 or 32 bytes long)
+     * @throws IllegalArgumentException if {@code snapshotKey} is null or has another length
+     */
+    public void setSnapshotKey(byte[] snapshotKey) {
+        if (snapshotKey == null || (snapshotKey.length != 16 && snapshotKey.length != 24 && snapshotKey.length != 32)) {
+            throw new IllegalArgumentException("Snapshot key must be 16, 24 or 32 bytes long");
+        }
+        this.snapshotKey = snapshotKey.clone();
+    }
+
+    /**
+     * Returns a copy of the snapshot key, or {@code null} when none is set.
+     */
+    public byte[] getSnapshotKey() {
+        return snapshotKey == null ? null : snapshotKey.clone();
+    }
 }
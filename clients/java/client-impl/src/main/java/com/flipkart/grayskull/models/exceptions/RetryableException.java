@@ -13,25 +13,39 @@ import lombok.Getter;
 public final class RetryableException extends Exception {
     
     private final int statusCode;
+
+    /**
+     * Delay requested by the server through a {@code Retry-After} header, in milliseconds, or 0 if none.
+     */
+    private final long retryAfterMillis;
     
     public RetryableException(String message) {
         super(message);
         this.statusCode = 0;
+        this.retryAfterMillis = 0;
     }
 
     public RetryableException(String message, Throwable cause) {
         super(message, cause);
         this.statusCode = 0;
+        this.retryAfterMillis = 0;
     }
     
     public RetryableException(int statusCode, String message) {
         super(message);
         this.statusCode = statusCode;
+        this.retryAfterMillis = 0;
     }
 
     public RetryableException(int statusCode, String message, Throwable cause) {
         super(message);
         this.statusCode = statusCode;
+        this.retryAfterMillis = 0;
     }
-}
 
+    public RetryableException(int statusCode, String message, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.flipkart.grayskull.models.response;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response body for the {@code POST /v1/secrets/versions} endpoint.
+ */
+@Getter
+@AllArgsConstructor(onConstructor = @__(@JsonCreator))
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SecretVersionsResponse {
+
+    private final List<SecretVersion> secrets;
+
+    @Getter
+    @AllArgsConstructor(onConstructor = @__(@JsonCreator))
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class SecretVersion {
+        private final String projectId;
+        private final String secretName;
+        private final int currentDataVersion;
+    }
+}
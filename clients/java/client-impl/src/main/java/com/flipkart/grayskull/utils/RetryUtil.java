@@ -7,6 +7,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Utility class for retrying operations with exponential backoff.
  * <p>
@@ -85,6 +92,68 @@ public final class RetryUtil {
         throw new GrayskullException("Reached maximum attempts: " + maxAttempt, lastException);
     }
 
+    /**
+     * Asynchronous variant of {@link #retry(CheckedSupplier)}.
+     * <p>
+     * Each attempt is started by {@code task}; when its future fails with a {@link RetryableException}
+     * the next attempt is scheduled on {@code scheduler} after the same exponential backoff, so no thread
+     * is blocked while waiting. The returned future fails with a {@link GrayskullException} once all
+     * attempts are exhausted, and with the original exception for non-retryable failures.
+     * </p>
+     *
+     * @param task      starts one attempt and returns its result future
+     * @param scheduler executor used to delay retries
+     * @param <T>       The return type of the task
+     * @return a future completed with the first successful result
+     */
+    public <T> CompletableFuture<T> retryAsync(Supplier<CompletableFuture<T>> task, ScheduledExecutorService scheduler) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(task, scheduler, result, 1, interval, MDC.get(MDCKeys.GRAYSKULL_REQUEST_ID));
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> task, ScheduledExecutorService scheduler,
+                                  CompletableFuture<T> result, int attempt, long currentInterval, String requestId) {
+        log.debug("[RequestId:{}] Executing task, attempt {} of {}", requestId, attempt, maxAttempt);
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                if (attempt > 1) {
+                    log.info("[RequestId:{}] Task succeeded on attempt {}", requestId, attempt);
+                }
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!(cause instanceof RetryableException)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            RetryableException e = (RetryableException) cause;
+            log.warn("[RequestId:{}] Retryable exception on attempt {} of {}: {}", requestId, attempt, maxAttempt, e.getMessage());
+            if (attempt == maxAttempt) {
+                log.error("[RequestId:{}] Max retry attempts reached ({}), throwing exception", requestId, maxAttempt);
+                result.completeExceptionally(new GrayskullException(e.getStatusCode(),
+                        "Failed after " + maxAttempt + " retry attempts: " + e.getMessage(), e));
+                return;
+            }
+            log.debug("[RequestId:{}] Waiting {}ms before retry", requestId, currentInterval);
+            long nextInterval = Math.min(currentInterval * 2, MAX_WAIT_TIME_MS);
+            try {
+                scheduler.schedule(() -> attemptAsync(task, scheduler, result, attempt + 1, nextInterval, requestId),
+                        currentInterval, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                result.completeExceptionally(new GrayskullException("Retry rejected, client is closed", rejected));
+            }
+        });
+    }
+
     /**
      * Functional interface representing a supplier that can throw an exception.
      *
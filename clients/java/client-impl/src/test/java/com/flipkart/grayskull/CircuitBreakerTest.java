@@ -0,0 +1,141 @@
+package com.flipkart.grayskull;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link CircuitBreaker}, driven by a fake clock.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final CircuitBreaker breaker = new CircuitBreaker("localhost:443", 3, 10, clock::get);
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private long acquire() {
+        long permit = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NO_PERMIT, permit);
+        return permit;
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.onFailure(acquire());
+        }
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+    }
+
+    @Test
+    void admits_followsTryAcquireWithoutTakingTheProbe() {
+        assertTrue(breaker.admits());
+        fail(3);
+        assertFalse(breaker.admits());
+
+        advanceSeconds(10);
+        assertTrue(breaker.admits());
+        assertTrue(breaker.admits(), "asking must not take the probe slot");
+        acquire();
+        assertFalse(breaker.admits(), "the probe is in flight");
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        fail(2);
+        breaker.onSuccess(acquire());
+        fail(2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpen_letsOneProbeThrough_andClosesOnSuccess() {
+        fail(3);
+        advanceSeconds(10);
+
+        long probe = acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire(), "only one probe at a time");
+
+        breaker.onSuccess(probe);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        acquire();
+    }
+
+    @Test
+    void halfOpen_reopensWhenTheProbeFails() {
+        fail(3);
+        advanceSeconds(10);
+        long probe = acquire();
+
+        breaker.onFailure(probe);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        advanceSeconds(9);
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+        advanceSeconds(1);
+        acquire();
+    }
+
+    @Test
+    void halfOpen_abandonedProbeFreesTheSlot() {
+        fail(3);
+        advanceSeconds(10);
+        long probe = acquire();
+
+        breaker.onAbandoned(probe);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        acquire();
+    }
+
+    @Test
+    void inFlightSuccess_afterTheBreakerOpened_isIgnored() {
+        long inFlight = acquire();
+        fail(3);
+
+        breaker.onSuccess(inFlight);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpen_onlyTheProbeDecides() {
+        long inFlight = acquire();
+        fail(3);
+        advanceSeconds(10);
+        long probe = acquire();
+
+        breaker.onSuccess(inFlight);
+        breaker.onAbandoned(inFlight);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire(), "a stale outcome must not free the probe slot");
+
+        breaker.onFailure(probe);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        breaker.onFailure(probe);
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(), "the probe reports only once");
+    }
+}
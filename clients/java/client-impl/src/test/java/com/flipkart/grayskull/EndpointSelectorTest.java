@@ -0,0 +1,133 @@
+package com.flipkart.grayskull;
+
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for {@link EndpointSelector}, driven by a fake clock.
+ */
+class EndpointSelectorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final EndpointSelector selector = new EndpointSelector(
+            Arrays.asList("http://a.example.com:8080", "http://b.example.com:8080"), 2, 10, clock::get);
+
+    private EndpointSelector.Endpoint endpoint(int index) {
+        return selector.endpoints().get(index);
+    }
+
+    /**
+     * Selects until {@code endpoint} is chosen, so that it is counted in flight like a real attempt.
+     */
+    private EndpointSelector.Endpoint take(EndpointSelector.Endpoint endpoint) {
+        EndpointSelector.Endpoint chosen;
+        while ((chosen = selector.select()) != endpoint) {
+            selector.onAbandoned(chosen);
+        }
+        return chosen;
+    }
+
+    private void fail(EndpointSelector.Endpoint endpoint, int times) {
+        for (int i = 0; i < times; i++) {
+            selector.onFailure(take(endpoint));
+        }
+    }
+
+    @Test
+    void prefersTheEndpointWithLowerLatency() {
+        EndpointSelector.Endpoint slow = endpoint(0);
+        EndpointSelector.Endpoint fast = endpoint(1);
+        selector.onSuccess(take(slow), TimeUnit.MILLISECONDS.toNanos(500));
+        selector.onSuccess(take(fast), TimeUnit.MILLISECONDS.toNanos(5));
+
+        for (int i = 0; i < 20; i++) {
+            EndpointSelector.Endpoint chosen = selector.select();
+            assertSame(fast, chosen);
+            selector.onAbandoned(chosen);
+        }
+    }
+
+    @Test
+    void prefersTheEndpointWithFewerRequestsInFlight() {
+        EndpointSelector.Endpoint first = selector.select();
+        EndpointSelector.Endpoint second = selector.select();
+
+        assertEquals(1, first.inFlight(), "the busy endpoint should not be chosen twice");
+        assertEquals(1, second.inFlight());
+    }
+
+    @Test
+    void ejectsAnEndpointAfterConsecutiveFailuresUntilThePeriodEnds() {
+        EndpointSelector.Endpoint failing = endpoint(0);
+        fail(failing, 2);
+
+        for (int i = 0; i < 20; i++) {
+            EndpointSelector.Endpoint chosen = selector.select();
+            assertSame(endpoint(1), chosen);
+            selector.onAbandoned(chosen);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        fail(endpoint(1), 2);
+
+        assertSame(failing, selector.select());
+    }
+
+    @Test
+    void usesTheEndpointWhoseEjectionEndsFirstWhenAllAreEjected() {
+        fail(endpoint(1), 2);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        fail(endpoint(0), 2);
+
+        assertSame(endpoint(1), selector.select());
+    }
+
+    @Test
+    void skipsAnEndpointWhoseBreakerRejectsRequests() {
+        Set<String> open = ConcurrentHashMap.newKeySet();
+        EndpointSelector guarded = new EndpointSelector(
+                Arrays.asList("http://a.example.com:8080", "http://b.example.com:8080"), 2, 10, clock::get,
+                url -> !open.contains(url.host()));
+        open.add("a.example.com");
+
+        for (int i = 0; i < 20; i++) {
+            EndpointSelector.Endpoint chosen = guarded.select();
+            assertEquals("b.example.com", chosen.url().host());
+            guarded.onAbandoned(chosen);
+        }
+
+        open.add("b.example.com");
+        assertEquals("a.example.com", guarded.select().url().host(),
+                "with every breaker open some endpoint must still be chosen");
+    }
+
+    @Test
+    void singleEndpointIsNeverEjected() {
+        EndpointSelector single = new EndpointSelector(
+                Collections.singletonList("http://a.example.com"), 1, 10, clock::get);
+        EndpointSelector.Endpoint only = single.endpoints().get(0);
+        single.onFailure(single.select());
+
+        assertSame(only, single.select());
+    }
+
+    @Test
+    void routeReplacesSchemeHostAndPortOnly() {
+        Request request = new Request.Builder().url("http://grayskull.example.com/v1/project/p/secrets/s?x=1").build();
+
+        Request routed = endpoint(1).route(request);
+
+        assertEquals("http://b.example.com:8080/v1/project/p/secrets/s?x=1", routed.url().toString());
+        assertSame(routed, endpoint(1).route(routed));
+    }
+}
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse.UpdatedSecret;
 import com.flipkart.grayskull.models.response.HttpResponse;
+import com.flipkart.grayskull.models.SecretBytes;
 import com.flipkart.grayskull.models.SecretValue;
 import com.flipkart.grayskull.models.exceptions.GrayskullException;
 import com.flipkart.grayskull.hooks.RefreshHandlerRef;
@@ -23,6 +24,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -31,11 +33,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -73,6 +80,8 @@ class GrayskullClientImplTest {
 
         client = new GrayskullClientImpl(mockAuthProvider, grayskullClientConfiguration);
         objectMapper = new ObjectMapper();
+        HttpClientStubs.streamPostsThroughStringStubs(mockHttpClient);
+        HttpClientStubs.streamGetsThroughStringStubs(mockHttpClient);
 
         // Inject mock HTTP client into the client (used by getSecret) and the poller (used by pollOnce).
         Field httpClientField = GrayskullClientImpl.class.getDeclaredField("httpClient");
@@ -598,7 +607,7 @@ class GrayskullClientImplTest {
     }
 
     @Test
-    void testPollOnce_fiftyOneSecrets_twoSequentialPosts() throws Exception {
+    void testPollOnce_fiftyOneSecrets_twoPosts() throws Exception {
         for (int i = 0; i < 51; i++) {
             client.registerRefreshHook("corp:svc-" + i, v -> {});
         }
@@ -610,8 +619,13 @@ class GrayskullClientImplTest {
 
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
         verify(mockHttpClient, times(2)).doPostWithRetry(eq(BATCH_URL), bodyCaptor.capture());
-        assertEquals(50, objectMapper.readTree(bodyCaptor.getAllValues().get(0)).get("secrets").size());
-        assertEquals(1, objectMapper.readTree(bodyCaptor.getAllValues().get(1)).get("secrets").size());
+        // chunks are sent concurrently, so the order of the two calls is not fixed
+        List<Integer> chunkSizes = new ArrayList<>();
+        for (String body : bodyCaptor.getAllValues()) {
+            chunkSizes.add(objectMapper.readTree(body).get("secrets").size());
+        }
+        Collections.sort(chunkSizes);
+        assertEquals(Arrays.asList(1, 50), chunkSizes);
     }
 
     @Test
@@ -1107,6 +1121,355 @@ class GrayskullClientImplTest {
         assertEquals("unknown", GrayskullClientImpl.resolveSdkVersion(cl));
     }
 
+    @Test
+    void testGetSecret_cacheEnabled_servesRepeatedCallsFromMemory() throws Exception {
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")));
+
+        SecretValue first = client.getSecret("team:db-pass");
+        SecretValue second = client.getSecret("team:db-pass");
+
+        assertSame(first, second);
+        verify(mockHttpClient, times(1)).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecret_serverUnavailable_servesLastKnownValuePastTtl() throws Exception {
+        grayskullClientConfiguration.setCacheTtlSeconds(1);
+        grayskullClientConfiguration.setCacheStaleWhileRevalidateSeconds(0);
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")))
+                .thenThrow(new GrayskullException(503, "Circuit breaker open"))
+                .thenThrow(new GrayskullException(404, "Not found"));
+        CompletableFuture<HttpResponse> unavailable = new CompletableFuture<>();
+        unavailable.completeExceptionally(new GrayskullException(500, "Failed after 3 retry attempts"));
+        when(mockHttpClient.doGetAsyncWithRetry(anyString())).thenReturn(unavailable);
+
+        client.getSecret("team:db-pass");
+        Thread.sleep(1_100);
+
+        assertEquals("pwd", client.getSecret("team:db-pass").getPrivatePart());
+        assertEquals("pwd", client.getSecretAsync("team:db-pass").get(5, TimeUnit.SECONDS).getPrivatePart());
+        GrayskullException notFound = assertThrows(GrayskullException.class, () -> client.getSecret("team:db-pass"));
+        assertEquals(404, notFound.getStatusCode());
+    }
+
+    @Test
+    void testSnapshot_restartServesSecretsFromDiskWithoutTheServer(@TempDir Path snapshotDirectory) throws Exception {
+        grayskullClientConfiguration.setSnapshotDirectory(snapshotDirectory.toString());
+        grayskullClientConfiguration.setSnapshotKey(new byte[16]);
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")));
+        client.getSecret("team:db-pass");
+        client.close();
+
+        client = new GrayskullClientImpl(mockAuthProvider, grayskullClientConfiguration);
+
+        assertEquals("pwd", client.getSecret("team:db-pass").getPrivatePart());
+        verify(mockHttpClient, times(1)).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testSnapshot_requiresCacheAndKey() {
+        grayskullClientConfiguration.setSnapshotDirectory("/tmp/grayskull");
+        assertThrows(IllegalArgumentException.class,
+                () -> new GrayskullClientImpl(mockAuthProvider, grayskullClientConfiguration));
+
+        grayskullClientConfiguration.setCacheEnabled(true);
+        assertThrows(IllegalArgumentException.class,
+                () -> new GrayskullClientImpl(mockAuthProvider, grayskullClientConfiguration));
+    }
+
+    @Test
+    void testGetSecret_cacheDisabled_fetchesEveryCall() throws Exception {
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")));
+
+        client.getSecret("team:db-pass");
+        client.getSecret("team:db-pass");
+
+        verify(mockHttpClient, times(2)).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecretBytes_streamsPrivatePartIntoWipeableBuffer() throws Exception {
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pässwörd")));
+
+        ByteBuffer view;
+        try (SecretBytes secret = client.getSecretBytes("team:db-pass")) {
+            assertEquals(3, secret.getDataVersion());
+            assertEquals("user", secret.getPublicPart());
+            assertArrayEquals("pässwörd".toCharArray(), secret.getPrivatePartChars());
+            view = secret.getPrivatePart();
+            byte[] bytes = new byte[view.remaining()];
+            view.duplicate().get(bytes);
+            assertArrayEquals("pässwörd".getBytes(StandardCharsets.UTF_8), bytes);
+        }
+
+        while (view.hasRemaining()) {
+            assertEquals(0, view.get(), "closing the value wipes the private part");
+        }
+        verify(mockHttpClient).doGetWithRetry(
+                eq("https://test.grayskull.com/v1/projects/team/secrets/db-pass/data"), any());
+    }
+
+    @Test
+    void testGetSecretBytes_cacheHit_copiesCachedValueWithoutFetching() throws Exception {
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")));
+        client.getSecret("team:db-pass");
+
+        try (SecretBytes secret = client.getSecretBytes("team:db-pass")) {
+            assertArrayEquals("pwd".toCharArray(), secret.getPrivatePartChars());
+        }
+
+        verify(mockHttpClient, never()).doGetWithRetry(anyString(), any());
+    }
+
+    @Test
+    void testGetSecretBytes_noData_throws() throws Exception {
+        when(mockHttpClient.doGetWithRetry(anyString())).thenReturn(createHttpResponse(null));
+
+        GrayskullException e = assertThrows(GrayskullException.class, () -> client.getSecretBytes("team:db-pass"));
+
+        assertEquals(500, e.getStatusCode());
+    }
+
+    @Test
+    void testPollOnce_cacheEnabled_pollsCachedSecretsAndRefreshesValue() throws Exception {
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "old")));
+        client.getSecret("team:db-pass");
+
+        UpdatedSecret rotated = new UpdatedSecret("team", "db-pass", 4, "user", "new");
+        when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString()))
+                .thenReturn(wrapBatch(new BatchGetSecretsResponse(1, Collections.singletonList(rotated))));
+        pollOnce();
+
+        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
+        verify(mockHttpClient).doPostWithRetry(eq(BATCH_URL), bodyCaptor.capture());
+        JsonNode entry = objectMapper.readTree(bodyCaptor.getValue()).get("secrets").get(0);
+        assertEquals("db-pass", entry.get("secretName").asText());
+        assertEquals(3, entry.get("lastKnownVersion").asInt(),
+                "cached secrets are polled with their cached version");
+
+        SecretValue refreshed = client.getSecret("team:db-pass");
+        assertEquals(4, refreshed.getDataVersion());
+        assertEquals("new", refreshed.getPrivatePart());
+        verify(mockHttpClient, times(1)).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecretAsync_success() throws Exception {
+        when(mockHttpClient.doGetAsyncWithRetry(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(createHttpResponse(new SecretValue(2, "u", "p"))));
+
+        SecretValue result = client.getSecretAsync("team:db-pass").get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, result.getDataVersion());
+        assertEquals("p", result.getPrivatePart());
+        verify(mockHttpClient).doGetAsyncWithRetry(
+                eq("https://test.grayskull.com/v1/projects/team/secrets/db-pass/data"));
+        verify(mockHttpClient, never()).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecretAsync_invalidRef_returnsFailedFuture() {
+        CompletableFuture<SecretValue> future = client.getSecretAsync("no-colon");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
+
+    @Test
+    void testGetSecretAsync_httpFailure_propagatesGrayskullException() {
+        CompletableFuture<HttpResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new GrayskullException(403, "forbidden"));
+        when(mockHttpClient.doGetAsyncWithRetry(anyString())).thenReturn(failed);
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> client.getSecretAsync("team:db-pass").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(GrayskullException.class, ex.getCause());
+        assertEquals(403, ((GrayskullException) ex.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testBatchGetSecretsAsync_chunksRequestsAndPreservesOrder() throws Exception {
+        List<String> refs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            refs.add("team:s" + i);
+        }
+        when(mockHttpClient.doPostAsyncWithRetry(eq(BATCH_URL), anyString())).thenAnswer(invocation -> {
+            JsonNode secrets = objectMapper.readTree((String) invocation.getArgument(1)).get("secrets");
+            List<UpdatedSecret> items = new ArrayList<>();
+            for (JsonNode entry : secrets) {
+                assertEquals(0, entry.get("lastKnownVersion").asInt());
+                items.add(new UpdatedSecret("team", entry.get("secretName").asText(), 1, "pub", "priv"));
+            }
+            return CompletableFuture.completedFuture(wrapBatch(new BatchGetSecretsResponse(items.size(), items)));
+        });
+
+        Map<String, SecretValue> result = client.batchGetSecretsAsync(refs).get(5, TimeUnit.SECONDS);
+
+        assertEquals(refs, new ArrayList<>(result.keySet()));
+        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
+        verify(mockHttpClient, times(2)).doPostAsyncWithRetry(eq(BATCH_URL), bodyCaptor.capture());
+        assertEquals(50, objectMapper.readTree(bodyCaptor.getAllValues().get(0)).get("secrets").size());
+        assertEquals(10, objectMapper.readTree(bodyCaptor.getAllValues().get(1)).get("secrets").size());
+    }
+
+    @Test
+    void testGetSecrets_returnsValuesFromOneBatchCall() throws Exception {
+        List<UpdatedSecret> items = Arrays.asList(
+                new UpdatedSecret("team", "a", 3, "pa", "a-secret"),
+                new UpdatedSecret("other", "b", 1, "pb", "b-secret"));
+        when(mockHttpClient.doPostAsyncWithRetry(eq(BATCH_URL), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(wrapBatch(new BatchGetSecretsResponse(2, items))));
+
+        Map<String, SecretValue> result = client.getSecrets(Arrays.asList("other:b", "team:a"));
+
+        assertEquals(Arrays.asList("other:b", "team:a"), new ArrayList<>(result.keySet()));
+        assertEquals("a-secret", result.get("team:a").getPrivatePart());
+        assertEquals(1, result.get("other:b").getDataVersion());
+        verify(mockHttpClient, times(1)).doPostAsyncWithRetry(eq(BATCH_URL), anyString());
+        verify(mockHttpClient, never()).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecrets_failures_surfaceUnwrapped() {
+        assertThrows(IllegalArgumentException.class, () -> client.getSecrets(Arrays.asList("team:a", "bad")));
+        assertThrows(IllegalArgumentException.class, () -> client.getSecrets(null));
+
+        CompletableFuture<HttpResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new GrayskullException(404, "Active secret not found"));
+        when(mockHttpClient.doPostAsyncWithRetry(eq(BATCH_URL), anyString())).thenReturn(failed);
+
+        GrayskullException ex = assertThrows(GrayskullException.class,
+                () -> client.getSecrets(Collections.singletonList("team:missing")));
+        assertEquals(404, ex.getStatusCode());
+    }
+
+    @Test
+    void testGetSecrets_cachedValuesSkipTheServer() throws Exception {
+        useCachedClient();
+        when(mockHttpClient.doGetWithRetry(anyString()))
+                .thenReturn(createHttpResponse(new SecretValue(3, "user", "pwd")));
+        client.getSecret("team:db-pass");
+
+        Map<String, SecretValue> result = client.getSecrets(Collections.singletonList("team:db-pass"));
+
+        assertEquals("pwd", result.get("team:db-pass").getPrivatePart());
+        verify(mockHttpClient, never()).doPostAsyncWithRetry(anyString(), anyString());
+    }
+
+    @Test
+    void testBatchGetSecretsAsync_missingSecretInResponse_fails() throws Exception {
+        when(mockHttpClient.doPostAsyncWithRetry(eq(BATCH_URL), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(wrapBatch(new BatchGetSecretsResponse(0, Collections.emptyList()))));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> client.batchGetSecretsAsync(Arrays.asList("team:a", "team:a")).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(GrayskullException.class, ex.getCause());
+        verify(mockHttpClient, times(1)).doPostAsyncWithRetry(eq(BATCH_URL), anyString());
+    }
+
+    @Test
+    void testGetSecret_concurrentCallers_shareOneRequest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpResponse response = createHttpResponse(new SecretValue(3, "user", "pwd"));
+        when(mockHttpClient.doGetWithRetry(anyString())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        List<CompletableFuture<SecretValue>> callers = new ArrayList<>();
+        callers.add(CompletableFuture.supplyAsync(() -> client.getSecret("team:db-pass")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> client.getSecret("team:db-pass")));
+        }
+        CompletableFuture<?> inFlight = inFlightFetches().get("team:db-pass");
+        awaitDependents(inFlight, 7);
+        release.countDown();
+
+        for (CompletableFuture<SecretValue> caller : callers) {
+            assertEquals(3, caller.get(5, TimeUnit.SECONDS).getDataVersion());
+        }
+        verify(mockHttpClient, times(1)).doGetWithRetry(anyString());
+        assertTrue(inFlightFetches().isEmpty());
+
+        client.getSecret("team:db-pass");
+        verify(mockHttpClient, times(2)).doGetWithRetry(anyString());
+    }
+
+    @Test
+    void testGetSecret_coalescedCallers_receiveTheSameFailure() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GrayskullException failure = new GrayskullException(503, "unavailable");
+        when(mockHttpClient.doGetWithRetry(anyString())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw failure;
+        });
+
+        CompletableFuture<SecretValue> leader = CompletableFuture.supplyAsync(() -> client.getSecret("team:db-pass"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<SecretValue> follower = client.getSecretAsync("team:db-pass");
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+        verify(mockHttpClient, times(1)).doGetWithRetry(anyString());
+        verify(mockHttpClient, never()).doGetAsyncWithRetry(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, CompletableFuture<SecretValue>> inFlightFetches() throws Exception {
+        Field field = GrayskullClientImpl.class.getDeclaredField("inFlightFetches");
+        field.setAccessible(true);
+        return (Map<String, CompletableFuture<SecretValue>>) field.get(client);
+    }
+
+    private static void awaitDependents(CompletableFuture<?> future, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (future.getNumberOfDependents() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, future.getNumberOfDependents());
+    }
+
+    /**
+     * Replaces {@link #client} with one that has the secret cache enabled and routes its HTTP calls to the mock.
+     */
+    private void useCachedClient() throws Exception {
+        client.close();
+        grayskullClientConfiguration.setCacheEnabled(true);
+        client = new GrayskullClientImpl(mockAuthProvider, grayskullClientConfiguration);
+
+        Field httpClientField = GrayskullClientImpl.class.getDeclaredField("httpClient");
+        httpClientField.setAccessible(true);
+        httpClientField.set(client, mockHttpClient);
+
+        Field refreshPollerField = GrayskullClientImpl.class.getDeclaredField("refreshPoller");
+        refreshPollerField.setAccessible(true);
+        refreshPoller = (HookRefreshPoller) refreshPollerField.get(client);
+
+        Field pollerHttpClientField = HookRefreshPoller.class.getDeclaredField("httpClient");
+        pollerHttpClientField.setAccessible(true);
+        pollerHttpClientField.set(refreshPoller, mockHttpClient);
+    }
+
     private HttpResponse createHttpResponse(SecretValue secretValue) throws Exception {
         Response<SecretValue> response = new Response<>(secretValue, "Success");
         String json = objectMapper.writeValueAsString(response);
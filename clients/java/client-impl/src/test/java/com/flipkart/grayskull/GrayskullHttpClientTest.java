@@ -10,9 +10,11 @@ import com.flipkart.grayskull.models.SecretValue;
 import com.flipkart.grayskull.models.exceptions.GrayskullException;
 import com.flipkart.grayskull.models.exceptions.RetryableException;
 import com.flipkart.grayskull.models.response.Response;
+import okhttp3.Protocol;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
 import org.junit.jupiter.api.AfterEach;
 import org.slf4j.MDC;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +24,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -251,6 +257,35 @@ class GrayskullHttpClientTest {
                 "Should have made exactly maxRetries requests");
     }
 
+    @Test
+    void testDoGetWithRetry_exhaustedRetries_keepRetryAfterOfLastResponse() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        for (int i = 0; i < config.getMaxRetries(); i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(429)
+                    .setHeader("Retry-After", "120").setBody("Too Many Requests"));
+        }
+
+        GrayskullException exception = assertThrows(GrayskullException.class, () ->
+                httpClient.doGetWithRetry(mockWebServer.url("/test").toString()));
+
+        assertEquals(429, exception.getStatusCode());
+        assertTrue(exception.getCause() instanceof RetryableException);
+        assertEquals(120_000L, ((RetryableException) exception.getCause()).getRetryAfterMillis());
+    }
+
+    @Test
+    void testRetryAfterMillis_parsesSecondsAndHttpDate() {
+        long now = 1_700_000_000_000L;
+
+        assertEquals(30_000L, GrayskullHttpClient.retryAfterMillis("30", now));
+        assertEquals(5_000L, GrayskullHttpClient.retryAfterMillis(
+                "Tue, 14 Nov 2023 22:13:25 GMT", now));
+        assertEquals(0L, GrayskullHttpClient.retryAfterMillis("Tue, 14 Nov 2023 22:13:15 GMT", now));
+        assertEquals(0L, GrayskullHttpClient.retryAfterMillis(null, now));
+        assertEquals(0L, GrayskullHttpClient.retryAfterMillis("soon", now));
+        assertEquals(0L, GrayskullHttpClient.retryAfterMillis("-5", now));
+    }
+
     @Test
     void testDoGetWithRetry_noRetryOnNonRetryableException() {
         // Given
@@ -718,6 +753,330 @@ class GrayskullHttpClientTest {
         assertEquals("", result.getBody());
     }
 
+    @Test
+    void testDoGetAsyncWithRetry_retriesThenSucceeds() throws Exception {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody("Service Unavailable"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+        MDC.put(MDCKeys.GRAYSKULL_REQUEST_ID, "async-req");
+
+        CompletableFuture<HttpResponse> future = httpClient.doGetAsyncWithRetry(mockWebServer.url("/test").toString());
+        MDC.remove(MDCKeys.GRAYSKULL_REQUEST_ID);
+
+        HttpResponse result = future.get(5, TimeUnit.SECONDS);
+        assertEquals(200, result.getStatusCode());
+        assertEquals(2, mockWebServer.getRequestCount());
+        // the request id captured at call time is sent on the retry scheduled from another thread
+        mockWebServer.takeRequest();
+        assertEquals("async-req", mockWebServer.takeRequest().getHeader("X-Request-Id"));
+    }
+
+    @Test
+    void testDoPostAsyncWithRetry_exhaustsRetries_failsWithGrayskullException() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        for (int i = 0; i < config.getMaxRetries(); i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("err"));
+        }
+
+        CompletableFuture<HttpResponse> future =
+                httpClient.doPostAsyncWithRetry(mockWebServer.url("/batch").toString(), "{}");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(GrayskullException.class, exception.getCause());
+        assertEquals(500, ((GrayskullException) exception.getCause()).getStatusCode());
+        assertEquals(config.getMaxRetries(), mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testDoGetAsyncWithRetry_nonRetryableStatus_failsWithoutRetry() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody("Not Found"));
+
+        CompletableFuture<HttpResponse> future = httpClient.doGetAsyncWithRetry(mockWebServer.url("/test").toString());
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals(404, ((GrayskullException) exception.getCause()).getStatusCode());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testHttp2PriorKnowledge_multiplexesCleartextRequests() throws Exception {
+        MockWebServer h2cServer = new MockWebServer();
+        h2cServer.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        h2cServer.start();
+        try {
+            config.setHost(h2cServer.url("/").toString());
+            config.setHttp2PriorKnowledge(true);
+            httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+            h2cServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+            h2cServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+
+            HttpResponse first = httpClient.doGetWithRetry(h2cServer.url("/first").toString());
+            HttpResponse second = httpClient.doGetAsyncWithRetry(h2cServer.url("/second").toString()).get(5, TimeUnit.SECONDS);
+
+            assertEquals("h2_prior_knowledge", first.getProtocol());
+            assertEquals("h2_prior_knowledge", second.getProtocol());
+            assertEquals(0, h2cServer.takeRequest().getSequenceNumber());
+            assertEquals(1, h2cServer.takeRequest().getSequenceNumber(), "both requests share one connection");
+        } finally {
+            h2cServer.shutdown();
+        }
+    }
+
+    @Test
+    void testProtocols_followConfiguration() {
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), GrayskullHttpClient.protocols(config));
+
+        config.setHttp2Enabled(false);
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), GrayskullHttpClient.protocols(config));
+
+        config.setHttp2PriorKnowledge(true);
+        assertEquals(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE), GrayskullHttpClient.protocols(config));
+
+        config.setHost("https://grayskull.example.com");
+        assertThrows(IllegalArgumentException.class, () -> new GrayskullHttpClient(mockAuthProvider, config));
+    }
+
+    @Test
+    void testWarmUp_opensConnectionsWithoutCredentials() throws Exception {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        httpClient.warmUp(2);
+
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+            assertNotNull(request);
+            assertEquals("HEAD", request.getMethod());
+            assertEquals("/actuator/health", request.getPath());
+            assertNull(request.getHeader("Authorization"));
+        }
+    }
+
+    @Test
+    void testCircuitBreaker_opensAfterConsecutiveFailuresAndFailsFast() {
+        config.setMaxRetries(1);
+        config.setCircuitBreakerFailureThreshold(2);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+        assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+        GrayskullException rejected = assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+        ExecutionException rejectedAsync = assertThrows(ExecutionException.class,
+                () -> httpClient.doGetAsyncWithRetry(url).get(5, TimeUnit.SECONDS));
+
+        assertEquals(503, rejected.getStatusCode());
+        assertTrue(rejected.getMessage().contains("Circuit breaker open"));
+        assertTrue(rejectedAsync.getCause().getMessage().contains("Circuit breaker open"));
+        assertEquals(2, mockWebServer.getRequestCount(), "an open breaker must not reach the server");
+    }
+
+    @Test
+    void testCircuitBreaker_clientErrorsDoNotOpenIt() {
+        config.setCircuitBreakerFailureThreshold(1);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+
+        assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+
+        assertEquals("ok", httpClient.doGetWithRetry(url).getBody());
+    }
+
+    @Test
+    void testHedging_secondAttemptWinsWhenFirstIsSlow() throws Exception {
+        config.setHedgingEnabled(true);
+        config.setHedgeMinDelayMs(100);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        for (int i = 0; i < HedgeDelay.MIN_SAMPLES; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("warm"));
+            httpClient.doGetWithRetry(url);
+        }
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("slow").setHeadersDelay(3, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("fast"));
+
+        long start = System.nanoTime();
+        HttpResponse response = httpClient.doGetWithRetry(url);
+
+        assertEquals("fast", response.getBody());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000, "hedge should not wait for the slow attempt");
+        assertEquals(HedgeDelay.MIN_SAMPLES + 2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testHedging_notFiredForFastResponses() throws Exception {
+        config.setHedgingEnabled(true);
+        config.setHedgeMinDelayMs(1_000);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        for (int i = 0; i < HedgeDelay.MIN_SAMPLES + 5; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+            assertEquals("ok", httpClient.doGetAsyncWithRetry(url).get(5, TimeUnit.SECONDS).getBody());
+        }
+
+        assertEquals(HedgeDelay.MIN_SAMPLES + 5, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testHedging_blockingWaitIsBoundedWhileQueuedForTheHost() throws Exception {
+        config.setHedgingEnabled(true);
+        config.setMaxRequestsPerHost(1);
+        config.setMaxRetries(1);
+        config.setConnectionTimeout(200);
+        config.setReadTimeout(1_000);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        // keeps the only slot for the host busy for about 3 seconds, without any read waiting past readTimeout
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("123456")
+                .throttleBody(1, 500, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+        CompletableFuture<HttpResponse> occupying = httpClient.doGetAsyncWithRetry(url);
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 2_500, "queueing must not stretch the wait past the timeouts; took " + elapsedMs + "ms");
+        assertEquals("123456", occupying.get(10, TimeUnit.SECONDS).getBody());
+    }
+
+    @Test
+    void testEndpoints_requestsAreRoutedAwayFromAFailingEndpoint() throws Exception {
+        MockWebServer healthy = new MockWebServer();
+        healthy.start();
+        try {
+            config.setEndpoints(Arrays.asList(
+                    mockWebServer.url("/").toString(), healthy.url("/").toString()));
+            config.setEndpointEjectionFailures(1);
+            httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+            String url = mockWebServer.url("/test").toString();
+            for (int i = 0; i < 10; i++) {
+                mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+                healthy.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+            }
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals("ok", httpClient.doGetWithRetry(url).getBody());
+            }
+
+            assertTrue(mockWebServer.getRequestCount() <= 1, "the failing endpoint should be ejected after one failure");
+            assertEquals(5, healthy.getRequestCount());
+            assertEquals("/test", healthy.takeRequest().getPath());
+        } finally {
+            healthy.shutdown();
+        }
+    }
+
+    @Test
+    void testEndpoints_openBreakerRoutesToTheHealthyEndpoint() throws Exception {
+        MockWebServer healthy = new MockWebServer();
+        healthy.start();
+        try {
+            config.setEndpoints(Arrays.asList(
+                    mockWebServer.url("/").toString(), healthy.url("/").toString()));
+            // the breaker opens before ejection would, as with the defaults once an ejection period has ended
+            config.setEndpointEjectionFailures(100);
+            config.setCircuitBreakerFailureThreshold(2);
+            httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+            String url = mockWebServer.url("/test").toString();
+            for (int i = 0; i < 20; i++) {
+                mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+                healthy.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+            }
+
+            for (int i = 0; i < 20; i++) {
+                assertEquals("ok", httpClient.doGetWithRetry(url).getBody());
+            }
+
+            assertTrue(mockWebServer.getRequestCount() <= 2, "the dead endpoint must only be tried until its breaker opens");
+            assertEquals(20, healthy.getRequestCount());
+        } finally {
+            healthy.shutdown();
+        }
+    }
+
+    @Test
+    void testProtocols_priorKnowledgeRejectsHttpsEndpoints() {
+        config.setHttp2PriorKnowledge(true);
+        config.setEndpoints(Arrays.asList("http://a.example.com", "https://b.example.com"));
+
+        assertThrows(IllegalArgumentException.class, () -> GrayskullHttpClient.protocols(config));
+    }
+
+    @Test
+    void testDoPostWithRetry_deadlineCancelsTheCallAndStopsRetries() {
+        config.setReadTimeout(30_000);
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/batch").toString();
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        }
+
+        long start = System.nanoTime();
+        GrayskullException e = assertThrows(GrayskullException.class, () -> httpClient.doPostWithRetry(
+                url, "{}", body -> { }, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500)));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(504, e.getStatusCode());
+        assertTrue(elapsedMs < 3_000, "the call must end at the deadline, not the read timeout; took " + elapsedMs + "ms");
+        assertEquals(1, mockWebServer.getRequestCount(), "no attempt may start after the deadline");
+    }
+
+    @Test
+    void testDoPostWithRetry_streamsTheBodyToTheConsumer() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/batch").toString();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("streamed body"));
+        StringBuilder received = new StringBuilder();
+
+        HttpResponse response = httpClient.doPostWithRetry(url, "{}", body -> {
+            int c;
+            while ((c = body.read()) != -1) {
+                received.append((char) c);
+            }
+        });
+
+        assertEquals(200, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("streamed body", received.toString());
+    }
+
+    @Test
+    void testDoPostWithRetry_consumerParseErrorIsNotRetried() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/batch").toString();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("not json"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+
+        GrayskullException exception = assertThrows(GrayskullException.class,
+                () -> httpClient.doPostWithRetry(url, "{}", body -> objectMapper.readTree(body)));
+
+        assertEquals(500, exception.getStatusCode());
+        assertTrue(exception.getMessage().contains("Failed to parse response"));
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testErrorBody_isTruncatedInTheExceptionMessage() {
+        httpClient = new GrayskullHttpClient(mockAuthProvider, config);
+        String url = mockWebServer.url("/test").toString();
+        char[] huge = new char[100_000];
+        Arrays.fill(huge, 'e');
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody(new String(huge)));
+
+        GrayskullException exception = assertThrows(GrayskullException.class, () -> httpClient.doGetWithRetry(url));
+
+        assertEquals(404, exception.getStatusCode());
+        assertTrue(exception.getMessage().length() < GrayskullHttpClient.MAX_ERROR_BODY_BYTES + 100);
+    }
+
     private String toJson(Object obj) {
         try {
             return objectMapper.writeValueAsString(obj);
@@ -0,0 +1,50 @@
+package com.flipkart.grayskull;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link HedgeDelay}.
+ */
+class HedgeDelayTest {
+
+    @Test
+    void noDelayUntilEnoughSamples() {
+        HedgeDelay delay = new HedgeDelay(1);
+        for (int i = 1; i < HedgeDelay.MIN_SAMPLES; i++) {
+            delay.record(10);
+        }
+        assertEquals(-1, delay.delayMillis());
+
+        delay.record(10);
+
+        assertEquals(10, delay.delayMillis());
+    }
+
+    @Test
+    void delayIsThe95thPercentileOfTheWindow() {
+        HedgeDelay delay = new HedgeDelay(1);
+        for (int i = 1; i <= HedgeDelay.WINDOW; i++) {
+            delay.record(i);
+        }
+
+        // ceil(0.95 * 128) = 122nd smallest of 1..128
+        assertEquals(122, delay.delayMillis());
+    }
+
+    @Test
+    void delayFollowsRecentSamplesAndKeepsTheFloor() {
+        HedgeDelay delay = new HedgeDelay(50);
+        for (int i = 0; i < HedgeDelay.WINDOW; i++) {
+            delay.record(500);
+        }
+        assertEquals(500, delay.delayMillis());
+
+        for (int i = 0; i < HedgeDelay.WINDOW; i++) {
+            delay.record(5);
+        }
+
+        assertEquals(50, delay.delayMillis());
+    }
+}
@@ -5,11 +5,15 @@ import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import com.flipkart.grayskull.hooks.RefreshHandlerRef;
 import com.flipkart.grayskull.hooks.SecretRefreshHook;
 import com.flipkart.grayskull.hooks.SecretState;
+import com.flipkart.grayskull.models.GrayskullClientConfiguration;
 import com.flipkart.grayskull.models.SecretValue;
+import com.flipkart.grayskull.models.exceptions.GrayskullException;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse.UpdatedSecret;
 import com.flipkart.grayskull.models.response.HttpResponse;
 import com.flipkart.grayskull.models.response.Response;
+import com.flipkart.grayskull.models.response.SecretVersionsResponse;
+import com.flipkart.grayskull.models.response.SecretVersionsResponse.SecretVersion;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +23,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,10 +38,16 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -50,6 +63,8 @@ import static org.mockito.Mockito.when;
 class HookRefreshPollerConcurrencyTest {
 
     private static final String BATCH_URL = "https://test.grayskull.com/v1/secrets/batch";
+    private static final String VERSIONS_URL = "https://test.grayskull.com/v1/secrets/versions";
+    private static final String WATCH_URL = "https://test.grayskull.com/v1/secrets/watch?timeoutSeconds=5";
     /** A long interval (used for both initial delay and recurring delay) so the
      *  scheduler's auto-tick will not interfere with our explicit
      *  {@link HookRefreshPoller#pollOnce()} calls. */
@@ -74,6 +89,8 @@ class HookRefreshPollerConcurrencyTest {
             throw new RuntimeException(e);
         }
 
+        HttpClientStubs.streamPostsThroughStringStubs(mockHttpClient);
+
         poller = new HookRefreshPoller(
                 mockHttpClient, objectMapper, "https://test.grayskull.com", LONG_INTERVAL_SECONDS);
     }
@@ -699,6 +716,408 @@ class HookRefreshPollerConcurrencyTest {
         }
     }
 
+    // ---------------------------------------------------------------------
+    // 13. Chunks of one cycle are in flight concurrently: each POST waits at
+    //     a barrier that only opens once both chunks have arrived.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void pollOnce_multipleChunks_areRequestedConcurrently() throws Exception {
+        for (int i = 0; i < 51; i++) {
+            poller.register("acme", "s" + i, v -> {}, 0);
+        }
+        CyclicBarrier bothChunksInFlight = new CyclicBarrier(2);
+        HttpResponse empty = wrapBatch(new BatchGetSecretsResponse(0, Collections.emptyList()));
+        when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString())).thenAnswer(invocation -> {
+            bothChunksInFlight.await(5, TimeUnit.SECONDS);
+            return empty;
+        });
+
+        poller.pollOnce();
+
+        verify(mockHttpClient, times(2)).doPostWithRetry(eq(BATCH_URL), anyString());
+        assertEquals(0, bothChunksInFlight.getNumberWaiting());
+        assertFalse(bothChunksInFlight.isBroken(), "both chunks must have been in flight at the same time");
+    }
+
+    // ---------------------------------------------------------------------
+    // 14. A chunk that outlives the cycle deadline is abandoned so pollOnce
+    //     returns on time and the other chunks' updates are still delivered.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void pollOnce_chunkExceedingCycleDeadline_isAbandoned() throws Exception {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost("https://test.grayskull.com");
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        configuration.setPollingCycleTimeoutSeconds(1);
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null);
+        try {
+            CountDownLatch delivered = new CountDownLatch(1);
+            localPoller.register("acme", "fast", v -> delivered.countDown(), 0);
+            for (int i = 0; i < 50; i++) {
+                localPoller.register("acme", "slow" + i, v -> {}, 0);
+            }
+            HttpResponse fastUpdate = wrapBatch(new BatchGetSecretsResponse(1,
+                    Collections.singletonList(new UpdatedSecret("acme", "fast", 1, "p", "q"))));
+            CountDownLatch interrupted = new CountDownLatch(1);
+            when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString())).thenAnswer(invocation -> {
+                String body = invocation.getArgument(1);
+                if (body.contains("\"fast\"")) {
+                    return fastUpdate;
+                }
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return fastUpdate;
+            });
+
+            long t0 = System.nanoTime();
+            localPoller.pollOnce();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+            assertTrue(elapsedMs < 5_000, "pollOnce must return at the cycle deadline; took " + elapsedMs + "ms");
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the abandoned chunk must be cancelled");
+            assertTrue(delivered.await(5, TimeUnit.SECONDS), "the chunk that finished in time must be delivered");
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 15. In watch mode a successful watch is followed by the next one right
+    //     away instead of waiting for the polling interval.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void watchMode_reissuesWatchWithoutWaitingForInterval() throws Exception {
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, watchConfiguration(), null);
+        try {
+            CountDownLatch delivered = new CountDownLatch(1);
+            localPoller.register("acme", "db", v -> delivered.countDown(), 0);
+            HttpResponse update = wrapBatch(new BatchGetSecretsResponse(1,
+                    Collections.singletonList(new UpdatedSecret("acme", "db", 1, "p", "q"))));
+            HttpResponse noChange = wrapBatch(new BatchGetSecretsResponse(0, Collections.emptyList()));
+            CountDownLatch watches = new CountDownLatch(5);
+            when(mockHttpClient.doPostWithRetry(eq(WATCH_URL), anyString())).thenAnswer(invocation -> {
+                watches.countDown();
+                if (watches.getCount() == 4) {
+                    return update;
+                }
+                Thread.sleep(20);
+                return noChange;
+            });
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS), "the watched update must be delivered");
+            assertTrue(watches.await(3, TimeUnit.SECONDS), "watches must be re-issued back to back");
+            verify(mockHttpClient, times(0)).doPostWithRetry(eq(BATCH_URL), anyString());
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 16. A watch that the server may hold longer than the client read
+    //     timeout would always fail, so it is rejected up front.
+    // ---------------------------------------------------------------------
+    @Test
+    void watchMode_timeoutNotBelowReadTimeout_isRejected() {
+        GrayskullClientConfiguration configuration = watchConfiguration();
+        configuration.setReadTimeout(5_000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null));
+    }
+
+    // ---------------------------------------------------------------------
+    // 17. With the version check enabled only the secrets whose version
+    //     advanced are fetched, and an unchanged cycle fetches nothing.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void versionCheck_fetchesOnlyChangedSecrets() throws Exception {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost("https://test.grayskull.com");
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        configuration.setVersionCheckEnabled(true);
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null);
+        try {
+            CountDownLatch delivered = new CountDownLatch(1);
+            localPoller.register("acme", "changed", v -> delivered.countDown(), 1);
+            localPoller.register("acme", "same", v -> {}, 3);
+            when(mockHttpClient.doPostWithRetry(eq(VERSIONS_URL), anyString())).thenReturn(
+                    wrapVersions(new SecretVersion("acme", "changed", 2), new SecretVersion("acme", "same", 3)),
+                    wrapVersions(new SecretVersion("acme", "changed", 2), new SecretVersion("acme", "same", 3)));
+            ConcurrentLinkedQueue<String> batchBodies = new ConcurrentLinkedQueue<>();
+            HttpResponse update = wrapBatch(new BatchGetSecretsResponse(1,
+                    Collections.singletonList(new UpdatedSecret("acme", "changed", 2, "p", "q"))));
+            when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString())).thenAnswer(invocation -> {
+                batchBodies.add(invocation.getArgument(1));
+                return update;
+            });
+
+            assertTrue(localPoller.pollOnce());
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, batchBodies.size());
+            assertTrue(batchBodies.peek().contains("\"changed\""));
+            assertFalse(batchBodies.peek().contains("\"same\""));
+
+            // wait for the dispatcher to advance lastKnownVersion before the second cycle
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookup(localPoller, "acme:changed").lastKnownVersion.get() != 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(localPoller.pollOnce());
+            assertEquals(1, batchBodies.size(), "an unchanged cycle must not fetch any secret values");
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 18. Hooks of unrelated secrets are isolated: secrets whose hooks hang
+    //     must not delay delivery to another secret, however many there are.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void slowHooks_doNotDelayOtherSecrets() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<UpdatedSecret> updates = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            poller.register("acme", "slow-" + i, v -> release.await(), 0);
+            updates.add(new UpdatedSecret("acme", "slow-" + i, 1, "p", "q"));
+        }
+        CountDownLatch fastDelivered = new CountDownLatch(1);
+        poller.register("acme", "fast", v -> fastDelivered.countDown(), 0);
+        updates.add(new UpdatedSecret("acme", "fast", 1, "p", "q"));
+        when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString()))
+                .thenReturn(wrapBatch(new BatchGetSecretsResponse(updates.size(), updates)));
+
+        try {
+            assertTrue(poller.pollOnce());
+            assertTrue(fastDelivered.await(5, TimeUnit.SECONDS),
+                    "a secret must be delivered while other secrets' hooks are still running");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 19. A hook that overruns hookTimeoutSeconds is interrupted, and the
+    //     remaining hooks and later versions of the secret still run.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void hookTimeout_interruptsHungHookAndMovesOn() throws Exception {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost("https://test.grayskull.com");
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        configuration.setHookTimeoutSeconds(1);
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null);
+        try {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            localPoller.register("acme", "db", v -> {
+                if (v.getDataVersion() == 1) {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                }
+            }, 0);
+            ConcurrentLinkedQueue<Integer> seen = new ConcurrentLinkedQueue<>();
+            CountDownLatch secondVersion = new CountDownLatch(1);
+            localPoller.register("acme", "db", v -> {
+                seen.add(v.getDataVersion());
+                if (v.getDataVersion() == 2) {
+                    secondVersion.countDown();
+                }
+            }, 0);
+            when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString()))
+                    .thenReturn(wrapBatch(new BatchGetSecretsResponse(1,
+                            Collections.singletonList(new UpdatedSecret("acme", "db", 1, "p", "q")))))
+                    .thenReturn(wrapBatch(new BatchGetSecretsResponse(1,
+                            Collections.singletonList(new UpdatedSecret("acme", "db", 2, "p", "q")))));
+
+            assertTrue(localPoller.pollOnce());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the hung hook must be interrupted");
+            assertTrue(localPoller.pollOnce());
+            assertTrue(secondVersion.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(1, 2), new ArrayList<>(seen));
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 20. A cached secret that was deleted on the server fails its batch with
+    //     404; it must not stop the hooks of registered secrets, and it is
+    //     dropped from the cache while the other cached secrets stay.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void deletedCachedSecret_isDroppedWithoutBlockingHooks() throws Exception {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost("https://test.grayskull.com");
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        SecretCache cache = new SecretCache(10, 60, 0);
+        cache.put("acme", "gone", new SecretValue(1, "p", "q"));
+        cache.put("acme", "kept", new SecretValue(1, "p", "q"));
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, cache);
+        try {
+            CountDownLatch delivered = new CountDownLatch(1);
+            localPoller.register("acme", "db", v -> delivered.countDown(), 0);
+            HttpResponse update = wrapBatch(new BatchGetSecretsResponse(1,
+                    Collections.singletonList(new UpdatedSecret("acme", "db", 1, "p", "q"))));
+            ConcurrentLinkedQueue<String> bodies = new ConcurrentLinkedQueue<>();
+            when(mockHttpClient.doPostWithRetry(eq(BATCH_URL), anyString())).thenAnswer(invocation -> {
+                String body = invocation.getArgument(1);
+                bodies.add(body);
+                if (body.contains("\"gone\"")) {
+                    throw new GrayskullException(404, "Secret not found");
+                }
+                return update;
+            });
+
+            assertTrue(localPoller.pollOnce(), "dropping a deleted cached secret must not fail the cycle");
+            assertTrue(delivered.await(5, TimeUnit.SECONDS), "the registered secret must still be refreshed");
+            assertTrue(bodies.stream().noneMatch(body -> body.contains("\"db\"") && body.contains("\"gone\"")),
+                    "a registered secret must never share a batch with a cache-only one");
+            assertNull(cache.lastKnown("acme:gone"));
+            assertNotNull(cache.lastKnown("acme:kept"));
+
+            bodies.clear();
+            assertTrue(localPoller.pollOnce());
+            assertTrue(bodies.stream().noneMatch(body -> body.contains("\"gone\"")));
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 21. Watches are held open by the server, so every chunk is watched at
+    //     once whatever the polling parallelism is.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void watchMode_watchesAllChunksAtOnce() throws Exception {
+        GrayskullClientConfiguration configuration = watchConfiguration();
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        configuration.setPollingParallelism(1);
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null);
+        try {
+            CountDownLatch allWatchesOpen = new CountDownLatch(1);
+            CyclicBarrier threeWatches = new CyclicBarrier(3, allWatchesOpen::countDown);
+            HttpResponse noChange = wrapBatch(new BatchGetSecretsResponse(0, Collections.emptyList()));
+            when(mockHttpClient.doPostWithRetry(eq(WATCH_URL), anyString())).thenAnswer(invocation -> {
+                threeWatches.await(5, TimeUnit.SECONDS);
+                return noChange;
+            });
+
+            for (int i = 0; i < 101; i++) {
+                localPoller.register("acme", "s" + i, v -> {}, 0);
+            }
+
+            assertTrue(allWatchesOpen.await(5, TimeUnit.SECONDS), "all three watches must be open at the same time");
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 22. A watch abandoned at the cycle deadline fails the cycle but is not
+    //     taken for an overloaded server, so the poller does not back off.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void watchMode_abandonedWatchIsNotThrottling() throws Exception {
+        GrayskullClientConfiguration configuration = watchConfiguration();
+        configuration.setPollingIntervalSeconds(LONG_INTERVAL_SECONDS);
+        configuration.setPollingCycleTimeoutSeconds(1);
+        configuration.setWatchTimeoutSeconds(1);
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, configuration, null);
+        try {
+            localPoller.register("acme", "db", v -> {}, 0);
+            when(mockHttpClient.doPostWithRetry(anyString(), anyString())).thenAnswer(invocation -> {
+                Thread.sleep(60_000);
+                return null;
+            });
+            Method pollCycle = HookRefreshPoller.class.getDeclaredMethod("pollCycle");
+            pollCycle.setAccessible(true);
+
+            PollingSchedule.CycleResult result = (PollingSchedule.CycleResult) pollCycle.invoke(localPoller);
+
+            assertTrue(result.failed);
+            assertFalse(result.throttled, "an overrunning watch must not make the poller back off");
+        } finally {
+            localPoller.close();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // 23. Every watch chunk re-issues its own watch, so a chunk that changes
+    //     twice is not held back by another chunk whose watch is still parked.
+    // ---------------------------------------------------------------------
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void watchMode_chunkIsNotHeldBackByAnotherChunksWatch() throws Exception {
+        HookRefreshPoller localPoller = new HookRefreshPoller(mockHttpClient, objectMapper, watchConfiguration(), null);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CountDownLatch parked = new CountDownLatch(1);
+            List<String> changingWatches = Collections.synchronizedList(new ArrayList<>());
+            HttpResponse noChange = wrapBatch(new BatchGetSecretsResponse(0, Collections.emptyList()));
+            when(mockHttpClient.doPostWithRetry(eq(WATCH_URL), anyString())).thenAnswer(invocation -> {
+                String body = invocation.getArgument(1);
+                if (!body.contains("\"secretName\":\"changing\"")) {
+                    parked.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return noChange;
+                }
+                assertTrue(parked.await(5, TimeUnit.SECONDS), "the other chunk must be watched");
+                changingWatches.add(body);
+                if (changingWatches.size() <= 2) {
+                    int version = changingWatches.size();
+                    return wrapBatch(new BatchGetSecretsResponse(1, Collections.singletonList(
+                            new UpdatedSecret("acme", "changing", version, "p" + version, "q" + version))));
+                }
+                Thread.sleep(20);
+                return noChange;
+            });
+
+            CountDownLatch secondChange = new CountDownLatch(1);
+            localPoller.register("acme", "changing", v -> {
+                if (v.getDataVersion() == 2) {
+                    secondChange.countDown();
+                }
+            }, 0);
+            for (int i = 0; i < HookRefreshPoller.MAX_BATCH_SECRETS; i++) {
+                localPoller.register("acme", "s" + i, v -> {}, 0);
+            }
+
+            assertTrue(secondChange.await(5, TimeUnit.SECONDS),
+                    "both changes must be delivered while the other chunk's watch is parked");
+            assertEquals(1, release.getCount());
+            assertTrue(changingWatches.get(1).contains("\"secretName\":\"changing\",\"lastKnownVersion\":1"),
+                    "the next watch must be sent with the version just received");
+        } finally {
+            release.countDown();
+            localPoller.close();
+        }
+    }
+
+    private static GrayskullClientConfiguration watchConfiguration() {
+        GrayskullClientConfiguration configuration = new GrayskullClientConfiguration();
+        configuration.setHost("https://test.grayskull.com");
+        configuration.setPollingIntervalSeconds(1);
+        configuration.setWatchEnabled(true);
+        configuration.setWatchTimeoutSeconds(5);
+        return configuration;
+    }
+
     // ---------------------------------------------------------------------
     // helpers
     // ---------------------------------------------------------------------
@@ -717,6 +1136,12 @@ class HookRefreshPollerConcurrencyTest {
         return s;
     }
 
+    private HttpResponse wrapVersions(SecretVersion... versions) throws Exception {
+        Response<SecretVersionsResponse> response =
+                new Response<>(new SecretVersionsResponse(Arrays.asList(versions)), "Success");
+        return new HttpResponse(200, objectMapper.writeValueAsString(response), "application/json", "http/1.1");
+    }
+
     private HttpResponse wrapBatch(BatchGetSecretsResponse data) throws Exception {
         Response<BatchGetSecretsResponse> response = new Response<>(data, "Success");
         String json = objectMapper.writeValueAsString(response);
@@ -1,6 +1,7 @@
 package com.flipkart.grayskull;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import com.flipkart.grayskull.hooks.SecretState;
 import com.flipkart.grayskull.models.SecretValue;
 import com.flipkart.grayskull.models.response.BatchGetSecretsResponse;
@@ -9,9 +10,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.AbstractExecutorService;
@@ -312,6 +320,70 @@ class HookRefreshPollerTest {
         };
     }
 
+    // -----------------------------------------------------------------------
+    // Streaming parse of batch responses
+    // -----------------------------------------------------------------------
+
+    @Test
+    void readUpdatedSecrets_handsOnEachSecretInOrderAndSkipsOtherFields() throws Exception {
+        poller = new HookRefreshPoller(mock(GrayskullHttpClient.class), newObjectMapper(), "http://localhost:9999", 60);
+        String body = "{\"message\":\"ok\",\"extra\":{\"updatedSecrets\":[{\"x\":1}]},"
+                + "\"data\":{\"updatedCount\":2,\"nested\":[[1],{\"a\":2}],\"updatedSecrets\":["
+                + "{\"projectId\":\"p\",\"secretName\":\"a\",\"dataVersion\":2,\"publicPart\":\"u\",\"privatePart\":\"x\"},"
+                + "{\"projectId\":\"p\",\"secretName\":\"b\",\"dataVersion\":5,\"privatePart\":\"y\",\"unknown\":true}]}}";
+        List<BatchGetSecretsResponse.UpdatedSecret> handled = new ArrayList<>();
+
+        int count = poller.readUpdatedSecrets(stream(body), handled::add);
+
+        assertEquals(2, count);
+        assertEquals("a", handled.get(0).getSecretName());
+        assertEquals("x", handled.get(0).getPrivatePart());
+        assertEquals(5, handled.get(1).getDataVersion());
+        assertEquals(0, poller.readUpdatedSecrets(stream("{\"data\":null,\"message\":\"ok\"}"), handled::add));
+    }
+
+    @Test
+    void readUpdatedSecrets_handsOnSecretsBeforeTheWholeBodyIsRead() throws Exception {
+        poller = new HookRefreshPoller(mock(GrayskullHttpClient.class), newObjectMapper(), "http://localhost:9999", 60);
+        StringBuilder body = new StringBuilder("{\"data\":{\"updatedSecrets\":[");
+        char[] value = new char[1_024];
+        Arrays.fill(value, 'v');
+        for (int i = 0; i < 200; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"projectId\":\"p\",\"secretName\":\"s").append(i)
+                    .append("\",\"dataVersion\":1,\"privatePart\":\"").append(value).append("\"}");
+        }
+        body.append("]}}");
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        AtomicInteger bytesRead = new AtomicInteger();
+        InputStream counting = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                bytesRead.addAndGet(Math.max(n, 0));
+                return n;
+            }
+        };
+        int[] readAtFirstSecret = {-1};
+
+        int count = poller.readUpdatedSecrets(counting, secret -> {
+            if (readAtFirstSecret[0] < 0) {
+                readAtFirstSecret[0] = bytesRead.get();
+            }
+        });
+
+        assertEquals(200, count);
+        assertTrue(readAtFirstSecret[0] < bytes.length / 10,
+                "first secret handed on after reading " + readAtFirstSecret[0] + " of " + bytes.length + " bytes");
+    }
+
+    private static ObjectMapper newObjectMapper() {
+        return new ObjectMapper().registerModule(new ParameterNamesModule());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
     private static void setRegistryField(HookRefreshPoller poller, ConcurrentHashMap<String, SecretState> map)
             throws Exception {
         setFinalField(poller, "registry", map);
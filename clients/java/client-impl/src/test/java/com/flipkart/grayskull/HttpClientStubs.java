@@ -0,0 +1,61 @@
+package com.flipkart.grayskull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.flipkart.grayskull.models.exceptions.GrayskullException;
+import com.flipkart.grayskull.models.response.HttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Stubbing helpers for tests that mock {@link GrayskullHttpClient}.
+ */
+final class HttpClientStubs {
+
+    private HttpClientStubs() {
+    }
+
+    /**
+     * Makes the streaming {@code doPostWithRetry(url, body, consumer)} of {@code mockHttpClient}, with or without a
+     * deadline, call the String variant and stream its stubbed body into the consumer, the way the real client
+     * would. Tests can then keep stubbing and verifying {@code doPostWithRetry(url, body)} whichever variant the
+     * code under test uses.
+     */
+    static void streamPostsThroughStringStubs(GrayskullHttpClient mockHttpClient) {
+        lenient().when(mockHttpClient.doPostWithRetry(anyString(), anyString(), any())).thenAnswer(invocation ->
+                stream(mockHttpClient.doPostWithRetry(invocation.<String>getArgument(0), invocation.<String>getArgument(1)),
+                        invocation.getArgument(2)));
+        lenient().when(mockHttpClient.doPostWithRetry(anyString(), anyString(), any(), anyLong())).thenAnswer(invocation ->
+                stream(mockHttpClient.doPostWithRetry(invocation.<String>getArgument(0), invocation.<String>getArgument(1)),
+                        invocation.getArgument(2)));
+    }
+
+    /**
+     * Same as {@link #streamPostsThroughStringStubs} for the streaming {@code doGetWithRetry(url, consumer)}.
+     */
+    static void streamGetsThroughStringStubs(GrayskullHttpClient mockHttpClient) {
+        lenient().when(mockHttpClient.doGetWithRetry(anyString(), any())).thenAnswer(invocation ->
+                stream(mockHttpClient.doGetWithRetry(invocation.<String>getArgument(0)), invocation.getArgument(1)));
+    }
+
+    private static HttpResponse stream(HttpResponse response, GrayskullHttpClient.BodyConsumer consumer)
+            throws IOException {
+        if (response == null) {
+            return null;
+        }
+        if (response.getBody() != null) {
+            try {
+                consumer.accept(new ByteArrayInputStream(response.getBody().getBytes(StandardCharsets.UTF_8)));
+            } catch (JsonProcessingException e) {
+                throw new GrayskullException(500, "Failed to parse response: " + e.getOriginalMessage(), e);
+            }
+        }
+        return new HttpResponse(response.getStatusCode(), null, response.getContentType(), response.getProtocol());
+    }
+}
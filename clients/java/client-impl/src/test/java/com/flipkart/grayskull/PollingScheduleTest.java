@@ -0,0 +1,88 @@
+package com.flipkart.grayskull;
+
+import com.flipkart.grayskull.PollingSchedule.CycleResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link PollingSchedule}, with a fixed random source so delays are exact.
+ */
+class PollingScheduleTest {
+
+    private static final long INTERVAL = 60_000L;
+    private static final CycleResult UNCHANGED = new CycleResult(true, false, false, false, 0);
+    private static final CycleResult CHANGED = new CycleResult(true, false, false, true, 0);
+    private static final CycleResult THROTTLED = new CycleResult(true, true, true, false, 0);
+
+    @Test
+    void jitter_spreadsDelaysAroundInterval() {
+        assertEquals(48_000L, new PollingSchedule(INTERVAL, 0.2, false, () -> 0.0).initialDelayMillis());
+        assertEquals(60_000L, new PollingSchedule(INTERVAL, 0.2, false, () -> 0.5).initialDelayMillis());
+        assertEquals(72_000L, new PollingSchedule(INTERVAL, 0.2, false, () -> 1.0).nextDelayMillis(UNCHANGED));
+    }
+
+    @Test
+    void throttledCycles_backOffExponentiallyUpToCap() {
+        PollingSchedule schedule = new PollingSchedule(INTERVAL, 0, false);
+
+        assertEquals(2 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+        assertEquals(4 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+        assertEquals(8 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+        assertEquals(8 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+
+        assertEquals(INTERVAL, schedule.nextDelayMillis(UNCHANGED));
+        assertEquals(2 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+    }
+
+    @Test
+    void throttledCycle_neverUndercutsRetryAfter() {
+        PollingSchedule schedule = new PollingSchedule(INTERVAL, 0.2, false, () -> 0.0);
+
+        assertEquals(600_000L, schedule.nextDelayMillis(new CycleResult(true, true, true, false, 600_000L)));
+    }
+
+    @Test
+    void nonThrottledFailure_keepsRegularInterval() {
+        PollingSchedule schedule = new PollingSchedule(INTERVAL, 0, false);
+
+        assertEquals(INTERVAL, schedule.nextDelayMillis(new CycleResult(true, true, false, false, 0)));
+    }
+
+    @Test
+    void change_triggersFastFollowUpCycles() {
+        PollingSchedule schedule = new PollingSchedule(INTERVAL, 0, false);
+
+        assertEquals(INTERVAL / 4, schedule.nextDelayMillis(CHANGED));
+        for (int i = 1; i < PollingSchedule.FAST_CYCLES_AFTER_CHANGE; i++) {
+            assertEquals(INTERVAL / 4, schedule.nextDelayMillis(UNCHANGED));
+        }
+        assertEquals(INTERVAL, schedule.nextDelayMillis(UNCHANGED));
+    }
+
+    @Test
+    void fastFollowUp_neverExceedsIntervalNorDropsBelowOneSecond() {
+        assertEquals(1_000L, new PollingSchedule(1_000L, 0, false).nextDelayMillis(CHANGED));
+        assertEquals(1_000L, new PollingSchedule(2_000L, 0, false).nextDelayMillis(CHANGED));
+    }
+
+    @Test
+    void watchMode_followsSuccessImmediately_butBacksOffOnThrottle() {
+        PollingSchedule schedule = new PollingSchedule(INTERVAL, 0, true);
+
+        assertEquals(0L, schedule.nextDelayMillis(UNCHANGED));
+        assertEquals(0L, schedule.nextDelayMillis(CHANGED));
+        assertEquals(2 * INTERVAL, schedule.nextDelayMillis(THROTTLED));
+        assertEquals(INTERVAL, schedule.nextDelayMillis(CycleResult.IDLE));
+    }
+
+    @Test
+    void isBackoffStatus_coversRateLimitAndServerErrors() {
+        assertTrue(PollingSchedule.isBackoffStatus(429));
+        assertTrue(PollingSchedule.isBackoffStatus(503));
+        assertFalse(PollingSchedule.isBackoffStatus(401));
+        assertFalse(PollingSchedule.isBackoffStatus(404));
+    }
+}
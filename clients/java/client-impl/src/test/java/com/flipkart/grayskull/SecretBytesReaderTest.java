@@ -0,0 +1,82 @@
+package com.flipkart.grayskull;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.flipkart.grayskull.models.SecretBytes;
+import com.flipkart.grayskull.models.SecretValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link SecretBytesReader} and the {@link SecretBytes} it produces.
+ */
+class SecretBytesReaderTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    private SecretBytes read(String json, boolean offHeap) throws IOException {
+        return SecretBytesReader.read(factory, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), offHeap);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Test
+    void read_encodesThePrivatePartAsUtf8AndSkipsOtherFields() throws Exception {
+        String privatePart = "päss € 🔑 \"quoted\"";
+        SecretBytes secret = read("{\"message\":\"ok\",\"data\":{\"extra\":{\"a\":[1,2]},"
+                + "\"privatePart\":\"p\\u00e4ss € 🔑 \\\"quoted\\\"\",\"publicPart\":\"user\","
+                + "\"dataVersion\":7}}", false);
+
+        assertEquals(7, secret.getDataVersion());
+        assertEquals("user", secret.getPublicPart());
+        assertArrayEquals(privatePart.getBytes(StandardCharsets.UTF_8), bytes(secret.getPrivatePart()));
+        assertEquals(privatePart.getBytes(StandardCharsets.UTF_8).length, secret.length());
+        assertArrayEquals(privatePart.toCharArray(), secret.getPrivatePartChars());
+        assertFalse(secret.getPrivatePart().isDirect());
+    }
+
+    @Test
+    void read_offHeapUsesADirectBuffer() throws Exception {
+        try (SecretBytes secret = read("{\"data\":{\"dataVersion\":1,\"privatePart\":\"pwd\"}}", true)) {
+            assertTrue(secret.getPrivatePart().isDirect());
+            assertArrayEquals("pwd".getBytes(StandardCharsets.UTF_8), bytes(secret.getPrivatePart()));
+            assertNull(secret.getPublicPart());
+        }
+    }
+
+    @Test
+    void read_withoutDataReturnsNull() throws Exception {
+        assertNull(read("{\"data\":null,\"message\":\"not found\"}", false));
+    }
+
+    @Test
+    void close_wipesThePrivatePartAndRejectsFurtherReads() throws Exception {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            SecretBytes secret = SecretBytesReader.copyOf(new SecretValue(2, "user", "secret"), offHeap);
+            ByteBuffer view = secret.getPrivatePart();
+
+            secret.close();
+            secret.close();
+
+            assertTrue(secret.isClosed());
+            assertArrayEquals(new byte[6], bytes(view));
+            assertThrows(IllegalStateException.class, secret::getPrivatePart);
+            assertThrows(IllegalStateException.class, secret::getPrivatePartChars);
+            assertFalse(secret.toString().contains("secret"), "toString must not reveal the private part");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.flipkart.grayskull;
+
+import com.flipkart.grayskull.models.SecretValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link SecretCache}, driven by a fake clock.
+ */
+class SecretCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final SecretCache cache = new SecretCache(2, 10, 5, clock::get);
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void get_withinTtl_isFresh() {
+        cache.put("p", "s", new SecretValue(1, "pub", "priv"));
+        advanceSeconds(9);
+
+        SecretCache.Entry entry = cache.get("p:s");
+
+        assertNotNull(entry);
+        assertEquals("priv", entry.value.getPrivatePart());
+        assertEquals(SecretCache.Freshness.FRESH, cache.freshness(entry));
+    }
+
+    @Test
+    void get_withinStaleWindow_isStale_thenExpires() {
+        cache.put("p", "s", new SecretValue(1, "pub", "priv"));
+        advanceSeconds(12);
+
+        SecretCache.Entry entry = cache.get("p:s");
+        assertNotNull(entry);
+        assertEquals(SecretCache.Freshness.STALE, cache.freshness(entry));
+
+        advanceSeconds(3);
+        assertNull(cache.get("p:s"));
+    }
+
+    @Test
+    void put_olderVersion_doesNotReplaceNewer() {
+        cache.put("p", "s", new SecretValue(3, "pub", "v3"));
+        cache.put("p", "s", new SecretValue(2, "pub", "v2"));
+
+        assertEquals(3, cache.get("p:s").value.getDataVersion());
+    }
+
+    @Test
+    void confirm_matchingVersion_restartsTtl() {
+        cache.put("p", "s", new SecretValue(1, "pub", "priv"));
+        advanceSeconds(9);
+        cache.confirm("p:s", 1);
+        advanceSeconds(9);
+
+        assertEquals(SecretCache.Freshness.FRESH, cache.freshness(cache.get("p:s")));
+    }
+
+    @Test
+    void confirm_differentVersion_isIgnored() {
+        cache.put("p", "s", new SecretValue(2, "pub", "priv"));
+        advanceSeconds(11);
+        cache.confirm("p:s", 1);
+
+        assertEquals(SecretCache.Freshness.STALE, cache.freshness(cache.get("p:s")));
+    }
+
+    @Test
+    void refresh_onlyUpdatesCachedSecrets() {
+        cache.refresh("p", "s", new SecretValue(1, "pub", "priv"));
+        assertNull(cache.get("p:s"));
+
+        cache.put("p", "s", new SecretValue(1, "pub", "priv"));
+        cache.refresh("p", "s", new SecretValue(2, "pub", "rotated"));
+        assertEquals("rotated", cache.get("p:s").value.getPrivatePart());
+    }
+
+    @Test
+    void put_overCapacity_evictsLeastRecentlyRead() {
+        cache.put("p", "a", new SecretValue(1, "pub", "a"));
+        advanceSeconds(1);
+        cache.put("p", "b", new SecretValue(1, "pub", "b"));
+        advanceSeconds(1);
+        cache.get("p:a");
+        advanceSeconds(1);
+
+        cache.put("p", "c", new SecretValue(1, "pub", "c"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("p:a"));
+        assertNull(cache.get("p:b"));
+        assertNotNull(cache.get("p:c"));
+    }
+
+    @Test
+    void lastKnown_returnsExpiredEntries() {
+        cache.put("p", "s", new SecretValue(1, "pub", "priv"));
+        advanceSeconds(60);
+
+        assertNull(cache.get("p:s"));
+        assertEquals("priv", cache.lastKnown("p:s").value.getPrivatePart());
+        assertNull(cache.lastKnown("p:other"));
+    }
+
+    @Test
+    void put_runsOnChangeOnlyForNewSecretsAndVersions() {
+        AtomicInteger changes = new AtomicInteger();
+        SecretCache observed = new SecretCache(2, 10, 5, clock::get, changes::incrementAndGet);
+
+        observed.put("p", "s", new SecretValue(1, "pub", "priv"));
+        observed.put("p", "s", new SecretValue(1, "pub", "priv"));
+        observed.confirm("p:s", 1);
+        observed.put("p", "s", new SecretValue(2, "pub", "rotated"));
+        observed.restore("p", "other", new SecretValue(1, "pub", "restored"));
+
+        assertEquals(2, changes.get());
+    }
+
+    @Test
+    void restore_neverReplacesACachedValue() {
+        cache.put("p", "s", new SecretValue(2, "pub", "fetched"));
+
+        cache.restore("p", "s", new SecretValue(1, "pub", "restored"));
+        cache.restore("p", "other", new SecretValue(1, "pub", "restored"));
+
+        assertEquals("fetched", cache.get("p:s").value.getPrivatePart());
+        assertEquals(SecretCache.Freshness.FRESH, cache.freshness(cache.get("p:other")));
+    }
+
+    @Test
+    void remove_dropsOnlyTheVersionThatWasRejected() {
+        AtomicInteger changes = new AtomicInteger();
+        SecretCache observed = new SecretCache(2, 10, 5, clock::get, changes::incrementAndGet);
+        observed.put("p", "s", new SecretValue(2, "pub", "rotated"));
+        observed.put("p", "gone", new SecretValue(1, "pub", "priv"));
+
+        observed.remove("p:s", 1);
+        observed.remove("p:gone", 1);
+        observed.remove("p:missing", 1);
+
+        assertNotNull(observed.get("p:s"));
+        assertNull(observed.lastKnown("p:gone"));
+        assertEquals(3, changes.get());
+    }
+}
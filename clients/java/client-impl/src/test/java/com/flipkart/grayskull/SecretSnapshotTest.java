@@ -0,0 +1,105 @@
+package com.flipkart.grayskull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.flipkart.grayskull.models.SecretValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link SecretSnapshot}.
+ */
+class SecretSnapshotTest {
+
+    private static final byte[] KEY = new byte[32];
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ParameterNamesModule());
+
+    private SecretSnapshot snapshot(byte[] key, String identity, SecretCache cache) {
+        return new SecretSnapshot(directory.toString(), key, identity, objectMapper, cache);
+    }
+
+    private static SecretCache newCache() {
+        return new SecretCache(10, 60, 0);
+    }
+
+    @Test
+    void writeThenRestore_roundTripsTheCachedValues() throws Exception {
+        SecretCache cache = newCache();
+        cache.put("p", "a", new SecretValue(3, "user", "pwd"));
+        cache.put("p", "b", new SecretValue(1, null, "token"));
+        SecretSnapshot writer = snapshot(KEY, "workload-1", cache);
+        writer.write();
+
+        SecretCache restoredCache = newCache();
+        int restored = snapshot(KEY, "workload-1", restoredCache).restore();
+
+        assertEquals(2, restored);
+        assertEquals("pwd", restoredCache.get("p:a").value.getPrivatePart());
+        assertEquals(3, restoredCache.get("p:a").value.getDataVersion());
+        assertNull(restoredCache.get("p:b").value.getPublicPart());
+        byte[] onDisk = Files.readAllBytes(writer.file());
+        assertFalse(new String(onDisk, StandardCharsets.ISO_8859_1).contains("pwd"), "values must be encrypted");
+    }
+
+    @Test
+    void restore_isIgnoredForAnotherKeyOrIdentity() {
+        SecretCache cache = newCache();
+        cache.put("p", "a", new SecretValue(3, "user", "pwd"));
+        snapshot(KEY, "workload-1", cache).write();
+        byte[] otherKey = Arrays.copyOf(KEY, KEY.length);
+        otherKey[0] = 1;
+
+        SecretCache wrongKey = newCache();
+        assertEquals(0, snapshot(otherKey, "workload-1", wrongKey).restore());
+        assertEquals(0, wrongKey.size());
+
+        SecretSnapshot otherWorkload = snapshot(KEY, "workload-2", newCache());
+        assertNotEquals(snapshot(KEY, "workload-1", cache).file(), otherWorkload.file());
+        assertEquals(0, otherWorkload.restore());
+    }
+
+    @Test
+    void restore_ignoresMissingAndCorruptFiles() throws Exception {
+        SecretCache cache = newCache();
+        SecretSnapshot snapshot = snapshot(KEY, "workload-1", cache);
+        assertEquals(0, snapshot.restore());
+
+        Files.write(snapshot.file(), "not a snapshot".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, snapshot.restore());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void scheduledWrites_areDebouncedAndFlushedOnClose() throws Exception {
+        SecretSnapshot[] holder = new SecretSnapshot[1];
+        SecretCache cache = new SecretCache(10, 60, 0, () -> holder[0].scheduleWrite());
+        holder[0] = snapshot(KEY, "workload-1", cache);
+
+        cache.put("p", "a", new SecretValue(1, "user", "v1"));
+        cache.put("p", "a", new SecretValue(2, "user", "v2"));
+        assertFalse(Files.exists(holder[0].file()), "the write waits for the debounce delay");
+        holder[0].close();
+
+        SecretCache restoredCache = newCache();
+        assertEquals(1, snapshot(KEY, "workload-1", restoredCache).restore());
+        assertEquals("v2", restoredCache.get("p:a").value.getPrivatePart());
+        assertTrue(Files.list(directory).allMatch(path -> path.toString().endsWith(".snapshot")),
+                "no temporary files are left behind");
+    }
+}
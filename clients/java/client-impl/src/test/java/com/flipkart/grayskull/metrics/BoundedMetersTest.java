@@ -0,0 +1,54 @@
+package com.flipkart.grayskull.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedMetersTest {
+
+    @Test
+    void testGet_createsOnceAndReuses() {
+        BoundedMeters<Object> meters = new BoundedMeters<>(10, (k, v) -> fail("nothing should be evicted"));
+        Object first = meters.get("a", k -> new Object());
+
+        assertSame(first, meters.get("a", k -> new Object()));
+        assertEquals(1, meters.size());
+    }
+
+    @Test
+    void testGet_evictsLeastRecentlyUsedPastCapacity() throws Exception {
+        List<String> evicted = new ArrayList<>();
+        BoundedMeters<String> meters = new BoundedMeters<>(2, 0, (k, v) -> evicted.add(k));
+        meters.get("a", k -> k);
+        Thread.sleep(2);
+        meters.get("b", k -> k);
+        Thread.sleep(2);
+        meters.get("a", k -> k);
+        Thread.sleep(2);
+
+        meters.get("c", k -> k);
+
+        assertEquals(2, meters.size());
+        assertEquals(1, evicted.size());
+        assertEquals("b", evicted.get(0));
+    }
+
+    @Test
+    void testGet_onlyRefreshesRecencyOncePerTouchInterval() throws Exception {
+        List<String> evicted = new ArrayList<>();
+        BoundedMeters<String> meters = new BoundedMeters<>(2, (k, v) -> evicted.add(k));
+        meters.get("a", k -> k);
+        Thread.sleep(2);
+        meters.get("b", k -> k);
+        Thread.sleep(2);
+        meters.get("a", k -> k);
+
+        meters.get("c", k -> k);
+
+        assertEquals(1, evicted.size());
+        assertEquals("a", evicted.get(0));
+    }
+}
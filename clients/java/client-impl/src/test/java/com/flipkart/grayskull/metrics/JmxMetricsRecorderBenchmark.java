@@ -0,0 +1,67 @@
+package com.flipkart.grayskull.metrics;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention and allocation benchmark for recording into the JMX recorder from many threads at once, the way
+ * concurrent {@code getSecret} calls do.
+ * <p>
+ * {@code recordRequest} records an operation into an already registered name and status;
+ * {@code recordSecretRequest} additionally resolves the per-secret name. Both should stay flat as
+ * {@code @Threads} grows, and both should show a {@code gc.alloc.rate.norm} of about 0 bytes per record.
+ * <p>
+ * Run the {@link #main(String[])} method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class JmxMetricsRecorderBenchmark {
+
+    private JmxMetricsRecorder recorder;
+
+    @State(Scope.Thread)
+    public static class Latency {
+        private long next;
+
+        long next() {
+            next = (next + 7) % 250;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        recorder = new JmxMetricsRecorder();
+        recorder.recordRequest("getSecret", 200, 1);
+        recorder.recordSecretRequest("getSecret", "project:secret", 200, 1);
+    }
+
+    @Benchmark
+    public void recordRequest(Latency latency) {
+        recorder.recordRequest("getSecret", 200, latency.next());
+    }
+
+    @Benchmark
+    public void recordSecretRequest(Latency latency) {
+        recorder.recordSecretRequest("getSecret", "project:secret", 200, latency.next());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JmxMetricsRecorderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
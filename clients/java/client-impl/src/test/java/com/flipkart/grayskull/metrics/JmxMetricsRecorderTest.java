@@ -11,6 +11,10 @@ import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,13 +46,25 @@ class JmxMetricsRecorderTest {
         // Use reflection to clear the static maps in JmxMetricsRecorder
         Field durationTrackersField = JmxMetricsRecorder.class.getDeclaredField("durationTrackers");
         durationTrackersField.setAccessible(true);
-        Map<?, ?> durationTrackers = (Map<?, ?>) durationTrackersField.get(null);
+        BoundedMeters<?> durationTrackers = (BoundedMeters<?>) durationTrackersField.get(null);
         durationTrackers.clear();
         
         Field retryTrackersField = JmxMetricsRecorder.class.getDeclaredField("retryTrackers");
         retryTrackersField.setAccessible(true);
-        Map<?, ?> retryTrackers = (Map<?, ?>) retryTrackersField.get(null);
+        BoundedMeters<?> retryTrackers = (BoundedMeters<?>) retryTrackersField.get(null);
         retryTrackers.clear();
+
+        Field secretTrackersField = JmxMetricsRecorder.class.getDeclaredField("secretTrackers");
+        secretTrackersField.setAccessible(true);
+        ((Map<?, ?>) secretTrackersField.get(null)).clear();
+
+        Field circuitBreakersField = JmxMetricsRecorder.class.getDeclaredField("circuitBreakers");
+        circuitBreakersField.setAccessible(true);
+        ((Map<?, ?>) circuitBreakersField.get(null)).clear();
+
+        Field eventCountersField = JmxMetricsRecorder.class.getDeclaredField("eventCounters");
+        eventCountersField.setAccessible(true);
+        ((Map<?, ?>) eventCountersField.get(null)).clear();
     }
     
     @Test
@@ -205,5 +221,91 @@ class JmxMetricsRecorderTest {
         Long failureRetries = (Long) mBeanServer.getAttribute(failureObjectName, "TotalRetries");
         assertEquals(1L, failureRetries);
     }
-}
 
+    @Test
+    void testRecordRequest_exposesPercentiles() throws Exception {
+        for (int i = 1; i <= 100; i++) {
+            recorder.recordRequest("test.percentiles", 200, i);
+        }
+
+        ObjectName objectName = new ObjectName("Grayskull:type=HttpClientMetrics,name=\"test.percentiles\"");
+        long p50 = (Long) mBeanServer.getAttribute(objectName, "P50DurationMs");
+        long p99 = (Long) mBeanServer.getAttribute(objectName, "P99DurationMs");
+        assertTrue(p50 >= 50 && p50 <= 53, "p50 was " + p50);
+        assertTrue(p99 >= 99 && p99 <= 103, "p99 was " + p99);
+        assertEquals(100L, (Long) mBeanServer.getAttribute(objectName, "MaxDurationMs"));
+    }
+
+    @Test
+    void testRecordSecretRequest_usesOperationAndSecretName() throws Exception {
+        recorder.recordSecretRequest("getSecret", "team:db", 200, 10);
+
+        assertTrue(mBeanServer.isRegistered(new ObjectName("Grayskull:type=HttpClientMetrics,name=\"getSecret.team:db\"")));
+        assertTrue(mBeanServer.isRegistered(new ObjectName("Grayskull:type=HttpClientMetrics,name=\"getSecret.team:db.200\"")));
+    }
+
+    @Test
+    void testRecordRetry_templatesSecretPaths() throws Exception {
+        recorder.recordRetry("http://localhost:8080/v1/projects/team/secrets/db/data", 2, true);
+
+        assertTrue(mBeanServer.isRegistered(new ObjectName(
+                "Grayskull:type=HttpClientRetryMetrics,name=\"path./v1/projects/{projectId}/secrets/{secretName}/data\"")));
+    }
+
+    @Test
+    void testRecordRequest_concurrentRecordsAreNotLost() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                int statusCode = t % 2 == 0 ? 200 : 500;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 1; i <= perThread; i++) {
+                        recorder.recordRequest("test.concurrent", statusCode, i % 100);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        ObjectName overall = new ObjectName("Grayskull:type=HttpClientMetrics,name=\"test.concurrent\"");
+        ObjectName ok = new ObjectName("Grayskull:type=HttpClientMetrics,name=\"test.concurrent.200\"");
+        assertEquals((long) threads * perThread, (Long) mBeanServer.getAttribute(overall, "Count"));
+        assertEquals((long) threads / 2 * perThread, (Long) mBeanServer.getAttribute(ok, "Count"));
+        assertEquals(99L, (Long) mBeanServer.getAttribute(overall, "MaxDurationMs"));
+        assertEquals(0L, (Long) mBeanServer.getAttribute(overall, "MinDurationMs"));
+        assertEquals(99L, (Long) mBeanServer.getAttribute(overall, "P999DurationMs"));
+    }
+
+    @Test
+    void testRecordCircuitBreakerState_exposesStatePerHost() throws Exception {
+        recorder.recordCircuitBreakerState("grayskull:443", 2);
+
+        ObjectName objectName = new ObjectName("Grayskull:type=CircuitBreaker,name=\"grayskull:443\"");
+        assertEquals(2, (Integer) mBeanServer.getAttribute(objectName, "State"));
+
+        recorder.recordCircuitBreakerState("grayskull:443", 1);
+        assertEquals(1, (Integer) mBeanServer.getAttribute(objectName, "State"));
+    }
+
+    @Test
+    void testRecordEvent_countsWithoutRegisteringADurationTracker() throws Exception {
+        recorder.recordEvent("hedge.fired");
+        recorder.recordEvent("hedge.fired");
+
+        ObjectName objectName = new ObjectName("Grayskull:type=Events,name=\"hedge.fired\"");
+        assertEquals(2L, (Long) mBeanServer.getAttribute(objectName, "Count"));
+        assertTrue(mBeanServer.queryNames(new ObjectName("Grayskull:type=HttpClientMetrics,*"), null).isEmpty());
+    }
+}
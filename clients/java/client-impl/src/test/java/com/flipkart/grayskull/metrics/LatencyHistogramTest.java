@@ -0,0 +1,85 @@
+package com.flipkart.grayskull.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBuckets_exactForSmallValuesAndBoundedErrorAbove() {
+        for (long v = 0; v < LatencyHistogram.SUB_BUCKETS; v++) {
+            assertEquals(v, LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(v)));
+        }
+        for (long v = LatencyHistogram.SUB_BUCKETS; v <= LatencyHistogram.MAX_VALUE; v = v * 3 / 2 + 1) {
+            long reported = LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(v));
+            assertTrue(reported >= v, "bucket of " + v + " reported " + reported);
+            assertTrue(reported - v <= v / LatencyHistogram.SUB_BUCKETS, "bucket of " + v + " reported " + reported);
+        }
+    }
+
+    @Test
+    void testValueAtPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAtPercentile(50));
+
+        for (int i = 0; i < 990; i++) {
+            histogram.record(5);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000);
+        }
+
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(5, histogram.valueAtPercentile(99));
+        long p999 = histogram.valueAtPercentile(99.9);
+        assertTrue(p999 >= 1_000 && p999 < 1_064, "p99.9 was " + p999);
+    }
+
+    @Test
+    void testRecord_clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void testRecord_concurrentRecordsAreCountedAcrossStripes() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        histogram.record(i % 10 == 0 ? 10 : 1);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals((long) threads * perThread, histogram.totalCount());
+        assertEquals(1, histogram.valueAtPercentile(89.99));
+        assertEquals(10, histogram.valueAtPercentile(90.01));
+    }
+}
@@ -74,6 +74,15 @@ class MetricsPublisherTest {
         assertDoesNotThrow(() -> publisher.recordRetry("http://localhost:8080/v1/secrets", 2, true));
     }
     
+    @Test
+    void testRecordEventWhenDisabled() {
+        MetricsPublisher publisher = MetricsPublisher.getInstance();
+        MetricsPublisher.configure(false);
+
+        // Should not throw exception, just be a no-op
+        assertDoesNotThrow(() -> publisher.recordEvent("hedge.fired"));
+    }
+    
     @Test
     void testConfigureEnableDisable() {
         MetricsPublisher publisher = MetricsPublisher.getInstance();
@@ -155,5 +164,19 @@ class MetricsPublisherTest {
             publisher2.recordRequest("test.global4", 200, 100L);
         });
     }
-}
 
+    @Test
+    void testIsSampled_deterministicAndProportional() {
+        assertFalse(MetricsPublisher.isSampled("team:db", 0));
+        assertTrue(MetricsPublisher.isSampled("team:db", 1));
+        assertEquals(MetricsPublisher.isSampled("team:db", 0.5), MetricsPublisher.isSampled("team:db", 0.5));
+
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (MetricsPublisher.isSampled("team:secret-" + i, 0.1)) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 800 && sampled < 1200, "sampled " + sampled + " of 10000 at ratio 0.1");
+    }
+}
@@ -35,8 +35,12 @@ class MicrometerMetricsRecorderTest {
         // Use reflection to clear the static map in MicrometerMetricsRecorder
         Field timersField = MicrometerMetricsRecorder.class.getDeclaredField("timers");
         timersField.setAccessible(true);
-        Map<?, ?> timers = (Map<?, ?>) timersField.get(null);
+        BoundedMeters<?> timers = (BoundedMeters<?>) timersField.get(null);
         timers.clear();
+
+        Field breakerStatesField = MicrometerMetricsRecorder.class.getDeclaredField("breakerStates");
+        breakerStatesField.setAccessible(true);
+        ((Map<?, ?>) breakerStatesField.get(null)).clear();
     }
     
     @Test
@@ -209,5 +213,42 @@ class MicrometerMetricsRecorderTest {
         
         assertEquals(1L, timerCount);
     }
-}
 
+    @Test
+    void testRecordSecretRequest_usesSeparateTimerWithSecretTag() {
+        recorder.recordSecretRequest("getSecret", "team:db", 200, 40L);
+
+        Timer timer = meterRegistry.find("grayskull_client_secret_request")
+                .tag("operation", "getSecret")
+                .tag("secret", "team:db")
+                .tag("status", "200")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1L, timer.count());
+        assertNull(meterRegistry.find("grayskull_client_request").tag("operation", "getSecret").timer(),
+                "per-secret detail must not be recorded under the operation timer");
+    }
+
+    @Test
+    void testRecordCircuitBreakerState_updatesGaugePerHost() {
+        recorder.recordCircuitBreakerState("grayskull:443", 2);
+
+        Gauge gauge = meterRegistry.find("grayskull_client_circuit_breaker_state").tag("host", "grayskull:443").gauge();
+        assertNotNull(gauge);
+        assertEquals(2.0, gauge.value());
+
+        recorder.recordCircuitBreakerState("grayskull:443", 0);
+        assertEquals(0.0, gauge.value());
+    }
+
+    @Test
+    void testRecordEvent_incrementsCounterWithoutATimer() {
+        recorder.recordEvent("circuitBreaker.rejected");
+        recorder.recordEvent("circuitBreaker.rejected");
+
+        Counter counter = meterRegistry.find("grayskull_client_event").tag("name", "circuitBreaker.rejected").counter();
+        assertNotNull(counter);
+        assertEquals(2.0, counter.count());
+        assertNull(meterRegistry.find("grayskull_client_request").timer());
+    }
+}
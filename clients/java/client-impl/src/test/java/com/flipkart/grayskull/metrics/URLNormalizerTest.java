@@ -55,5 +55,11 @@ class URLNormalizerTest {
         String result = URLNormalizer.normalize(invalidUrl);
         assertEquals(invalidUrl, result);
     }
-}
 
+    @Test
+    void testNormalizeTemplatesProjectAndSecretName() {
+        assertEquals("/v1/projects/{projectId}/secrets/{secretName}/data",
+                URLNormalizer.normalize("http://localhost:8080/v1/projects/team/secrets/db-password/data"));
+        assertEquals("/v1/secrets/batch", URLNormalizer.normalize("http://localhost:8080/v1/secrets/batch"));
+    }
+}
@@ -4,6 +4,8 @@ import com.flipkart.grayskull.workload.DefaultWorkloadIdentityResolver;
 import com.flipkart.grayskull.workload.WorkloadIdentityResolver;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -311,4 +313,172 @@ class GrayskullClientConfigurationTest {
         assertEquals(100, config.getMinRetryDelay());
         assertFalse(config.isMetricsEnabled());
     }
+
+    @Test
+    void testPollingConcurrencySettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertEquals(4, config.getPollingParallelism());
+        assertEquals(30, config.getPollingCycleTimeoutSeconds());
+        assertEquals(0.2, config.getPollingJitterRatio());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setPollingJitterRatio(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> config.setPollingJitterRatio(1.0));
+        assertThrows(IllegalArgumentException.class, () -> config.setPollingJitterRatio(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> config.setPollingParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setPollingCycleTimeoutSeconds(0));
+
+        config.setPollingParallelism(8);
+        config.setPollingCycleTimeoutSeconds(10);
+        assertEquals(8, config.getPollingParallelism());
+        assertEquals(10, config.getPollingCycleTimeoutSeconds());
+        config.setPollingJitterRatio(0);
+        assertEquals(0.0, config.getPollingJitterRatio());
+    }
+
+    @Test
+    void testMetricsPerSecretSampleRatio_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertEquals(0.0, config.getMetricsPerSecretSampleRatio());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setMetricsPerSecretSampleRatio(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> config.setMetricsPerSecretSampleRatio(1.1));
+
+        config.setMetricsPerSecretSampleRatio(1);
+        assertEquals(1.0, config.getMetricsPerSecretSampleRatio());
+    }
+
+    @Test
+    void testConnectionSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertEquals(300, config.getConnectionKeepAliveSeconds());
+        assertEquals(64, config.getMaxRequests());
+        assertEquals(5, config.getMaxRequestsPerHost());
+        assertTrue(config.isHttp2Enabled());
+        assertFalse(config.isHttp2PriorKnowledge());
+        assertEquals(0, config.getWarmUpConnections());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setConnectionKeepAliveSeconds(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setMaxRequests(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setMaxRequestsPerHost(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setWarmUpConnections(-1));
+
+        config.setMaxRequestsPerHost(32);
+        config.setWarmUpConnections(2);
+        assertEquals(32, config.getMaxRequestsPerHost());
+        assertEquals(2, config.getWarmUpConnections());
+    }
+
+    @Test
+    void testHedgingAndCircuitBreakerSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertFalse(config.isHedgingEnabled());
+        assertEquals(50, config.getHedgeMinDelayMs());
+        assertEquals(5, config.getCircuitBreakerFailureThreshold());
+        assertEquals(30, config.getCircuitBreakerOpenSeconds());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setHedgeMinDelayMs(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setCircuitBreakerFailureThreshold(-1));
+        assertThrows(IllegalArgumentException.class, () -> config.setCircuitBreakerOpenSeconds(0));
+
+        config.setHedgingEnabled(true);
+        config.setCircuitBreakerFailureThreshold(0);
+        assertTrue(config.isHedgingEnabled());
+        assertEquals(0, config.getCircuitBreakerFailureThreshold());
+    }
+
+    @Test
+    void testEndpointSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertTrue(config.getEndpoints().isEmpty());
+        assertEquals(3, config.getEndpointEjectionFailures());
+        assertEquals(30, config.getEndpointEjectionSeconds());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setEndpoints(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> config.setEndpoints(Collections.singletonList("grayskull.example.com")));
+        assertThrows(IllegalArgumentException.class,
+                () -> config.setEndpoints(Collections.singletonList("https://grayskull.example.com/v1")));
+        assertThrows(IllegalArgumentException.class, () -> config.setEndpointEjectionFailures(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setEndpointEjectionSeconds(0));
+
+        config.setEndpoints(Arrays.asList("https://a.example.com:8443/", "https://b.example.com"));
+        assertEquals(Arrays.asList("https://a.example.com:8443", "https://b.example.com"), config.getEndpoints());
+        assertEquals("https://a.example.com:8443", config.getHost(), "first endpoint is the host when none is set");
+
+        config.setHost("https://grayskull.example.com");
+        config.setEndpoints(Collections.singletonList("https://c.example.com"));
+        assertEquals("https://grayskull.example.com", config.getHost());
+    }
+
+    @Test
+    void testSnapshotSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertNull(config.getSnapshotDirectory());
+        assertNull(config.getSnapshotKey());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setSnapshotDirectory(" "));
+        assertThrows(IllegalArgumentException.class, () -> config.setSnapshotKey(null));
+        assertThrows(IllegalArgumentException.class, () -> config.setSnapshotKey(new byte[20]));
+
+        byte[] key = new byte[32];
+        config.setSnapshotDirectory("/var/lib/app/grayskull");
+        config.setSnapshotKey(key);
+        key[0] = 1;
+        assertEquals("/var/lib/app/grayskull", config.getSnapshotDirectory());
+        assertEquals(0, config.getSnapshotKey()[0], "the key is copied on the way in");
+        config.getSnapshotKey()[1] = 1;
+        assertEquals(0, config.getSnapshotKey()[1], "and on the way out");
+    }
+
+    @Test
+    void testHookDispatchSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertEquals(0, config.getHookDispatcherThreads());
+        assertEquals(0, config.getHookTimeoutSeconds());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setHookDispatcherThreads(-1));
+        assertThrows(IllegalArgumentException.class, () -> config.setHookTimeoutSeconds(-1));
+
+        config.setHookDispatcherThreads(5);
+        config.setHookTimeoutSeconds(30);
+        assertEquals(5, config.getHookDispatcherThreads());
+        assertEquals(30, config.getHookTimeoutSeconds());
+    }
+
+    @Test
+    void testWatchSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertFalse(config.isWatchEnabled());
+        assertFalse(config.isVersionCheckEnabled());
+        assertEquals(20, config.getWatchTimeoutSeconds());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setWatchTimeoutSeconds(0));
+
+        config.setWatchEnabled(true);
+        config.setWatchTimeoutSeconds(10);
+        assertTrue(config.isWatchEnabled());
+        assertEquals(10, config.getWatchTimeoutSeconds());
+    }
+
+    @Test
+    void testCacheSettings_defaultsAndValidation() {
+        GrayskullClientConfiguration config = new GrayskullClientConfiguration();
+        assertFalse(config.isCacheEnabled());
+        assertEquals(1000, config.getCacheMaxEntries());
+        assertEquals(300, config.getCacheTtlSeconds());
+        assertEquals(60, config.getCacheStaleWhileRevalidateSeconds());
+
+        assertThrows(IllegalArgumentException.class, () -> config.setCacheMaxEntries(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setCacheTtlSeconds(0));
+        assertThrows(IllegalArgumentException.class, () -> config.setCacheStaleWhileRevalidateSeconds(-1));
+
+        config.setCacheEnabled(true);
+        config.setCacheMaxEntries(10);
+        config.setCacheTtlSeconds(30);
+        config.setCacheStaleWhileRevalidateSeconds(0);
+        assertTrue(config.isCacheEnabled());
+        assertEquals(10, config.getCacheMaxEntries());
+        assertEquals(30, config.getCacheTtlSeconds());
+        assertEquals(0, config.getCacheStaleWhileRevalidateSeconds());
+    }
 }
@@ -6,6 +6,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -195,5 +200,71 @@ class RetryUtilTest {
 
         assertEquals(1, attemptCount.get(), "Should stop after first attempt when interrupted");
     }
-}
 
+    @Test
+    void testRetryAsync_retriesWithoutBlockingCaller() throws Exception {
+        RetryUtil retryUtil = new RetryUtil(3, 50);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        try {
+            CompletableFuture<String> result = retryUtil.retryAsync(() -> {
+                CompletableFuture<String> attempt = new CompletableFuture<>();
+                if (attemptCount.incrementAndGet() < 3) {
+                    attempt.completeExceptionally(new RetryableException(503, "Transient error"));
+                } else {
+                    attempt.complete("success");
+                }
+                return attempt;
+            }, scheduler);
+
+            // the first attempt failed synchronously; the retries are still waiting on the scheduler
+            assertFalse(result.isDone());
+            assertEquals("success", result.get(5, TimeUnit.SECONDS));
+            assertEquals(3, attemptCount.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRetryAsync_exhaustsAllAttempts() {
+        RetryUtil retryUtil = new RetryUtil(2, 50);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        try {
+            CompletableFuture<String> result = retryUtil.retryAsync(() -> {
+                attemptCount.incrementAndGet();
+                CompletableFuture<String> attempt = new CompletableFuture<>();
+                attempt.completeExceptionally(new RetryableException(503, "Always fails"));
+                return attempt;
+            }, scheduler);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(GrayskullException.class, exception.getCause());
+            assertEquals(503, ((GrayskullException) exception.getCause()).getStatusCode());
+            assertEquals(2, attemptCount.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRetryAsync_nonRetryableFailsImmediately() {
+        RetryUtil retryUtil = new RetryUtil(3, 50);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        try {
+            CompletableFuture<String> result = retryUtil.retryAsync(() -> {
+                attemptCount.incrementAndGet();
+                CompletableFuture<String> attempt = new CompletableFuture<>();
+                attempt.completeExceptionally(new GrayskullException(404, "Not found"));
+                return attempt;
+            }, scheduler);
+
+            assertTrue(result.isCompletedExceptionally());
+            assertEquals(1, attemptCount.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -11,6 +11,10 @@ import org.springframework.data.annotation.LastModifiedDate;
 import java.time.Instant;
 
 
+/**
+ * Drain progress of one shard of a node's Derby audit buffer. A node drained by {@code shardCount} parallel drainers
+ * has one checkpoint per shard, shard {@code k} owning the rows whose {@code id % shardCount == k}.
+ */
 @Getter
 @Setter
 @AllArgsConstructor
@@ -21,6 +25,10 @@ public class AuditCheckpoint {
 
     private String nodeName;
 
+    private int shard;
+
+    private int shardCount;
+
     private long logId;
 
     @CreatedDate
@@ -30,6 +38,13 @@ public class AuditCheckpoint {
     private Instant lastModifiedAt;
 
     public AuditCheckpoint(String nodeName) {
+        this(nodeName, 0, 1, 0);
+    }
+
+    public AuditCheckpoint(String nodeName, int shard, int shardCount, long logId) {
         this.nodeName = nodeName;
+        this.shard = shard;
+        this.shardCount = shardCount;
+        this.logId = logId;
     }
-}
\ No newline at end of file
+}
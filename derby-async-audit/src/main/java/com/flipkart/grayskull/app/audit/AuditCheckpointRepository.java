@@ -2,9 +2,11 @@ package com.flipkart.grayskull.app.audit;
 
 import org.springframework.data.repository.CrudRepository;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.List;
 
-public interface AuditCheckpointRepository extends CrudRepository<AuditCheckpoint, Long> {
-    Optional<AuditCheckpoint> findByNodeName(String nodeName);
+public interface AuditCheckpointRepository extends CrudRepository<AuditCheckpoint, String> {
+    List<AuditCheckpoint> findByNodeName(String nodeName);
+    List<AuditCheckpoint> findByLastModifiedAtBefore(Instant instant);
     void deleteByNodeName(String nodeName);
-}
\ No newline at end of file
+}
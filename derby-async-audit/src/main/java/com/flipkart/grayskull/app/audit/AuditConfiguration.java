@@ -11,7 +11,6 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.io.IOException;
 import java.sql.SQLException;
 
 @Configuration
@@ -22,13 +21,17 @@ public class AuditConfiguration {
 
     @Bean
     @Primary
-    public AsyncAuditLogger derbyAsyncAuditLogger(AuditProperties auditProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry, AuditEntryRepository auditEntryRepository, AuditCheckpointRepository auditCheckpointRepository) throws SQLException, IOException {
-        new DerbyStaleDataCleaner(auditCheckpointRepository, auditProperties).cleanStaleData();
-        return new DerbyAsyncAuditLogger(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+    public AsyncAuditLogger derbyAsyncAuditLogger(AuditProperties auditProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry, AuditEntryRepository auditEntryRepository, AuditCheckpointRepository auditCheckpointRepository) throws SQLException {
+        return DerbyAsyncAuditLogger.openWhenUnlocked(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
     }
 
     @Bean
-    public DerbyAsyncAuditScheduler derbyAsyncAuditScheduler(DerbyAsyncAuditLogger derbyAsyncAuditLogger, MeterRegistry meterRegistry) {
-        return new DerbyAsyncAuditScheduler(derbyAsyncAuditLogger, meterRegistry);
+    public DerbyAuditHandoff derbyAuditHandoff(AuditProperties auditProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry, AuditEntryRepository auditEntryRepository, AuditCheckpointRepository auditCheckpointRepository) {
+        return new DerbyAuditHandoff(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+    }
+
+    @Bean
+    public DerbyAsyncAuditScheduler derbyAsyncAuditScheduler(DerbyAsyncAuditLogger derbyAsyncAuditLogger, DerbyAuditHandoff derbyAuditHandoff, MeterRegistry meterRegistry) {
+        return new DerbyAsyncAuditScheduler(derbyAsyncAuditLogger, derbyAuditHandoff, meterRegistry);
     }
 }
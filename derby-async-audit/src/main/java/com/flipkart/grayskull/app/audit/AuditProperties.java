@@ -44,11 +44,37 @@ public class AuditProperties {
     private String batchTimeInterval;
 
     /**
-     * If the checkpoint is older than this duration, then the data present in the Derby db is considered stale and deleted.
-     * If the duration is set to zero, then staleness check is disabled
+     * If every checkpoint of a node is older than this duration, the node is considered dead and its Derby buffer
+     * becomes eligible for handoff to a peer (see {@link #handoffDirectory}). Live nodes refresh their checkpoints at
+     * least twice within this duration even when idle. If the duration is set to zero, then handoff is disabled
      */
     private Duration stalenessDuration = Duration.ZERO;
 
+    /**
+     * Number of parallel drainers persisting the local Derby buffer to the DB. Rows are sharded by id and every shard
+     * keeps its own checkpoint, so catching up on a large backlog is not limited to a single thread
+     */
+    @Min(1)
+    private int drainShards = 1;
+
+    /**
+     * Directory shared between the nodes in which the Derby buffer of every node lives at {@code <handoffDirectory>/<nodeName>}.
+     * When set, a node drains the buffers of dead peers found there instead of leaving them behind. Derby allows only one
+     * process to boot a database at a time, so a buffer is never drained by two nodes at once
+     */
+    private String handoffDirectory;
+
+    /**
+     * The time interval in which dead peers are looked up for handoff. can use the same suffixes as {@link #batchTimeInterval}
+     */
+    private String handoffInterval = "5m";
+
+    /**
+     * How long a starting node waits for its own Derby buffer while a peer which took it for dead is still draining it.
+     * Derby refuses to boot a database booted by another process, so the node retries until the peer releases it
+     */
+    private Duration bufferLockTimeout = Duration.ofMinutes(10);
+
     public String getDerbyUrl() {
         return "jdbc:derby:" + derbyDirectory + ";create=true";
     }
@@ -12,18 +12,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * {@link AsyncAuditLogger} which stores audit events in a local Apache Derby database. The events are persisted to the
+ * DB by {@link #commitBatchToDb(int)}, which can be called in parallel for the different shards of the buffer.
+ * Shard {@code k} owns the rows whose {@code id % drainShards == k} and tracks its progress in its own {@link AuditCheckpoint}.
+ */
 @Slf4j
 public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
     public static final String AUDIT_ERROR_METRIC = "audit-log-error";
     public static final String ACTION_TAG = "action";
     public static final String EXCEPTION_TAG = "exception";
     private static final String TABLE_ALREADY_EXISTS = "X0Y32";
+    private static final String DATABASE_SHUTDOWN = "08006";
+    static final String DATABASE_LOCKED = "XSDB6";
+    private static final Duration LOCK_RETRY_INTERVAL = Duration.ofSeconds(1);
 
     private final AuditProperties auditProperties;
     private final Connection connection;
+    private final Connection[] drainConnections;
+    private final AuditCheckpoint[] checkpoints;
     private final ObjectMapper objectMapper;
     private final MeterRegistry meterRegistry;
     private final AuditEntryRepository auditEntryRepository;
@@ -31,6 +43,12 @@ public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
 
     public DerbyAsyncAuditLogger(AuditProperties auditProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry, AuditEntryRepository auditEntryRepository, AuditCheckpointRepository auditCheckpointRepository) throws SQLException {
         this.connection = DriverManager.getConnection(auditProperties.getDerbyUrl());
+        // every drainer gets its own connection so that the shards do not serialize on a single connection
+        this.drainConnections = new Connection[auditProperties.getDrainShards()];
+        for (int shard = 0; shard < drainConnections.length; shard++) {
+            drainConnections[shard] = DriverManager.getConnection(auditProperties.getDerbyUrl());
+        }
+        this.checkpoints = new AuditCheckpoint[auditProperties.getDrainShards()];
         this.auditProperties = auditProperties;
         this.objectMapper = objectMapper;
         this.meterRegistry = meterRegistry;
@@ -38,6 +56,50 @@ public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
         this.auditCheckpointRepository = auditCheckpointRepository;
     }
 
+    /**
+     * Opens the buffer of this node. While a peer which took this node for dead is draining the buffer, Derby refuses to
+     * boot it, so opening is retried until {@link AuditProperties#getBufferLockTimeout()} has passed.
+     */
+    public static DerbyAsyncAuditLogger openWhenUnlocked(AuditProperties auditProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry, AuditEntryRepository auditEntryRepository, AuditCheckpointRepository auditCheckpointRepository) throws SQLException {
+        return retryWhileLocked(() -> new DerbyAsyncAuditLogger(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository),
+                auditProperties.getBufferLockTimeout(), LOCK_RETRY_INTERVAL);
+    }
+
+    static <T> T retryWhileLocked(SqlSupplier<T> open, Duration timeout, Duration interval) throws SQLException {
+        Instant deadline = Instant.now().plus(timeout);
+        while (true) {
+            try {
+                return open.get();
+            } catch (SQLException e) {
+                if (!isLocked(e) || Instant.now().plus(interval).isAfter(deadline)) {
+                    throw e;
+                }
+                log.info("audit buffer is booted by another process, probably a peer draining it. retrying in {}", interval);
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isLocked(SQLException e) {
+        // Derby reports the lock as the next exception or cause of a generic "failed to start database" error
+        for (Throwable cause : e) {
+            if (cause instanceof SQLException sqlException && DATABASE_LOCKED.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    interface SqlSupplier<T> {
+        T get() throws SQLException;
+    }
+
     @PostConstruct
     public void init() throws SQLException {
         try (Statement statement = connection.createStatement()) {
@@ -47,11 +109,52 @@ public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
                 throw e;
             }
         }
+        loadCheckpoints();
+    }
+
+    /**
+     * Loads the checkpoint of every shard. If the stored checkpoints were written with a different number of shards,
+     * they are replaced by fresh ones starting at the lowest stored checkpoint. Rows are deleted from Derby as soon as they
+     * are persisted, so restarting from the lowest checkpoint can only resend entries whose deletion was interrupted.
+     */
+    private void loadCheckpoints() {
+        int shardCount = checkpoints.length;
+        List<AuditCheckpoint> stored = auditCheckpointRepository.findByNodeName(auditProperties.getNodeName());
+        boolean matches = stored.size() == shardCount && stored.stream().allMatch(checkpoint -> checkpoint.getShardCount() == shardCount);
+        if (matches) {
+            stored.forEach(checkpoint -> checkpoints[checkpoint.getShard()] = checkpoint);
+            return;
+        }
+        long base = stored.stream().mapToLong(AuditCheckpoint::getLogId).min().orElse(0);
+        if (!stored.isEmpty()) {
+            log.info("resharding {} checkpoints of node {} into {} shards starting from {}", stored.size(), auditProperties.getNodeName(), shardCount, base);
+            auditCheckpointRepository.deleteByNodeName(auditProperties.getNodeName());
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            checkpoints[shard] = new AuditCheckpoint(auditProperties.getNodeName(), shard, shardCount, base);
+        }
     }
 
+    /**
+     * Closes the connections and shuts the Derby database down so that the database can be booted by another process.
+     */
     @PreDestroy
     public void cleanup() throws SQLException {
         connection.close();
+        for (Connection drainConnection : drainConnections) {
+            drainConnection.close();
+        }
+        try {
+            DriverManager.getConnection("jdbc:derby:" + auditProperties.getDerbyDirectory() + ";shutdown=true").close();
+        } catch (SQLException e) {
+            if (!DATABASE_SHUTDOWN.equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return checkpoints.length;
     }
 
     @Override
@@ -69,15 +172,24 @@ public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
         }
     }
 
+    /**
+     * Persists the next batch of the given shard. Different shards can be committed concurrently, a single shard must
+     * only be committed by one thread at a time.
+     *
+     * @return number of entries persisted
+     */
     @Transactional
-    public int commitBatchToDb() throws SQLException, JsonProcessingException {
-        AuditCheckpoint auditCheckpoint = auditCheckpointRepository.findByNodeName(auditProperties.getNodeName()).orElseGet(() -> new AuditCheckpoint(auditProperties.getNodeName()));
+    public int commitBatchToDb(int shard) throws SQLException, JsonProcessingException {
+        AuditCheckpoint auditCheckpoint = checkpoints[shard];
+        Connection drainConnection = drainConnections[shard];
         long maxId = auditCheckpoint.getLogId();
-        log.info("fetching {} audit entries from checkpoint {}", auditProperties.getBatchSize(), maxId);
+        log.debug("fetching {} audit entries of shard {} from checkpoint {}", auditProperties.getBatchSize(), shard, maxId);
         List<AuditEntry> auditEntries = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement("SELECT id, event FROM audits WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY")) {
+        try (PreparedStatement statement = drainConnection.prepareStatement("SELECT id, event FROM audits WHERE id > ? AND MOD(id, ?) = ? ORDER BY id FETCH FIRST ? ROWS ONLY")) {
             statement.setLong(1, maxId);
-            statement.setInt(2, auditProperties.getBatchSize());
+            statement.setInt(2, checkpoints.length);
+            statement.setInt(3, shard);
+            statement.setInt(4, auditProperties.getBatchSize());
             statement.execute();
             ResultSet resultSet = statement.getResultSet();
             while (resultSet.next()) {
@@ -88,16 +200,54 @@ public class DerbyAsyncAuditLogger implements AsyncAuditLogger {
                 auditEntries.add(auditEntry);
             }
         }
-        log.info("found {} entries. storing them to db. current checkpoint is {}", auditEntries.size(), maxId);
         if (!auditEntries.isEmpty()) {
+            log.info("found {} entries in shard {}. storing them to db. current checkpoint is {}", auditEntries.size(), shard, maxId);
             auditEntryRepository.saveAll(auditEntries);
             auditCheckpoint.setLogId(maxId);
             auditCheckpointRepository.save(auditCheckpoint);
-            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM audits WHERE id <= ?")) {
+            try (PreparedStatement statement = drainConnection.prepareStatement("DELETE FROM audits WHERE id <= ? AND MOD(id, ?) = ?")) {
                 statement.setLong(1, maxId);
+                statement.setInt(2, checkpoints.length);
+                statement.setInt(3, shard);
                 statement.execute();
             }
         }
         return auditEntries.size();
     }
+
+    /**
+     * Whether no shard has entries left past its checkpoint.
+     */
+    public boolean isDrained() throws SQLException {
+        for (int shard = 0; shard < checkpoints.length; shard++) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM audits WHERE id > ? AND MOD(id, ?) = ? FETCH FIRST 1 ROWS ONLY")) {
+                statement.setLong(1, checkpoints[shard].getLogId());
+                statement.setInt(2, checkpoints.length);
+                statement.setInt(3, shard);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Saves the checkpoints which were not modified for half of the staleness duration, so that an idle node is not
+     * mistaken for a dead one by its peers. Must not run concurrently with {@link #commitBatchToDb(int)}.
+     */
+    public void heartbeat() {
+        Duration stalenessDuration = auditProperties.getStalenessDuration();
+        if (stalenessDuration.compareTo(Duration.ZERO) <= 0) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(stalenessDuration.dividedBy(2));
+        for (AuditCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getLastModifiedAt() == null || checkpoint.getLastModifiedAt().isBefore(threshold)) {
+                auditCheckpointRepository.save(checkpoint);
+            }
+        }
+    }
 }
@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.flipkart.grayskull.app.audit.DerbyAsyncAuditLogger.AUDIT_ERROR_METRIC;
 import static com.flipkart.grayskull.app.audit.DerbyAsyncAuditLogger.ACTION_TAG;
@@ -16,14 +18,40 @@ import static com.flipkart.grayskull.app.audit.DerbyAsyncAuditLogger.EXCEPTION_T
 @Slf4j
 public class DerbyAsyncAuditScheduler {
     private final DerbyAsyncAuditLogger derbyAsyncAuditLogger;
+    private final DerbyAuditHandoff derbyAuditHandoff;
     private final MeterRegistry meterRegistry;
 
     @Scheduled(fixedDelayString = "${audit.batch-time-interval}")
     public void run() {
+        drain(derbyAsyncAuditLogger);
+        derbyAsyncAuditLogger.heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${audit.handoff-interval:5m}")
+    public void handOff() {
+        int handedOff = derbyAuditHandoff.handOffDeadPeers(this::drain);
+        if (handedOff > 0) {
+            log.info("drained the buffers of {} dead peers", handedOff);
+        }
+    }
+
+    /**
+     * Drains every shard of the logger on its own virtual thread and returns once all of them are empty or failed.
+     */
+    void drain(DerbyAsyncAuditLogger logger) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < logger.getShardCount(); shard++) {
+                int drainedShard = shard;
+                executor.execute(() -> drainShard(logger, drainedShard));
+            }
+        }
+    }
+
+    private void drainShard(DerbyAsyncAuditLogger logger, int shard) {
         try {
             int committed;
             do {
-                committed = derbyAsyncAuditLogger.commitBatchToDb();
+                committed = logger.commitBatchToDb(shard);
             } while (committed != 0);
         }  catch (JsonProcessingException e) {
             log.error("Failed to deserialize audit entry", e);
@@ -31,7 +59,9 @@ public class DerbyAsyncAuditScheduler {
         } catch (SQLException e) {
             log.error("Failed to connect to Derby", e);
             meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "fetch-logs", EXCEPTION_TAG, "SQLException").increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to persist audit entries of shard {}", shard, e);
+            meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "persist", EXCEPTION_TAG, e.getClass().getSimpleName()).increment();
         }
-
     }
 }
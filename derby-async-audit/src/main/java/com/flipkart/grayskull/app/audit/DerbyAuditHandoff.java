@@ -0,0 +1,114 @@
+package com.flipkart.grayskull.app.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Hands the Derby buffers of dead nodes over to this node, so that audit events buffered by a node which does not
+ * come back are not lost.
+ * <p>
+ * A node is considered dead when all of its checkpoints are older than {@link AuditProperties#getStalenessDuration()}.
+ * Its buffer is looked up at {@code <handoffDirectory>/<nodeName>} and drained with the dead node's name, so the
+ * checkpoints and the {@code logId} of the persisted entries stay the same as if the dead node had drained them itself.
+ * Derby refuses to boot a database which is already booted by another process, which prevents two peers (or a peer
+ * and the restarted owner) from draining the same buffer. An owner which restarts during a handoff waits for the buffer
+ * (see {@link AuditProperties#getBufferLockTimeout()}).
+ * <p>
+ * Once a buffer is fully drained, the dead node's checkpoints are deleted while the buffer is still booted, so the node
+ * is not handed off again. The buffer itself is left in place, empty: deleting it after releasing the lock could remove
+ * the database of an owner which booted it in the meantime. If the node comes back, it reuses the buffer with fresh
+ * checkpoints; otherwise the directory can be removed once the node is decommissioned.
+ */
+@Slf4j
+@AllArgsConstructor
+public class DerbyAuditHandoff {
+    private final AuditProperties auditProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AuditEntryRepository auditEntryRepository;
+    private final AuditCheckpointRepository auditCheckpointRepository;
+
+    /**
+     * Opens the buffer of every dead peer, passes it to the drain and closes it again.
+     *
+     * @return number of buffers handed over
+     */
+    public int handOffDeadPeers(Consumer<DerbyAsyncAuditLogger> drain) {
+        if (auditProperties.getHandoffDirectory() == null || auditProperties.getStalenessDuration().compareTo(Duration.ZERO) <= 0) {
+            return 0;
+        }
+        int handedOff = 0;
+        for (String peer : findDeadPeers()) {
+            Path peerDirectory = Path.of(auditProperties.getHandoffDirectory(), peer);
+            if (!Files.isDirectory(peerDirectory)) {
+                log.debug("no buffer of dead peer {} found at {}", peer, peerDirectory);
+                continue;
+            }
+            DerbyAsyncAuditLogger peerLogger;
+            try {
+                peerLogger = new DerbyAsyncAuditLogger(peerProperties(peer, peerDirectory), objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+            } catch (SQLException e) {
+                log.info("buffer of dead peer {} could not be opened, it is probably drained by another node", peer, e);
+                continue;
+            }
+            log.info("draining buffer of dead peer {} from {}", peer, peerDirectory);
+            try {
+                peerLogger.init();
+                drain.accept(peerLogger);
+                handedOff++;
+                if (peerLogger.isDrained()) {
+                    auditCheckpointRepository.deleteByNodeName(peer);
+                    log.info("buffer of dead peer {} is drained, deleted its checkpoints", peer);
+                }
+            } catch (SQLException e) {
+                log.error("Failed to drain buffer of dead peer {}", peer, e);
+            } finally {
+                close(peer, peerLogger);
+            }
+        }
+        return handedOff;
+    }
+
+    private Set<String> findDeadPeers() {
+        Instant cutoff = Instant.now().minus(auditProperties.getStalenessDuration());
+        Set<String> deadPeers = new TreeSet<>();
+        for (AuditCheckpoint checkpoint : auditCheckpointRepository.findByLastModifiedAtBefore(cutoff)) {
+            deadPeers.add(checkpoint.getNodeName());
+        }
+        deadPeers.remove(auditProperties.getNodeName());
+        // a node which refreshed at least one of its checkpoints recently is still alive
+        deadPeers.removeIf(peer -> auditCheckpointRepository.findByNodeName(peer).stream()
+                .anyMatch(checkpoint -> checkpoint.getLastModifiedAt() == null || !checkpoint.getLastModifiedAt().isBefore(cutoff)));
+        return deadPeers;
+    }
+
+    private AuditProperties peerProperties(String peer, Path peerDirectory) {
+        AuditProperties peerProperties = new AuditProperties();
+        peerProperties.setNodeName(peer);
+        peerProperties.setDerbyDirectory(peerDirectory.toString());
+        peerProperties.setBatchSize(auditProperties.getBatchSize());
+        peerProperties.setBatchTimeInterval(auditProperties.getBatchTimeInterval());
+        peerProperties.setDrainShards(auditProperties.getDrainShards());
+        return peerProperties;
+    }
+
+    private void close(String peer, DerbyAsyncAuditLogger peerLogger) {
+        try {
+            peerLogger.cleanup();
+        } catch (SQLException e) {
+            log.error("Failed to close buffer of dead peer {}", peer, e);
+        }
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.*;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.List;
 
 import static com.flipkart.grayskull.app.audit.DerbyAsyncAuditLogger.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,7 +25,7 @@ import static org.mockito.Mockito.*;
 
 class DerbyAsyncAuditLoggerTest {
 
-    private final AuditProperties auditProperties = new AuditProperties("memory:testdb", "test-node", 100, "1m", Duration.ZERO);
+    private final AuditProperties auditProperties = new AuditProperties("memory:testdb", "test-node", 100, "1m", Duration.ZERO, 1, null, "5m", Duration.ofMinutes(10));
     private final Connection connection = mock();
     private final ObjectMapper objectMapper = mock();
     private final MeterRegistry meterRegistry = mock();
@@ -34,12 +36,16 @@ class DerbyAsyncAuditLoggerTest {
     private final ResultSet resultSet = mock();
     private final Counter counter = mock();
 
+    private static final String SELECT_QUERY = "SELECT id, event FROM audits WHERE id > ? AND MOD(id, ?) = ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String DELETE_QUERY = "DELETE FROM audits WHERE id <= ? AND MOD(id, ?) = ?";
+
     private DerbyAsyncAuditLogger logger;
 
     @BeforeEach
     void setUp() throws SQLException {
         logger = new DerbyAsyncAuditLogger(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
         ReflectionTestUtils.setField(logger, "connection", connection);
+        ReflectionTestUtils.setField(logger, "drainConnections", new Connection[]{connection});
     }
 
     @Test
@@ -99,20 +105,22 @@ class DerbyAsyncAuditLoggerTest {
     void testCommitBatchToDb_Success() throws SQLException, JsonProcessingException {
         AuditCheckpoint checkpoint = new AuditCheckpoint("test-node");
         checkpoint.setLogId(0L);
+        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(List.of(checkpoint));
+        when(connection.createStatement()).thenReturn(statement);
+        logger.init();
 
         PreparedStatement selectStatement = mock();
         PreparedStatement deleteStatement = mock();
 
-        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(Optional.of(checkpoint));
-        when(connection.prepareStatement("SELECT id, event FROM audits WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY")).thenReturn(selectStatement);
-        when(connection.prepareStatement("DELETE FROM audits WHERE id <= ?")).thenReturn(deleteStatement);
+        when(connection.prepareStatement(SELECT_QUERY)).thenReturn(selectStatement);
+        when(connection.prepareStatement(DELETE_QUERY)).thenReturn(deleteStatement);
         when(selectStatement.getResultSet()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true).thenReturn(false);
         when(resultSet.getLong(1)).thenReturn(1L);
         when(resultSet.getString(2)).thenReturn("{\"test\":\"data\"}");
         when(objectMapper.readValue(anyString(), eq(AuditEntry.class))).thenReturn(createTestAuditEntry());
 
-        int result = logger.commitBatchToDb();
+        int result = logger.commitBatchToDb(0);
 
         assertEquals(1, result);
         verify(auditEntryRepository).saveAll(anyList());
@@ -123,24 +131,119 @@ class DerbyAsyncAuditLoggerTest {
     void testCommitBatchToDb_NoEntries() throws SQLException, JsonProcessingException {
         AuditCheckpoint checkpoint = new AuditCheckpoint("test-node");
         checkpoint.setLogId(0L);
+        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(List.of(checkpoint));
+        when(connection.createStatement()).thenReturn(statement);
+        logger.init();
 
         PreparedStatement selectStatement = mock();
 
-        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(Optional.of(checkpoint));
-        when(connection.prepareStatement("SELECT id, event FROM audits WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY")).thenReturn(selectStatement);
+        when(connection.prepareStatement(SELECT_QUERY)).thenReturn(selectStatement);
         when(selectStatement.getResultSet()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(false);
 
-        int result = logger.commitBatchToDb();
+        int result = logger.commitBatchToDb(0);
 
         assertEquals(0, result);
         verify(auditEntryRepository, never()).saveAll(anyList());
-        verify(connection, never()).prepareStatement("DELETE FROM audits WHERE id <= ?");
+        verify(connection, never()).prepareStatement(DELETE_QUERY);
+    }
+
+    @Test
+    void testInit_CheckpointsOfDifferentShardCount_ReshardsFromLowestCheckpoint() throws SQLException, JsonProcessingException {
+        AuditCheckpoint first = new AuditCheckpoint("test-node", 0, 2, 10);
+        AuditCheckpoint second = new AuditCheckpoint("test-node", 1, 2, 7);
+        PreparedStatement selectStatement = mock();
+        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(List.of(first, second));
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(SELECT_QUERY)).thenReturn(selectStatement);
+        when(selectStatement.getResultSet()).thenReturn(resultSet);
+
+        logger.init();
+        logger.commitBatchToDb(0);
+
+        verify(auditCheckpointRepository).deleteByNodeName("test-node");
+        verify(selectStatement).setLong(1, 7L);
+        verify(selectStatement).setInt(2, 1);
+    }
+
+    @Test
+    void testHeartbeat_SavesOnlyCheckpointsOlderThanHalfTheStalenessDuration() throws SQLException {
+        auditProperties.setStalenessDuration(Duration.ofMinutes(10));
+        AuditCheckpoint checkpoint = new AuditCheckpoint("test-node");
+        checkpoint.setLastModifiedAt(Instant.now().minus(Duration.ofMinutes(2)));
+        when(auditCheckpointRepository.findByNodeName("test-node")).thenReturn(List.of(checkpoint));
+        when(connection.createStatement()).thenReturn(statement);
+        logger.init();
+
+        logger.heartbeat();
+        verify(auditCheckpointRepository, never()).save(any());
+
+        checkpoint.setLastModifiedAt(Instant.now().minus(Duration.ofMinutes(6)));
+        logger.heartbeat();
+        verify(auditCheckpointRepository).save(checkpoint);
+    }
+
+    @Test
+    void testCommitBatchToDb_ShardsDrainDisjointRows() throws SQLException, JsonProcessingException {
+        AuditProperties shardedProperties = new AuditProperties("memory:shardeddb", "sharded-node", 2, "1m", Duration.ZERO, 2, null, "5m", Duration.ofMinutes(10));
+        List<AuditEntry> saved = new ArrayList<>();
+        when(auditEntryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return List.of();
+        });
+        DerbyAsyncAuditLogger shardedLogger = new DerbyAsyncAuditLogger(shardedProperties, new ObjectMapper(), meterRegistry, auditEntryRepository, auditCheckpointRepository);
+        shardedLogger.init();
+        for (int i = 1; i <= 5; i++) {
+            shardedLogger.log(AuditEntry.builder().resourceName("secret" + i).metadata(new HashMap<>()).timestamp(null).build());
+        }
+
+        // shard 0 owns the even ids, shard 1 the odd ids
+        assertFalse(shardedLogger.isDrained());
+        assertEquals(2, shardedLogger.commitBatchToDb(0));
+        assertEquals(0, shardedLogger.commitBatchToDb(0));
+        assertEquals(2, shardedLogger.commitBatchToDb(1));
+        assertEquals(1, shardedLogger.commitBatchToDb(1));
+        assertEquals(0, shardedLogger.commitBatchToDb(1));
+        assertTrue(shardedLogger.isDrained());
+        shardedLogger.cleanup();
+
+        assertEquals(List.of("secret2", "secret4", "secret1", "secret3", "secret5"), saved.stream().map(AuditEntry::getResourceName).toList());
+        assertEquals("sharded-node.2.null", saved.get(0).getMetadata().get("logId"));
+    }
+
+    @Test
+    void testRetryWhileLocked_RetriesUntilThePeerReleasesTheBuffer() throws SQLException {
+        SQLException locked = new SQLException("Failed to start database", "XJ040", new SQLException("Another instance of Derby may have already booted the database", DATABASE_LOCKED));
+        int[] attempts = {0};
+
+        String opened = retryWhileLocked(() -> {
+            if (++attempts[0] < 3) {
+                throw locked;
+            }
+            return "buffer";
+        }, Duration.ofMinutes(1), Duration.ZERO);
+
+        assertEquals("buffer", opened);
+        assertEquals(3, attempts[0]);
+    }
+
+    @Test
+    void testRetryWhileLocked_GivesUpAfterTheTimeoutAndOnOtherErrors() {
+        SQLException locked = new SQLException("Failed to start database", "XJ040", new SQLException("Another instance of Derby may have already booted the database", DATABASE_LOCKED));
+        SQLException corrupt = new SQLException("Failed to start database", "XJ040");
+
+        assertSame(locked, assertThrows(SQLException.class, () -> retryWhileLocked(() -> { throw locked; }, Duration.ofMillis(50), Duration.ofMillis(10))));
+        int[] attempts = {0};
+        assertSame(corrupt, assertThrows(SQLException.class, () -> retryWhileLocked(() -> {
+            attempts[0]++;
+            throw corrupt;
+        }, Duration.ofMinutes(1), Duration.ZERO)));
+        assertEquals(1, attempts[0]);
     }
 
     private AuditEntry createTestAuditEntry() {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("test", "value");
-        return new AuditEntry(null, "project1", "SECRET", "secret1", 1, "READ", "user1", null, Map.of("ip", "ip1"), null, metadata);
+        return new AuditEntry(null, "project1", "SECRET", "secret1", 1, "READ", "user1", null, Map.of("ip", "ip1"), null, metadata, null);
     }
 }
\ No newline at end of file
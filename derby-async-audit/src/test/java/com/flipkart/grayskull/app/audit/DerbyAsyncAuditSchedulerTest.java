@@ -3,34 +3,56 @@ package com.flipkart.grayskull.app.audit;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.SQLException;
+import java.util.function.Consumer;
 
 import static com.flipkart.grayskull.app.audit.DerbyAsyncAuditLogger.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class DerbyAsyncAuditSchedulerTest {
 
     private final DerbyAsyncAuditLogger derbyAsyncAuditLogger = mock(DerbyAsyncAuditLogger.class);
+    private final DerbyAuditHandoff derbyAuditHandoff = mock(DerbyAuditHandoff.class);
     private final MeterRegistry meterRegistry = mock(MeterRegistry.class);
     private final Counter counter = mock(Counter.class);
 
-    private final DerbyAsyncAuditScheduler scheduler = new DerbyAsyncAuditScheduler(derbyAsyncAuditLogger, meterRegistry);
+    private final DerbyAsyncAuditScheduler scheduler = new DerbyAsyncAuditScheduler(derbyAsyncAuditLogger, derbyAuditHandoff, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(derbyAsyncAuditLogger.getShardCount()).thenReturn(1);
+    }
 
     @Test
     void testRun_Success() throws SQLException, JsonProcessingException {
-        when(derbyAsyncAuditLogger.commitBatchToDb()).thenReturn(5).thenReturn(3).thenReturn(0);
+        when(derbyAsyncAuditLogger.commitBatchToDb(0)).thenReturn(5).thenReturn(3).thenReturn(0);
 
         scheduler.run();
 
-        verify(derbyAsyncAuditLogger, times(3)).commitBatchToDb();
+        verify(derbyAsyncAuditLogger, times(3)).commitBatchToDb(0);
+        verify(derbyAsyncAuditLogger).heartbeat();
+    }
+
+    @Test
+    void testRun_DrainsEveryShard() throws SQLException, JsonProcessingException {
+        when(derbyAsyncAuditLogger.getShardCount()).thenReturn(3);
+        when(derbyAsyncAuditLogger.commitBatchToDb(anyInt())).thenReturn(2).thenReturn(0);
+
+        scheduler.run();
+
+        verify(derbyAsyncAuditLogger, atLeastOnce()).commitBatchToDb(0);
+        verify(derbyAsyncAuditLogger, atLeastOnce()).commitBatchToDb(1);
+        verify(derbyAsyncAuditLogger, atLeastOnce()).commitBatchToDb(2);
     }
 
     @Test
     void testRun_JsonProcessingException() throws SQLException, JsonProcessingException {
         JsonProcessingException exception = new JsonProcessingException("JSON error") {};
-        when(derbyAsyncAuditLogger.commitBatchToDb()).thenThrow(exception);
+        when(derbyAsyncAuditLogger.commitBatchToDb(0)).thenThrow(exception);
         when(meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "deserialize", EXCEPTION_TAG, "JsonProcessingException")).thenReturn(counter);
 
         scheduler.run();
@@ -41,7 +63,7 @@ class DerbyAsyncAuditSchedulerTest {
     @Test
     void testRun_SQLException() throws SQLException, JsonProcessingException {
         SQLException exception = new SQLException("DB error");
-        when(derbyAsyncAuditLogger.commitBatchToDb()).thenThrow(exception);
+        when(derbyAsyncAuditLogger.commitBatchToDb(0)).thenThrow(exception);
         when(meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "fetch-logs", EXCEPTION_TAG, "SQLException")).thenReturn(counter);
 
         scheduler.run();
@@ -51,10 +73,26 @@ class DerbyAsyncAuditSchedulerTest {
 
     @Test
     void testRun_NoEntries() throws SQLException, JsonProcessingException {
-        when(derbyAsyncAuditLogger.commitBatchToDb()).thenReturn(0);
+        when(derbyAsyncAuditLogger.commitBatchToDb(0)).thenReturn(0);
 
         scheduler.run();
 
-        verify(derbyAsyncAuditLogger, times(1)).commitBatchToDb();
+        verify(derbyAsyncAuditLogger, times(1)).commitBatchToDb(0);
+    }
+
+    @Test
+    void testHandOff_DrainsHandedOffBuffers() throws SQLException, JsonProcessingException {
+        DerbyAsyncAuditLogger peerLogger = mock(DerbyAsyncAuditLogger.class);
+        when(peerLogger.getShardCount()).thenReturn(1);
+        when(peerLogger.commitBatchToDb(0)).thenReturn(4).thenReturn(0);
+        when(derbyAuditHandoff.handOffDeadPeers(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<DerbyAsyncAuditLogger>>getArgument(0).accept(peerLogger);
+            return 1;
+        });
+
+        scheduler.handOff();
+
+        verify(peerLogger, times(2)).commitBatchToDb(0);
+        verify(derbyAsyncAuditLogger, never()).commitBatchToDb(anyInt());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.flipkart.grayskull.app.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DerbyAuditHandoffTest {
+
+    private final AuditEntryRepository auditEntryRepository = mock();
+    private final AuditCheckpointRepository auditCheckpointRepository = mock();
+    private final MeterRegistry meterRegistry = mock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditProperties auditProperties = new AuditProperties();
+
+    @TempDir
+    Path handoffDirectory;
+
+    private DerbyAuditHandoff derbyAuditHandoff;
+
+    @BeforeEach
+    void setUp() {
+        auditProperties.setNodeName("node-a");
+        auditProperties.setDerbyDirectory(handoffDirectory.resolve("node-a").toString());
+        auditProperties.setBatchSize(10);
+        auditProperties.setStalenessDuration(Duration.ofHours(1));
+        auditProperties.setHandoffDirectory(handoffDirectory.toString());
+        derbyAuditHandoff = new DerbyAuditHandoff(auditProperties, objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+    }
+
+    @Test
+    void handOffDeadPeers_WhenHandoffDirectoryIsNotSet_ShouldDoNothing() {
+        auditProperties.setHandoffDirectory(null);
+
+        assertEquals(0, derbyAuditHandoff.handOffDeadPeers(logger -> fail("nothing to drain")));
+        verifyNoInteractions(auditCheckpointRepository);
+    }
+
+    @Test
+    void handOffDeadPeers_WhenPeerIsAlive_ShouldNotDrainIt() {
+        AuditCheckpoint staleShard = checkpoint("node-b", 0, Duration.ofHours(2));
+        AuditCheckpoint freshShard = checkpoint("node-b", 1, Duration.ofMinutes(1));
+        when(auditCheckpointRepository.findByLastModifiedAtBefore(any())).thenReturn(List.of(staleShard, checkpoint("node-a", 0, Duration.ofHours(2))));
+        when(auditCheckpointRepository.findByNodeName("node-b")).thenReturn(List.of(staleShard, freshShard));
+
+        assertEquals(0, derbyAuditHandoff.handOffDeadPeers(logger -> fail("node-b is alive and node-a is this node")));
+    }
+
+    @Test
+    void handOffDeadPeers_WhenPeerIsDead_ShouldDrainItsBufferWithItsName() throws SQLException {
+        Path peerDirectory = handoffDirectory.resolve("node-b");
+        writePeerBuffer(peerDirectory, "secret1", "secret2", "secret3");
+        AuditCheckpoint deadShard = checkpoint("node-b", 0, Duration.ofHours(2));
+        when(auditCheckpointRepository.findByLastModifiedAtBefore(any())).thenReturn(List.of(deadShard));
+        when(auditCheckpointRepository.findByNodeName("node-b")).thenReturn(List.of(deadShard));
+        List<AuditEntry> saved = new ArrayList<>();
+        when(auditEntryRepository.saveAll(any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return List.of();
+        });
+
+        int handedOff = derbyAuditHandoff.handOffDeadPeers(logger -> {
+            try {
+                while (logger.commitBatchToDb(0) != 0) {
+                    // drain until empty
+                }
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+
+        assertEquals(1, handedOff);
+        assertEquals(List.of("secret1", "secret2", "secret3"), saved.stream().map(AuditEntry::getResourceName).toList());
+        assertTrue(saved.get(0).getMetadata().get("logId").startsWith("node-b."));
+        assertEquals(3, deadShard.getLogId());
+        verify(auditCheckpointRepository).deleteByNodeName("node-b");
+        // the buffer is released again so that the owner can boot it when it comes back
+        DerbyAsyncAuditLogger owner = new DerbyAsyncAuditLogger(properties("node-b", peerDirectory), objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+        owner.cleanup();
+    }
+
+    @Test
+    void handOffDeadPeers_WhenBufferIsNotFullyDrained_ShouldKeepThePeerCheckpoints() throws SQLException {
+        writePeerBuffer(handoffDirectory.resolve("node-b"), "secret1");
+        AuditCheckpoint deadShard = checkpoint("node-b", 0, Duration.ofHours(2));
+        when(auditCheckpointRepository.findByLastModifiedAtBefore(any())).thenReturn(List.of(deadShard));
+        when(auditCheckpointRepository.findByNodeName("node-b")).thenReturn(List.of(deadShard));
+
+        // a drain which fails to persist anything leaves the entries in the buffer
+        assertEquals(1, derbyAuditHandoff.handOffDeadPeers(logger -> { }));
+
+        verify(auditCheckpointRepository, never()).deleteByNodeName(any());
+    }
+
+    private void writePeerBuffer(Path peerDirectory, String... secrets) throws SQLException {
+        DerbyAsyncAuditLogger peer = new DerbyAsyncAuditLogger(properties("node-b", peerDirectory), objectMapper, meterRegistry, auditEntryRepository, auditCheckpointRepository);
+        peer.init();
+        for (String secret : secrets) {
+            peer.log(AuditEntry.builder().resourceName(secret).metadata(new HashMap<>()).timestamp(null).build());
+        }
+        peer.cleanup();
+    }
+
+    private AuditProperties properties(String nodeName, Path derbyDirectory) {
+        AuditProperties properties = new AuditProperties();
+        properties.setNodeName(nodeName);
+        properties.setDerbyDirectory(derbyDirectory.toString());
+        properties.setBatchSize(2);
+        return properties;
+    }
+
+    private static AuditCheckpoint checkpoint(String nodeName, int shard, Duration age) {
+        AuditCheckpoint checkpoint = new AuditCheckpoint(nodeName, shard, 1, 0);
+        checkpoint.setLastModifiedAt(Instant.now().minus(age));
+        return checkpoint;
+    }
+}
@@ -32,7 +32,8 @@ public enum AuditAction {
     DESTROY_SECRET,
 
     /**
-     * Represents a secret value read via the batch endpoint.
+     * Represents secret values read via the batch endpoint. Recorded once per request, with every secret
+     * returned listed in the entry's resources.
      */
     BATCH_GET_SECRETS,
 }
@@ -2,7 +2,6 @@ package com.flipkart.grayskull.audit;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import com.flipkart.grayskull.entities.AuditEntryEntity;
 import com.flipkart.grayskull.models.dto.response.SecretResponse;
 import com.flipkart.grayskull.models.dto.response.UpgradeSecretDataResponse;
@@ -13,8 +12,6 @@ import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -75,7 +72,8 @@ public class AuditAspect {
             String resourceName = extractResourceName(result, arguments);
             Integer resourceVersion = extractResourceVersion(audit.action(), result);
 
-            Map<String, String> metadata = new HashMap<>(requestUtils.getAdditionalMetadata());
+            AuditContext auditContext = requestUtils.getAuditContext();
+            Map<String, String> metadata = new HashMap<>(auditContext.metadata());
             metadata.putAll(buildMetadata(arguments, result));
 
             AuditEntryEntity entry = AuditEntryEntity.builder()
@@ -84,9 +82,9 @@ public class AuditAspect {
                     .resourceName(resourceName)
                     .resourceVersion(resourceVersion)
                     .action(audit.action().name())
-                    .userId(getUserId())
-                    .actorId(getActorId())
-                    .ips(requestUtils.getRemoteIPs())
+                    .userId(auditContext.userId())
+                    .actorId(auditContext.actorId())
+                    .ips(auditContext.ips())
                     .metadata(metadata)
                     .build();
 
@@ -96,30 +94,6 @@ public class AuditAspect {
         }
     }
 
-    /**
-     * Retrieves the current user's ID from the Spring Security context.
-     * Falls back to a default system user if the security context is not available.
-     *
-     * @return The ID of the authenticated user or a default system identifier.
-     */
-    private String getUserId() {
-        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
-                .map(Authentication::getName)
-                .orElse(DEFAULT_USER);
-    }
-
-    /**
-     * Retrieves the ID of the user who delegated the request if this was a delegated request.
-     * Otherwise, returns null.
-     * @return The ID of the user who delegated the request or null.
-     */
-    private String getActorId() {
-        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
-                .map(GrayskullAuthentication.class::cast)
-                .map(GrayskullAuthentication::getActor)
-                .orElse(null);
-    }
-
     /**
      * Builds a metadata map containing all relevant information about the audited
      * event.
@@ -22,6 +22,11 @@ public class AuditConstants {
      * Default value when a parameter is not found or is null.
      */
     public static final String UNKNOWN_VALUE = "UNKNOWN";
+
+    /**
+     * Value used for a single-valued field of an aggregated audit entry when its resources differ in that field.
+     */
+    public static final String MULTIPLE_VALUE = "MULTIPLE";
     
     /**
      * Default user identifier for system operations.
@@ -0,0 +1,31 @@
+package com.flipkart.grayskull.audit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request level details that are recorded with every audit entry produced while serving a request.
+ * <p>
+ * It is computed once per request by {@link AuditContextFilter} after authentication and stored as a request
+ * attribute, so that every audit producer (read APIs, batch reads and {@link AuditAspect}) reuses the same
+ * instance instead of invoking the {@link com.flipkart.grayskull.spi.AuditMetadataEnhancer}s and rebuilding the
+ * remote IP map again. It is immutable and therefore safe to share across audit entries and threads.
+ *
+ * @param userId   the authenticated user, or {@link AuditConstants#DEFAULT_USER} if the request is not authenticated
+ * @param actorId  the user who delegated the request, or {@code null} if it was not a delegated request
+ * @param ips      the remote address and forwarded headers of the client
+ * @param metadata the additional metadata returned by the audit metadata enhancers
+ */
+public record AuditContext(String userId, String actorId, Map<String, String> ips, Map<String, String> metadata) {
+
+    /**
+     * Name of the request attribute holding the {@link AuditContext} of the current request.
+     */
+    public static final String REQUEST_ATTRIBUTE = AuditContext.class.getName();
+
+    public AuditContext {
+        ips = Collections.unmodifiableMap(new HashMap<>(ips));
+        metadata = Collections.unmodifiableMap(new HashMap<>(metadata));
+    }
+}
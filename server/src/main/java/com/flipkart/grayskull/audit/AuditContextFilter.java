@@ -0,0 +1,32 @@
+package com.flipkart.grayskull.audit;
+
+import com.flipkart.grayskull.audit.utils.RequestUtils;
+import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Computes the {@link AuditContext} of an authenticated request once, right after authentication, and stores it as
+ * a request attribute for all audit producers of the request.
+ */
+@AllArgsConstructor
+public class AuditContextFilter extends OncePerRequestFilter {
+
+    private final List<AuditMetadataEnhancer> auditMetadataEnhancers;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            RequestUtils.getAuditContext(request, auditMetadataEnhancers);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,7 +1,12 @@
 package com.flipkart.grayskull.audit.utils;
 
+import com.flipkart.grayskull.audit.AuditConstants;
+import com.flipkart.grayskull.audit.AuditContext;
+import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
@@ -15,7 +20,46 @@ public class RequestUtils {
     private final HttpServletRequest request;
     private final List<AuditMetadataEnhancer> auditMetadataEnhancers;
 
+    /**
+     * Returns the {@link AuditContext} of the current request.
+     *
+     * @see #getAuditContext(HttpServletRequest, List)
+     */
+    public AuditContext getAuditContext() {
+        return getAuditContext(request, auditMetadataEnhancers);
+    }
+
     public Map<String, String> getRemoteIPs() {
+        return getAuditContext().ips();
+    }
+
+    public Map<String, String> getAdditionalMetadata() {
+        return getAuditContext().metadata();
+    }
+
+    /**
+     * Returns the {@link AuditContext} stored on the request, computing and storing it first if this is the first
+     * call for the request.
+     *
+     * @param request                the request being served
+     * @param auditMetadataEnhancers enhancers contributing additional audit metadata
+     * @return the audit context of the request
+     */
+    public static AuditContext getAuditContext(HttpServletRequest request, List<AuditMetadataEnhancer> auditMetadataEnhancers) {
+        if (request.getAttribute(AuditContext.REQUEST_ATTRIBUTE) instanceof AuditContext auditContext) {
+            return auditContext;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuditContext auditContext = new AuditContext(
+                authentication == null ? AuditConstants.DEFAULT_USER : authentication.getName(),
+                authentication instanceof GrayskullAuthentication grayskullAuthentication ? grayskullAuthentication.getActor() : null,
+                remoteIPs(request),
+                additionalMetadata(request, auditMetadataEnhancers));
+        request.setAttribute(AuditContext.REQUEST_ATTRIBUTE, auditContext);
+        return auditContext;
+    }
+
+    private static Map<String, String> remoteIPs(HttpServletRequest request) {
         Map<String, String> ips = new HashMap<>();
         ips.put("Remote-Conn-Addr", request.getRemoteAddr());
         addIfNotNull(ips, "X-Forwarded-For", request.getHeader("X-Forwarded-For"));
@@ -30,7 +74,7 @@ public class RequestUtils {
         }
     }
 
-    public Map<String, String> getAdditionalMetadata() {
+    private static Map<String, String> additionalMetadata(HttpServletRequest request, List<AuditMetadataEnhancer> auditMetadataEnhancers) {
         Map<String, String> metadata = new HashMap<>();
         auditMetadataEnhancers.stream()
                 .map(enhancer -> enhancer.getAdditionalMetadata(request))
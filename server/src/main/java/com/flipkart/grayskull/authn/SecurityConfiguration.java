@@ -1,5 +1,7 @@
 package com.flipkart.grayskull.authn;
 
+import com.flipkart.grayskull.audit.AuditContextFilter;
+import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
 import com.flipkart.grayskull.spi.GrayskullAuthenticationProvider;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
@@ -10,12 +12,14 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.List;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfiguration {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, GrayskullAuthenticationProvider authenticationProvider) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, GrayskullAuthenticationProvider authenticationProvider, List<AuditMetadataEnhancer> auditMetadataEnhancers) throws Exception {
 
         http
                 .sessionManagement(session -> session
@@ -31,6 +35,7 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable);
 
         http.apply(new AuthenticationFilterSecurityConfigurer(authenticationProvider));
+        http.addFilterAfter(new AuditContextFilter(auditMetadataEnhancers), AuthenticationFilter.class);
 
         return http.build();
     }
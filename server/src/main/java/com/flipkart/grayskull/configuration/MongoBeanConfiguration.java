@@ -7,19 +7,21 @@ import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.flipkart.grayskull.spimpl.repositories.ProjectRepositoryImpl;
 import com.mongodb.ReadPreference;
 import com.mongodb.TransactionOptions;
 
 /**
- * MongoDB configuration class that enables repository scanning, auditing, and
- * transaction management.
+ * MongoDB configuration class that enables repository scanning, auditing,
+ * transaction management and scheduling (used to expire time-bucketed audit collections).
  * Only loads when {@link MongoDatabaseFactory} is present on the classpath.
  * Configures repository scanning starting from ProjectRepositoryImpl package.
  */
 @EnableMongoRepositories(basePackageClasses = ProjectRepositoryImpl.class)
 @EnableMongoAuditing
+@EnableScheduling
 @ConditionalOnClass(MongoDatabaseFactory.class)
 @Configuration
 public class MongoBeanConfiguration {
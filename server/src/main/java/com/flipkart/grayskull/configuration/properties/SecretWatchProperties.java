@@ -0,0 +1,34 @@
+package com.flipkart.grayskull.configuration.properties;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the secret watch endpoint ({@code POST /v1/secrets/watch}).
+ * <p>
+ * Example configuration:
+ * <pre>
+ * grayskull:
+ *   secrets:
+ *     watch:
+ *       max-timeout: 30s
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "grayskull.secrets.watch")
+@Validated
+public class SecretWatchProperties {
+
+    /**
+     * Longest time a watch request is held open waiting for a change. Callers may ask for a shorter timeout; longer
+     * ones are capped to this value. Keep it below the read timeout of clients and of any proxy in front of the server.
+     */
+    @NotNull
+    private Duration maxTimeout = Duration.ofSeconds(30);
+}
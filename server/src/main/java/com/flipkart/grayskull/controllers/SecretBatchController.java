@@ -2,23 +2,30 @@ package com.flipkart.grayskull.controllers;
 
 import com.flipkart.grayskull.audit.AuditAction;
 import com.flipkart.grayskull.audit.AuditConstants;
+import com.flipkart.grayskull.audit.AuditContext;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
+import com.flipkart.grayskull.configuration.properties.SecretWatchProperties;
 import com.flipkart.grayskull.models.dto.request.BatchGetSecretsRequest;
+import com.flipkart.grayskull.models.dto.request.SecretVersionEntry;
 import com.flipkart.grayskull.models.dto.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.dto.response.BatchSecretItem;
 import com.flipkart.grayskull.models.dto.response.ResponseTemplate;
+import com.flipkart.grayskull.models.dto.response.SecretVersionsResponse;
 import com.flipkart.grayskull.service.interfaces.SecretService;
+import com.flipkart.grayskull.service.utils.SecretChangeNotifier;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spi.models.AuditResource;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.util.*;
 
 @RestController
@@ -27,9 +34,13 @@ import java.util.*;
 @Validated
 public class SecretBatchController {
 
+    private static final String PUBLIC_PART_METADATA_KEY = "publicPart";
+
     private final SecretService secretService;
     private final AsyncAuditLogger asyncAuditLogger;
     private final RequestUtils requestUtils;
+    private final SecretChangeNotifier secretChangeNotifier;
+    private final SecretWatchProperties secretWatchProperties;
 
     @Operation(summary = "Returns current values for secrets whose versions have changed since the caller's last known versions.")
     @PostMapping("/batch")
@@ -40,38 +51,118 @@ public class SecretBatchController {
         BatchGetSecretsResponse response = secretService.batchGetSecrets(request.getSecrets());
 
         if (!response.getUpdatedSecrets().isEmpty()) {
-            logAudit(response);
+            logAudit(response, requestUtils.getAuditContext());
         }
 
         return ResponseTemplate.success(response, "Success");
     }
 
-    private void logAudit(BatchGetSecretsResponse response) {
-        GrayskullAuthentication authentication =
-                (GrayskullAuthentication) SecurityContextHolder.getContext().getAuthentication();
+    @Operation(summary = "Returns the current data version of each listed secret, without any secret values. Lets callers detect changes cheaply and fetch values only for the secrets that moved.")
+    @PostMapping("/versions")
+    @PreAuthorize("@grayskullSecurity.hasPermissionForSecrets(#request.secrets, 'secrets.read.metadata')")
+    public ResponseTemplate<SecretVersionsResponse> getSecretVersions(
+            @Valid @RequestBody BatchGetSecretsRequest request) {
+        return ResponseTemplate.success(secretService.getSecretVersions(request.getSecrets()), "Success");
+    }
+
+    /**
+     * Long-poll variant of {@link #batchGetSecrets}. If any listed secret is already newer than the caller's last known
+     * version the response is immediate; otherwise the request is parked, without holding a servlet thread, until
+     * {@link SecretChangeNotifier} reports a change to one of the secrets or the timeout elapses. A timeout answers with
+     * an empty update list, after which the caller simply watches again.
+     */
+    @Operation(summary = "Waits until any of the listed secrets has a version newer than the caller's last known version, then returns the updated secrets. Returns an empty list if nothing changes before the timeout.")
+    @PostMapping("/watch")
+    @PreAuthorize("@grayskullSecurity.hasPermissionForSecrets(#request.secrets, 'secrets.read.value')")
+    public DeferredResult<ResponseTemplate<BatchGetSecretsResponse>> watchSecrets(
+            @Valid @RequestBody BatchGetSecretsRequest request,
+            @RequestParam(required = false) @Min(1) Integer timeoutSeconds) {
 
-        Map<String, String> enhancerMetadata = requestUtils.getAdditionalMetadata();
-        String userId = authentication.getName();
-        String actorId = authentication.getActor();
-        Map<String, String> ips = requestUtils.getRemoteIPs();
+        // The audit context lives on the servlet request, so resolve it now rather than on the notifier thread.
+        AuditContext auditContext = requestUtils.getAuditContext();
+        List<SecretVersionEntry> secrets = request.getSecrets();
+        DeferredResult<ResponseTemplate<BatchGetSecretsResponse>> result = new DeferredResult<>(
+                watchTimeout(timeoutSeconds).toMillis(),
+                () -> ResponseTemplate.success(new BatchGetSecretsResponse(0, List.of()), "Success"));
 
-        for (BatchSecretItem secret : response.getUpdatedSecrets()) {
-            Map<String, String> metadata = new HashMap<>(enhancerMetadata);
-            metadata.put("publicPart", secret.getPublicPart());
+        // Subscribe before the first read so a change committed in between still wakes this request.
+        SecretChangeNotifier.Subscription subscription = secretChangeNotifier.subscribe(secrets, () -> {
+            try {
+                completeIfChanged(secrets, result, auditContext);
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onCompletion(subscription::cancel);
 
-            AuditEntry auditEntry = AuditEntry.builder()
+        try {
+            completeIfChanged(secrets, result, auditContext);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            throw e;
+        }
+        return result;
+    }
+
+    Duration watchTimeout(Integer timeoutSeconds) {
+        Duration maxTimeout = secretWatchProperties.getMaxTimeout();
+        if (timeoutSeconds == null) {
+            return maxTimeout;
+        }
+        Duration requested = Duration.ofSeconds(timeoutSeconds);
+        return requested.compareTo(maxTimeout) < 0 ? requested : maxTimeout;
+    }
+
+    /**
+     * Answers the watch with the updated secrets, if any. Concurrent notifications may race here; only the one that
+     * sets the result logs the audit entry.
+     */
+    private void completeIfChanged(List<SecretVersionEntry> secrets,
+            DeferredResult<ResponseTemplate<BatchGetSecretsResponse>> result, AuditContext auditContext) {
+        if (result.isSetOrExpired()) {
+            return;
+        }
+        BatchGetSecretsResponse response = secretService.batchGetSecrets(secrets);
+        if (!response.getUpdatedSecrets().isEmpty() && result.setResult(ResponseTemplate.success(response, "Success"))) {
+            logAudit(response, auditContext);
+        }
+    }
+
+    /**
+     * Records a single aggregated audit entry for all secrets returned by one batch or watch request. The individual
+     * (projectId, secretName, dataVersion) tuples are kept in {@link AuditEntry#getResources()}.
+     * When all secrets belong to the same project (the common case of a service polling its own secrets) the
+     * project is also set on the entry itself.
+     */
+    private void logAudit(BatchGetSecretsResponse response, AuditContext auditContext) {
+        List<BatchSecretItem> updatedSecrets = response.getUpdatedSecrets();
+        List<AuditResource> resources = new ArrayList<>(updatedSecrets.size());
+        Set<String> projectIds = new HashSet<>();
+        for (BatchSecretItem secret : updatedSecrets) {
+            projectIds.add(secret.getProjectId());
+            resources.add(AuditResource.builder()
                     .projectId(secret.getProjectId())
-                    .resourceType(AuditConstants.RESOURCE_TYPE_SECRET)
                     .resourceName(secret.getSecretName())
                     .resourceVersion(secret.getDataVersion())
-                    .action(AuditAction.BATCH_GET_SECRETS.name())
-                    .userId(userId)
-                    .actorId(actorId)
-                    .ips(ips)
-                    .metadata(metadata)
-                    .build();
-
-            asyncAuditLogger.log(auditEntry);
+                    .metadata(secret.getPublicPart() == null ? null : Map.of(PUBLIC_PART_METADATA_KEY, secret.getPublicPart()))
+                    .build());
         }
+        BatchSecretItem first = updatedSecrets.get(0);
+        boolean single = updatedSecrets.size() == 1;
+
+        AuditEntry auditEntry = AuditEntry.builder()
+                .projectId(projectIds.size() == 1 ? first.getProjectId() : AuditConstants.MULTIPLE_VALUE)
+                .resourceType(AuditConstants.RESOURCE_TYPE_SECRET)
+                .resourceName(single ? first.getSecretName() : AuditConstants.MULTIPLE_VALUE)
+                .resourceVersion(single ? first.getDataVersion() : null)
+                .resources(resources)
+                .action(AuditAction.BATCH_GET_SECRETS.name())
+                .userId(auditContext.userId())
+                .actorId(auditContext.actorId())
+                .ips(auditContext.ips())
+                .metadata(auditContext.metadata())
+                .build();
+
+        asyncAuditLogger.log(auditEntry);
     }
 }
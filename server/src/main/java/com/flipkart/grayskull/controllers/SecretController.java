@@ -2,19 +2,17 @@ package com.flipkart.grayskull.controllers;
 
 import com.flipkart.grayskull.audit.AuditAction;
 import com.flipkart.grayskull.audit.AuditConstants;
-import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
 import com.flipkart.grayskull.models.dto.request.CreateSecretRequest;
 import com.flipkart.grayskull.models.dto.request.UpgradeSecretDataRequest;
 import com.flipkart.grayskull.models.dto.response.*;
 import com.flipkart.grayskull.spi.MetadataValidator;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
+import com.flipkart.grayskull.audit.AuditContext;
 import com.flipkart.grayskull.spi.models.AuditEntry;
 import com.flipkart.grayskull.spi.models.enums.LifecycleState;
 import com.flipkart.grayskull.service.interfaces.SecretService;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -22,7 +20,6 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -38,7 +35,6 @@ public class SecretController {
     private final AsyncAuditLogger asyncAuditLogger;
     private final RequestUtils requestUtils;
     private final List<MetadataValidator> metadataValidators;
-    private final List<AuditMetadataEnhancer> auditMetadataEnhancers;
 
     @Operation(summary = "Lists secrets for a given project with pagination. Always returns the latest version of the secret.")
     @GetMapping
@@ -77,29 +73,9 @@ public class SecretController {
     @PreAuthorize("@grayskullSecurity.hasPermission(#projectId, #secretName, 'secrets.read.value')")
     public ResponseTemplate<SecretDataResponse> readSecretValue(
             @PathVariable("projectId") @NotBlank @Size(max = 255) String projectId,
-            @PathVariable("secretName") @NotBlank @Size(max = 255) String secretName,
-            HttpServletRequest request) {
+            @PathVariable("secretName") @NotBlank @Size(max = 255) String secretName) {
         SecretDataResponse response = secretService.readSecretValue(projectId, secretName);
-        Map<String, String> auditMetadata = new HashMap<>();
-        auditMetadataEnhancers.stream()
-                .map(enhancer -> enhancer.getAdditionalMetadata(request))
-                .filter(Objects::nonNull)
-                .forEach(auditMetadata::putAll);
-        auditMetadata.put("publicPart", response.getPublicPart());
-        GrayskullAuthentication authentication = (GrayskullAuthentication) SecurityContextHolder.getContext().getAuthentication();
-        String actorName = authentication.getActor();
-        String userId = authentication.getName();
-        AuditEntry auditEntry = AuditEntry.builder()
-                .projectId(projectId)
-                .resourceType(AuditConstants.RESOURCE_TYPE_SECRET)
-                .resourceName(secretName)
-                .resourceVersion(response.getDataVersion())
-                .action(AuditAction.READ_SECRET.name())
-                .userId(userId)
-                .actorId(actorName)
-                .ips(requestUtils.getRemoteIPs())
-                .metadata(auditMetadata).build();
-        asyncAuditLogger.log(auditEntry);
+        logReadAudit(projectId, secretName, response.getDataVersion(), response.getPublicPart(), AuditAction.READ_SECRET);
         return ResponseTemplate.success(response, "Successfully read secret value.");
     }
 
@@ -136,29 +112,29 @@ public class SecretController {
             @PathVariable("projectId") @NotBlank @Size(max = 255) String projectId,
             @PathVariable("secretName") @NotBlank @Size(max = 255) String secretName,
             @PathVariable("version") @Min(1) int version,
-            @RequestParam(name = "state", required = false) Optional<LifecycleState> state,
-            HttpServletRequest request) {
+            @RequestParam(name = "state", required = false) Optional<LifecycleState> state) {
         SecretDataVersionResponse response = secretService.getSecretDataVersion(projectId, secretName, version, state);
-        Map<String, String> auditMetadata = new HashMap<>();
-        auditMetadataEnhancers.stream()
-                .map(enhancer -> enhancer.getAdditionalMetadata(request))
-                .filter(Objects::nonNull)
-                .forEach(auditMetadata::putAll);
-        auditMetadata.put("publicPart", response.getPublicPart());
-        GrayskullAuthentication authentication = (GrayskullAuthentication) SecurityContextHolder.getContext().getAuthentication();
-        String actorName = authentication.getActor();
-        String userId = authentication.getName();
+        logReadAudit(projectId, secretName, response.getDataVersion(), response.getPublicPart(), AuditAction.READ_SECRET_VERSION);
+        return ResponseTemplate.success(response, "Successfully retrieved secret version.");
+    }
+
+    /**
+     * Logs an audit entry for a read of a secret value using the {@link AuditContext} of the current request.
+     */
+    private void logReadAudit(String projectId, String secretName, int dataVersion, String publicPart, AuditAction action) {
+        AuditContext auditContext = requestUtils.getAuditContext();
+        Map<String, String> auditMetadata = new HashMap<>(auditContext.metadata());
+        auditMetadata.put("publicPart", publicPart);
         AuditEntry auditEntry = AuditEntry.builder()
                 .projectId(projectId)
                 .resourceType(AuditConstants.RESOURCE_TYPE_SECRET)
                 .resourceName(secretName)
-                .resourceVersion(response.getDataVersion())
-                .action(AuditAction.READ_SECRET_VERSION.name())
-                .userId(userId)
-                .actorId(actorName)
-                .ips(requestUtils.getRemoteIPs())
+                .resourceVersion(dataVersion)
+                .action(action.name())
+                .userId(auditContext.userId())
+                .actorId(auditContext.actorId())
+                .ips(auditContext.ips())
                 .metadata(auditMetadata).build();
         asyncAuditLogger.log(auditEntry);
-        return ResponseTemplate.success(response, "Successfully retrieved secret version.");
     }
 }
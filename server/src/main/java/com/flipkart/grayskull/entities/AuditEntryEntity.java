@@ -23,6 +23,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @CompoundIndex(name = "project_type_timestamp_idx", def = "{'projectId': 1, 'resourceType': 1, 'timestamp': -1}")
 @CompoundIndex(name = "project_action_timestamp_idx", def = "{'projectId': 1, 'action': 1, 'timestamp': -1}")
 @CompoundIndex(name = "project_user_timestamp_idx", def = "{'projectId': 1, 'userId': 1, 'timestamp': -1}")
+@CompoundIndex(name = "resources_timestamp_idx", def = "{'resources.projectId': 1, 'resources.resourceName': 1, 'timestamp': -1}")
 public class AuditEntryEntity extends AuditEntry {
 
     @Id
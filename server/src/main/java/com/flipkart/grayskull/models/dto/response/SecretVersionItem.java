@@ -0,0 +1,22 @@
+package com.flipkart.grayskull.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A single item in a {@link SecretVersionsResponse}.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SecretVersionItem {
+
+    String projectId;
+    String secretName;
+
+    /**
+     * Current active data version number.
+     */
+    int currentDataVersion;
+}
@@ -0,0 +1,18 @@
+package com.flipkart.grayskull.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Response for the secret versions endpoint: the current version of every requested secret, in request order.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SecretVersionsResponse {
+
+    List<SecretVersionItem> secrets;
+}
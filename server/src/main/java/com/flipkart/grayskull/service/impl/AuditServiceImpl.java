@@ -5,6 +5,7 @@ import com.flipkart.grayskull.audit.UserType;
 import com.flipkart.grayskull.models.dto.response.AuditEntriesResponse;
 import com.flipkart.grayskull.service.interfaces.AuditService;
 import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spi.models.AuditResource;
 import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,8 +33,28 @@ public class AuditServiceImpl implements AuditService {
         Optional<String> userTypeString = userType.map(Enum::name);
         
         List<AuditEntry> entries = auditEntryRepository.findByFilters(projectId, resourceName, resourceType, actionString, userTypeString, afterTimestamp, offset, limit);
+        if (projectId.isPresent()) {
+            entries = entries.stream().map(entry -> restrictResourcesToProject(entry, projectId.get())).toList();
+        }
         long total = auditEntryRepository.countByFilters(projectId, resourceName, resourceType, actionString, userTypeString, afterTimestamp);
 
         return new AuditEntriesResponse(entries, total);
     }
+
+    /**
+     * Aggregated audit entries can cover resources of several projects. When querying a single project only the
+     * resources of that project are returned so that the query does not reveal resources of other projects.
+     */
+    private static AuditEntry restrictResourcesToProject(AuditEntry entry, String projectId) {
+        if (entry.getResources() == null) {
+            return entry;
+        }
+        List<AuditResource> resources = entry.getResources().stream()
+                .filter(resource -> projectId.equals(resource.getProjectId()))
+                .toList();
+        if (resources.size() == entry.getResources().size()) {
+            return entry;
+        }
+        return entry.toBuilder().projectId(projectId).resources(resources).build();
+    }
 }
@@ -20,6 +20,8 @@ import com.flipkart.grayskull.models.dto.response.ListSecretsResponse;
 import com.flipkart.grayskull.models.dto.response.SecretDataResponse;
 import com.flipkart.grayskull.models.dto.response.SecretDataVersionResponse;
 import com.flipkart.grayskull.models.dto.response.SecretMetadata;
+import com.flipkart.grayskull.models.dto.response.SecretVersionItem;
+import com.flipkart.grayskull.models.dto.response.SecretVersionsResponse;
 import com.flipkart.grayskull.models.dto.response.UpgradeSecretDataResponse;
 import com.flipkart.grayskull.spi.models.enums.LifecycleState;
 import com.flipkart.grayskull.spi.repositories.ProjectRepository;
@@ -27,6 +29,7 @@ import com.flipkart.grayskull.spi.repositories.SecretDataRepository;
 import com.flipkart.grayskull.spi.repositories.SecretRepository;
 import com.flipkart.grayskull.service.interfaces.SecretService;
 import com.flipkart.grayskull.service.utils.AuthnUtil;
+import com.flipkart.grayskull.service.utils.SecretChangeNotifier;
 import com.flipkart.grayskull.service.utils.SecretEncryptionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,6 +57,7 @@ public class SecretServiceImpl implements SecretService {
     private final KmsConfig kmsConfig;
     private final ProjectRepository projectRepository;
     private final AuthnUtil authnUtil;
+    private final SecretChangeNotifier secretChangeNotifier;
 
     /**
      * Lists secrets for a given project with pagination.
@@ -146,27 +150,8 @@ public class SecretServiceImpl implements SecretService {
 
     @Override
     public BatchGetSecretsResponse batchGetSecrets(List<SecretVersionEntry> entries) {
-   
-        Map<String, List<String>> projectToNames = entries.stream()
-                .collect(Collectors.groupingBy(
-                        SecretVersionEntry::getProjectId,
-                        Collectors.mapping(SecretVersionEntry::getSecretName, Collectors.toList())));
+        Map<String, Secret> secretMap = findActiveSecretsOrThrow(entries);
 
-        Map<String, Secret> secretMap = new HashMap<>();
-        secretRepository.findActiveByProjectAndNames(projectToNames)
-                .forEach(s -> secretMap.put(secretKey(s.getProjectId(), s.getName()), s));
-
-        
-        if (secretMap.size() < entries.size()) {
-            String missing = entries.stream()
-                    .map(e -> secretKey(e.getProjectId(), e.getSecretName()))
-                    .filter(key -> !secretMap.containsKey(key))
-                    .findFirst()
-                    .orElse("<unknown>");
-            throw new NotFoundException("Active secret not found for " + missing);
-        }
-
-     
         List<Secret> changed = new ArrayList<>();
         for (SecretVersionEntry entry : entries) {
             Secret secret = secretMap.get(secretKey(entry.getProjectId(), entry.getSecretName()));
@@ -194,6 +179,49 @@ public class SecretServiceImpl implements SecretService {
                 .build();
     }
 
+    /**
+     * Answered from the secret documents alone: no secret data is loaded and nothing is decrypted, so callers can
+     * poll for changes cheaply and fetch values only for the secrets that moved.
+     */
+    @Override
+    public SecretVersionsResponse getSecretVersions(List<SecretVersionEntry> entries) {
+        Map<String, Secret> secretMap = findActiveSecretsOrThrow(entries);
+
+        List<SecretVersionItem> items = new ArrayList<>(entries.size());
+        for (SecretVersionEntry entry : entries) {
+            Secret secret = secretMap.get(secretKey(entry.getProjectId(), entry.getSecretName()));
+            items.add(new SecretVersionItem(secret.getProjectId(), secret.getName(), secret.getCurrentDataVersion()));
+        }
+        return new SecretVersionsResponse(items);
+    }
+
+    /**
+     * Loads the active secrets for the entries with one query, keyed by {@link #secretKey}.
+     *
+     * @throws NotFoundException if any of the secrets does not exist or is not active, or if the entries contain
+     *                           duplicates.
+     */
+    private Map<String, Secret> findActiveSecretsOrThrow(List<SecretVersionEntry> entries) {
+        Map<String, List<String>> projectToNames = entries.stream()
+                .collect(Collectors.groupingBy(
+                        SecretVersionEntry::getProjectId,
+                        Collectors.mapping(SecretVersionEntry::getSecretName, Collectors.toList())));
+
+        Map<String, Secret> secretMap = new HashMap<>();
+        secretRepository.findActiveByProjectAndNames(projectToNames)
+                .forEach(s -> secretMap.put(secretKey(s.getProjectId(), s.getName()), s));
+
+        if (secretMap.size() < entries.size()) {
+            String missing = entries.stream()
+                    .map(e -> secretKey(e.getProjectId(), e.getSecretName()))
+                    .filter(key -> !secretMap.containsKey(key))
+                    .findFirst()
+                    .orElse("<unknown>");
+            throw new NotFoundException("Active secret not found for " + missing);
+        }
+        return secretMap;
+    }
+
     /**
      * Uses a non-printable separator so it cannot collide with legal projectId/secretName
      */
@@ -235,6 +263,7 @@ public class SecretServiceImpl implements SecretService {
         SecretData secretData = secretMapper.upgradeRequestToSecretData(request, secret, newVersion);
         secretEncryptionUtil.encryptSecretData(secretData, keyId);
         secretDataRepository.save(secretData);
+        secretChangeNotifier.publish(projectId, secretName);
 
         UpgradeSecretDataResponse response = new UpgradeSecretDataResponse();
         response.setProjectId(projectId);
@@ -262,6 +291,7 @@ public class SecretServiceImpl implements SecretService {
         secret.setState(LifecycleState.DISABLED);
         secret.setUpdatedBy(authnUtil.getCurrentUsername());
         secretRepository.save(secret);
+        secretChangeNotifier.publish(projectId, secretName);
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.flipkart.grayskull.models.dto.response.ListSecretsResponse;
 import com.flipkart.grayskull.models.dto.response.SecretDataResponse;
 import com.flipkart.grayskull.models.dto.response.SecretDataVersionResponse;
 import com.flipkart.grayskull.models.dto.response.SecretMetadata;
+import com.flipkart.grayskull.models.dto.response.SecretVersionsResponse;
 import com.flipkart.grayskull.models.dto.response.UpgradeSecretDataResponse;
 import com.flipkart.grayskull.spi.models.enums.LifecycleState;
 
@@ -93,6 +94,14 @@ public interface SecretService {
      */
     BatchGetSecretsResponse batchGetSecrets(List<SecretVersionEntry> entries);
 
+    /**
+     * Gets the current data version of each secret without reading or decrypting any secret data.
+     *
+     * @param entries The list of secrets; their last known versions are ignored.
+     * @return A {@link SecretVersionsResponse} with one item per requested secret, in request order.
+     */
+    SecretVersionsResponse getSecretVersions(List<SecretVersionEntry> entries);
+
     /**
      * Retrieves a specific version of a secret's data. Its an Admin API.
      *
@@ -0,0 +1,127 @@
+package com.flipkart.grayskull.service.utils;
+
+import com.flipkart.grayskull.models.dto.request.SecretVersionEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * In-process fan-out of secret changes to the watch requests waiting on them.
+ * <p>
+ * Services {@link #publish} after changing the version or state of a secret; when called inside a transaction the
+ * listeners only run once it commits, so a woken watcher always reads the new version. Listeners run on virtual
+ * threads and never on the publishing request thread.
+ * <p>
+ * Only changes made through this server instance are published. Watchers connected to other instances see them when
+ * their watch times out and the client re-issues it, so in a multi-node deployment a change is delivered at most one
+ * watch timeout late.
+ */
+@Component
+@Slf4j
+public class SecretChangeNotifier implements DisposableBean {
+
+    /**
+     * Handle returned by {@link #subscribe}; cancelling it is idempotent.
+     */
+    @FunctionalInterface
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final ConcurrentHashMap<String, Set<Runnable>> listeners = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Registers {@code listener} to run whenever any of {@code secrets} is published.
+     *
+     * @param secrets  the secrets to watch; only the project and name are used.
+     * @param listener the callback; it may run several times and concurrently with itself.
+     * @return a subscription that removes the listener from every watched secret.
+     */
+    public Subscription subscribe(Collection<SecretVersionEntry> secrets, Runnable listener) {
+        List<String> keys = secrets.stream()
+                .map(entry -> secretKey(entry.getProjectId(), entry.getSecretName()))
+                .distinct()
+                .toList();
+        for (String key : keys) {
+            listeners.compute(key, (k, existing) -> {
+                Set<Runnable> set = existing == null ? ConcurrentHashMap.newKeySet() : existing;
+                set.add(listener);
+                return set;
+            });
+        }
+        return () -> keys.forEach(key -> listeners.computeIfPresent(key, (k, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        }));
+    }
+
+    /**
+     * Wakes the listeners of a secret, after the surrounding transaction commits if there is one.
+     *
+     * @param projectId  the ID of the project.
+     * @param secretName the name of the secret that changed.
+     */
+    public void publish(String projectId, String secretName) {
+        String key = secretKey(projectId, secretName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(key);
+                }
+            });
+        } else {
+            dispatch(key);
+        }
+    }
+
+    int subscribedSecrets() {
+        return listeners.size();
+    }
+
+    private void dispatch(String key) {
+        Set<Runnable> subscribed = listeners.get(key);
+        if (subscribed == null) {
+            return;
+        }
+        for (Runnable listener : subscribed) {
+            try {
+                executor.execute(() -> runListener(listener));
+            } catch (RejectedExecutionException e) {
+                log.debug("Dropping secret change notification during shutdown");
+                return;
+            }
+        }
+    }
+
+    private static void runListener(Runnable listener) {
+        try {
+            listener.run();
+        } catch (RuntimeException e) {
+            log.error("Secret change listener failed", e);
+        }
+    }
+
+    /**
+     * Uses a non-printable separator so it cannot collide with legal projectId/secretName
+     */
+    private static String secretKey(String projectId, String secretName) {
+        return projectId + '\u0000' + secretName;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,152 @@
+package com.flipkart.grayskull.spimpl.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.grayskull.spi.models.AuditEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Newline delimited JSON file holding audit entries that did not fit into the in-memory queue of
+ * {@link SimpleAsyncAuditLogger}.
+ * <p>
+ * Writers append to {@code audit-spill.jsonl}. Replay atomically moves that file aside to
+ * {@code audit-spill.jsonl.replay} so that new entries can keep being spilled while the old ones are persisted.
+ * The replay file is deleted only after all of its entries were handed over successfully, so entries are
+ * persisted at least once. After every batch that was handed over, the number of consumed lines is recorded in
+ * {@code audit-spill.jsonl.replay.offset}, so a replay that fails part-way resumes after the last batch instead of
+ * sending the earlier batches again.
+ * <p>
+ * Lines that cannot be parsed, such as a line torn by a crash during {@link #append}, are skipped and counted under
+ * {@link SimpleAsyncAuditLogger#AUDIT_ERROR_METRIC}, so that they do not block the replay of the entries after them.
+ */
+@Slf4j
+class AuditSpillFile {
+
+    private static final String SPILL_FILE = "audit-spill.jsonl";
+    private static final String REPLAY_FILE = SPILL_FILE + ".replay";
+    private static final String OFFSET_FILE = REPLAY_FILE + ".offset";
+
+    private final Path spillPath;
+    private final Path replayPath;
+    private final Path offsetPath;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    AuditSpillFile(Path directory, ObjectMapper objectMapper, MeterRegistry meterRegistry) throws IOException {
+        Files.createDirectories(directory);
+        this.spillPath = directory.resolve(SPILL_FILE);
+        this.replayPath = directory.resolve(REPLAY_FILE);
+        this.offsetPath = directory.resolve(OFFSET_FILE);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    synchronized void append(Collection<AuditEntry> auditEntries) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditEntry auditEntry : auditEntries) {
+                writer.write(objectMapper.writeValueAsString(auditEntry));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Replays all spilled entries in batches of at most {@code batchSize}. If the consumer throws, the entries of the
+     * failed batch and the ones after it stay on disk and are replayed on the next call.
+     *
+     * @return number of entries replayed
+     */
+    int replay(int batchSize, Consumer<List<AuditEntry>> consumer) throws IOException {
+        return replay(batchSize, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Like {@link #replay(int, Consumer)}, but returns after {@code maxBatches} batches were handed over; the rest is
+     * replayed by the next call.
+     *
+     * @return number of entries replayed
+     */
+    int replay(int batchSize, int maxBatches, Consumer<List<AuditEntry>> consumer) throws IOException {
+        synchronized (this) {
+            // a leftover replay file from a previous failed attempt is replayed before picking up new spills
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(spillPath)) {
+                    return 0;
+                }
+                Files.deleteIfExists(offsetPath);
+                Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        long consumedLines = readOffset();
+        long lineNumber = 0;
+        int replayed = 0;
+        int batches = 0;
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= consumedLines || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditEntry.class));
+                } catch (JsonProcessingException e) {
+                    log.error("Skipping unparseable spilled audit entry at line {} of {}", lineNumber, replayPath, e);
+                    meterRegistry.counter(SimpleAsyncAuditLogger.AUDIT_ERROR_METRIC, SimpleAsyncAuditLogger.ACTION_TAG, "deserialize").increment();
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    replayed += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                    writeOffset(lineNumber);
+                    if (++batches == maxBatches) {
+                        return replayed;
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+            replayed += batch.size();
+        }
+        // the offset goes first: an offset left behind without its replay file must never skip lines of a newer one
+        Files.deleteIfExists(offsetPath);
+        Files.delete(replayPath);
+        log.info("replayed {} spilled audit entries", replayed);
+        return replayed;
+    }
+
+    private long readOffset() throws IOException {
+        if (!Files.exists(offsetPath)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(offsetPath, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.warn("ignoring unreadable spill replay offset in {}, the replay starts over", offsetPath);
+            return 0;
+        }
+    }
+
+    private void writeOffset(long consumedLines) throws IOException {
+        Path temporary = offsetPath.resolveSibling(OFFSET_FILE + ".tmp");
+        Files.writeString(temporary, Long.toString(consumedLines), StandardCharsets.UTF_8);
+        Files.move(temporary, offsetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -1,17 +1,21 @@
 package com.flipkart.grayskull.spimpl.audit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
 import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+
 @Configuration
 @ConditionalOnMissingBean(AsyncAuditLogger.class)
 public class SimpleAsyncAuditConfiguration {
 
     @Bean
-    public AsyncAuditLogger simpleAsyncAuditLogger(AuditEntryRepository auditEntryRepository) {
-        return new SimpleAsyncAuditLogger(auditEntryRepository);
+    public AsyncAuditLogger simpleAsyncAuditLogger(AuditEntryRepository auditEntryRepository, SimpleAsyncAuditProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) throws IOException {
+        return new SimpleAsyncAuditLogger(auditEntryRepository, properties, objectMapper, meterRegistry);
     }
 }
@@ -1,27 +1,213 @@
 package com.flipkart.grayskull.spimpl.audit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
 import com.flipkart.grayskull.spi.models.AuditEntry;
 import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
+import com.flipkart.grayskull.spimpl.audit.SimpleAsyncAuditProperties.OverflowPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-@AllArgsConstructor
+/**
+ * {@link AsyncAuditLogger} that buffers audit entries in a bounded in-memory queue and persists them in batches
+ * using {@link AuditEntryRepository#saveAll(Iterable)} from a single consumer thread.
+ * <p>
+ * When the queue is full the configured {@link OverflowPolicy} decides whether the caller blocks, the entry is
+ * dropped or the entry is spilled to a local file. Spilled entries are replayed when the queue is idle, and one batch
+ * at a time in between queued batches while it is busy (see {@link SimpleAsyncAuditProperties#getReplayEvery()}).
+ * <p>
+ * On shutdown the queue is drained before the consumer exits. Entries logged after that are spilled when spilling is
+ * enabled, otherwise they are counted as dropped.
+ */
+@Slf4j
 public class SimpleAsyncAuditLogger implements AsyncAuditLogger {
+    public static final String AUDIT_ERROR_METRIC = "audit-log-error";
+    public static final String AUDIT_DROPPED_METRIC = "audit-log-dropped";
+    public static final String AUDIT_QUEUE_SIZE_METRIC = "audit-log-queue-size";
+    public static final String ACTION_TAG = "action";
+    public static final String REASON_TAG = "reason";
 
     private final AuditEntryRepository auditEntryRepository;
-    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-audit-logger").factory());
+    private final SimpleAsyncAuditProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<AuditEntry> queue;
+    private final AuditSpillFile spillFile;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread consumer;
+
+    public SimpleAsyncAuditLogger(AuditEntryRepository auditEntryRepository, SimpleAsyncAuditProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) throws IOException {
+        this.auditEntryRepository = auditEntryRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.queue = meterRegistry.gaugeCollectionSize(AUDIT_QUEUE_SIZE_METRIC, Tags.empty(), new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+        if (properties.getOverflowPolicy() == OverflowPolicy.SPILL) {
+            if (properties.getSpillDirectory() == null || properties.getSpillDirectory().isBlank()) {
+                throw new IllegalStateException("grayskull.audit.async.spill-directory is required for overflow policy SPILL");
+            }
+            this.spillFile = new AuditSpillFile(Path.of(properties.getSpillDirectory()), objectMapper, meterRegistry);
+        } else {
+            this.spillFile = null;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = Thread.ofVirtual().name("async-audit-logger").start(this::consume);
+    }
 
     @Override
     public void log(AuditEntry auditEntry) {
-        executorService.submit(() -> auditEntryRepository.save(auditEntry));
+        if (stopped) {
+            reject(List.of(auditEntry));
+            return;
+        }
+        if (queue.offer(auditEntry)) {
+            rejectIfStopped();
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK -> block(auditEntry);
+            case DROP -> drop(1, "queue-full");
+            case SPILL -> spill(List.of(auditEntry));
+        }
+    }
+
+    private void block(AuditEntry auditEntry) {
+        try {
+            // wait in slices, so that a caller blocked on a full queue notices that the consumer is gone
+            while (!queue.offer(auditEntry, properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    reject(List.of(auditEntry));
+                    return;
+                }
+            }
+            rejectIfStopped();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(1, "interrupted");
+        }
+    }
+
+    /**
+     * Entries queued while {@link #shutdown()} drained the queue would never be consumed.
+     */
+    private void rejectIfStopped() {
+        if (!stopped) {
+            return;
+        }
+        List<AuditEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            reject(remaining);
+        }
     }
 
+    /**
+     * Stops accepting new work on the consumer and waits up to the configured shutdown timeout for the queue to be
+     * persisted. Entries that could not be persisted in time are spilled to disk when spilling is enabled, otherwise
+     * they are counted as dropped.
+     */
     @PreDestroy
-    public void shutdown() {
-        executorService.shutdown();
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.join(properties.getShutdownTimeout());
+        }
+        stopped = true;
+        List<AuditEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        log.warn("{} audit entries were not persisted before shutdown", remaining.size());
+        reject(remaining);
+    }
+
+    private void reject(List<AuditEntry> auditEntries) {
+        if (spillFile != null) {
+            spill(auditEntries);
+        } else {
+            drop(auditEntries.size(), "shutdown");
+        }
+    }
+
+    private void consume() {
+        int batchesSinceReplay = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilled(Integer.MAX_VALUE);
+                    batchesSinceReplay = 0;
+                    continue;
+                }
+                List<AuditEntry> batch = new ArrayList<>(properties.getBatchSize());
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                persist(batch);
+                if (++batchesSinceReplay >= properties.getReplayEvery()) {
+                    replaySpilled(1);
+                    batchesSinceReplay = 0;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure in audit consumer", e);
+            }
+        }
+    }
+
+    private void persist(List<AuditEntry> batch) {
+        try {
+            auditEntryRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to persist {} audit entries", batch.size(), e);
+            meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "save").increment();
+            if (spillFile != null) {
+                spill(batch);
+            } else {
+                drop(batch.size(), "save-failed");
+            }
+        }
+    }
+
+    private void replaySpilled(int maxBatches) {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            spillFile.replay(properties.getBatchSize(), maxBatches, auditEntryRepository::saveAll);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to replay spilled audit entries", e);
+            meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "replay").increment();
+        }
+    }
+
+    private void spill(List<AuditEntry> auditEntries) {
+        try {
+            spillFile.append(auditEntries);
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit entries", auditEntries.size(), e);
+            meterRegistry.counter(AUDIT_ERROR_METRIC, ACTION_TAG, "spill").increment();
+            drop(auditEntries.size(), "spill-failed");
+        }
+    }
+
+    private void drop(int count, String reason) {
+        meterRegistry.counter(AUDIT_DROPPED_METRIC, REASON_TAG, reason).increment(count);
     }
 }
@@ -0,0 +1,94 @@
+package com.flipkart.grayskull.spimpl.audit;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration for {@link SimpleAsyncAuditLogger}.
+ * <p>
+ * Example configuration:
+ * <pre>
+ * grayskull:
+ *   audit:
+ *     async:
+ *       queue-capacity: 10000
+ *       batch-size: 100
+ *       flush-interval: 1s
+ *       replay-every: 10
+ *       overflow-policy: SPILL
+ *       spill-directory: /var/lib/grayskull/audit-spill
+ *       shutdown-timeout: 30s
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "grayskull.audit.async")
+@Validated
+public class SimpleAsyncAuditProperties {
+
+    /**
+     * What to do with an audit entry when the in-memory queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the calling request thread until there is space in the queue.
+         */
+        BLOCK,
+        /**
+         * Drop the entry and increment the dropped audit metric.
+         */
+        DROP,
+        /**
+         * Append the entry to a file in {@link #spillDirectory}, which is replayed in between and after the queued entries.
+         */
+        SPILL
+    }
+
+    /**
+     * Maximum number of audit entries held in memory waiting to be persisted.
+     */
+    @Min(1)
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of audit entries persisted in a single {@code saveAll} call.
+     */
+    @Min(1)
+    private int batchSize = 100;
+
+    /**
+     * How long the consumer waits for new entries before checking the spill file.
+     */
+    @NotNull
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * While the queue stays busy, one batch of spilled entries is replayed after every this many persisted batches, so
+     * that the spill file also drains under sustained load. When the queue is idle the whole spill file is replayed.
+     */
+    @Min(1)
+    private int replayEvery = 10;
+
+    /**
+     * Behaviour when the queue is full.
+     */
+    @NotNull
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * Directory used for spilled audit entries. Required when {@link #overflowPolicy} is {@link OverflowPolicy#SPILL}.
+     */
+    private String spillDirectory;
+
+    /**
+     * Maximum time to wait for queued entries to be persisted on shutdown.
+     */
+    @NotNull
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
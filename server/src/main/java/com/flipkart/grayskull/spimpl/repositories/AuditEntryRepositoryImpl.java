@@ -25,12 +25,12 @@ public class AuditEntryRepositoryImpl implements AuditEntryRepository {
 
     @Override
     public AuditEntry save(AuditEntry entry) {
-        return mongoRepository.save(auditEntryMapper.toEntity(entry));
+        return mongoRepository.saveToBucket(auditEntryMapper.toEntity(entry));
     }
 
     @Override
     public List<AuditEntry> saveAll(Iterable<AuditEntry> entries) {
-        return mongoRepository.saveAll(Streamable.of(entries).map(auditEntryMapper::toEntity)).stream().map(AuditEntry.class::cast).toList();
+        return mongoRepository.saveAllToBuckets(Streamable.of(entries).map(auditEntryMapper::toEntity).toList()).stream().map(AuditEntry.class::cast).toList();
     }
 
     @Override
@@ -0,0 +1,197 @@
+package com.flipkart.grayskull.spimpl.repositories.mongo;
+
+import com.flipkart.grayskull.configuration.AuditQueryConfiguration;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Expires time-bucketed audit collections. A bucket whose whole time span is older than the maximum query age can no
+ * longer be queried, so it is exported to {@link AuditStorageProperties#getArchiveDirectory()} (if configured) and dropped.
+ * Dropping a collection is much cheaper than deleting its documents one by one through a TTL index.
+ * <p>
+ * To avoid several instances archiving the same bucket, an instance first claims it in the {@value #LOCK_COLLECTION}
+ * collection with an atomic upsert that records the instance and the claim time, and then renames the bucket to
+ * {@code <bucket>_archiving} so that late writes go to a new collection. The claim is refreshed while the bucket is
+ * exported and released once it is dropped. A claim that was not refreshed for
+ * {@link AuditStorageProperties#getArchiveClaimTimeout()} is considered abandoned and can be taken over, which is how a
+ * bucket left in the {@code _archiving} state by a failed instance is retried.
+ * <p>
+ * An export never replaces an existing archive. A bucket that is archived again, because it was recreated by a late
+ * write or because an earlier attempt failed after its export, is written to {@code <bucket>.1.jsonl.gz},
+ * {@code <bucket>.2.jsonl.gz} and so on.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class AuditBucketArchiver {
+
+    public static final String AUDIT_ARCHIVE_ERROR_METRIC = "audit-archive-error";
+    static final String ARCHIVING_SUFFIX = "_archiving";
+    static final String LOCK_COLLECTION = "auditArchiveLock";
+    private static final int CLAIM_REFRESH_DOCUMENTS = 10_000;
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private final AuditBuckets auditBuckets;
+    private final AuditStorageProperties properties;
+    private final AuditQueryConfiguration auditConfig;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Scheduled(fixedDelayString = "${grayskull.audit.storage.maintenance-interval:1h}")
+    public void archiveExpiredBuckets() {
+        if (!auditBuckets.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(auditConfig.getMaxQueryAgeDays(), ChronoUnit.DAYS);
+        for (String collection : expiredCollections(cutoff)) {
+            boolean renamed = collection.endsWith(ARCHIVING_SUFFIX);
+            String bucket = renamed ? collection.substring(0, collection.length() - ARCHIVING_SUFFIX.length()) : collection;
+            if (!claim(bucket)) {
+                log.info("audit bucket {} is claimed, it is probably archived by another instance", bucket);
+                continue;
+            }
+            try {
+                if (renamed || rename(bucket)) {
+                    archive(bucket, bucket + ARCHIVING_SUFFIX);
+                }
+            } finally {
+                release(bucket);
+            }
+        }
+    }
+
+    private List<String> expiredCollections(Instant cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            String bucket = collection.endsWith(ARCHIVING_SUFFIX) ? collection.substring(0, collection.length() - ARCHIVING_SUFFIX.length()) : collection;
+            auditBuckets.bucketEnd(bucket)
+                    .filter(end -> !end.isAfter(cutoff))
+                    .ifPresent(end -> expired.add(collection));
+        }
+        expired.sort(null);
+        return expired;
+    }
+
+    /**
+     * Claims the bucket for this instance, unless another instance holds a claim that is younger than the claim timeout.
+     * The upsert fails with a duplicate key when the lock document exists but does not match.
+     */
+    private boolean claim(String bucket) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(bucket)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("claimedAt").lt(now.minus(properties.getArchiveClaimTimeout()))));
+        try {
+            mongoTemplate.findAndModify(query, new Update().set("owner", owner).set("claimedAt", now), FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, LOCK_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Refreshes the claim time of a bucket claimed by this instance.
+     *
+     * @return false if the claim was taken over by another instance in the meantime
+     */
+    private boolean refreshClaim(String bucket) {
+        Query query = Query.query(Criteria.where("_id").is(bucket).and("owner").is(owner));
+        return mongoTemplate.findAndModify(query, new Update().set("claimedAt", Instant.now()), FindAndModifyOptions.options().returnNew(true), Document.class, LOCK_COLLECTION) != null;
+    }
+
+    private void release(String bucket) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(bucket).and("owner").is(owner)), LOCK_COLLECTION);
+    }
+
+    private boolean rename(String bucket) {
+        try {
+            mongoTemplate.getCollection(bucket).renameCollection(new MongoNamespace(mongoTemplate.getDb().getName(), bucket + ARCHIVING_SUFFIX));
+            return true;
+        } catch (MongoCommandException e) {
+            log.info("audit bucket {} could not be renamed, it is probably archived by another instance", bucket);
+            return false;
+        }
+    }
+
+    private void archive(String bucket, String collection) {
+        if (properties.getArchiveDirectory() != null) {
+            try {
+                export(bucket, collection);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to archive audit bucket {}, it is retried on the next run", bucket, e);
+                meterRegistry.counter(AUDIT_ARCHIVE_ERROR_METRIC).increment();
+                return;
+            }
+        }
+        if (!refreshClaim(bucket)) {
+            log.warn("claim on audit bucket {} was taken over by another instance, leaving it to that instance", bucket);
+            return;
+        }
+        mongoTemplate.dropCollection(collection);
+        log.info("dropped expired audit bucket {}", bucket);
+    }
+
+    private void export(String bucket, String collection) throws IOException {
+        Path directory = Files.createDirectories(Path.of(properties.getArchiveDirectory()));
+        Path temporary = Files.createTempFile(directory, bucket, ".tmp");
+        long exported = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(new Query(), Document.class, collection)) {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8))) {
+                for (Document document : (Iterable<Document>) documents::iterator) {
+                    writer.write(document.toJson(JSON_SETTINGS));
+                    writer.newLine();
+                    exported++;
+                    if (exported % CLAIM_REFRESH_DOCUMENTS == 0 && !refreshClaim(bucket)) {
+                        throw new IllegalStateException("claim on audit bucket " + bucket + " was taken over by another instance");
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Path target = moveToUnusedName(temporary, directory, bucket);
+        log.info("exported {} audit entries of bucket {} to {}", exported, bucket, target);
+    }
+
+    private static Path moveToUnusedName(Path temporary, Path directory, String bucket) throws IOException {
+        for (int sequence = 0; ; sequence++) {
+            Path target = directory.resolve(sequence == 0 ? bucket + ".jsonl.gz" : bucket + "." + sequence + ".jsonl.gz");
+            try {
+                // Without REPLACE_EXISTING the move fails instead of overwriting; ATOMIC_MOVE would replace on POSIX
+                return Files.move(temporary, target);
+            } catch (FileAlreadyExistsException e) {
+                log.info("audit archive {} already exists, trying the next name", target);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.flipkart.grayskull.spimpl.repositories.mongo;
+
+import com.flipkart.grayskull.entities.AuditEntryEntity;
+import com.flipkart.grayskull.spimpl.repositories.mongo.AuditStorageProperties.Bucketing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.Streamable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps audit entries to the time-bucketed collections they are stored in.
+ * <p>
+ * Bucket collections are named {@code auditEntry_<yyyy_MM>} or {@code auditEntry_<yyyy_MM_dd>} after the UTC start of their
+ * time span. Indexes are not created automatically for collections other than the entity's own, so the indexes declared on
+ * {@link AuditEntryEntity} are created on a bucket the first time this instance writes to it.
+ */
+@Slf4j
+@Component
+public class AuditBuckets {
+
+    public static final String LEGACY_COLLECTION = "auditEntry";
+
+    private static final String BUCKET_PREFIX = LEGACY_COLLECTION + "_";
+    private static final DateTimeFormatter DAILY_FORMAT = DateTimeFormatter.ofPattern("uuuu_MM_dd");
+    private static final DateTimeFormatter MONTHLY_FORMAT = DateTimeFormatter.ofPattern("uuuu_MM");
+
+    private final AuditStorageProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final List<? extends IndexDefinition> indexDefinitions;
+    private final Set<String> indexedBuckets = ConcurrentHashMap.newKeySet();
+
+    public AuditBuckets(AuditStorageProperties properties, MongoTemplate mongoTemplate) {
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        this.indexDefinitions = Streamable.of(new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(AuditEntryEntity.class)).toList();
+    }
+
+    public boolean isEnabled() {
+        return properties.getBucketing() != Bucketing.NONE;
+    }
+
+    /**
+     * @return the collection an audit entry with the given timestamp is written to. Entries without a timestamp go to the
+     * current bucket
+     */
+    public String collectionFor(Instant timestamp) {
+        if (!isEnabled()) {
+            return LEGACY_COLLECTION;
+        }
+        return BUCKET_PREFIX + bucketStart(timestamp == null ? Instant.now() : timestamp).format(format());
+    }
+
+    /**
+     * Returns the collections which can hold audit entries with a timestamp in the given range, newest first. The legacy
+     * collection holds the oldest entries, so it comes last.
+     */
+    public List<String> collectionsNewestFirst(Instant from, Instant to) {
+        if (!isEnabled()) {
+            return List.of(LEGACY_COLLECTION);
+        }
+        List<String> collections = new ArrayList<>();
+        LocalDate first = bucketStart(from);
+        for (LocalDate bucket = bucketStart(to); !bucket.isBefore(first); bucket = previous(bucket)) {
+            collections.add(BUCKET_PREFIX + bucket.format(format()));
+        }
+        if (properties.isReadLegacyCollection()) {
+            collections.add(LEGACY_COLLECTION);
+        }
+        return collections;
+    }
+
+    /**
+     * Returns the exclusive end of the time span of a bucket collection, or empty if the collection is not a bucket of the
+     * configured bucketing.
+     */
+    public Optional<Instant> bucketEnd(String collection) {
+        if (!isEnabled() || !collection.startsWith(BUCKET_PREFIX)) {
+            return Optional.empty();
+        }
+        String suffix = collection.substring(BUCKET_PREFIX.length());
+        try {
+            LocalDate start = properties.getBucketing() == Bucketing.DAILY ? LocalDate.parse(suffix, DAILY_FORMAT) : LocalDate.parse(suffix + "_01", DAILY_FORMAT);
+            if (!collection.equals(BUCKET_PREFIX + start.format(format()))) {
+                return Optional.empty();
+            }
+            return Optional.of(next(start).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates the indexes of {@link AuditEntryEntity} on the bucket, once per bucket and instance. Creating an existing
+     * index is a no-op in MongoDB, so concurrent calls from several instances are harmless.
+     */
+    public void ensureIndexes(String collection) {
+        if (LEGACY_COLLECTION.equals(collection) || indexedBuckets.contains(collection)) {
+            return;
+        }
+        log.info("creating indexes on audit bucket {}", collection);
+        indexDefinitions.forEach(mongoTemplate.indexOps(collection)::createIndex);
+        indexedBuckets.add(collection);
+    }
+
+    private LocalDate bucketStart(Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant, ZoneOffset.UTC);
+        return properties.getBucketing() == Bucketing.DAILY ? date : date.withDayOfMonth(1);
+    }
+
+    private LocalDate next(LocalDate bucketStart) {
+        return properties.getBucketing() == Bucketing.DAILY ? bucketStart.plusDays(1) : bucketStart.plusMonths(1);
+    }
+
+    private LocalDate previous(LocalDate bucketStart) {
+        return properties.getBucketing() == Bucketing.DAILY ? bucketStart.minusDays(1) : bucketStart.minusMonths(1);
+    }
+
+    private DateTimeFormatter format() {
+        return properties.getBucketing() == Bucketing.DAILY ? DAILY_FORMAT : MONTHLY_FORMAT;
+    }
+}
@@ -2,6 +2,7 @@ package com.flipkart.grayskull.spimpl.repositories.mongo;
 
 import com.flipkart.grayskull.entities.AuditEntryEntity;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,22 @@ import java.util.Optional;
  */
 public interface AuditEntryMongoRepositoryCustom {
 
+    /**
+     * Saves an audit entry into the collection of its timestamp's bucket.
+     *
+     * @param entry Audit entry to save
+     * @return The saved audit entry
+     */
+    AuditEntryEntity saveToBucket(AuditEntryEntity entry);
+
+    /**
+     * Inserts audit entries, each into the collection of its timestamp's bucket.
+     *
+     * @param entries Audit entries to insert
+     * @return The inserted audit entries
+     */
+    List<AuditEntryEntity> saveAllToBuckets(Collection<AuditEntryEntity> entries);
+
     /**
      * Finds audit entries by dynamic filters with pagination and sorting.
      *
@@ -8,8 +8,14 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -19,27 +25,98 @@ import java.util.regex.Pattern;
  * 
  * Note: Spring Data automatically detects this as the implementation for
  * AuditEntryMongoRepository's custom methods based on naming convention (*Impl).
+ * <p>
+ * With time-bucketed audit collections (see {@link AuditBuckets}) entries are written to the bucket of their
+ * timestamp, and queries walk the buckets in the queried time range from newest to oldest. Since the buckets
+ * cover disjoint time spans, this yields the entries in descending timestamp order without merging.
  */
 @RequiredArgsConstructor
 public class AuditEntryMongoRepositoryImpl implements AuditEntryMongoRepositoryCustom {
 
     private final MongoTemplate mongoTemplate;
     private final AuditQueryConfiguration auditConfig;
+    private final AuditBuckets auditBuckets;
+
+    public AuditEntryEntity saveToBucket(AuditEntryEntity entry) {
+        if (!auditBuckets.isEnabled()) {
+            return mongoTemplate.save(entry);
+        }
+        String collection = auditBuckets.collectionFor(entry.getTimestamp());
+        auditBuckets.ensureIndexes(collection);
+        return mongoTemplate.save(entry, collection);
+    }
+
+    public List<AuditEntryEntity> saveAllToBuckets(Collection<AuditEntryEntity> entries) {
+        if (!auditBuckets.isEnabled()) {
+            return new ArrayList<>(mongoTemplate.insertAll(entries));
+        }
+        Map<String, List<AuditEntryEntity>> entriesByCollection = new LinkedHashMap<>();
+        for (AuditEntryEntity entry : entries) {
+            entriesByCollection.computeIfAbsent(auditBuckets.collectionFor(entry.getTimestamp()), collection -> new ArrayList<>()).add(entry);
+        }
+        List<AuditEntryEntity> saved = new ArrayList<>(entries.size());
+        entriesByCollection.forEach((collection, bucketEntries) -> {
+            auditBuckets.ensureIndexes(collection);
+            saved.addAll(mongoTemplate.insert(bucketEntries, collection));
+        });
+        return saved;
+    }
 
     public List<AuditEntryEntity> findByFilters(Optional<String> projectId, Optional<String> resourceName, Optional<String> resourceType, Optional<String> action, Optional<String> userType, Optional<Date> afterTimestamp, int offset, int limit) {
 
         Query query = buildFilterQuery(projectId, resourceName, resourceType, action, userType, afterTimestamp);
-        query.with(Sort.by(Sort.Direction.DESC, "timestamp"));
-        query.skip(offset);
-        query.limit(limit);
+        if (!auditBuckets.isEnabled()) {
+            query.with(Sort.by(Sort.Direction.DESC, "timestamp"));
+            query.skip(offset);
+            query.limit(limit);
+            return mongoTemplate.find(query, AuditEntryEntity.class);
+        }
 
-        return mongoTemplate.find(query, AuditEntryEntity.class);
+        List<AuditEntryEntity> entries = new ArrayList<>(limit);
+        long toSkip = offset;
+        for (String collection : queriedCollections(afterTimestamp)) {
+            if (entries.size() == limit) {
+                break;
+            }
+            if (toSkip > 0) {
+                // whole buckets inside the offset are skipped using their count instead of reading them
+                long count = mongoTemplate.count(Query.of(query), AuditEntryEntity.class, collection);
+                if (count <= toSkip) {
+                    toSkip -= count;
+                    continue;
+                }
+            }
+            Query bucketQuery = Query.of(query)
+                    .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                    .skip(toSkip)
+                    .limit(limit - entries.size());
+            entries.addAll(mongoTemplate.find(bucketQuery, AuditEntryEntity.class, collection));
+            toSkip = 0;
+        }
+        return entries;
     }
 
     public long countByFilters(Optional<String> projectId, Optional<String> resourceName, Optional<String> resourceType, Optional<String> action, Optional<String> userType, Optional<Date> afterTimestamp) {
 
         Query query = buildFilterQuery(projectId, resourceName, resourceType, action, userType, afterTimestamp);
-        return mongoTemplate.count(query, AuditEntryEntity.class);
+        if (!auditBuckets.isEnabled()) {
+            return mongoTemplate.count(query, AuditEntryEntity.class);
+        }
+        long count = 0;
+        for (String collection : queriedCollections(afterTimestamp)) {
+            count += mongoTemplate.count(Query.of(query), AuditEntryEntity.class, collection);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the bucket collections of the queried time range, newest first. Without a timestamp filter the range starts
+     * at the maximum query age, as older buckets are archived.
+     */
+    private List<String> queriedCollections(Optional<Date> afterTimestamp) {
+        Instant now = Instant.now();
+        Instant from = afterTimestamp.map(Date::toInstant).orElseGet(() -> now.minus(auditConfig.getMaxQueryAgeDays(), ChronoUnit.DAYS));
+        return auditBuckets.collectionsNewestFirst(from, now);
     }
 
     /**
@@ -58,8 +135,7 @@ public class AuditEntryMongoRepositoryImpl implements AuditEntryMongoRepositoryC
 
         Query query = new Query();
 
-        projectId.ifPresent(id -> query.addCriteria(Criteria.where("projectId").is(id)));
-        resourceName.ifPresent(name -> query.addCriteria(Criteria.where("resourceName").is(name)));
+        resourceCriteria(projectId, resourceName).ifPresent(query::addCriteria);
         resourceType.ifPresent(type -> query.addCriteria(Criteria.where("resourceType").is(type)));
         action.ifPresent(act -> query.addCriteria(Criteria.where("action").is(act)));
         
@@ -76,6 +152,36 @@ public class AuditEntryMongoRepositoryImpl implements AuditEntryMongoRepositoryC
         return query;
     }
     
+    /**
+     * Builds the project/resource name criteria. Besides the top level fields, aggregated audit entries
+     * (e.g. batch reads) are matched when any one of their {@code resources} has the given project and name.
+     *
+     * @param projectId Optional project ID
+     * @param resourceName Optional resource name
+     * @return Criteria matching either form of audit entry, or empty if neither filter is present
+     */
+    private Optional<Criteria> resourceCriteria(Optional<String> projectId, Optional<String> resourceName) {
+        if (projectId.isEmpty() && resourceName.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Criteria().orOperator(
+                projectAndNameCriteria(projectId, resourceName),
+                Criteria.where("resources").elemMatch(projectAndNameCriteria(projectId, resourceName))));
+    }
+
+    /**
+     * Builds criteria on the {@code projectId} and {@code resourceName} fields. The same field names are used
+     * both on the audit entry and on its aggregated resources. At least one of the parameters must be present.
+     */
+    private static Criteria projectAndNameCriteria(Optional<String> projectId, Optional<String> resourceName) {
+        if (projectId.isEmpty()) {
+            return Criteria.where("resourceName").is(resourceName.orElseThrow());
+        }
+        Criteria criteria = Criteria.where("projectId").is(projectId.get());
+        resourceName.ifPresent(name -> criteria.and("resourceName").is(name));
+        return criteria;
+    }
+
     /**
      * Gets the userId prefix based on the user type string.
      *
@@ -0,0 +1,83 @@
+package com.flipkart.grayskull.spimpl.repositories.mongo;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration for how audit entries are laid out in MongoDB.
+ * <p>
+ * Example configuration:
+ * <pre>
+ * grayskull:
+ *   audit:
+ *     storage:
+ *       bucketing: MONTHLY
+ *       read-legacy-collection: true
+ *       archive-directory: /var/lib/grayskull/audit-archive
+ *       maintenance-interval: 1h
+ *       archive-claim-timeout: 10m
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "grayskull.audit.storage")
+@Validated
+public class AuditStorageProperties {
+
+    /**
+     * Time span of the audit collections.
+     */
+    public enum Bucketing {
+        /**
+         * All audit entries are stored in the single {@code auditEntry} collection.
+         */
+        NONE,
+        /**
+         * One collection per UTC day, e.g. {@code auditEntry_2025_01_31}.
+         */
+        DAILY,
+        /**
+         * One collection per UTC month, e.g. {@code auditEntry_2025_01}.
+         */
+        MONTHLY
+    }
+
+    /**
+     * Time span of the collections audit entries are written to. With bucketing, a bucket whose time span is older than
+     * {@code grayskull.audit.max-query-age-days} can no longer be queried and is archived and dropped as a whole, so the
+     * indexes that are updated on insert only cover the current bucket.
+     */
+    @NotNull
+    private Bucketing bucketing = Bucketing.NONE;
+
+    /**
+     * Whether queries also read the un-bucketed {@code auditEntry} collection written before bucketing was enabled.
+     * Can be disabled once that collection is older than {@code grayskull.audit.max-query-age-days}.
+     */
+    private boolean readLegacyCollection = true;
+
+    /**
+     * Directory where expired buckets are exported as gzip compressed newline delimited JSON before they are dropped.
+     * Existing archives are never overwritten. If not set, expired buckets are dropped without an export.
+     */
+    private String archiveDirectory;
+
+    /**
+     * How often expired buckets are looked up.
+     */
+    @NotNull
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    /**
+     * How long the claim of an instance on a bucket it archives stays valid without being refreshed. The claim is
+     * refreshed while the bucket is exported, so this only bounds how long a bucket left behind by a failed instance
+     * waits before another instance takes it over.
+     */
+    @NotNull
+    private Duration archiveClaimTimeout = Duration.ofMinutes(10);
+}
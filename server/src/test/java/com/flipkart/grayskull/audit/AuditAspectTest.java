@@ -3,7 +3,6 @@ package com.flipkart.grayskull.audit;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
 import com.flipkart.grayskull.entities.AuditEntryEntity;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
@@ -11,7 +10,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -56,19 +54,12 @@ class AuditAspectTest {
         when(signature.getParameterNames()).thenReturn(new String[]{"projectId"});
         when(joinPoint.getArgs()).thenReturn(new Object[]{"project123"});
 
-        // Setup RequestUtils
+        // Setup AuditContext
         Map<String, String> additionalMetadata = new HashMap<>();
         additionalMetadata.put("customKey", "customValue");
-        when(requestUtils.getAdditionalMetadata()).thenReturn(additionalMetadata);
         Map<String, String> ips = new HashMap<>();
         ips.put("Remote-Conn-Addr", "127.0.0.1");
-        when(requestUtils.getRemoteIPs()).thenReturn(ips);
-
-        // Setup Security Context
-        GrayskullAuthentication authentication = mock(GrayskullAuthentication.class);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("user1");
-        when(authentication.getActor()).thenReturn("actor1");
+        when(requestUtils.getAuditContext()).thenReturn(new AuditContext("user1", "actor1", ips, additionalMetadata));
 
         // Execute
         auditAspect.auditSuccess(joinPoint, null);
@@ -83,11 +74,12 @@ class AuditAspectTest {
         assertThat(savedEntity.getUserId()).isEqualTo("user1");
         assertThat(savedEntity.getActorId()).isEqualTo("actor1");
         assertThat(savedEntity.getIps()).containsEntry("Remote-Conn-Addr", "127.0.0.1");
+        assertThat(savedEntity.getMetadata()).containsEntry("customKey", "customValue");
     }
 
     @Test
-    @DisplayName("auditSuccess should save AuditEntryEntity with default user and null actor when context is empty")
-    void auditSuccess_shouldSaveWithDefaultUser() throws NoSuchMethodException {
+    @DisplayName("auditSuccess should reuse the AuditContext of the request")
+    void auditSuccess_shouldReuseAuditContextOfRequest() throws NoSuchMethodException {
         // Setup JoinPoint
         JoinPoint joinPoint = mock(JoinPoint.class);
         MethodSignature signature = mock(MethodSignature.class);
@@ -97,14 +89,8 @@ class AuditAspectTest {
         when(signature.getParameterNames()).thenReturn(new String[]{"projectId"});
         when(joinPoint.getArgs()).thenReturn(new Object[]{"project123"});
 
-        // Setup RequestUtils
-        when(requestUtils.getAdditionalMetadata()).thenReturn(new HashMap<>());
-        Map<String, String> ips = new HashMap<>();
-        ips.put("Remote-Conn-Addr", "127.0.0.1");
-        when(requestUtils.getRemoteIPs()).thenReturn(ips);
-
-        // Empty Security Context
-        when(securityContext.getAuthentication()).thenReturn(null);
+        AuditContext auditContext = new AuditContext(AuditConstants.DEFAULT_USER, null, Map.of("Remote-Conn-Addr", "127.0.0.1"), Map.of());
+        when(requestUtils.getAuditContext()).thenReturn(auditContext);
 
         // Execute
         auditAspect.auditSuccess(joinPoint, null);
@@ -116,5 +102,7 @@ class AuditAspectTest {
         AuditEntryEntity savedEntity = captor.getValue();
         assertThat(savedEntity.getUserId()).isEqualTo("system");
         assertThat(savedEntity.getActorId()).isNull();
+        assertThat(savedEntity.getIps()).isSameAs(auditContext.ips());
+        verifyNoInteractions(securityContext);
     }
 }
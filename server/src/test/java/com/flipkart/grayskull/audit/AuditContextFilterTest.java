@@ -0,0 +1,67 @@
+package com.flipkart.grayskull.audit;
+
+import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
+import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuditContextFilterTest {
+
+    private final AuditMetadataEnhancer enhancer = mock(AuditMetadataEnhancer.class);
+    private final FilterChain filterChain = mock(FilterChain.class);
+    private final AuditContextFilter filter = new AuditContextFilter(List.of(enhancer));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilterInternal_WhenAuthenticated_ShouldStoreAuditContextOnRequest() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("X-Real-IP", "10.0.0.1");
+        when(enhancer.getAdditionalMetadata(request)).thenReturn(Map.of("RequestId", "req-1"));
+        SecurityContextHolder.setContext(new SecurityContextImpl(new GrayskullAuthentication("user", null)));
+
+        // Act
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        AuditContext auditContext = (AuditContext) request.getAttribute(AuditContext.REQUEST_ATTRIBUTE);
+        assertNotNull(auditContext);
+        assertEquals("user", auditContext.userId());
+        assertEquals("10.0.0.1", auditContext.ips().get("X-Real-IP"));
+        assertEquals(Map.of("RequestId", "req-1"), auditContext.metadata());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WhenNotAuthenticated_ShouldNotComputeAuditContext() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(request.getAttribute(AuditContext.REQUEST_ATTRIBUTE));
+        verifyNoInteractions(enhancer);
+        verify(filterChain).doFilter(request, response);
+    }
+}
@@ -3,7 +3,13 @@ package com.flipkart.grayskull.audit.utils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.flipkart.grayskull.audit.AuditConstants;
+import com.flipkart.grayskull.audit.AuditContext;
 import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
+import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
@@ -74,4 +80,46 @@ class RequestUtilsTest {
         assertEquals("val1", result.get("key1"));
         assertEquals("val2", result.get("key2"));
     }
+
+    @Test
+    void getAuditContext_ShouldComputeOnceAndReuseForTheRequest() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.168.1.1");
+        AuditMetadataEnhancer enhancer = Mockito.mock(AuditMetadataEnhancer.class);
+        when(enhancer.getAdditionalMetadata(request)).thenReturn(Map.of("key1", "val1"));
+        SecurityContextHolder.setContext(new SecurityContextImpl(new GrayskullAuthentication("user", "actor")));
+        RequestUtils requestUtils = new RequestUtils(request, List.of(enhancer));
+
+        try {
+            // Act
+            AuditContext first = requestUtils.getAuditContext();
+            AuditContext second = requestUtils.getAuditContext();
+
+            // Assert
+            assertSame(first, second);
+            assertSame(first, request.getAttribute(AuditContext.REQUEST_ATTRIBUTE));
+            assertEquals("user", first.userId());
+            assertEquals("actor", first.actorId());
+            assertEquals(Map.of("Remote-Conn-Addr", "192.168.1.1"), first.ips());
+            assertEquals(Map.of("key1", "val1"), first.metadata());
+            assertThrows(UnsupportedOperationException.class, () -> first.metadata().put("key2", "val2"));
+            Mockito.verify(enhancer, Mockito.times(1)).getAdditionalMetadata(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void getAuditContext_ShouldUseDefaultUserWhenNotAuthenticated() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        // Act
+        AuditContext auditContext = new RequestUtils(request, List.of()).getAuditContext();
+
+        // Assert
+        assertEquals(AuditConstants.DEFAULT_USER, auditContext.userId());
+        assertNull(auditContext.actorId());
+    }
 }
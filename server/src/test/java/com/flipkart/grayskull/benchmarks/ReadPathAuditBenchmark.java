@@ -0,0 +1,98 @@
+package com.flipkart.grayskull.benchmarks;
+
+import com.flipkart.grayskull.audit.AuditAction;
+import com.flipkart.grayskull.audit.AuditConstants;
+import com.flipkart.grayskull.audit.AuditContext;
+import com.flipkart.grayskull.audit.utils.RequestUtils;
+import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
+import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
+import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spimpl.audit.RequestIdAuditEnhancer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation benchmark for building the audit entry of a secret read.
+ * <p>
+ * {@code contextPerProducer} resolves the request details (enhancer metadata, remote IPs, user and actor) for
+ * every audit entry, which is what each audit producer used to do. {@code sharedContext} builds the entry from the
+ * {@link AuditContext} computed once per request by the audit context filter.
+ * <p>
+ * Run the {@link #main(String[])} method from the test classpath; the {@code gc.alloc.rate.norm} column of the
+ * GC profiler shows the bytes allocated per audit entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadPathAuditBenchmark {
+
+    private MockHttpServletRequest request;
+    private List<AuditMetadataEnhancer> enhancers;
+    private AuditContext sharedAuditContext;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "203.0.113.195, 70.41.3.18");
+        request.addHeader("X-Request-Id", "req-123");
+        enhancers = List.of(new RequestIdAuditEnhancer(), req -> Map.of("Client-Version", "1.0"));
+        SecurityContextHolder.setContext(new SecurityContextImpl(new GrayskullAuthentication("service:app", "user:actor")));
+        sharedAuditContext = RequestUtils.getAuditContext(request, enhancers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public AuditEntry contextPerProducer() {
+        request.removeAttribute(AuditContext.REQUEST_ATTRIBUTE);
+        return readAuditEntry(RequestUtils.getAuditContext(request, enhancers));
+    }
+
+    @Benchmark
+    public AuditEntry sharedContext() {
+        return readAuditEntry(sharedAuditContext);
+    }
+
+    private static AuditEntry readAuditEntry(AuditContext auditContext) {
+        Map<String, String> metadata = new HashMap<>(auditContext.metadata());
+        metadata.put("publicPart", "username");
+        return AuditEntry.builder()
+                .projectId("project")
+                .resourceType(AuditConstants.RESOURCE_TYPE_SECRET)
+                .resourceName("secret")
+                .resourceVersion(1)
+                .action(AuditAction.READ_SECRET.name())
+                .userId(auditContext.userId())
+                .actorId(auditContext.actorId())
+                .ips(auditContext.ips())
+                .metadata(metadata)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReadPathAuditBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
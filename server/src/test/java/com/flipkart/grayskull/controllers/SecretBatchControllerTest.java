@@ -2,20 +2,26 @@ package com.flipkart.grayskull.controllers;
 
 import com.flipkart.grayskull.audit.AuditAction;
 import com.flipkart.grayskull.audit.AuditConstants;
+import com.flipkart.grayskull.audit.AuditContext;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
+import com.flipkart.grayskull.configuration.properties.SecretWatchProperties;
 import com.flipkart.grayskull.models.dto.request.BatchGetSecretsRequest;
 import com.flipkart.grayskull.models.dto.request.SecretVersionEntry;
 import com.flipkart.grayskull.models.dto.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.dto.response.BatchSecretItem;
+import com.flipkart.grayskull.models.dto.response.ResponseTemplate;
+import com.flipkart.grayskull.models.dto.response.SecretVersionItem;
+import com.flipkart.grayskull.models.dto.response.SecretVersionsResponse;
 import com.flipkart.grayskull.service.interfaces.SecretService;
+import com.flipkart.grayskull.service.utils.SecretChangeNotifier;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spi.models.AuditResource;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,17 +33,23 @@ class SecretBatchControllerTest {
     private final SecretService secretService = mock(SecretService.class);
     private final AsyncAuditLogger asyncAuditLogger = mock(AsyncAuditLogger.class);
     private final RequestUtils requestUtils = mock(RequestUtils.class);
+    private final SecretChangeNotifier secretChangeNotifier = new SecretChangeNotifier();
+    private final SecretWatchProperties secretWatchProperties = new SecretWatchProperties();
     private SecretBatchController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new SecretBatchController(secretService, asyncAuditLogger, requestUtils);
-        SecurityContextHolder.setContext(new SecurityContextImpl(new GrayskullAuthentication("user", "actor-name")));
+        controller = new SecretBatchController(secretService, asyncAuditLogger, requestUtils, secretChangeNotifier, secretWatchProperties);
+        givenAuditContext(Map.of(), Map.of());
     }
 
     @AfterEach
     void tearDown() {
-        SecurityContextHolder.clearContext();
+        secretChangeNotifier.destroy();
+    }
+
+    private void givenAuditContext(Map<String, String> ips, Map<String, String> metadata) {
+        when(requestUtils.getAuditContext()).thenReturn(new AuditContext("user", "actor-name", ips, metadata));
     }
 
     private static BatchSecretItem item(String projectId, String name, int version, String publicPart) {
@@ -50,8 +62,8 @@ class SecretBatchControllerTest {
     }
 
     @Test
-    @DisplayName("Should log one audit entry per updated secret, matching readSecretValue pattern")
-    void batchGet_shouldLogPerSecretAudit() {
+    @DisplayName("Should log a single aggregated audit entry for a single updated secret")
+    void batchGet_shouldLogAggregatedAuditForSingleSecret() {
         BatchSecretItem updatedSecret = item("proj-b", "api-key", 3, "pub");
         BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(1, List.of(updatedSecret));
         Map<String, String> expectedIps = Map.of("Remote-Conn-Addr", "10.0.0.1");
@@ -60,7 +72,7 @@ class SecretBatchControllerTest {
                 new SecretVersionEntry("proj-b", "api-key", 2)));
 
         when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(expectedIps);
+        givenAuditContext(expectedIps, Map.of());
 
         var result = controller.batchGetSecrets(request);
 
@@ -77,7 +89,8 @@ class SecretBatchControllerTest {
         assertThat(logged.getUserId()).isEqualTo("user");
         assertThat(logged.getActorId()).isEqualTo("actor-name");
         assertThat(logged.getIps()).isEqualTo(expectedIps);
-        assertThat(logged.getMetadata()).containsEntry("publicPart", "pub");
+        assertThat(logged.getResources()).containsExactly(
+                new AuditResource("proj-b", "api-key", 3, Map.of("publicPart", "pub")));
     }
 
     @Test
@@ -97,8 +110,8 @@ class SecretBatchControllerTest {
     }
 
     @Test
-    @DisplayName("Should log N audit entries for N updated secrets")
-    void batchGet_shouldLogOneEntryPerUpdatedSecret() {
+    @DisplayName("Should log one audit entry covering all N updated secrets")
+    void batchGet_shouldLogOneEntryForAllUpdatedSecrets() {
         BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(2, List.of(
                 item("proj-a", "db-pass", 2, "pub1"),
                 item("proj-b", "api-key", 3, "pub2")));
@@ -108,54 +121,70 @@ class SecretBatchControllerTest {
                 new SecretVersionEntry("proj-b", "api-key", 1)));
 
         when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(Map.of());
 
         controller.batchGetSecrets(request);
 
         ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.captor();
-        verify(asyncAuditLogger, times(2)).log(captor.capture());
-
-        AuditEntry first = captor.getAllValues().get(0);
-        assertThat(first.getProjectId()).isEqualTo("proj-a");
-        assertThat(first.getResourceName()).isEqualTo("db-pass");
-        assertThat(first.getResourceVersion()).isEqualTo(2);
-        assertThat(first.getAction()).isEqualTo(AuditAction.BATCH_GET_SECRETS.name());
-        assertThat(first.getMetadata()).containsEntry("publicPart", "pub1");
-
-        AuditEntry second = captor.getAllValues().get(1);
-        assertThat(second.getProjectId()).isEqualTo("proj-b");
-        assertThat(second.getResourceName()).isEqualTo("api-key");
-        assertThat(second.getResourceVersion()).isEqualTo(3);
-        assertThat(second.getMetadata()).containsEntry("publicPart", "pub2");
+        verify(asyncAuditLogger, times(1)).log(captor.capture());
+
+        AuditEntry logged = captor.getValue();
+        assertThat(logged.getProjectId()).isEqualTo(AuditConstants.MULTIPLE_VALUE);
+        assertThat(logged.getResourceName()).isEqualTo(AuditConstants.MULTIPLE_VALUE);
+        assertThat(logged.getResourceVersion()).isNull();
+        assertThat(logged.getAction()).isEqualTo(AuditAction.BATCH_GET_SECRETS.name());
+        assertThat(logged.getResources()).containsExactly(
+                new AuditResource("proj-a", "db-pass", 2, Map.of("publicPart", "pub1")),
+                new AuditResource("proj-b", "api-key", 3, Map.of("publicPart", "pub2")));
     }
 
     @Test
-    @DisplayName("Should include audit metadata from enhancers in each per-secret entry")
-    void batchGet_shouldIncludeEnhancerMetadataInEachEntry() {
-        when(requestUtils.getAdditionalMetadata()).thenReturn(Map.of("RequestId", "req-123"));
+    @DisplayName("Should keep the common project on the entry when all secrets belong to one project")
+    void batchGet_shouldSetProjectWhenAllSecretsShareIt() {
+        BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(2, List.of(
+                item("proj-a", "db-pass", 2, null),
+                item("proj-a", "api-key", 3, null)));
 
-        BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(1,
-                List.of(item("proj-a", "db-pass", 2, "pub")));
+        BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
+                new SecretVersionEntry("proj-a", "db-pass", 1),
+                new SecretVersionEntry("proj-a", "api-key", 1)));
+
+        when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
+
+        controller.batchGetSecrets(request);
+
+        ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.captor();
+        verify(asyncAuditLogger).log(captor.capture());
+        assertThat(captor.getValue().getProjectId()).isEqualTo("proj-a");
+        assertThat(captor.getValue().getResourceName()).isEqualTo(AuditConstants.MULTIPLE_VALUE);
+        assertThat(captor.getValue().getResources()).extracting(AuditResource::getMetadata).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("Should include audit metadata from enhancers once on the aggregated entry")
+    void batchGet_shouldIncludeEnhancerMetadata() {
+        givenAuditContext(Map.of(), Map.of("RequestId", "req-123"));
+
+        BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(2, List.of(
+                item("proj-a", "s1", 2, "pubA"),
+                item("proj-b", "s2", 3, "pubB")));
 
         BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
-                new SecretVersionEntry("proj-a", "db-pass", 1)));
+                new SecretVersionEntry("proj-a", "s1", 1),
+                new SecretVersionEntry("proj-b", "s2", 1)));
 
         when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(Map.of());
 
         controller.batchGetSecrets(request);
 
         ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.captor();
         verify(asyncAuditLogger).log(captor.capture());
-        assertThat(captor.getValue().getMetadata())
-                .containsEntry("RequestId", "req-123")
-                .containsEntry("publicPart", "pub");
+        assertThat(captor.getValue().getMetadata()).isEqualTo(Map.of("RequestId", "req-123"));
     }
 
     @Test
     @DisplayName("Should skip null metadata from enhancers")
     void batchGet_shouldSkipNullEnhancerMetadata() {
-        when(requestUtils.getAdditionalMetadata()).thenReturn(Map.of());
+        givenAuditContext(Map.of(), Map.of());
 
         BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(1,
                 List.of(item("proj-a", "db-pass", 2, "pub")));
@@ -164,41 +193,80 @@ class SecretBatchControllerTest {
                 new SecretVersionEntry("proj-a", "db-pass", 1)));
 
         when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(Map.of());
 
         controller.batchGetSecrets(request);
 
         ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.captor();
         verify(asyncAuditLogger).log(captor.capture());
-        assertThat(captor.getValue().getMetadata()).containsKey("publicPart");
         assertThat(captor.getValue().getMetadata()).doesNotContainKey("RequestId");
     }
 
     @Test
-    @DisplayName("Per-secret metadata should not bleed into other entries in the same batch")
-    void batchGet_perSecretMetadataIsIsolated() {
-        when(requestUtils.getAdditionalMetadata()).thenReturn(Map.of("RequestId", "req-xyz"));
+    @DisplayName("Versions should return the service response without auditing")
+    void versions_shouldReturnServiceResponseWithoutAudit() {
+        SecretVersionsResponse serviceResponse = new SecretVersionsResponse(List.of(
+                new SecretVersionItem("proj-a", "db-pass", 3)));
+        BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
+                new SecretVersionEntry("proj-a", "db-pass", 1)));
+        when(secretService.getSecretVersions(request.getSecrets())).thenReturn(serviceResponse);
 
-        BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(2, List.of(
-                item("proj-a", "s1", 2, "pubA"),
-                item("proj-b", "s2", 3, "pubB")));
+        var result = controller.getSecretVersions(request);
 
-        BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
-                new SecretVersionEntry("proj-a", "s1", 1),
-                new SecretVersionEntry("proj-b", "s2", 1)));
+        assertThat(result.getData()).isEqualTo(serviceResponse);
+        verify(secretService, never()).batchGetSecrets(any());
+        verifyNoInteractions(asyncAuditLogger);
+    }
 
+    @Test
+    @DisplayName("Watch should answer immediately when a secret is already newer")
+    void watch_shouldReturnImmediately_whenSecretAlreadyChanged() {
+        BatchGetSecretsResponse serviceResponse = new BatchGetSecretsResponse(1,
+                List.of(item("proj-a", "db-pass", 2, "pub")));
+        BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
+                new SecretVersionEntry("proj-a", "db-pass", 1)));
         when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(serviceResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(Map.of());
 
-        controller.batchGetSecrets(request);
+        DeferredResult<ResponseTemplate<BatchGetSecretsResponse>> result = controller.watchSecrets(request, null);
 
-        ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.captor();
-        verify(asyncAuditLogger, times(2)).log(captor.capture());
-        // Same RequestId on every entry (correlation) ...
-        assertThat(captor.getAllValues().get(0).getMetadata()).containsEntry("RequestId", "req-xyz");
-        assertThat(captor.getAllValues().get(1).getMetadata()).containsEntry("RequestId", "req-xyz");
-        // ... but each entry carries only its own publicPart.
-        assertThat(captor.getAllValues().get(0).getMetadata()).containsEntry("publicPart", "pubA");
-        assertThat(captor.getAllValues().get(1).getMetadata()).containsEntry("publicPart", "pubB");
+        assertThat(result.hasResult()).isTrue();
+        assertThat(result.getResult()).isInstanceOfSatisfying(ResponseTemplate.class,
+                response -> assertThat(response.getData()).isEqualTo(serviceResponse));
+        verify(asyncAuditLogger).log(any());
+    }
+
+    @Test
+    @DisplayName("Watch should stay open until a watched secret changes")
+    void watch_shouldCompleteWhenWatchedSecretIsPublished() throws InterruptedException {
+        BatchGetSecretsResponse unchanged = new BatchGetSecretsResponse(0, List.of());
+        BatchGetSecretsResponse changed = new BatchGetSecretsResponse(1,
+                List.of(item("proj-a", "db-pass", 2, "pub")));
+        BatchGetSecretsRequest request = new BatchGetSecretsRequest(List.of(
+                new SecretVersionEntry("proj-a", "db-pass", 1)));
+        when(secretService.batchGetSecrets(request.getSecrets())).thenReturn(unchanged, changed);
+
+        DeferredResult<ResponseTemplate<BatchGetSecretsResponse>> result = controller.watchSecrets(request, null);
+        assertThat(result.hasResult()).isFalse();
+
+        secretChangeNotifier.publish("proj-a", "other-secret");
+        secretChangeNotifier.publish("proj-a", "db-pass");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(result.getResult()).isInstanceOfSatisfying(ResponseTemplate.class,
+                response -> assertThat(response.getData()).isEqualTo(changed));
+        verify(secretService, times(2)).batchGetSecrets(request.getSecrets());
+        verify(asyncAuditLogger).log(any());
+    }
+
+    @Test
+    @DisplayName("Watch should cap the requested timeout to the configured maximum")
+    void watchTimeout_shouldCapToConfiguredMaximum() {
+        secretWatchProperties.setMaxTimeout(Duration.ofSeconds(20));
+
+        assertThat(controller.watchTimeout(null)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(controller.watchTimeout(5)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(controller.watchTimeout(300)).isEqualTo(Duration.ofSeconds(20));
     }
 }
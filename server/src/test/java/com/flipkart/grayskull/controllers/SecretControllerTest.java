@@ -2,7 +2,7 @@ package com.flipkart.grayskull.controllers;
 
 import com.flipkart.grayskull.audit.AuditAction;
 import com.flipkart.grayskull.audit.AuditConstants;
-import com.flipkart.grayskull.spi.AuditMetadataEnhancer;
+import com.flipkart.grayskull.audit.AuditContext;
 import com.flipkart.grayskull.audit.utils.RequestUtils;
 import com.flipkart.grayskull.models.dto.request.CreateSecretRequest;
 import com.flipkart.grayskull.models.dto.response.SecretDataResponse;
@@ -11,15 +11,11 @@ import com.flipkart.grayskull.models.dto.response.SecretResponse;
 import com.flipkart.grayskull.service.interfaces.SecretService;
 import com.flipkart.grayskull.spi.AsyncAuditLogger;
 import com.flipkart.grayskull.spi.MetadataValidator;
-import com.flipkart.grayskull.spi.authn.GrayskullAuthentication;
 import com.flipkart.grayskull.spi.models.AuditEntry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
-import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.context.SecurityContextImpl;
 
 import java.util.*;
 
@@ -38,19 +34,12 @@ class SecretControllerTest {
 
     private final RequestUtils requestUtils = mock(RequestUtils.class);
     private final List<MetadataValidator> plugins = new ArrayList<>();
-    private final List<AuditMetadataEnhancer> auditMetadataEnhancers = new ArrayList<>();
 
     private SecretController secretController;
 
     @BeforeEach
     void setUp() {
-        secretController = new SecretController(secretService, asyncAuditLogger, requestUtils, plugins, auditMetadataEnhancers);
-        SecurityContextHolder.setContext(new SecurityContextImpl(new GrayskullAuthentication("user", "actor-name")));
-    }
-
-    @AfterEach
-    void tearDown() {
-        SecurityContextHolder.clearContext();
+        secretController = new SecretController(secretService, asyncAuditLogger, requestUtils, plugins);
     }
 
     @ParameterizedTest
@@ -60,13 +49,12 @@ class SecretControllerTest {
         // Arrange
         SecretDataResponse expectedResponse = SecretDataResponse.builder().publicPart(publicPart).dataVersion(5).build();
         Map<String, String> expectedIps = Map.of("Remote-Conn-Addr", "ip1");
-        MockHttpServletRequest request = new MockHttpServletRequest();
 
         when(secretService.readSecretValue(PROJECT_ID, SECRET_NAME)).thenReturn(expectedResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(expectedIps);
+        when(requestUtils.getAuditContext()).thenReturn(new AuditContext("user", "actor-name", expectedIps, Map.of()));
 
         // Act
-        var result = secretController.readSecretValue(PROJECT_ID, SECRET_NAME, request);
+        var result = secretController.readSecretValue(PROJECT_ID, SECRET_NAME);
 
         // Assert
         assertThat(result.getData()).isEqualTo(expectedResponse);
@@ -79,7 +67,7 @@ class SecretControllerTest {
         assertThat(auditEntryArgumentCaptor.getValue())
                 .usingRecursiveComparison()
                 .ignoringFields("timestamp")
-                .isEqualTo(new AuditEntry(null, PROJECT_ID, AuditConstants.RESOURCE_TYPE_SECRET, SECRET_NAME, 5, AuditAction.READ_SECRET.name(), "user", "actor-name", expectedIps, null, expectedAuditMetadata));
+                .isEqualTo(new AuditEntry(null, PROJECT_ID, AuditConstants.RESOURCE_TYPE_SECRET, SECRET_NAME, 5, AuditAction.READ_SECRET.name(), "user", "actor-name", expectedIps, null, expectedAuditMetadata, null));
     }
 
     @ParameterizedTest
@@ -89,13 +77,12 @@ class SecretControllerTest {
         // Arrange
         SecretDataVersionResponse expectedResponse = SecretDataVersionResponse.builder().publicPart(publicPart).dataVersion(5).build();
         Map<String, String> expectedIps = Map.of("Remote-Conn-Addr", "ip1");
-        MockHttpServletRequest request = new MockHttpServletRequest();
 
         when(secretService.getSecretDataVersion(PROJECT_ID, SECRET_NAME, 5, Optional.empty())).thenReturn(expectedResponse);
-        when(requestUtils.getRemoteIPs()).thenReturn(expectedIps);
+        when(requestUtils.getAuditContext()).thenReturn(new AuditContext("user", "actor-name", expectedIps, Map.of()));
 
         // Act
-        var result = secretController.getSecretDataVersion(PROJECT_ID, SECRET_NAME, 5, Optional.empty(), request);
+        var result = secretController.getSecretDataVersion(PROJECT_ID, SECRET_NAME, 5, Optional.empty());
 
         // Assert
         assertThat(result.getData()).isEqualTo(expectedResponse);
@@ -108,7 +95,7 @@ class SecretControllerTest {
         assertThat(auditEntryArgumentCaptor.getValue())
                 .usingRecursiveComparison()
                 .ignoringFields("timestamp")
-                .isEqualTo(new AuditEntry(null, PROJECT_ID, AuditConstants.RESOURCE_TYPE_SECRET, SECRET_NAME, 5, AuditAction.READ_SECRET_VERSION.name(), "user", "actor-name", expectedIps, null, expectedMetadata));
+                .isEqualTo(new AuditEntry(null, PROJECT_ID, AuditConstants.RESOURCE_TYPE_SECRET, SECRET_NAME, 5, AuditAction.READ_SECRET_VERSION.name(), "user", "actor-name", expectedIps, null, expectedMetadata, null));
     }
 
 
@@ -8,7 +8,10 @@ import com.flipkart.grayskull.models.dto.request.SecretVersionEntry;
 import com.flipkart.grayskull.models.dto.response.BatchGetSecretsResponse;
 import com.flipkart.grayskull.models.dto.response.BatchSecretItem;
 import com.flipkart.grayskull.models.dto.response.SecretDataResponse;
+import com.flipkart.grayskull.models.dto.response.SecretVersionItem;
+import com.flipkart.grayskull.models.dto.response.SecretVersionsResponse;
 import com.flipkart.grayskull.service.utils.AuthnUtil;
+import com.flipkart.grayskull.service.utils.SecretChangeNotifier;
 import com.flipkart.grayskull.service.utils.SecretEncryptionUtil;
 import com.flipkart.grayskull.spi.models.Secret;
 import com.flipkart.grayskull.spi.models.SecretData;
@@ -42,8 +45,9 @@ class SecretServiceImplTest {
     private final KmsConfig kmsConfig = mock();
     private final ProjectRepository projectRepository = mock();
     private final AuthnUtil authnUtil = mock();
+    private final SecretChangeNotifier secretChangeNotifier = mock();
 
-    private final SecretServiceImpl secretService = new SecretServiceImpl(secretRepository, secretDataRepository, secretMapper, secretEncryptionUtil, kmsConfig, projectRepository, authnUtil);
+    private final SecretServiceImpl secretService = new SecretServiceImpl(secretRepository, secretDataRepository, secretMapper, secretEncryptionUtil, kmsConfig, projectRepository, authnUtil, secretChangeNotifier);
 
     @Test
     @DisplayName("destroySecret should throw NotFoundException when secret does not exist")
@@ -81,6 +85,19 @@ class SecretServiceImplTest {
         verify(secretRepository).delete(secret);
     }
 
+    @Test
+    @DisplayName("deleteSecret should notify watchers of the secret")
+    void deleteSecret_shouldPublishChange() {
+        Secret secret = new Secret();
+        secret.setState(LifecycleState.ACTIVE);
+        when(secretRepository.findByProjectIdAndNameAndState("project", "secret", LifecycleState.ACTIVE)).thenReturn(Optional.of(secret));
+
+        secretService.deleteSecret("project", "secret");
+
+        assertThat(secret.getState()).isEqualTo(LifecycleState.DISABLED);
+        verify(secretChangeNotifier).publish("project", "secret");
+    }
+
     @Nested
     @DisplayName("batchGetSecrets")
     class BatchGetSecretsTest {
@@ -269,4 +286,45 @@ class SecretServiceImplTest {
             verify(secretDataRepository, never()).getBySecretIdAndDataVersion(eq("s1"), anyLong());
         }
     }
+
+    @Nested
+    @DisplayName("getSecretVersions")
+    class GetSecretVersionsTest {
+
+        @Test
+        @DisplayName("Should return current versions in request order without reading secret data")
+        void shouldReturnVersions_withoutTouchingSecretData() {
+            Secret secretA = Secret.builder()
+                    .id("sa").projectId("proj-a").name("key-1").currentDataVersion(1).build();
+            Secret secretB = Secret.builder()
+                    .id("sb").projectId("proj-b").name("key-2").currentDataVersion(4).build();
+            when(secretRepository.findActiveByProjectAndNames(Map.of(
+                    "proj-a", List.of("key-1"),
+                    "proj-b", List.of("key-2"))))
+                    .thenReturn(List.of(secretA, secretB));
+
+            SecretVersionsResponse response = secretService.getSecretVersions(List.of(
+                    new SecretVersionEntry("proj-b", "key-2", 4),
+                    new SecretVersionEntry("proj-a", "key-1", null)
+            ));
+
+            assertThat(response.getSecrets()).containsExactly(
+                    new SecretVersionItem("proj-b", "key-2", 4),
+                    new SecretVersionItem("proj-a", "key-1", 1));
+            verifyNoInteractions(secretDataRepository, secretEncryptionUtil);
+        }
+
+        @Test
+        @DisplayName("Should throw NotFoundException when a requested secret is missing")
+        void shouldThrowNotFound_whenSecretMissing() {
+            when(secretRepository.findActiveByProjectAndNames(Map.of("proj", List.of("missing"))))
+                    .thenReturn(List.of());
+
+            assertThatThrownBy(() -> secretService.getSecretVersions(List.of(
+                    new SecretVersionEntry("proj", "missing", 0)
+            )))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("missing");
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.flipkart.grayskull.service.utils;
+
+import com.flipkart.grayskull.models.dto.request.SecretVersionEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecretChangeNotifierTest {
+
+    private final SecretChangeNotifier notifier = new SecretChangeNotifier();
+
+    @AfterEach
+    void tearDown() {
+        notifier.destroy();
+    }
+
+    private static List<SecretVersionEntry> secrets(String... names) {
+        return Arrays.stream(names).map(name -> new SecretVersionEntry("project", name, 1)).toList();
+    }
+
+    @Test
+    void publish_shouldRunListenersOfThatSecretOnly() throws InterruptedException {
+        CountDownLatch woken = new CountDownLatch(1);
+        AtomicInteger otherCalls = new AtomicInteger();
+        notifier.subscribe(secrets("a", "b"), woken::countDown);
+        notifier.subscribe(secrets("c"), otherCalls::incrementAndGet);
+
+        notifier.publish("project", "b");
+
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(otherCalls).hasValue(0);
+    }
+
+    @Test
+    void cancel_shouldRemoveListenerFromEverySecret() {
+        SecretChangeNotifier.Subscription first = notifier.subscribe(secrets("a", "b"), () -> { });
+        SecretChangeNotifier.Subscription second = notifier.subscribe(secrets("b"), () -> { });
+        assertThat(notifier.subscribedSecrets()).isEqualTo(2);
+
+        first.cancel();
+        assertThat(notifier.subscribedSecrets()).isEqualTo(1);
+
+        second.cancel();
+        second.cancel();
+        assertThat(notifier.subscribedSecrets()).isZero();
+    }
+
+    @Test
+    void publish_shouldWaitForTransactionCommit() throws InterruptedException {
+        CountDownLatch woken = new CountDownLatch(1);
+        notifier.subscribe(secrets("a"), woken::countDown);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            notifier.publish("project", "a");
+            assertThat(woken.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,82 @@
+package com.flipkart.grayskull.spimpl.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flipkart.grayskull.spi.models.AuditEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.flipkart.grayskull.spimpl.audit.SimpleAsyncAuditLogger.AUDIT_ERROR_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditSpillFileTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> replayed = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    private AuditSpillFile spillFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        spillFile = new AuditSpillFile(tempDir, objectMapper, meterRegistry);
+    }
+
+    private static AuditEntry entry(String name) {
+        return AuditEntry.builder().projectId("project").resourceName(name).action("READ_SECRET").metadata(Map.of()).build();
+    }
+
+    private void record(List<AuditEntry> batch) {
+        batch.forEach(auditEntry -> replayed.add(auditEntry.getResourceName()));
+    }
+
+    @Test
+    void replay_shouldSkipAndCountUnparseableLines() throws IOException {
+        spillFile.append(List.of(entry("a")));
+        // a crash during append leaves a torn line behind
+        Files.writeString(tempDir.resolve("audit-spill.jsonl"), "{\"projectId\":\"proj\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        spillFile.append(List.of(entry("b")));
+
+        assertThat(spillFile.replay(10, this::record)).isEqualTo(2);
+
+        assertThat(replayed).containsExactly("a", "b");
+        assertThat(meterRegistry.counter(AUDIT_ERROR_METRIC, "action", "deserialize").count()).isEqualTo(1);
+        assertThat(tempDir.resolve("audit-spill.jsonl.replay")).doesNotExist();
+        assertThat(tempDir.resolve("audit-spill.jsonl.replay.offset")).doesNotExist();
+    }
+
+    @Test
+    void replay_shouldResumeAfterTheLastBatchThatWasHandedOver() throws IOException {
+        spillFile.append(List.of(entry("a"), entry("b"), entry("c")));
+        boolean[] failed = {false};
+
+        assertThatThrownBy(() -> spillFile.replay(1, batch -> {
+            if (batch.get(0).getResourceName().equals("b") && !failed[0]) {
+                failed[0] = true;
+                throw new IllegalStateException("mongo down");
+            }
+            record(batch);
+        })).isInstanceOf(IllegalStateException.class);
+        spillFile.append(List.of(entry("d")));
+
+        assertThat(spillFile.replay(1, this::record)).isEqualTo(2);
+        assertThat(spillFile.replay(1, this::record)).isEqualTo(1);
+
+        assertThat(replayed).containsExactly("a", "b", "c", "d");
+    }
+}
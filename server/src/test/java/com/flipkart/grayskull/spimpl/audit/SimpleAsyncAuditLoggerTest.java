@@ -0,0 +1,228 @@
+package com.flipkart.grayskull.spimpl.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flipkart.grayskull.spi.models.AuditEntry;
+import com.flipkart.grayskull.spi.repositories.AuditEntryRepository;
+import com.flipkart.grayskull.spimpl.audit.SimpleAsyncAuditProperties.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.flipkart.grayskull.spimpl.audit.SimpleAsyncAuditLogger.AUDIT_DROPPED_METRIC;
+import static com.flipkart.grayskull.spimpl.audit.SimpleAsyncAuditLogger.AUDIT_ERROR_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SimpleAsyncAuditLoggerTest {
+
+    private final AuditEntryRepository auditEntryRepository = mock(AuditEntryRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AuditEntry> saved = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleAsyncAuditProperties properties(OverflowPolicy policy, int capacity, int batchSize) {
+        SimpleAsyncAuditProperties properties = new SimpleAsyncAuditProperties();
+        properties.setOverflowPolicy(policy);
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        properties.setSpillDirectory(tempDir.toString());
+        return properties;
+    }
+
+    private static AuditEntry entry(String name) {
+        return AuditEntry.builder().projectId("project").resourceName(name).action("READ_SECRET").metadata(Map.of()).build();
+    }
+
+    private void recordSaves() {
+        when(auditEntryRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<AuditEntry> entries = invocation.getArgument(0);
+            entries.forEach(saved::add);
+            return List.of();
+        });
+    }
+
+    @Test
+    void log_shouldPersistEntriesInBatchesUsingSaveAll() throws Exception {
+        recordSaves();
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.BLOCK, 100, 10), objectMapper, meterRegistry);
+        for (int i = 0; i < 25; i++) {
+            logger.log(entry("secret-" + i));
+        }
+
+        logger.start();
+        logger.shutdown();
+
+        assertThat(saved).hasSize(25);
+        verify(auditEntryRepository, times(3)).saveAll(any());
+        verify(auditEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void log_shouldDropAndCountWhenQueueIsFull() throws Exception {
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.DROP, 2, 10), objectMapper, meterRegistry);
+
+        logger.log(entry("a"));
+        logger.log(entry("b"));
+        logger.log(entry("c"));
+
+        assertThat(meterRegistry.counter(AUDIT_DROPPED_METRIC, "reason", "queue-full").count()).isEqualTo(1);
+    }
+
+    @Test
+    void log_shouldBlockUntilConsumerMakesSpace() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditEntryRepository.saveAll(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            Iterable<AuditEntry> entries = invocation.getArgument(0);
+            entries.forEach(saved::add);
+            return List.of();
+        });
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.BLOCK, 1, 1), objectMapper, meterRegistry);
+        logger.start();
+        logger.log(entry("a"));
+        logger.log(entry("b"));
+
+        Thread producer = Thread.ofVirtual().start(() -> logger.log(entry("c")));
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+
+        release.countDown();
+        producer.join(5000);
+        assertThat(producer.isAlive()).isFalse();
+        logger.shutdown();
+        assertThat(saved).extracting(AuditEntry::getResourceName).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void log_shouldSpillOverflowAndReplayWhenIdle() throws Exception {
+        recordSaves();
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.SPILL, 1, 10), objectMapper, meterRegistry);
+        logger.log(entry("a"));
+        logger.log(entry("b"));
+        logger.log(entry("c"));
+        assertThat(Files.readAllLines(tempDir.resolve("audit-spill.jsonl"))).hasSize(2);
+
+        logger.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saved.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        logger.shutdown();
+
+        assertThat(saved).extracting(AuditEntry::getResourceName).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(tempDir.resolve("audit-spill.jsonl")).doesNotExist();
+        assertThat(tempDir.resolve("audit-spill.jsonl.replay")).doesNotExist();
+    }
+
+    @Test
+    void log_shouldReplaySpilledEntriesWhileTheQueueStaysBusy() throws Exception {
+        recordSaves();
+        SimpleAsyncAuditProperties properties = properties(OverflowPolicy.SPILL, 1, 1);
+        // the queue never stays idle for this long during the test, so only interleaved replays can pick up the spill
+        properties.setFlushInterval(Duration.ofSeconds(30));
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        properties.setReplayEvery(2);
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties, objectMapper, meterRegistry);
+        logger.log(entry("queued"));
+        logger.log(entry("spilled"));
+
+        logger.start();
+        AtomicBoolean loaded = new AtomicBoolean(true);
+        Thread load = Thread.ofVirtual().start(() -> {
+            for (int i = 0; loaded.get(); i++) {
+                logger.log(entry("load-" + i));
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saved.stream().noneMatch(auditEntry -> auditEntry.getResourceName().equals("spilled")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        boolean replayedUnderLoad = load.isAlive();
+        loaded.set(false);
+        load.join();
+        logger.shutdown();
+
+        assertThat(saved).extracting(AuditEntry::getResourceName).contains("queued", "spilled");
+        assertThat(replayedUnderLoad).isTrue();
+    }
+
+    @Test
+    void log_shouldDropAndCountEntriesLoggedAfterShutdown() throws Exception {
+        recordSaves();
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.BLOCK, 1, 1), objectMapper, meterRegistry);
+        logger.start();
+        logger.shutdown();
+
+        logger.log(entry("late"));
+
+        assertThat(saved).isEmpty();
+        assertThat(meterRegistry.counter(AUDIT_DROPPED_METRIC, "reason", "shutdown").count()).isEqualTo(1);
+    }
+
+    @Test
+    void log_shouldReleaseACallerBlockedOnAFullQueueAtShutdown() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditEntryRepository.saveAll(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        SimpleAsyncAuditProperties properties = properties(OverflowPolicy.BLOCK, 1, 1);
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties, objectMapper, meterRegistry);
+        logger.start();
+        logger.log(entry("a"));
+        verify(auditEntryRepository, timeout(5000)).saveAll(any());
+        logger.log(entry("b"));
+        Thread producer = Thread.ofVirtual().start(() -> logger.log(entry("c")));
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+
+        logger.shutdown();
+        producer.join(5000);
+
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(meterRegistry.counter(AUDIT_DROPPED_METRIC, "reason", "shutdown").count()).isEqualTo(2);
+        release.countDown();
+    }
+
+    @Test
+    void persist_shouldCountErrorAndDropWhenSaveFails() throws Exception {
+        when(auditEntryRepository.saveAll(any())).thenThrow(new IllegalStateException("mongo down"));
+        SimpleAsyncAuditLogger logger = new SimpleAsyncAuditLogger(auditEntryRepository, properties(OverflowPolicy.BLOCK, 10, 10), objectMapper, meterRegistry);
+        logger.log(entry("a"));
+        logger.log(entry("b"));
+
+        logger.start();
+        logger.shutdown();
+
+        assertThat(meterRegistry.counter(AUDIT_ERROR_METRIC, "action", "save").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(AUDIT_DROPPED_METRIC, "reason", "save-failed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void constructor_shouldRequireSpillDirectoryForSpillPolicy() {
+        SimpleAsyncAuditProperties properties = properties(OverflowPolicy.SPILL, 10, 10);
+        properties.setSpillDirectory(null);
+
+        assertThatThrownBy(() -> new SimpleAsyncAuditLogger(auditEntryRepository, properties, objectMapper, meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -52,12 +52,12 @@ class AuditEntryRepositoryImplTest {
             entity.setProjectId("project-123");
             
             when(auditEntryMapper.toEntity(auditEntry)).thenReturn(entity);
-            when(mongoRepository.save(entity)).thenReturn(entity);
+            when(mongoRepository.saveToBucket(entity)).thenReturn(entity);
 
             AuditEntry result = repository.save(auditEntry);
 
             verify(auditEntryMapper).toEntity(auditEntry);
-            verify(mongoRepository).save(entity);
+            verify(mongoRepository).saveToBucket(entity);
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo("audit-1");
             assertThat(result.getProjectId()).isEqualTo("project-123");
@@ -71,7 +71,7 @@ class AuditEntryRepositoryImplTest {
             entity.setId("saved-id");
             
             when(auditEntryMapper.toEntity(auditEntry)).thenReturn(entity);
-            when(mongoRepository.save(entity)).thenReturn(entity);
+            when(mongoRepository.saveToBucket(entity)).thenReturn(entity);
 
             AuditEntry result = repository.save(auditEntry);
 
@@ -102,11 +102,11 @@ class AuditEntryRepositoryImplTest {
             
             when(auditEntryMapper.toEntity(entry1)).thenReturn(entity1);
             when(auditEntryMapper.toEntity(entry2)).thenReturn(entity2);
-            when(mongoRepository.saveAll(anyIterable())).thenReturn(List.of(entity1, entity2));
+            when(mongoRepository.saveAllToBuckets(anyCollection())).thenReturn(List.of(entity1, entity2));
 
             List<AuditEntry> results = repository.saveAll(entries);
 
-            verify(mongoRepository).saveAll(anyIterable());
+            verify(mongoRepository).saveAllToBuckets(anyCollection());
             assertThat(results).hasSize(2);
             assertThat(results.get(0).getId()).isEqualTo("audit-1");
             assertThat(results.get(1).getId()).isEqualTo("audit-2");
@@ -117,11 +117,11 @@ class AuditEntryRepositoryImplTest {
         void shouldHandleEmptyList() {
             List<AuditEntry> entries = List.of();
             
-            when(mongoRepository.saveAll(anyIterable())).thenReturn(List.of());
+            when(mongoRepository.saveAllToBuckets(anyCollection())).thenReturn(List.of());
 
             List<AuditEntry> results = repository.saveAll(entries);
 
-            verify(mongoRepository).saveAll(anyIterable());
+            verify(mongoRepository).saveAllToBuckets(anyCollection());
             assertThat(results).isEmpty();
         }
 
@@ -135,7 +135,7 @@ class AuditEntryRepositoryImplTest {
             entity.setId("single");
             
             when(auditEntryMapper.toEntity(entry)).thenReturn(entity);
-            when(mongoRepository.saveAll(anyIterable())).thenReturn(List.of(entity));
+            when(mongoRepository.saveAllToBuckets(anyCollection())).thenReturn(List.of(entity));
 
             List<AuditEntry> results = repository.saveAll(List.of(entry));
 
@@ -0,0 +1,239 @@
+package com.flipkart.grayskull.spimpl.repositories.mongo;
+
+import com.flipkart.grayskull.configuration.AuditQueryConfiguration;
+import com.flipkart.grayskull.spimpl.repositories.mongo.AuditStorageProperties.Bucketing;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuditBucketArchiverTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AuditStorageProperties properties = new AuditStorageProperties();
+    private final AuditQueryConfiguration auditConfig = new AuditQueryConfiguration(30, "service:", "user:");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> expiredCollection = mock(MongoCollection.class);
+    private final Map<String, Document> locks = new ConcurrentHashMap<>();
+
+    @TempDir
+    Path archiveDirectory;
+
+    private AuditBucketArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBucketing(Bucketing.MONTHLY);
+        properties.setArchiveDirectory(archiveDirectory.toString());
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getName()).thenReturn("grayskull");
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(mongoTemplate.getCollection("auditEntry_2020_01")).thenReturn(expiredCollection);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Document.class), eq(AuditBucketArchiver.LOCK_COLLECTION)))
+                .thenAnswer(this::modifyLock);
+        when(mongoTemplate.remove(any(Query.class), eq(AuditBucketArchiver.LOCK_COLLECTION))).thenAnswer(invocation -> {
+            Document query = invocation.<Query>getArgument(0).getQueryObject();
+            locks.computeIfPresent(query.getString("_id"), (id, lock) -> matches(lock, query) ? null : lock);
+            return null;
+        });
+        archiver = newArchiver();
+    }
+
+    private AuditBucketArchiver newArchiver() {
+        return new AuditBucketArchiver(new AuditBuckets(properties, mongoTemplate), properties, auditConfig, mongoTemplate, meterRegistry);
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldExportAndDropOnlyExpiredBuckets() throws IOException {
+        String current = new AuditBuckets(properties, mongoTemplate).collectionFor(Instant.now());
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01", current, "auditEntry", "secret"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("auditEntry_2020_01_archiving")))
+                .thenReturn(Stream.of(new Document("resourceName", "a"), new Document("resourceName", "b")));
+
+        archiver.archiveExpiredBuckets();
+
+        verify(expiredCollection).renameCollection(new MongoNamespace("grayskull", "auditEntry_2020_01_archiving"));
+        verify(mongoTemplate).dropCollection("auditEntry_2020_01_archiving");
+        verify(mongoTemplate, never()).dropCollection(current);
+        verify(mongoTemplate, never()).dropCollection("auditEntry");
+        assertThat(readArchive("auditEntry_2020_01")).containsExactly("{\"resourceName\": \"a\"}", "{\"resourceName\": \"b\"}");
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldKeepTheArchiveOfABucketThatWasArchivedBefore() throws IOException {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("auditEntry_2020_01_archiving")))
+                .thenReturn(Stream.of(new Document("resourceName", "a")), Stream.of(new Document("resourceName", "late")));
+
+        archiver.archiveExpiredBuckets();
+        archiver.archiveExpiredBuckets();
+
+        assertThat(readArchive("auditEntry_2020_01")).containsExactly("{\"resourceName\": \"a\"}");
+        assertThat(readArchive("auditEntry_2020_01.1")).containsExactly("{\"resourceName\": \"late\"}");
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldLeaveABucketToTheInstanceThatIsArchivingIt() throws IOException {
+        AuditBucketArchiver other = newArchiver();
+        AtomicBoolean otherRan = new AtomicBoolean();
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01_archiving"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("auditEntry_2020_01_archiving"))).thenAnswer(invocation -> {
+            // the other instance runs while this one is still exporting the bucket
+            if (otherRan.compareAndSet(false, true)) {
+                other.archiveExpiredBuckets();
+            }
+            return Stream.of(new Document("resourceName", "a"));
+        });
+
+        archiver.archiveExpiredBuckets();
+
+        assertThat(otherRan).isTrue();
+        verify(mongoTemplate, times(1)).stream(any(Query.class), eq(Document.class), anyString());
+        verify(mongoTemplate, times(1)).dropCollection("auditEntry_2020_01_archiving");
+        assertThat(readArchive("auditEntry_2020_01")).containsExactly("{\"resourceName\": \"a\"}");
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            assertThat(files).containsExactly(archiveDirectory.resolve("auditEntry_2020_01.jsonl.gz"));
+        }
+        assertThat(locks).isEmpty();
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldTakeOverAClaimThatWasAbandoned() {
+        locks.put("auditEntry_2020_01", new Document("_id", "auditEntry_2020_01").append("owner", "crashed").append("claimedAt", Instant.now().minus(Duration.ofHours(1))));
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01_archiving"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("auditEntry_2020_01_archiving"))).thenReturn(Stream.of(new Document("resourceName", "a")));
+
+        archiver.archiveExpiredBuckets();
+
+        verify(mongoTemplate).dropCollection("auditEntry_2020_01_archiving");
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldNotTakeOverARecentClaim() {
+        locks.put("auditEntry_2020_01", new Document("_id", "auditEntry_2020_01").append("owner", "busy").append("claimedAt", Instant.now()));
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01_archiving"));
+
+        archiver.archiveExpiredBuckets();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), anyString());
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        assertThat(locks.get("auditEntry_2020_01").getString("owner")).isEqualTo("busy");
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldSkipBucketClaimedByAnotherInstance() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01"));
+        doThrow(new MongoCommandException(new BsonDocument(), new ServerAddress())).when(expiredCollection).renameCollection(any(MongoNamespace.class));
+
+        archiver.archiveExpiredBuckets();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), anyString());
+        verify(mongoTemplate, never()).dropCollection(anyString());
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldRetryBucketLeftInArchivingStateAndKeepItWhenExportFails() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("auditEntry_2020_01_archiving"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("auditEntry_2020_01_archiving"))).thenThrow(new IllegalStateException("mongo down"));
+
+        archiver.archiveExpiredBuckets();
+
+        verify(expiredCollection, never()).renameCollection(any(MongoNamespace.class));
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        assertThat(meterRegistry.counter(AuditBucketArchiver.AUDIT_ARCHIVE_ERROR_METRIC).count()).isEqualTo(1);
+    }
+
+    @Test
+    void archiveExpiredBuckets_shouldDoNothingWithoutBucketing() {
+        properties.setBucketing(Bucketing.NONE);
+
+        archiver.archiveExpiredBuckets();
+
+        verify(mongoTemplate, never()).getCollectionNames();
+    }
+
+    /**
+     * Applies a findAndModify on the lock collection like MongoDB would, for the filters used by the archiver.
+     */
+    private Document modifyLock(InvocationOnMock invocation) {
+        Document query = invocation.<Query>getArgument(0).getQueryObject();
+        Document set = (Document) invocation.<UpdateDefinition>getArgument(1).getUpdateObject().get("$set");
+        boolean upsert = invocation.<FindAndModifyOptions>getArgument(2).isUpsert();
+        String id = query.getString("_id");
+        Document[] result = new Document[1];
+        locks.compute(id, (key, lock) -> {
+            if (lock == null && !upsert) {
+                return null;
+            }
+            if (lock != null && !matches(lock, query)) {
+                if (upsert) {
+                    throw new DuplicateKeyException("E11000 duplicate key error, _id: " + id);
+                }
+                return lock;
+            }
+            Document updated = lock == null ? new Document("_id", id) : new Document(lock);
+            updated.putAll(set);
+            result[0] = updated;
+            return updated;
+        });
+        return result[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Document lock, Document query) {
+        for (Map.Entry<String, Object> condition : query.entrySet()) {
+            boolean matched = switch (condition.getKey()) {
+                case "_id", "owner" -> condition.getValue().equals(lock.get(condition.getKey()));
+                case "claimedAt" -> ((Instant) lock.get("claimedAt")).isBefore((Instant) ((Document) condition.getValue()).get("$lt"));
+                case "$or" -> ((List<Document>) condition.getValue()).stream().anyMatch(alternative -> matches(lock, alternative));
+                default -> throw new IllegalArgumentException("unsupported lock filter " + condition.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<String> readArchive(String bucket) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(archiveDirectory.resolve(bucket + ".jsonl.gz"))), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
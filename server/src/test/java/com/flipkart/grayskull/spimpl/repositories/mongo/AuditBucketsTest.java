@@ -0,0 +1,81 @@
+package com.flipkart.grayskull.spimpl.repositories.mongo;
+
+import com.flipkart.grayskull.spimpl.repositories.mongo.AuditStorageProperties.Bucketing;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditBucketsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private AuditBuckets buckets(Bucketing bucketing) {
+        AuditStorageProperties properties = new AuditStorageProperties();
+        properties.setBucketing(bucketing);
+        return new AuditBuckets(properties, mongoTemplate);
+    }
+
+    @Test
+    void collectionFor_shouldUseLegacyCollectionWithoutBucketing() {
+        AuditBuckets buckets = buckets(Bucketing.NONE);
+
+        assertThat(buckets.isEnabled()).isFalse();
+        assertThat(buckets.collectionFor(Instant.parse("2025-03-15T10:00:00Z"))).isEqualTo("auditEntry");
+        assertThat(buckets.collectionsNewestFirst(Instant.parse("2025-01-01T00:00:00Z"), Instant.now())).containsExactly("auditEntry");
+    }
+
+    @Test
+    void collectionFor_shouldNameBucketsAfterTheirUtcStart() {
+        assertThat(buckets(Bucketing.MONTHLY).collectionFor(Instant.parse("2025-03-31T23:59:59Z"))).isEqualTo("auditEntry_2025_03");
+        assertThat(buckets(Bucketing.DAILY).collectionFor(Instant.parse("2025-03-31T23:59:59Z"))).isEqualTo("auditEntry_2025_03_31");
+    }
+
+    @Test
+    void collectionsNewestFirst_shouldListBucketsOfRangeFollowedByLegacyCollection() {
+        assertThat(buckets(Bucketing.MONTHLY).collectionsNewestFirst(Instant.parse("2024-11-20T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z")))
+                .containsExactly("auditEntry_2025_02", "auditEntry_2025_01", "auditEntry_2024_12", "auditEntry_2024_11", "auditEntry");
+    }
+
+    @Test
+    void collectionsNewestFirst_shouldOmitLegacyCollectionWhenDisabled() {
+        AuditStorageProperties properties = new AuditStorageProperties();
+        properties.setBucketing(Bucketing.DAILY);
+        properties.setReadLegacyCollection(false);
+        AuditBuckets buckets = new AuditBuckets(properties, mongoTemplate);
+
+        assertThat(buckets.collectionsNewestFirst(Instant.parse("2025-02-27T12:00:00Z"), Instant.parse("2025-03-01T01:00:00Z")))
+                .containsExactly("auditEntry_2025_03_01", "auditEntry_2025_02_28", "auditEntry_2025_02_27");
+    }
+
+    @Test
+    void bucketEnd_shouldParseOnlyBucketsOfTheConfiguredBucketing() {
+        AuditBuckets buckets = buckets(Bucketing.MONTHLY);
+
+        assertThat(buckets.bucketEnd("auditEntry_2024_12")).contains(Instant.parse("2025-01-01T00:00:00Z"));
+        assertThat(buckets.bucketEnd("auditEntry_2024_12_01")).isEmpty();
+        assertThat(buckets.bucketEnd("auditEntry")).isEmpty();
+        assertThat(buckets.bucketEnd("secret")).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void ensureIndexes_shouldCreateEntityIndexesOncePerBucket() {
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps("auditEntry_2025_03")).thenReturn(indexOperations);
+        AuditBuckets buckets = buckets(Bucketing.MONTHLY);
+
+        buckets.ensureIndexes("auditEntry_2025_03");
+        buckets.ensureIndexes("auditEntry_2025_03");
+        buckets.ensureIndexes("auditEntry");
+
+        verify(indexOperations, times(6)).createIndex(any(IndexDefinition.class));
+        verify(mongoTemplate, times(1)).indexOps(any(String.class));
+    }
+}
@@ -11,15 +11,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Query;
 
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +33,7 @@ class AuditEntryMongoRepositoryImplTest {
 
     private MongoTemplate mongoTemplate;
     private AuditQueryConfiguration auditConfig;
+    private AuditBuckets auditBuckets;
     private AuditEntryMongoRepositoryImpl repository;
 
     @BeforeEach
@@ -37,13 +43,52 @@ class AuditEntryMongoRepositoryImplTest {
         auditConfig.setServiceUserPrefix("service:");
         auditConfig.setHumanUserPrefix("human:");
         auditConfig.setMaxQueryAgeDays(180);
-        repository = new AuditEntryMongoRepositoryImpl(mongoTemplate, auditConfig);
+        auditBuckets = new AuditBuckets(new AuditStorageProperties(), mongoTemplate);
+        repository = new AuditEntryMongoRepositoryImpl(mongoTemplate, auditConfig, auditBuckets);
+    }
+
+    /**
+     * Returns the criteria on the audit entry's own fields, i.e. the first branch of the {@code $or}
+     * that also matches aggregated resources.
+     */
+    private static Document entryFilter(Document queryDoc) {
+        List<?> branches = (List<?>) queryDoc.get("$or");
+        return (Document) branches.get(0);
     }
 
     @Nested
     @DisplayName("findByFilters Tests")
     class FindByFiltersTests {
 
+        @Test
+        @DisplayName("should match aggregated entries whose resources contain the project and resource name")
+        void shouldMatchAggregatedResources_whenProjectIdAndResourceNamePresent() {
+            ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+            when(mongoTemplate.find(any(Query.class), eq(AuditEntryEntity.class)))
+                    .thenReturn(List.of());
+
+            repository.findByFilters(
+                    Optional.of("project-123"),
+                    Optional.of("my-secret"),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    0,
+                    10
+            );
+
+            verify(mongoTemplate).find(queryCaptor.capture(), eq(AuditEntryEntity.class));
+            Document queryDoc = queryCaptor.getValue().getQueryObject();
+
+            List<?> branches = (List<?>) queryDoc.get("$or");
+            assertThat(branches).hasSize(2);
+            assertThat(branches.get(0)).isEqualTo(new Document("projectId", "project-123").append("resourceName", "my-secret"));
+            Document elemMatch = (Document) ((Document) ((Document) branches.get(1)).get("resources")).get("$elemMatch");
+            assertThat(elemMatch).isEqualTo(new Document("projectId", "project-123").append("resourceName", "my-secret"));
+        }
+
         @Test
         @DisplayName("should apply all filters when all parameters are present")
         void shouldApplyAllFilters_whenAllParametersPresent() {
@@ -68,8 +113,8 @@ class AuditEntryMongoRepositoryImplTest {
             Query capturedQuery = queryCaptor.getValue();
             Document queryDoc = capturedQuery.getQueryObject();
 
-            assertThat(queryDoc.get("projectId")).isEqualTo("project-123");
-            assertThat(queryDoc.get("resourceName")).isEqualTo("my-secret");
+            assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-123");
+            assertThat(entryFilter(queryDoc).get("resourceName")).isEqualTo("my-secret");
             assertThat(queryDoc.get("resourceType")).isEqualTo("SECRET");
             assertThat(queryDoc.get("action")).isEqualTo("READ");
             assertThat(queryDoc.containsKey("userId")).isTrue();
@@ -102,7 +147,7 @@ class AuditEntryMongoRepositoryImplTest {
             Query capturedQuery = queryCaptor.getValue();
             Document queryDoc = capturedQuery.getQueryObject();
 
-            assertThat(queryDoc.get("projectId")).isEqualTo("project-123");
+            assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-123");
             assertThat(queryDoc.containsKey("resourceName")).isFalse();
             assertThat(queryDoc.containsKey("resourceType")).isFalse();
             assertThat(queryDoc.containsKey("action")).isFalse();
@@ -383,7 +428,7 @@ class AuditEntryMongoRepositoryImplTest {
                             Optional.empty(),
                             Optional.of(timestamp),
                             (java.util.function.Consumer<Document>) queryDoc -> {
-                                assertThat(queryDoc.get("projectId")).isEqualTo("project-123");
+                                assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-123");
                                 assertThat(queryDoc.get("resourceType")).isEqualTo("SECRET");
                                 assertThat(queryDoc.get("timestamp")).isInstanceOf(Document.class);
                                 assertThat(queryDoc.containsKey("resourceName")).isFalse();
@@ -399,7 +444,7 @@ class AuditEntryMongoRepositoryImplTest {
                             Optional.empty(),
                             Optional.empty(),
                             (java.util.function.Consumer<Document>) queryDoc -> {
-                                assertThat(queryDoc.get("resourceName")).isEqualTo("my-secret");
+                                assertThat(entryFilter(queryDoc).get("resourceName")).isEqualTo("my-secret");
                                 assertThat(queryDoc.get("action")).isEqualTo("READ");
                                 assertThat(queryDoc.containsKey("projectId")).isFalse();
                                 assertThat(queryDoc.containsKey("resourceType")).isFalse();
@@ -415,8 +460,8 @@ class AuditEntryMongoRepositoryImplTest {
                             Optional.empty(),
                             Optional.empty(),
                             (java.util.function.Consumer<Document>) queryDoc -> {
-                                assertThat(queryDoc.get("projectId")).isEqualTo("project-456");
-                                assertThat(queryDoc.get("resourceName")).isEqualTo("secret-xyz");
+                                assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-456");
+                                assertThat(entryFilter(queryDoc).get("resourceName")).isEqualTo("secret-xyz");
                                 assertThat(queryDoc.get("resourceType")).isEqualTo("SECRET_DATA");
                                 assertThat(queryDoc.containsKey("action")).isFalse();
                                 assertThat(queryDoc.containsKey("userId")).isFalse();
@@ -448,7 +493,7 @@ class AuditEntryMongoRepositoryImplTest {
             configWithSpecialChars.setHumanUserPrefix("user+prefix*");
             configWithSpecialChars.setMaxQueryAgeDays(180);
             AuditEntryMongoRepositoryImpl repoWithSpecialChars = 
-                    new AuditEntryMongoRepositoryImpl(mongoTemplate, configWithSpecialChars);
+                    new AuditEntryMongoRepositoryImpl(mongoTemplate, configWithSpecialChars, auditBuckets);
             
             ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
             
@@ -503,8 +548,8 @@ class AuditEntryMongoRepositoryImplTest {
             Query capturedQuery = queryCaptor.getValue();
             Document queryDoc = capturedQuery.getQueryObject();
 
-            assertThat(queryDoc.get("projectId")).isEqualTo("project-123");
-            assertThat(queryDoc.get("resourceName")).isEqualTo("my-secret");
+            assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-123");
+            assertThat(entryFilter(queryDoc).get("resourceName")).isEqualTo("my-secret");
             assertThat(queryDoc.get("resourceType")).isEqualTo("SECRET");
             assertThat(queryDoc.get("action")).isEqualTo("READ");
             assertThat(queryDoc.containsKey("userId")).isTrue();
@@ -534,7 +579,7 @@ class AuditEntryMongoRepositoryImplTest {
             Query capturedQuery = queryCaptor.getValue();
             Document queryDoc = capturedQuery.getQueryObject();
 
-            assertThat(queryDoc.get("projectId")).isEqualTo("project-123");
+            assertThat(entryFilter(queryDoc).get("projectId")).isEqualTo("project-123");
             assertThat(queryDoc.containsKey("resourceName")).isFalse();
             assertThat(queryDoc.containsKey("resourceType")).isFalse();
             assertThat(queryDoc.containsKey("action")).isFalse();
@@ -662,4 +707,95 @@ class AuditEntryMongoRepositoryImplTest {
             assertThat(count).isEqualTo(0L);
         }
     }
+
+    @Nested
+    @DisplayName("Bucketed collections Tests")
+    class BucketedCollectionsTests {
+
+        private AuditEntryMongoRepositoryImpl bucketedRepository;
+        private String currentBucket;
+        private String previousBucket;
+
+        @BeforeEach
+        void setUp() {
+            AuditStorageProperties properties = new AuditStorageProperties();
+            properties.setBucketing(AuditStorageProperties.Bucketing.MONTHLY);
+            properties.setReadLegacyCollection(false);
+            AuditBuckets monthlyBuckets = new AuditBuckets(properties, mongoTemplate);
+            bucketedRepository = new AuditEntryMongoRepositoryImpl(mongoTemplate, auditConfig, monthlyBuckets);
+            currentBucket = monthlyBuckets.collectionFor(Instant.now());
+            previousBucket = monthlyBuckets.collectionFor(Instant.now().atZone(ZoneOffset.UTC).minusMonths(1).toInstant());
+            when(mongoTemplate.indexOps(anyString())).thenReturn(mock(IndexOperations.class));
+        }
+
+        @Test
+        @DisplayName("should insert entries into the bucket of their timestamp and index new buckets once")
+        void shouldInsertIntoBucketOfTimestamp() {
+            AuditEntryEntity current = AuditEntryEntity.builder().timestamp(Instant.now()).build();
+            AuditEntryEntity previous = AuditEntryEntity.builder().timestamp(Instant.now().atZone(ZoneOffset.UTC).minusMonths(1).toInstant()).build();
+            when(mongoTemplate.insert(anyList(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<AuditEntryEntity> saved = bucketedRepository.saveAllToBuckets(List.of(current, previous));
+            bucketedRepository.saveAllToBuckets(List.of(current));
+
+            assertThat(saved).containsExactly(current, previous);
+            verify(mongoTemplate, times(2)).insert(List.of(current), currentBucket);
+            verify(mongoTemplate).insert(List.of(previous), previousBucket);
+            verify(mongoTemplate, times(1)).indexOps(currentBucket);
+            verify(mongoTemplate, never()).insertAll(anyCollection());
+        }
+
+        @Test
+        @DisplayName("should read buckets newest first and skip whole buckets inside the offset")
+        void shouldPaginateAcrossBuckets() {
+            Date afterTimestamp = Date.from(Instant.now().atZone(ZoneOffset.UTC).minusMonths(1).toInstant());
+            AuditEntryEntity fromCurrent = AuditEntryEntity.builder().id("current").build();
+            AuditEntryEntity fromPrevious = AuditEntryEntity.builder().id("previous").build();
+            when(mongoTemplate.count(any(Query.class), eq(AuditEntryEntity.class), eq(currentBucket))).thenReturn(3L);
+            when(mongoTemplate.find(any(Query.class), eq(AuditEntryEntity.class), eq(currentBucket))).thenReturn(List.of(fromCurrent));
+            when(mongoTemplate.find(any(Query.class), eq(AuditEntryEntity.class), eq(previousBucket))).thenReturn(List.of(fromPrevious));
+            ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+            List<AuditEntryEntity> result = bucketedRepository.findByFilters(Optional.of("project-123"), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.of(afterTimestamp), 2, 5);
+
+            assertThat(result).containsExactly(fromCurrent, fromPrevious);
+            verify(mongoTemplate).find(queryCaptor.capture(), eq(AuditEntryEntity.class), eq(currentBucket));
+            assertThat(queryCaptor.getValue().getSkip()).isEqualTo(2);
+            assertThat(queryCaptor.getValue().getLimit()).isEqualTo(5);
+            verify(mongoTemplate).find(queryCaptor.capture(), eq(AuditEntryEntity.class), eq(previousBucket));
+            assertThat(queryCaptor.getValue().getSkip()).isZero();
+            assertThat(queryCaptor.getValue().getLimit()).isEqualTo(4);
+            verify(mongoTemplate, never()).find(any(Query.class), eq(AuditEntryEntity.class));
+        }
+
+        @Test
+        @DisplayName("should not read a bucket whose entries all fall inside the offset")
+        void shouldSkipBucketWithinOffset() {
+            Date afterTimestamp = Date.from(Instant.now().atZone(ZoneOffset.UTC).minusMonths(1).toInstant());
+            when(mongoTemplate.count(any(Query.class), eq(AuditEntryEntity.class), eq(currentBucket))).thenReturn(3L);
+            when(mongoTemplate.count(any(Query.class), eq(AuditEntryEntity.class), eq(previousBucket))).thenReturn(10L);
+            ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+            bucketedRepository.findByFilters(Optional.empty(), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.of(afterTimestamp), 5, 10);
+
+            verify(mongoTemplate, never()).find(any(Query.class), eq(AuditEntryEntity.class), eq(currentBucket));
+            verify(mongoTemplate).find(queryCaptor.capture(), eq(AuditEntryEntity.class), eq(previousBucket));
+            assertThat(queryCaptor.getValue().getSkip()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should sum the counts of all buckets in the queried range")
+        void shouldSumCountsAcrossBuckets() {
+            Date afterTimestamp = Date.from(Instant.now().atZone(ZoneOffset.UTC).minusMonths(1).toInstant());
+            when(mongoTemplate.count(any(Query.class), eq(AuditEntryEntity.class), eq(currentBucket))).thenReturn(3L);
+            when(mongoTemplate.count(any(Query.class), eq(AuditEntryEntity.class), eq(previousBucket))).thenReturn(4L);
+
+            long count = bucketedRepository.countByFilters(Optional.empty(), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.of(afterTimestamp));
+
+            assertThat(count).isEqualTo(7L);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -84,4 +85,11 @@ public class AuditEntry {
      * This can contain resource-specific information and operation details.
      */
     private Map<String, String> metadata;
+
+    /**
+     * The resources covered by this event when it aggregates an operation on many resources
+     * (e.g. a batch read). {@code null} for events on a single resource, which use
+     * {@link #projectId}, {@link #resourceName} and {@link #resourceVersion} instead.
+     */
+    private List<AuditResource> resources;
 }
@@ -0,0 +1,40 @@
+package com.flipkart.grayskull.spi.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A single resource covered by an aggregated {@link AuditEntry}.
+ * Used when one operation touches many resources (e.g. batch reads) so that the operation is recorded once
+ * instead of once per resource.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditResource {
+
+    /**
+     * The identifier of the Project the resource belongs to.
+     */
+    private String projectId;
+
+    /**
+     * The name of the resource. For secrets, this is the secret name.
+     */
+    private String resourceName;
+
+    /**
+     * The version of the resource involved in the action, if applicable.
+     */
+    private Integer resourceVersion;
+
+    /**
+     * Resource specific details, if any.
+     */
+    private Map<String, String> metadata;
+}